@@ -0,0 +1,227 @@
+package algorithm;
+
+import dataTypes.detectionMatrix;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Represents the greedy algorithm for maximum coverage on a {@code detectionMatrix}, with exact marginal gains
+ * kept up to date incrementally.
+ * <p>
+ *     The marginal gain of every column (number of uncovered rows it covers) is kept in an {@code int} array.
+ *     When a column is selected, only the rows it newly covers are walked, and the gain of every other column
+ *     in those rows is decremented; since every row is covered once, all the updates take
+ *     O(number of nonzeros) time in total.
+ *     Unselected columns sit in a bucket queue: one doubly linked list per gain value, with a pointer to
+ *     the largest nonempty bucket, which only moves down.
+ *     The best column is the smallest column in the top bucket, so a selection takes at most O(n) time,
+ *     and {@code k} selections take O(number of nonzeros + n*k) time.
+ * </p>
+ * <p>
+ *     Ties are broken by the smallest column (i.e., the smallest label), as in {@link lazyGreedy},
+ *     so both select the same columns.
+ *     Rows are counted, not weighted: every row has the same weight, as in a matrix built from sample paths.
+ * </p>
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+class bucketGreedy implements coverageGreedy
+{
+	/**
+	 * Detection matrix.
+	 */
+	final detectionMatrix matrix;
+	
+	/**
+	 * Rows covered by the selected columns.
+	 */
+	final BitSet covered;
+	
+	/**
+	 * Number of rows covered by the selected columns.
+	 */
+	int numberOfCoveredRows;
+	
+	/**
+	 * Marginal gain of each column.
+	 */
+	final int[] gains;
+	
+	/**
+	 * {@code true} if a column is selected.
+	 */
+	final boolean[] selected;
+	
+	/**
+	 * {@code heads[g]} is the first column in the bucket of columns with gain {@code g}; -1 if the bucket is empty.
+	 */
+	final int[] heads;
+	
+	/**
+	 * Next column in the bucket of each column; -1 if none.
+	 */
+	final int[] next;
+	
+	/**
+	 * Previous column in the bucket of each column; -1 if none.
+	 */
+	final int[] previous;
+	
+	/**
+	 * No bucket above {@code top} is nonempty.
+	 */
+	int top;
+	
+	/**
+	 * Selected columns, in the order in which they were selected.
+	 */
+	int[] selection;
+	
+	/**
+	 * Number of selected columns.
+	 */
+	int size;
+	
+	/**
+	 * Constructor.
+	 * The gain of every column is the length of its column in the inverted index.
+	 *
+	 * @param matrix detection matrix.
+	 */
+	bucketGreedy(detectionMatrix matrix)
+	{
+		this.matrix = matrix;
+		final int n = matrix.getNumberOfColumns();
+		this.covered = new BitSet(matrix.getNumberOfRows());
+		this.numberOfCoveredRows = 0;
+		this.gains = new int[n];
+		this.selected = new boolean[n];
+		this.next = new int[n];
+		this.previous = new int[n];
+		this.selection = new int[0];
+		this.size = 0;
+		matrix.getRows();
+		int maxGain = 0;
+		for (int j=0; j<n; j++)
+		{
+			gains[j] = matrix.getColumnEnd(j)-matrix.getColumnStart(j);
+			maxGain = Math.max(maxGain, gains[j]);
+		}
+		this.heads = new int[maxGain+1];
+		Arrays.fill(heads, -1);
+		// in decreasing order, so that every bucket starts in increasing order of columns
+		for (int j=n-1; j>=0; j--)
+			link(j);
+		this.top = maxGain;
+	}
+	
+	/**
+	 * Selects columns greedily until {@code k} columns are selected.
+	 * Once all rows are covered, the remaining columns (all with zero gain) are selected by the smallest column.
+	 *
+	 * @param k number of columns; if greater than the number of columns, all columns are selected.
+	 * @return the selected columns, in the order in which they were selected.
+	 */
+	@Override
+	public int[] select(int k)
+	{
+		k = Math.min(k, gains.length);
+		if (selection.length<k)
+			selection = Arrays.copyOf(selection, k);
+		int[] rows = matrix.getRows();
+		int[] columns = matrix.getColumns();
+		while (size<k)
+		{
+			while (heads[top]<0)
+				top--;
+			int best = heads[top];
+			for (int j=next[best]; j>=0; j=next[j])
+				best = Math.min(best, j);
+			unlink(best);
+			selected[best] = true;
+			selection[size++] = best;
+			for (int position=matrix.getColumnStart(best); position<matrix.getColumnEnd(best); position++)
+			{
+				int i = rows[position];
+				if (covered.get(i))
+					continue;
+				covered.set(i);
+				numberOfCoveredRows++;
+				for (int p=matrix.getRowStart(i); p<matrix.getRowEnd(i); p++)
+				{
+					int column = columns[p];
+					if (selected[column])
+						continue;
+					unlink(column);
+					gains[column]--;
+					link(column);
+				}
+			}
+		}
+		return Arrays.copyOf(selection, size);
+	}
+	
+	/**
+	 * Returns the sum of the (current) marginal gains of the {@code k} unselected columns with the largest gains.
+	 * The columns stay unselected.
+	 *
+	 * @param k number of columns.
+	 * @return the sum of the {@code k} largest marginal gains.
+	 */
+	@Override
+	public int sumOfLargestGains(int k)
+	{
+		int sum = 0;
+		int count = 0;
+		for (int gain=top; (gain>0) && (count<k); gain--)
+		{
+			for (int j=heads[gain]; (j>=0) && (count<k); j=next[j])
+			{
+				sum += gain;
+				count++;
+			}
+		}
+		return sum;
+	}
+	
+	/**
+	 * Getter.
+	 *
+	 * @return {@code numberOfCoveredRows}.
+	 */
+	@Override
+	public int getNumberOfCoveredRows()
+	{
+		return numberOfCoveredRows;
+	}
+	
+	/**
+	 * Adds a column at the front of the bucket of its gain.
+	 *
+	 * @param column column.
+	 */
+	private void link(int column)
+	{
+		int head = heads[gains[column]];
+		previous[column] = -1;
+		next[column] = head;
+		if (head>=0)
+			previous[head] = column;
+		heads[gains[column]] = column;
+	}
+	
+	/**
+	 * Removes a column from the bucket of its gain.
+	 *
+	 * @param column column.
+	 */
+	private void unlink(int column)
+	{
+		if (previous[column]>=0)
+			next[previous[column]] = next[column];
+		else
+			heads[gains[column]] = next[column];
+		if (next[column]>=0)
+			previous[next[column]] = previous[column];
+	}
+}
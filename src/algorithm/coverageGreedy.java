@@ -0,0 +1,33 @@
+package algorithm;
+
+/**
+ * Represents a greedy algorithm for maximum coverage on a {@code detectionMatrix}:
+ * at each step, the column that covers the most uncovered rows is selected (ties are broken by the smallest column).
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+interface coverageGreedy
+{
+	/**
+	 * Selects columns greedily until {@code k} columns are selected.
+	 *
+	 * @param k number of columns; if greater than the number of columns, all columns are selected.
+	 * @return the selected columns, in the order in which they were selected.
+	 */
+	int[] select(int k);
+	
+	/**
+	 * Returns the sum of the (current) marginal gains of the {@code k} unselected columns with the largest gains.
+	 * The columns stay unselected.
+	 *
+	 * @param k number of columns.
+	 * @return the sum of the {@code k} largest marginal gains.
+	 */
+	int sumOfLargestGains(int k);
+	
+	/**
+	 * Returns the number of rows covered by the selected columns.
+	 *
+	 * @return the number of covered rows.
+	 */
+	int getNumberOfCoveredRows();
+}
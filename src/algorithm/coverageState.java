@@ -0,0 +1,301 @@
+package algorithm;
+
+import dataTypes.detectionMatrix;
+
+import java.util.Arrays;
+
+/**
+ * Represents a set of selected columns of a {@code detectionMatrix} with incremental coverage counts,
+ * for searches that move from one set of columns to another (swaps, additions and removals).
+ * <p>
+ *     For every row, the number of selected columns that cover it, and the XOR of these columns
+ *     (which is the covering column when the row is covered exactly once) are kept;
+ *     for every selected column, the number of rows covered by this column only ("uniquely covered" rows)
+ *     is kept.
+ *     Adding or removing a column walks the rows of the column once.
+ *     The loss of removing a selected column is then its number of uniquely covered rows, and
+ *     the change of a swap is
+ *     (uncovered rows of the added column) + (rows of the added column covered only by the removed column)
+ *     - (uniquely covered rows of the removed column).
+ *     After one walk over the rows of the added column (see {@link coverageState#scanSwaps(int)}),
+ *     the change of the swap with each selected column is computed in O(1).
+ * </p>
+ * <p>
+ *     Rows are counted, not weighted: every row has the same weight, as in a matrix built from sample paths.
+ * </p>
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+class coverageState
+{
+	/**
+	 * Detection matrix.
+	 */
+	final detectionMatrix matrix;
+	
+	/**
+	 * Number of selected columns that cover each row.
+	 */
+	final int[] coverCount;
+	
+	/**
+	 * XOR of the selected columns that cover each row.
+	 */
+	final int[] coverXor;
+	
+	/**
+	 * Number of rows covered by each selected column only (0 for unselected columns).
+	 */
+	final int[] uniquelyCovered;
+	
+	/**
+	 * Number of rows covered by the selected columns.
+	 */
+	int numberOfCoveredRows;
+	
+	/**
+	 * Selected columns, in {@code selection[0]}, ..., {@code selection[size-1]}.
+	 */
+	int[] selection;
+	
+	/**
+	 * Number of selected columns.
+	 */
+	int size;
+	
+	/**
+	 * Position of each selected column in {@code selection}; -1 for unselected columns.
+	 */
+	final int[] position;
+	
+	/**
+	 * Rows of the column of the last scan that are covered only by each selected column
+	 * (see {@link coverageState#scanSwaps(int)}).
+	 */
+	final int[] coveredOnlyBy;
+	
+	/**
+	 * Uncovered rows of the column of the last scan.
+	 */
+	int uncoveredInScan;
+	
+	/**
+	 * Constructor.
+	 *
+	 * @param matrix detection matrix
+	 * @param columns columns selected initially (distinct).
+	 */
+	coverageState(detectionMatrix matrix, int[] columns)
+	{
+		this.matrix = matrix;
+		matrix.getRows();
+		final int n = matrix.getNumberOfColumns();
+		this.coverCount = new int[matrix.getNumberOfRows()];
+		this.coverXor = new int[matrix.getNumberOfRows()];
+		this.uniquelyCovered = new int[n];
+		this.numberOfCoveredRows = 0;
+		this.selection = new int[Math.max(1, columns.length)];
+		this.size = 0;
+		this.position = new int[n];
+		Arrays.fill(position, -1);
+		this.coveredOnlyBy = new int[n];
+		for (int column: columns)
+			add(column);
+	}
+	
+	/**
+	 * Constructor; a copy of another state.
+	 *
+	 * @param other state to copy.
+	 */
+	coverageState(coverageState other)
+	{
+		this.matrix = other.matrix;
+		this.coverCount = other.coverCount.clone();
+		this.coverXor = other.coverXor.clone();
+		this.uniquelyCovered = other.uniquelyCovered.clone();
+		this.numberOfCoveredRows = other.numberOfCoveredRows;
+		this.selection = other.selection.clone();
+		this.size = other.size;
+		this.position = other.position.clone();
+		this.coveredOnlyBy = new int[other.coveredOnlyBy.length];
+	}
+	
+	/**
+	 * Getter.
+	 *
+	 * @return {@code numberOfCoveredRows}.
+	 */
+	int getNumberOfCoveredRows()
+	{
+		return numberOfCoveredRows;
+	}
+	
+	/**
+	 * Returns the selected columns.
+	 *
+	 * @return a copy of the selected columns.
+	 */
+	int[] getSelection()
+	{
+		return Arrays.copyOf(selection, size);
+	}
+	
+	/**
+	 * Checks if a column is selected.
+	 *
+	 * @param column column.
+	 * @return {@code true}, if {@code column} is selected; {@code false}, otherwise.
+	 */
+	boolean isSelected(int column)
+	{
+		return position[column]>=0;
+	}
+	
+	/**
+	 * Returns the number of rows that would be uncovered if a selected column were removed.
+	 *
+	 * @param column selected column.
+	 * @return the number of rows covered by {@code column} only.
+	 */
+	int loss(int column)
+	{
+		return uniquelyCovered[column];
+	}
+	
+	/**
+	 * Evaluates the number of rows that would be covered in addition if a column were added.
+	 *
+	 * @param column unselected column.
+	 * @return the number of uncovered rows in {@code column}.
+	 */
+	int gain(int column)
+	{
+		int[] rows = matrix.getRows();
+		int gain = 0;
+		for (int p=matrix.getColumnStart(column); p<matrix.getColumnEnd(column); p++)
+			if (coverCount[rows[p]]==0)
+				gain++;
+		return gain;
+	}
+	
+	/**
+	 * Walks the rows of an unselected column, so that the change of the swap of any selected column with it
+	 * is given by {@link coverageState#swapDelta(int)} in O(1).
+	 *
+	 * @param column unselected column to be added.
+	 * @return the number of uncovered rows in {@code column}.
+	 */
+	int scanSwaps(int column)
+	{
+		for (int t=0; t<size; t++)
+			coveredOnlyBy[selection[t]] = 0;
+		int[] rows = matrix.getRows();
+		uncoveredInScan = 0;
+		for (int p=matrix.getColumnStart(column); p<matrix.getColumnEnd(column); p++)
+		{
+			int row = rows[p];
+			if (coverCount[row]==0)
+				uncoveredInScan++;
+			else if (coverCount[row]==1)
+				coveredOnlyBy[coverXor[row]]++;
+		}
+		return uncoveredInScan;
+	}
+	
+	/**
+	 * Returns the change in the number of covered rows if a selected column were swapped with the column
+	 * of the last call of {@link coverageState#scanSwaps(int)} (with no moves in between).
+	 *
+	 * @param removed selected column to be removed.
+	 * @return the change in the number of covered rows.
+	 */
+	int swapDelta(int removed)
+	{
+		return uncoveredInScan+coveredOnlyBy[removed]-uniquelyCovered[removed];
+	}
+	
+	/**
+	 * Selects a column.
+	 *
+	 * @param column unselected column.
+	 */
+	void add(int column)
+	{
+		if (size==selection.length)
+			selection = Arrays.copyOf(selection, 2*size);
+		position[column] = size;
+		selection[size++] = column;
+		int[] rows = matrix.getRows();
+		for (int p=matrix.getColumnStart(column); p<matrix.getColumnEnd(column); p++)
+		{
+			int row = rows[p];
+			int count = ++coverCount[row];
+			if (count==1)
+			{
+				numberOfCoveredRows++;
+				uniquelyCovered[column]++;
+			}
+			else if (count==2)
+				uniquelyCovered[coverXor[row]]--;
+			coverXor[row] ^= column;
+		}
+	}
+	
+	/**
+	 * Unselects a column.
+	 *
+	 * @param column selected column.
+	 */
+	void remove(int column)
+	{
+		int t = position[column];
+		selection[t] = selection[--size];
+		position[selection[t]] = t;
+		position[column] = -1;
+		int[] rows = matrix.getRows();
+		for (int p=matrix.getColumnStart(column); p<matrix.getColumnEnd(column); p++)
+		{
+			int row = rows[p];
+			coverXor[row] ^= column;
+			int count = --coverCount[row];
+			if (count==0)
+				numberOfCoveredRows--;
+			else if (count==1)
+				uniquelyCovered[coverXor[row]]++;
+		}
+		uniquelyCovered[column] = 0;
+	}
+	
+	/**
+	 * Swaps a selected column with an unselected column.
+	 *
+	 * @param removed selected column
+	 * @param added unselected column.
+	 */
+	void swap(int removed, int added)
+	{
+		remove(removed);
+		add(added);
+	}
+	
+	/**
+	 * Returns the sum of the marginal gains of the {@code k} unselected columns with the largest gains.
+	 *
+	 * @param k number of columns.
+	 * @return the sum of the {@code k} largest marginal gains.
+	 */
+	int sumOfLargestGains(int k)
+	{
+		int n = matrix.getNumberOfColumns();
+		int[] gains = new int[n-size];
+		int t = 0;
+		for (int column=0; column<n; column++)
+			if (!isSelected(column))
+				gains[t++] = gain(column);
+		Arrays.sort(gains);
+		int sum = 0;
+		for (t=gains.length-1; t>=Math.max(0, gains.length-k); t--)
+			sum += gains[t];
+		return sum;
+	}
+}
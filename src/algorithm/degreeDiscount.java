@@ -5,6 +5,7 @@ import dataTypes.algorithmOutput;
 import dataTypes.parameters;
 import helper.commonMethods;
 import network.graph;
+import network.indexedGraph;
 import org.javatuples.Sextet;
 import simulation.simulationRuns;
 
@@ -147,6 +148,12 @@ public class degreeDiscount
 	/**
 	 * Find the k highest degree nodes after single discount to use as honeypots
 	 * and evaluates the objective value, upper bounds and execution time.
+	 * <p>
+	 *     The discounted degrees are kept in an indexed max-heap, and the nodes are selected once for the
+	 *     largest number of honeypots in {@code listOfParams}; the honeypots for a smaller number are the
+	 *     first nodes selected.
+	 *     Ties are broken by the smallest label.
+	 * </p>
 	 *
 	 * @param g network graph
 	 * @param simulationResults results of simulation as an instance of {@code simulationRuns}
@@ -175,19 +182,60 @@ public class degreeDiscount
 				throw new Exception("Node labels are negative integers!");
 		}
 		double q = 0.01;   // parameter
+		int maxK = 0;
+		for (parameters param: listOfParams)
+		{
+			if (!param.getNetworkName().equals(g.getNetworkName()))
+				throw new Exception("Parameters are for a different network than that has been provided as input!");
+			if (param.getNumberOfHoneypots()>g.getVertexSet().size())
+				throw new Exception("Number of honeypots cannot be greater than the number of nodes!");
+			maxK = Math.max(maxK, param.getNumberOfHoneypots());
+		}
 		Instant tic = Instant.now();
-		Map<Integer, List<Integer>> neighbors = g.getNeighbors();
+		indexedGraph h = new indexedGraph(g);
 		Instant toc = Instant.now();
 		double commonWallTimeInSeconds = 1.0* Duration.between(tic, toc).toMillis()/1000;
+		
+		// selection is prefix-consistent: the first k nodes selected for the largest k are the k nodes for any k,
+		// so the nodes are selected once, and the time to select the first k nodes is recorded for every k
+		tic = Instant.now();
+		final int n = h.getNumberOfNodes();
+		// discounted degrees, initialized with the degrees
+		double[] degreesOfNodes = new double[n];
+		for (int i=0; i<n; i++)
+			degreesOfNodes[i] = h.getDegree(i);
+		indexedMaxHeap heap = new indexedMaxHeap(degreesOfNodes);
+		// t_v
+		int[] numOfNeighborsSelected = new int[n];
+		boolean[] selected = new boolean[n];
+		int[] selectedNodes = new int[maxK];
+		double[] wallTimeToSelectInSeconds = new double[maxK+1];
+		for (int s=0; s<maxK; s++)
+		{
+			// pick the highest discounted degree node (ties are broken by the smallest label)
+			int selectedNode = heap.poll();
+			selected[selectedNode] = true;
+			selectedNodes[s] = h.getLabel(selectedNode);
+			// update degrees and t_v of neighbors not selected so far
+			for (int j=0; j<h.getDegree(selectedNode); j++)
+			{
+				int neighbor = h.getNeighbor(selectedNode, j);
+				if (selected[neighbor])
+					continue;
+				int t = ++numOfNeighborsSelected[neighbor];
+				double degree = heap.getKey(neighbor);
+				double discount = 2*t + q*t*(degree-t);
+				heap.update(neighbor, degree-discount);
+			}
+			toc = Instant.now();
+			wallTimeToSelectInSeconds[s+1] = 1.0*Duration.between(tic, toc).toMillis()/1000;
+		}
+		
 		for (parameters param: listOfParams)
 		{
 			String modelName = param.getSpreadModelName();
 			String networkName = param.getNetworkName();
-			if (!networkName.equals(g.getNetworkName()))
-				throw new Exception("Parameters are for a different network than that has been provided as input!");
 			int k = param.getNumberOfHoneypots();
-			if (k>g.getVertexSet().size())
-				throw new Exception("Number of honeypots cannot be greater than the number of nodes!");
 			int t_0 = param.getTimeStep();
 			int run = param.getNumberOfSimulationRepetitions();
 			double r = param.getFalseNegativeProbability();
@@ -195,38 +243,10 @@ public class degreeDiscount
 			System.out.println("Finding "+k+" highest degree single discount nodes: "+networkName+"network; "
 					+t_0+" time step(s); "
 					+run+" samples; false negative probability="+r+"; transmissability (p)="+p);
-			tic = Instant.now();
-			List<Integer> honeypots = new ArrayList<>();
-			// find the degrees of the nodes
-			Map<Integer, Double> degreesOfNodes = g.getVertexSet().stream()
-						.collect(Collectors.toMap(
-								node -> node, e -> (double)g.getDegreeOfNode(e), (a, b) -> b));
-			// initialize t_v with 0
-			Map<Integer, Integer> numOfNeighborsSelected = g.getVertexSet().stream()
-									.mapToInt(node -> node).boxed()
-									.collect(Collectors.toMap(node -> node, node -> 0, (a, b) -> b));
-			while (honeypots.size()<k)
-			{
-				// pick the highest discounted degree node
-				int selectedNode = degreesOfNodes.keySet().stream()
-						.max(Comparator.comparingDouble(degreesOfNodes::get)).orElseThrow();
-				// remove it and add it to honeypot
-				degreesOfNodes.remove(selectedNode);
-				honeypots.add(selectedNode);
-				// update degrees and t_v of neighbors not selected so far
-				List<Integer> updateNodeList = new ArrayList<>(neighbors.get(selectedNode));
-				updateNodeList.removeAll(honeypots);
-				for (int neighbor: updateNodeList)
-				{
-					numOfNeighborsSelected.put(neighbor, numOfNeighborsSelected.get(neighbor)+1);
-					double discount = 2*numOfNeighborsSelected.get(neighbor)
-							+ q*numOfNeighborsSelected.get(neighbor)
-							*(degreesOfNodes.get(neighbor)-numOfNeighborsSelected.get(neighbor));
-					degreesOfNodes.put(neighbor, degreesOfNodes.get(neighbor)-discount);
-				}
-			}
-			toc = Instant.now();
-			double wallTimeInSeconds = 1.0*Duration.between(tic, toc).toMillis()/1000;
+			List<Integer> honeypots = new ArrayList<>(k);
+			for (int s=0; s<k; s++)
+				honeypots.add(selectedNodes[s]);
+			double wallTimeInSeconds = wallTimeToSelectInSeconds[k];
 			
 			// find objective value
 			Sextet<String, String, Integer, Integer, Double, Double> key =
@@ -0,0 +1,177 @@
+package algorithm;
+
+/**
+ * Represents a binary max-heap of the ids 0, ..., n-1 keyed by a {@code double} per id,
+ * with an index from each id to its position in the heap, so that the key of any id can be changed
+ * (decreased or increased) in O(log n).
+ * Ties are broken by the smallest id.
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+class indexedMaxHeap
+{
+	/**
+	 * Key of each id.
+	 */
+	final double[] keys;
+	
+	/**
+	 * Ids in heap order, in {@code heap[0]}, ..., {@code heap[size-1]}.
+	 */
+	final int[] heap;
+	
+	/**
+	 * Position of each id in {@code heap}; -1 if the id has been removed.
+	 */
+	final int[] position;
+	
+	/**
+	 * Number of ids in the heap.
+	 */
+	int size;
+	
+	/**
+	 * Constructor; the heap holds all the ids, and is built in O(n).
+	 *
+	 * @param keys key of each id (the array is copied).
+	 */
+	indexedMaxHeap(double[] keys)
+	{
+		this.keys = keys.clone();
+		this.size = keys.length;
+		this.heap = new int[size];
+		this.position = new int[size];
+		for (int id=0; id<size; id++)
+		{
+			heap[id] = id;
+			position[id] = id;
+		}
+		for (int i=size/2-1; i>=0; i--)
+			siftDown(i);
+	}
+	
+	/**
+	 * Checks if the heap is empty.
+	 *
+	 * @return {@code true}, if the heap is empty; {@code false}, otherwise.
+	 */
+	boolean isEmpty()
+	{
+		return size==0;
+	}
+	
+	/**
+	 * Checks if an id is in the heap.
+	 *
+	 * @param id id.
+	 * @return {@code true}, if {@code id} has not been removed; {@code false}, otherwise.
+	 */
+	boolean contains(int id)
+	{
+		return position[id]>=0;
+	}
+	
+	/**
+	 * Returns the key of an id.
+	 *
+	 * @param id id.
+	 * @return key of {@code id}.
+	 */
+	double getKey(int id)
+	{
+		return keys[id];
+	}
+	
+	/**
+	 * Removes the id with the largest key (the smallest such id, in case of ties).
+	 *
+	 * @return the removed id.
+	 */
+	int poll()
+	{
+		int top = heap[0];
+		position[top] = -1;
+		size--;
+		if (size>0)
+		{
+			heap[0] = heap[size];
+			position[heap[0]] = 0;
+			siftDown(0);
+		}
+		return top;
+	}
+	
+	/**
+	 * Changes the key of an id in the heap.
+	 *
+	 * @param id id in the heap
+	 * @param key new key of {@code id}.
+	 */
+	void update(int id, double key)
+	{
+		double oldKey = keys[id];
+		keys[id] = key;
+		if (key>oldKey)
+			siftUp(position[id]);
+		else
+			siftDown(position[id]);
+	}
+	
+	/**
+	 * Checks if an id should be above another id in the heap.
+	 *
+	 * @param a id
+	 * @param b id.
+	 * @return {@code true}, if the key of {@code a} is larger, or if the keys are equal and {@code a<b};
+	 *  {@code false}, otherwise.
+	 */
+	private boolean above(int a, int b)
+	{
+		return (keys[a]>keys[b]) || ((keys[a]==keys[b]) && (a<b));
+	}
+	
+	/**
+	 * Moves the id at a position up until the heap order holds.
+	 *
+	 * @param i position in {@code heap}.
+	 */
+	private void siftUp(int i)
+	{
+		int id = heap[i];
+		while (i>0)
+		{
+			int parent = (i-1) >>> 1;
+			if (!above(id, heap[parent]))
+				break;
+			heap[i] = heap[parent];
+			position[heap[i]] = i;
+			i = parent;
+		}
+		heap[i] = id;
+		position[id] = i;
+	}
+	
+	/**
+	 * Moves the id at a position down until the heap order holds.
+	 *
+	 * @param i position in {@code heap}.
+	 */
+	private void siftDown(int i)
+	{
+		int id = heap[i];
+		while (true)
+		{
+			int child = 2*i+1;
+			if (child>=size)
+				break;
+			if ((child+1<size) && above(heap[child+1], heap[child]))
+				child++;
+			if (!above(heap[child], id))
+				break;
+			heap[i] = heap[child];
+			position[heap[i]] = i;
+			i = child;
+		}
+		heap[i] = id;
+		position[id] = i;
+	}
+}
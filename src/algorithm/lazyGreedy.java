@@ -0,0 +1,192 @@
+package algorithm;
+
+import dataTypes.detectionMatrix;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.PriorityQueue;
+
+/**
+ * Represents the lazy greedy algorithm (CELF) for maximum coverage on a {@code detectionMatrix}:
+ * at each step, the column that covers the most uncovered rows is selected.
+ * <p>
+ *     Every column sits in a priority queue keyed by its marginal gain (number of uncovered rows it covers)
+ *     at the time the gain was last evaluated.
+ *     Since gains can only decrease as rows get covered, a stale gain is an upper bound on the current gain;
+ *     so, if the column at the top of the queue was evaluated after the last selection, it is the best column.
+ *     Otherwise, its gain is re-evaluated (by a walk over the rows of the column in the inverted index,
+ *     against a bit set of covered rows), and it is put back in the queue.
+ *     Typically, only a few columns are re-evaluated per selection.
+ * </p>
+ * <p>
+ *     Ties are broken by the smallest column (i.e., the smallest label).
+ *     Rows are counted, not weighted: every row has the same weight, as in a matrix built from sample paths.
+ * </p>
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+class lazyGreedy implements coverageGreedy
+{
+	/**
+	 * Detection matrix.
+	 */
+	final detectionMatrix matrix;
+	
+	/**
+	 * Rows covered by the selected columns.
+	 */
+	final BitSet covered;
+	
+	/**
+	 * Number of rows covered by the selected columns.
+	 */
+	int numberOfCoveredRows;
+	
+	/**
+	 * Marginal gain of each column, when it was last evaluated.
+	 */
+	final int[] gains;
+	
+	/**
+	 * Number of selected columns when the gain of each column was last evaluated.
+	 */
+	final int[] evaluatedAt;
+	
+	/**
+	 * Selected columns, in the order in which they were selected.
+	 */
+	int[] selection;
+	
+	/**
+	 * Number of selected columns.
+	 */
+	int size;
+	
+	/**
+	 * Unselected columns, in decreasing order of (possibly stale) gains, and increasing order of columns for ties.
+	 */
+	final PriorityQueue<Integer> queue;
+	
+	/**
+	 * Constructor.
+	 * The gain of every column is evaluated once, from the length of its column in the inverted index.
+	 *
+	 * @param matrix detection matrix.
+	 */
+	lazyGreedy(detectionMatrix matrix)
+	{
+		this.matrix = matrix;
+		final int n = matrix.getNumberOfColumns();
+		this.covered = new BitSet(matrix.getNumberOfRows());
+		this.numberOfCoveredRows = 0;
+		this.gains = new int[n];
+		this.evaluatedAt = new int[n];
+		this.selection = new int[0];
+		this.size = 0;
+		this.queue = new PriorityQueue<>(Math.max(1, n), (a, b) -> (gains[a]!=gains[b])
+															? Integer.compare(gains[b], gains[a]) : Integer.compare(a, b));
+		matrix.getRows();
+		for (int j=0; j<n; j++)
+		{
+			gains[j] = matrix.getColumnEnd(j)-matrix.getColumnStart(j);
+			queue.add(j);
+		}
+	}
+	
+	/**
+	 * Selects columns greedily until {@code k} columns are selected.
+	 * Once all rows are covered, the remaining columns (all with zero gain) are selected by the smallest column.
+	 *
+	 * @param k number of columns; if greater than the number of columns, all columns are selected.
+	 * @return the selected columns, in the order in which they were selected.
+	 */
+	@Override
+	public int[] select(int k)
+	{
+		k = Math.min(k, gains.length);
+		if (selection.length<k)
+			selection = Arrays.copyOf(selection, k);
+		while (size<k)
+		{
+			int best = pollBest();
+			selection[size++] = best;
+			int[] rows = matrix.getRows();
+			for (int position=matrix.getColumnStart(best); position<matrix.getColumnEnd(best); position++)
+			{
+				if (!covered.get(rows[position]))
+				{
+					covered.set(rows[position]);
+					numberOfCoveredRows++;
+				}
+			}
+		}
+		return Arrays.copyOf(selection, size);
+	}
+	
+	/**
+	 * Returns the sum of the (current) marginal gains of the {@code k} unselected columns with the largest gains.
+	 * The columns stay unselected.
+	 *
+	 * @param k number of columns.
+	 * @return the sum of the {@code k} largest marginal gains.
+	 */
+	@Override
+	public int sumOfLargestGains(int k)
+	{
+		int[] best = new int[Math.min(k, queue.size())];
+		int sum = 0;
+		for (int i=0; i<best.length; i++)
+		{
+			best[i] = pollBest();
+			sum += gains[best[i]];
+		}
+		for (int column: best)
+			queue.add(column);
+		return sum;
+	}
+	
+	/**
+	 * Getter.
+	 *
+	 * @return {@code numberOfCoveredRows}.
+	 */
+	@Override
+	public int getNumberOfCoveredRows()
+	{
+		return numberOfCoveredRows;
+	}
+	
+	/**
+	 * Removes the unselected column with the largest current gain from the queue,
+	 * re-evaluating stale gains at the top of the queue as needed.
+	 *
+	 * @return the column; its gain in {@code gains} is up to date.
+	 */
+	private int pollBest()
+	{
+		while (true)
+		{
+			int column = queue.poll();
+			if (evaluatedAt[column]==size)
+				return column;
+			gains[column] = evaluate(column);
+			evaluatedAt[column] = size;
+			queue.add(column);
+		}
+	}
+	
+	/**
+	 * Evaluates the marginal gain of a column.
+	 *
+	 * @param column column.
+	 * @return the number of uncovered rows in {@code column}.
+	 */
+	private int evaluate(int column)
+	{
+		int[] rows = matrix.getRows();
+		int gain = 0;
+		for (int position=matrix.getColumnStart(column); position<matrix.getColumnEnd(column); position++)
+			if (!covered.get(rows[position]))
+				gain++;
+		return gain;
+	}
+}
@@ -0,0 +1,596 @@
+package algorithm;
+
+import dataTypes.algorithmOutput;
+import dataTypes.detectionMatrix;
+import dataTypes.parameters;
+import helper.commonMethods;
+import network.graph;
+import org.javatuples.Sextet;
+import simulation.simulationRuns;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Represents results of metaheuristic searches (simulated annealing or tabu search) over sets of honeypots
+ * on {@code simulationRuns}.
+ * <p>
+ *     A solution is a set of {@code k} nodes, and a move swaps a honeypot with a node that is not a honeypot;
+ *     the number of covered rows of the successful detection matrix is kept incrementally by a
+ *     {@link coverageState}, so the change of a move is computed in O(1) after a walk over the rows of the
+ *     added node.
+ * </p>
+ * <ul>
+ *     <li>Simulated annealing: at each iteration, a random node and a random honeypot are drawn;
+ *     the swap is made if it does not decrease the number of covered rows, and otherwise w.p.
+ *     {@code exp(change/temperature)}.
+ *     The temperature (in rows) decreases geometrically from the initial to the final temperature over the
+ *     time budget of a start.</li>
+ *     <li>Tabu search: at each iteration, the best swap is made (ties are broken at random), even if it
+ *     decreases the number of covered rows; a swapped node cannot be swapped again for {@code tenure}
+ *     iterations, unless the swap gives a better solution than the best one found (aspiration).</li>
+ * </ul>
+ * <p>
+ *     Several starts, each from a random set of honeypots and with its own random number generator
+ *     (split from {@code seed} in the order of the starts), run in parallel, each for the same time budget;
+ *     the best solution over the starts is reported.
+ *     For each start, the time to reach a target objective value (for example, the objective value of
+ *     {@link nodeInMaxRowsGreedyHeuristic} or of the MIP solved by {@code gurobiSolver} on the same samples)
+ *     is recorded.
+ *     Since the searches stop on a time budget, results can depend on the speed of the machine.
+ * </p>
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+public class metaheuristicSearch
+{
+	/**
+	 * A map from {@code parameters} to {@code algorithmOutput}.
+	 * Basically, stores the outputs for different input parameters.
+	 * <p>
+	 *     Parameters: (model (TN11C, RAEPC, etc.), network name, time step, repetitions,
+	 *     false negative probability, transmissability (p), number of honeypots).
+	 * </p>
+	 * <p>
+	 *     Algorithm output: best objective value over the starts, honeypot, wall time (of all the starts),
+	 *     a priori upper bound (NaN, since there is no a priori guarantee), and posterior upper bound.
+	 * </p>
+	 */
+	Map<parameters, algorithmOutput> outputMap;
+	
+	/**
+	 * A map from {@code parameters} to the time (in seconds) each start took to reach the target objective value
+	 * (NaN, if the start did not reach it, or if there is no target for the parameters).
+	 */
+	Map<parameters, List<Double>> mapParamsToTimesToTarget;
+	
+	/**
+	 * Target objective values used for the times to target.
+	 */
+	Map<parameters, Double> targets;
+	
+	/**
+	 * Metaheuristic: "annealing" (default) or "tabu".
+	 */
+	String method = "annealing";
+	
+	/**
+	 * Initial temperature (in rows) of simulated annealing; 2 by default.
+	 */
+	double initialTemperature = 2;
+	
+	/**
+	 * Final temperature (in rows) of simulated annealing; 0.05 by default.
+	 */
+	double finalTemperature = 0.05;
+	
+	/**
+	 * Number of iterations for which a swapped node cannot be swapped again in tabu search; 10 by default.
+	 */
+	int tenure = 10;
+	
+	/**
+	 * Number of starts; 8 by default.
+	 */
+	int numberOfStarts = 8;
+	
+	/**
+	 * Time budget (in seconds) of each start; 10 by default.
+	 */
+	double timeInSecondsPerStart = 10;
+	
+	/**
+	 * Seed of the random number generators of the starts.
+	 */
+	long seed;
+	
+	/**
+	 * Result of a start.
+	 */
+	private static class startResult
+	{
+		/**
+		 * Best set of columns found.
+		 */
+		final int[] bestColumns;
+		
+		/**
+		 * Number of rows covered by {@code bestColumns}.
+		 */
+		final int bestCoveredRows;
+		
+		/**
+		 * Time (in seconds) to reach the target number of covered rows; NaN, if not reached.
+		 */
+		final double timeToTarget;
+		
+		/**
+		 * Number of iterations.
+		 */
+		final long iterations;
+		
+		/**
+		 * Constructor.
+		 *
+		 * @param bestColumns best set of columns found
+		 * @param bestCoveredRows number of rows covered by {@code bestColumns}
+		 * @param timeToTarget time (in seconds) to reach the target number of covered rows; NaN, if not reached
+		 * @param iterations number of iterations.
+		 */
+		startResult(int[] bestColumns, int bestCoveredRows, double timeToTarget, long iterations)
+		{
+			this.bestColumns = bestColumns;
+			this.bestCoveredRows = bestCoveredRows;
+			this.timeToTarget = timeToTarget;
+			this.iterations = iterations;
+		}
+	}
+	
+	/**
+	 * Constructor.
+	 */
+	public metaheuristicSearch()
+	{
+		this(new HashMap<>());
+	}
+	
+	/**
+	 * Constructor.
+	 *
+	 * @param outputMap an instance of {@code outputMap}.
+	 */
+	public metaheuristicSearch(Map<parameters, algorithmOutput> outputMap)
+	{
+		this.outputMap = outputMap;
+		this.mapParamsToTimesToTarget = new HashMap<>();
+		this.targets = new HashMap<>();
+	}
+	
+	/**
+	 * Getter.
+	 *
+	 * @return {@code outputMap}.
+	 */
+	public Map<parameters, algorithmOutput> getOutputMap()
+	{
+		return outputMap;
+	}
+	
+	/**
+	 * Getter.
+	 *
+	 * @return {@code mapParamsToTimesToTarget}.
+	 */
+	public Map<parameters, List<Double>> getMapParamsToTimesToTarget()
+	{
+		return mapParamsToTimesToTarget;
+	}
+	
+	/**
+	 * Setter.
+	 *
+	 * @param targets target objective values (for example, the objective values of the greedy heuristic
+	 *                or of the MIP for the same parameters).
+	 */
+	public void setTargets(Map<parameters, Double> targets)
+	{
+		this.targets = targets;
+	}
+	
+	/**
+	 * Selects simulated annealing, and sets its temperatures.
+	 *
+	 * @param initialTemperature initial temperature (in rows)
+	 * @param finalTemperature final temperature (in rows).
+	 * @throws Exception thrown if a temperature is not positive,
+	 *  or if {@code finalTemperature>initialTemperature}.
+	 */
+	public void setSimulatedAnnealing(double initialTemperature, double finalTemperature) throws Exception
+	{
+		if ((finalTemperature<=0) || (finalTemperature>initialTemperature))
+			throw new Exception("Invalid temperatures!");
+		this.method = "annealing";
+		this.initialTemperature = initialTemperature;
+		this.finalTemperature = finalTemperature;
+	}
+	
+	/**
+	 * Selects tabu search, and sets its tenure.
+	 *
+	 * @param tenure number of iterations for which a swapped node cannot be swapped again.
+	 * @throws Exception thrown if {@code tenure<0}.
+	 */
+	public void setTabuSearch(int tenure) throws Exception
+	{
+		if (tenure<0)
+			throw new Exception("Tenure cannot be negative!");
+		this.method = "tabu";
+		this.tenure = tenure;
+	}
+	
+	/**
+	 * Sets the starts.
+	 *
+	 * @param numberOfStarts number of starts
+	 * @param timeInSecondsPerStart time budget (in seconds) of each start
+	 * @param seed seed of the random number generators of the starts.
+	 * @throws Exception thrown if {@code numberOfStarts<1}, or if {@code timeInSecondsPerStart<=0}.
+	 */
+	public void setStarts(int numberOfStarts, double timeInSecondsPerStart, long seed) throws Exception
+	{
+		if (numberOfStarts<1)
+			throw new Exception("Invalid number of starts!");
+		if (timeInSecondsPerStart<=0)
+			throw new Exception("Time budget should be positive!");
+		this.numberOfStarts = numberOfStarts;
+		this.timeInSecondsPerStart = timeInSecondsPerStart;
+		this.seed = seed;
+	}
+	
+	/**
+	 * Returns a string representation of the object.
+	 *
+	 * @return a string representation of the object.
+	 */
+	@Override
+	public String toString()
+	{
+		StringBuilder str = new StringBuilder(1000);
+		str.append("Metaheuristic search (").append(method).append("; ").append(numberOfStarts).append(" starts):");
+		for(Map.Entry<parameters, algorithmOutput> e: outputMap.entrySet())
+		{
+			str.append("\n\t<").append(e.getKey()).append(",");
+			str.append("\n\t\t Objective value:\n\t\t\t").append(e.getValue().getObjectiveValue());
+			str.append("\n\t\t Honeypots:\n\t\t\t").append(e.getValue().getHoneypots());
+			str.append("\n\t\t posterior UB:\n\t\t\t").append(e.getValue().getPosteriorUB());
+			str.append("\n\t\t Wall time (second):\n\t\t\t").append(e.getValue().getWallTime());
+			str.append("\n\t\t Times to target (second):\n\t\t\t").append(mapParamsToTimesToTarget.get(e.getKey()));
+			str.append("\n\t>");
+		}
+		return str.toString();
+	}
+	
+	/**
+	 * Writes algorithm results to csv file, with statistics of the times to target.
+	 *
+	 * @param filename path to output file
+	 * @param append {@code true}, if you wish to append to existing file; {@code false}, otherwise.
+	 * @throws IOException thrown if error in input-output operation.
+	 */
+	public void writeToCSV(String filename, boolean append) throws IOException
+	{
+		String[] header = {"Model", "Network", "t_0", "Simulation repetitions", "FN probability",
+				"transmissability (p)", "no. of honeypots", "method", "starts", "objective value", "honeypots",
+				"a priori UB", "posterior UB", "Posterior Gap (%)", "Wall time (s)", "target",
+				"starts reaching target", "mean time to target (s)", "median time to target (s)", "UTC"};
+		List<String[]> lines = new ArrayList<>();
+		String now = Instant.now().toString();
+		for (Map.Entry<parameters, algorithmOutput> e: outputMap.entrySet())
+		{
+			String[] line = new String[20];
+			line[0] = e.getKey().getSpreadModelName();
+			line[1] = e.getKey().getNetworkName();
+			line[2] = String.valueOf(e.getKey().getTimeStep());
+			line[3] = String.valueOf(e.getKey().getNumberOfSimulationRepetitions());
+			line[4] = String.valueOf(e.getKey().getFalseNegativeProbability());
+			line[5] = String.valueOf(e.getKey().getTransmissability());
+			line[6] = String.valueOf(e.getKey().getNumberOfHoneypots());
+			line[7] = method;
+			line[8] = String.valueOf(numberOfStarts);
+			double objectiveValue = e.getValue().getObjectiveValue();
+			line[9] = String.valueOf(objectiveValue);
+			line[10] = e.getValue().getHoneypots().toString();
+			line[11] = String.valueOf(e.getValue().getAPrioriUB());
+			double posteriorUB = e.getValue().getPosteriorUB();
+			line[12] = String.valueOf(posteriorUB);
+			line[13] = String.valueOf(
+					100.0*(posteriorUB-objectiveValue)/(objectiveValue));
+			line[14] = String.valueOf(e.getValue().getWallTime());
+			line[15] = String.valueOf(targets.getOrDefault(e.getKey(), Double.NaN));
+			double[] reached = mapParamsToTimesToTarget.getOrDefault(e.getKey(), Collections.emptyList()).stream()
+								.mapToDouble(Double::doubleValue).filter(time -> !Double.isNaN(time)).sorted().toArray();
+			line[16] = String.valueOf(reached.length);
+			line[17] = String.valueOf(Arrays.stream(reached).average().orElse(Double.NaN));
+			line[18] = String.valueOf((reached.length==0) ? Double.NaN
+										: (reached[(reached.length-1)/2]+reached[reached.length/2])/2);
+			line[19] = now;
+			lines.add(line);
+		}
+		commonMethods.writeToCSV(filename, append, header, lines);
+		System.out.println("Metaheuristic results successfully written to \""+filename+"\".");
+	}
+	
+	/**
+	 * Solves the sample-average approximation model using simulated annealing or tabu search
+	 * on the successful detection matrix, with several starts in parallel.
+	 * See model 4.6 in
+	 * Lee, Jinho. Stochastic optimization models for rapid detection of viruses in cellphone networks. Diss. 2012.
+	 * The posterior upper bound is that of the best solution
+	 * (its objective value plus the sum of the marginal gains of the top k nodes not in the solution).
+	 *
+	 * @param g network graph
+	 * @param simulationResults results of simulation as an instance of {@code simulationRuns}
+	 * @param listOfParams list of the set of parameters used to get {@code simulationResults}
+	 * @param threads number of starts that run at the same time.
+	 * @throws Exception thrown if graph {@code g} has self-loops,
+	 *  or if node labels are negative integers,
+	 *  or if the network name in one of the parameters and the network name stored in the graph {@code g}
+	 *      do not match,
+	 *  or if the number of nodes is less than the number of honeypots in any of the parameters
+	 *      in {@code listOfParams},
+	 *  or if {@code threads<1}.
+	 */
+	public void runSAAUsingMetaheuristic(graph g, simulationRuns simulationResults, List<parameters> listOfParams,
+	                                     int threads) throws Exception
+	{
+		if (g.hasSelfLoops())
+			throw new Exception("Graphs has self-loops!");
+		
+		// minimum label of vertex
+		if (g.findMinimumNodeLabel()<0)
+			throw new Exception("Node labels are negative integers!");
+		
+		if (threads<1)
+			throw new Exception("Invalid number of threads!");
+		
+		for (parameters param: listOfParams)
+		{
+			if (!param.getNetworkName().equals(g.getNetworkName()))
+				throw new Exception("Parameters are for a different network than that has been provided as input!");
+			if (param.getNumberOfHoneypots()>g.getVertexSet().size())
+				throw new Exception("Number of honeypots cannot be greater than the number of nodes!");
+		}
+		
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, numberOfStarts));
+		try
+		{
+			for (parameters param: listOfParams)
+			{
+				String modelName = param.getSpreadModelName();
+				String networkName = param.getNetworkName();
+				int t_0 = param.getTimeStep();
+				int run = param.getNumberOfSimulationRepetitions();
+				double r = param.getFalseNegativeProbability();
+				double p = param.getTransmissability();
+				int k = param.getNumberOfHoneypots();
+				Sextet<String, String, Integer, Integer, Double, Double> keyForSimulation =
+														new Sextet<>(modelName, networkName, t_0, run, r, p);
+				System.out.println("Using "+method+" search: "+modelName+" spread model on "+networkName
+									+"network; "+k+" honeypots; "+t_0+" time step(s); "+run
+									+" samples; false negative probability="+r+"; transmissability (p)="+p
+									+"; "+numberOfStarts+" starts of "+timeInSecondsPerStart+" second(s)");
+				List<List<Integer>> virusSpreadSamples =
+						simulationResults.getMapModelNetworkT0RunsFalseNegativeToSimulationRuns().get(keyForSimulation);
+				List<List<Integer>> virtualDetectionSamples =
+						simulationResults.getMapModelNetworkT0RunsFalseNegativeToVirtualDetections()
+										.get(keyForSimulation);
+				detectionMatrix successfulDetectMatrix = new detectionMatrix(g.getVertexSet(), virusSpreadSamples,
+																			(r>0) ? virtualDetectionSamples : null);
+				// builds the inverted index before the starts share the matrix
+				successfulDetectMatrix.getRows();
+				Double target = targets.get(param);
+				final int targetRows = (target==null) ? Integer.MAX_VALUE : (int) Math.ceil(target*run-1e-9);
+				
+				Instant tic = Instant.now();
+				SplittableRandom masterGen = new SplittableRandom(seed);
+				List<Future<startResult>> futures = new ArrayList<>(numberOfStarts);
+				for (int start=0; start<numberOfStarts; start++)
+				{
+					final SplittableRandom startGen = masterGen.split();
+					futures.add(executor.submit(() -> method.equals("tabu")
+									? tabuSearch(successfulDetectMatrix, k, targetRows, startGen)
+									: anneal(successfulDetectMatrix, k, targetRows, startGen)));
+				}
+				startResult best = null;
+				List<Double> timesToTarget = new ArrayList<>(numberOfStarts);
+				for (int start=0; start<numberOfStarts; start++)
+				{
+					startResult result = futures.get(start).get();
+					System.out.println("\tStart "+start+": objective value = "+result.bestCoveredRows*1.0/run
+										+"; "+result.iterations+" iterations; time to target (second) = "
+										+result.timeToTarget);
+					timesToTarget.add(result.timeToTarget);
+					if ((best==null) || (result.bestCoveredRows>best.bestCoveredRows))
+						best = result;
+				}
+				Instant toc = Instant.now();
+				double wallTimeInSeconds = 1.0*Duration.between(tic, toc).toMillis()/1000;
+				
+				List<Integer> honeypots = new ArrayList<>(k);
+				for (int column: best.bestColumns)
+					honeypots.add(successfulDetectMatrix.getLabel(column));
+				double objectiveValue = best.bestCoveredRows*1.0/run;
+				System.out.println("Objective value = "+objectiveValue+"; wall time (second) = "+wallTimeInSeconds);
+				// sum of the marginal gains of the top k nodes not in the solution (section 2.4.1 in Lee (2012))
+				double delta = new coverageState(successfulDetectMatrix, best.bestColumns).sumOfLargestGains(k)*1.0/run;
+				outputMap.put(param, new algorithmOutput(objectiveValue, honeypots, wallTimeInSeconds,
+										Double.NaN, Math.min(objectiveValue+delta, 1)));
+				mapParamsToTimesToTarget.put(param, timesToTarget);
+			}
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+	}
+	
+	/**
+	 * Runs simulated annealing from a random set of columns.
+	 *
+	 * @param matrix detection matrix
+	 * @param k number of columns
+	 * @param targetRows target number of covered rows
+	 * @param generator random number generator of the start.
+	 * @return the result of the start.
+	 */
+	private startResult anneal(detectionMatrix matrix, int k, int targetRows, SplittableRandom generator)
+	{
+		final long startTime = System.nanoTime();
+		final long budget = (long) (timeInSecondsPerStart*1e9);
+		int n = matrix.getNumberOfColumns();
+		int[] order = randomOrder(n, k, generator);
+		coverageState state = new coverageState(matrix, Arrays.copyOf(order, k));
+		int[] bestColumns = state.getSelection();
+		int bestCoveredRows = state.getNumberOfCoveredRows();
+		double timeToTarget = (bestCoveredRows>=targetRows) ? (System.nanoTime()-startTime)/1e9 : Double.NaN;
+		long iterations = 0;
+		if ((k==0) || (k==n))
+			return new startResult(bestColumns, bestCoveredRows, timeToTarget, iterations);
+		double logOfRatio = Math.log(finalTemperature/initialTemperature);
+		while (true)
+		{
+			long elapsed = System.nanoTime()-startTime;
+			if (elapsed>=budget)
+				break;
+			double temperature = initialTemperature*Math.exp(logOfRatio*elapsed/budget);
+			iterations++;
+			// order[0], ..., order[k-1] are the selected columns
+			int addedIndex = k+generator.nextInt(n-k);
+			int removedIndex = generator.nextInt(k);
+			state.scanSwaps(order[addedIndex]);
+			int change = state.swapDelta(order[removedIndex]);
+			if ((change>=0) || (generator.nextDouble()<Math.exp(change/temperature)))
+			{
+				state.swap(order[removedIndex], order[addedIndex]);
+				int column = order[addedIndex];
+				order[addedIndex] = order[removedIndex];
+				order[removedIndex] = column;
+				if (state.getNumberOfCoveredRows()>bestCoveredRows)
+				{
+					bestCoveredRows = state.getNumberOfCoveredRows();
+					bestColumns = state.getSelection();
+					if ((bestCoveredRows>=targetRows) && Double.isNaN(timeToTarget))
+						timeToTarget = (System.nanoTime()-startTime)/1e9;
+				}
+			}
+		}
+		return new startResult(bestColumns, bestCoveredRows, timeToTarget, iterations);
+	}
+	
+	/**
+	 * Runs tabu search from a random set of columns.
+	 *
+	 * @param matrix detection matrix
+	 * @param k number of columns
+	 * @param targetRows target number of covered rows
+	 * @param generator random number generator of the start.
+	 * @return the result of the start.
+	 */
+	private startResult tabuSearch(detectionMatrix matrix, int k, int targetRows, SplittableRandom generator)
+	{
+		final long startTime = System.nanoTime();
+		final long budget = (long) (timeInSecondsPerStart*1e9);
+		int n = matrix.getNumberOfColumns();
+		int[] order = randomOrder(n, k, generator);
+		coverageState state = new coverageState(matrix, Arrays.copyOf(order, k));
+		int[] bestColumns = state.getSelection();
+		int bestCoveredRows = state.getNumberOfCoveredRows();
+		double timeToTarget = (bestCoveredRows>=targetRows) ? (System.nanoTime()-startTime)/1e9 : Double.NaN;
+		long iterations = 0;
+		if ((k==0) || (k==n))
+			return new startResult(bestColumns, bestCoveredRows, timeToTarget, iterations);
+		// a column cannot be swapped before iteration tabuUntil[column]
+		long[] tabuUntil = new long[n];
+		while (System.nanoTime()-startTime<budget)
+		{
+			int smallestLoss = Integer.MAX_VALUE;
+			for (int t=0; t<k; t++)
+				smallestLoss = Math.min(smallestLoss, state.loss(order[t]));
+			int bestChange = Integer.MIN_VALUE;
+			int bestAdded = -1;
+			int bestRemoved = -1;
+			int ties = 0;
+			for (int a=k; a<n; a++)
+			{
+				int added = order[a];
+				// the change of any swap with added is at most (rows of added)-(smallest loss)
+				if (matrix.getColumnEnd(added)-matrix.getColumnStart(added)-smallestLoss<bestChange)
+					continue;
+				state.scanSwaps(added);
+				for (int b=0; b<k; b++)
+				{
+					int removed = order[b];
+					int change = state.swapDelta(removed);
+					boolean allowed = ((tabuUntil[added]<=iterations) && (tabuUntil[removed]<=iterations))
+										|| (state.getNumberOfCoveredRows()+change>bestCoveredRows);
+					if ((!allowed) || (change<bestChange))
+						continue;
+					// ties are broken uniformly at random
+					ties = (change>bestChange) ? 1 : ties+1;
+					if ((change>bestChange) || (generator.nextInt(ties)==0))
+					{
+						bestChange = change;
+						bestAdded = a;
+						bestRemoved = b;
+					}
+				}
+			}
+			iterations++;
+			if (bestAdded<0)
+				continue;
+			int added = order[bestAdded];
+			int removed = order[bestRemoved];
+			state.swap(removed, added);
+			order[bestAdded] = removed;
+			order[bestRemoved] = added;
+			tabuUntil[added] = iterations+tenure;
+			tabuUntil[removed] = iterations+tenure;
+			if (state.getNumberOfCoveredRows()>bestCoveredRows)
+			{
+				bestCoveredRows = state.getNumberOfCoveredRows();
+				bestColumns = state.getSelection();
+				if ((bestCoveredRows>=targetRows) && Double.isNaN(timeToTarget))
+					timeToTarget = (System.nanoTime()-startTime)/1e9;
+			}
+		}
+		return new startResult(bestColumns, bestCoveredRows, timeToTarget, iterations);
+	}
+	
+	/**
+	 * Returns a random order of the columns, in which the first {@code k} columns are a uniformly random set
+	 * (partial Fisher-Yates shuffle).
+	 *
+	 * @param n number of columns
+	 * @param k number of columns to draw
+	 * @param generator random number generator.
+	 * @return the columns 0, ..., n-1, with a random set of {@code k} columns first.
+	 */
+	private static int[] randomOrder(int n, int k, SplittableRandom generator)
+	{
+		int[] order = new int[n];
+		for (int j=0; j<n; j++)
+			order[j] = j;
+		for (int t=0; t<k; t++)
+		{
+			int other = t+generator.nextInt(n-t);
+			int column = order[other];
+			order[other] = order[t];
+			order[t] = column;
+		}
+		return order;
+	}
+}
@@ -2,8 +2,8 @@ package algorithm;
 
 import com.opencsv.CSVWriter;
 import dataTypes.algorithmOutput;
+import dataTypes.detectionMatrix;
 import dataTypes.parameters;
-import helper.commonMethods;
 import network.graph;
 import org.javatuples.Sextet;
 import simulation.simulationRuns;
@@ -12,8 +12,6 @@ import java.io.*;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 /**
  * Represents results of greedy heuristic on {@code simulationRuns}.
@@ -35,6 +33,38 @@ public class nodeInMaxRowsGreedyHeuristic
 	 */
 	Map<parameters, algorithmOutput> outputMap;
 	
+	/**
+	 * Greedy algorithm used by {@link nodeInMaxRowsGreedyHeuristic#runSAAUsingHeuristic}:
+	 * "lazy" ({@link lazyGreedy}; default), "bucket" ({@link bucketGreedy}),
+	 * or "stochastic" ({@link stochasticGreedy}).
+	 * "lazy" and "bucket" select the same honeypots.
+	 */
+	String greedyAlgorithm = "lazy";
+	
+	/**
+	 * Accuracy of the approximation guarantee of the stochastic greedy algorithm; 0.1 by default.
+	 */
+	double epsilon = 0.1;
+	
+	/**
+	 * Seed of the random number generator of the stochastic greedy algorithm.
+	 */
+	long seed;
+	
+	/**
+	 * If {@code true}, parameters that differ only in the number of honeypots are solved by one greedy run
+	 * up to the largest number of honeypots: greedy is prefix-consistent, so the solution for a smaller number
+	 * of honeypots is a prefix of the one for a larger number.
+	 * {@code false} by default.
+	 */
+	boolean reuseGreedyAcrossBudgets;
+	
+	/**
+	 * Time budget (in seconds) of the swap local search that improves the honeypots selected by greedy,
+	 * for each set of parameters; 0 (no local search) by default.
+	 */
+	double localSearchTimeInSeconds;
+	
 	/**
 	 * Constructor.
 	 */
@@ -63,6 +93,70 @@ public class nodeInMaxRowsGreedyHeuristic
 		return outputMap;
 	}
 	
+	/**
+	 * Setter.
+	 *
+	 * @param greedyAlgorithm "lazy" for lazy evaluation of marginal gains (usually fast, when only a few nodes
+	 *                        need to be re-evaluated after each selection),
+	 *                        "bucket" for marginal gains that are kept exact and decremented as rows get covered
+	 *                        (O(number of nonzeros + n*k) in the worst case),
+	 *                        or "stochastic" for the stochastic greedy algorithm, which evaluates the gains
+	 *                        of a random subset of nodes only at each step
+	 *                        (see {@link nodeInMaxRowsGreedyHeuristic#setStochasticGreedy(double, long)}).
+	 * @throws Exception thrown if {@code greedyAlgorithm} is not one of "lazy", "bucket", and "stochastic".
+	 */
+	public void setGreedyAlgorithm(String greedyAlgorithm) throws Exception
+	{
+		if (!(greedyAlgorithm.equals("lazy") || greedyAlgorithm.equals("bucket")
+				|| greedyAlgorithm.equals("stochastic")))
+			throw new Exception("Invalid greedy algorithm!");
+		this.greedyAlgorithm = greedyAlgorithm;
+	}
+	
+	/**
+	 * Sets the parameters of the stochastic greedy algorithm, and selects it.
+	 * At each step, the gains of {@code ceil((n/k)*ln(1/epsilon))} random nodes are evaluated,
+	 * and the expected objective value is at least {@code (1-1/e-epsilon)} times the optimal objective value.
+	 *
+	 * @param epsilon accuracy of the approximation guarantee
+	 * @param seed seed of the random number generator.
+	 * @throws Exception thrown if {@code epsilon} is not in (0, 1).
+	 */
+	public void setStochasticGreedy(double epsilon, long seed) throws Exception
+	{
+		if ((epsilon<=0) || (epsilon>=1))
+			throw new Exception("Epsilon should be in (0, 1)!");
+		this.greedyAlgorithm = "stochastic";
+		this.epsilon = epsilon;
+		this.seed = seed;
+	}
+	
+	/**
+	 * Setter.
+	 *
+	 * @param reuseGreedyAcrossBudgets {@code true}, if parameters that differ only in the number of honeypots
+	 *                                 should be solved by one greedy run; {@code false}, otherwise.
+	 */
+	public void setReuseGreedyAcrossBudgets(boolean reuseGreedyAcrossBudgets)
+	{
+		this.reuseGreedyAcrossBudgets = reuseGreedyAcrossBudgets;
+	}
+	
+	/**
+	 * Sets the time budget of the local search that improves the honeypots selected by greedy
+	 * with 1-swaps and restricted 2-swaps (see {@link swapLocalSearch}).
+	 *
+	 * @param localSearchTimeInSeconds time budget (in seconds) for each set of parameters;
+	 *                                 0, if there should be no local search.
+	 * @throws Exception thrown if {@code localSearchTimeInSeconds<0}.
+	 */
+	public void setLocalSearchTimeInSeconds(double localSearchTimeInSeconds) throws Exception
+	{
+		if (localSearchTimeInSeconds<0)
+			throw new Exception("Time budget cannot be negative!");
+		this.localSearchTimeInSeconds = localSearchTimeInSeconds;
+	}
+	
 	/**
 	 * Returns a string representation of the object.
 	 *
@@ -142,6 +236,21 @@ public class nodeInMaxRowsGreedyHeuristic
 	 * Solves the sample-average approximation model using a greedy algorithm.
 	 * See model 4.6 in
 	 * Lee, Jinho. Stochastic optimization models for rapid detection of viruses in cellphone networks. Diss. 2012.
+	 * The greedy algorithm runs on the successful detection matrix in sparse form,
+	 * with lazy, incremental, or sampled marginal gains
+	 * (see {@link nodeInMaxRowsGreedyHeuristic#setGreedyAlgorithm(String)});
+	 * ties are broken by the smallest node label.
+	 * For the stochastic greedy algorithm, the a priori upper bound is not available ({@code NaN}):
+	 * its {@code (1-1/e-epsilon)} guarantee holds in expectation only, and not for the realized honeypots
+	 * (nor, when one greedy run is shared across budgets, for budgets smaller than the largest one, since the
+	 * random subsets are sized for the largest budget); the posterior upper bound holds for any set of honeypots.
+	 * Parameters that differ only in the number of honeypots can share one greedy run
+	 * (see {@link nodeInMaxRowsGreedyHeuristic#setReuseGreedyAcrossBudgets(boolean)}).
+	 * If a local search time budget is set
+	 * (see {@link nodeInMaxRowsGreedyHeuristic#setLocalSearchTimeInSeconds(double)}),
+	 * the honeypots selected by greedy are improved by swaps; the output has the improved honeypots and
+	 * objective value, the a priori upper bound of greedy, the smaller of the posterior upper bounds of greedy's
+	 * and the improved honeypots, and the wall time of greedy and the local search.
 	 *
 	 * @param g network graph
 	 * @param simulationResults results of simulation as an instance of {@code simulationRuns}
@@ -159,116 +268,113 @@ public class nodeInMaxRowsGreedyHeuristic
 			throw new Exception("Graphs has self-loops!");
 		
 		// minimum label of vertex
-		boolean zeroNode = false;
-		int minNode = g.findMinimumNodeLabel();
-		if (minNode==0)
-			zeroNode = true;
-		else
-		{
-			if (minNode<0)
-				throw new Exception("Node labels are negative integers!");
-		}
+		if (g.findMinimumNodeLabel()<0)
+			throw new Exception("Node labels are negative integers!");
 		
-		//for (Triple<Integer, Integer, Integer> v : k_t0_runs)
+		// parameters solved by the same greedy run, in increasing order of the number of honeypots
+		List<List<parameters>> groups = new ArrayList<>();
+		Map<Sextet<String, String, Integer, Integer, Double, Double>, List<parameters>> keyToGroup =
+																								new HashMap<>();
 		for (parameters param: listOfParams)
 		{
-			String modelName = param.getSpreadModelName();
-			String networkName = param.getNetworkName();
-			if (!networkName.equals(g.getNetworkName()))
+			if (!param.getNetworkName().equals(g.getNetworkName()))
 				throw new Exception("Parameters are for a different network than that has been provided as input!");
-			int k = param.getNumberOfHoneypots();
-			if (k>g.getVertexSet().size())
+			if (param.getNumberOfHoneypots()>g.getVertexSet().size())
 				throw new Exception("Number of honeypots cannot be greater than the number of nodes!");
-			int t_0 = param.getTimeStep();
-			int run = param.getNumberOfSimulationRepetitions();
-			double r = param.getFalseNegativeProbability();
-			double p = param.getTransmissability();
+			Sextet<String, String, Integer, Integer, Double, Double> keyForSimulation =
+					new Sextet<>(param.getSpreadModelName(), param.getNetworkName(), param.getTimeStep(),
+								param.getNumberOfSimulationRepetitions(), param.getFalseNegativeProbability(),
+								param.getTransmissability());
+			List<parameters> group = reuseGreedyAcrossBudgets ? keyToGroup.get(keyForSimulation) : null;
+			if (group==null)
+			{
+				group = new ArrayList<>();
+				groups.add(group);
+				keyToGroup.put(keyForSimulation, group);
+			}
+			group.add(param);
+		}
+		
+		for (List<parameters> group: groups)
+		{
+			group.sort(Comparator.comparingInt(parameters::getNumberOfHoneypots));
+			parameters firstParam = group.get(0);
+			String modelName = firstParam.getSpreadModelName();
+			String networkName = firstParam.getNetworkName();
+			int t_0 = firstParam.getTimeStep();
+			int run = firstParam.getNumberOfSimulationRepetitions();
+			double r = firstParam.getFalseNegativeProbability();
+			double p = firstParam.getTransmissability();
 			
 			Sextet<String, String, Integer, Integer, Double, Double> keyForSimulation =
 														new Sextet<>(modelName, networkName, t_0, run, r, p);
 			
-			System.out.println("Using greedy algorithm: "+modelName+" spread model on "+networkName
-								+"network; "+k+" honeypots; "+t_0+" time step(s); "
-								+run+" samples; false negative probability="+r+"; transmissability (p)="+p);
 			List<List<Integer>> virusSpreadSamples =
 					simulationResults.getMapModelNetworkT0RunsFalseNegativeToSimulationRuns().get(keyForSimulation);
 			List<List<Integer>> virtualDetectionSamples =
 					simulationResults.getMapModelNetworkT0RunsFalseNegativeToVirtualDetections().get(keyForSimulation);
 			// System.out.println("Virus spread samples:\n"+virusSpreadSamples+"\n"+virtualDetectionSamples);
-			List<List<Integer>> successfulDetectMatrix;
-			Set<Integer> candidates;
-			if (r>0)
-			{
-				if (zeroNode)
-				{
-					List<List<Integer>> newVirusSpreadSamples = virusSpreadSamples.stream()
-								.map(virusSpreadSample -> virusSpreadSample.stream()
-								.map(integer -> integer + 1)
-								.collect(Collectors.toCollection(ArrayList::new)))
-								.collect(Collectors.toCollection(() -> new ArrayList<>(run)));
-					successfulDetectMatrix = commonMethods.elementwiseMultiplyMatrix(
-							Collections.unmodifiableList(newVirusSpreadSamples),
-							Collections.unmodifiableList(virtualDetectionSamples));
-					candidates = g.getVertexSet().stream().map(e -> e+1).collect(Collectors.toSet());
-				}
-				else
-				{
-					successfulDetectMatrix = commonMethods.elementwiseMultiplyMatrix(
-												Collections.unmodifiableList(virusSpreadSamples),
-												Collections.unmodifiableList(virtualDetectionSamples));
-					candidates = new HashSet<>(g.getVertexSet());
-				}
-			}
-			else
-			{
-				successfulDetectMatrix = new ArrayList<>(virusSpreadSamples);
-				candidates = new HashSet<>(g.getVertexSet());
-			}
-			//System.out.println("Successful detection matrix: \n"
-			//		 +successfulDetectMatrix.toString()+"\n---------------------------");
-			//System.out.println("Candidate nodes: \n"+candidates.toString()+"\n---------------------------");
-			
-			List<Integer> honeypots = new ArrayList<>();
-			int numberOfHoneypotsFound = 0;
-			Set<Integer> indicesOfSamplesToBeConsidered = IntStream.range(0, run).boxed().collect(Collectors.toSet());
-			Set<Integer> indicesOfSamplesToBeRemoved;
-			Set<Integer> indicesOfSamplesCovered = new HashSet<>(indicesOfSamplesToBeConsidered);
+			// row i: nodes that detect the virus in sample i
+			detectionMatrix successfulDetectMatrix = new detectionMatrix(g.getVertexSet(), virusSpreadSamples,
+																			(r>0) ? virtualDetectionSamples : null);
 			
+			// the wall time of a number of honeypots is the time greedy takes to select that many honeypots
+			Duration elapsed = Duration.ZERO;
 			Instant tic = Instant.now();
-			while (numberOfHoneypotsFound<k)
+			coverageGreedy greedy;
+			switch (greedyAlgorithm)
 			{
-				List<List<Integer>> samplesToBeConsidered = IntStream.range(0, successfulDetectMatrix.size())
-													.filter(indicesOfSamplesToBeConsidered::contains)
-													.mapToObj(successfulDetectMatrix::get).collect(Collectors.toList());
-				int currentCandidate = commonMethods.findMaxRowFrequencyNode(
-										Collections.unmodifiableList(samplesToBeConsidered),
-										List.copyOf(candidates));
-				// System.out.println("Current candidate: "+currentCandidate);
-				honeypots.add(currentCandidate);
-				numberOfHoneypotsFound++;
-				candidates.remove(currentCandidate);
-				indicesOfSamplesToBeRemoved = new HashSet<>(
-						commonMethods.findRowOccurrenceIndices(Collections.unmodifiableList(successfulDetectMatrix),
-								currentCandidate));
-				indicesOfSamplesToBeConsidered.removeAll(indicesOfSamplesToBeRemoved);
-				// TODO: What if current set of honeypots cover all sample paths?
+				case "bucket" -> greedy = new bucketGreedy(successfulDetectMatrix);
+				// subsets are sized for the largest number of honeypots in the group
+				case "stochastic" -> greedy = new stochasticGreedy(successfulDetectMatrix,
+												group.get(group.size()-1).getNumberOfHoneypots(), epsilon, seed);
+				default -> greedy = new lazyGreedy(successfulDetectMatrix);
+			}
+			for (parameters param: group)
+			{
+				int k = param.getNumberOfHoneypots();
+				System.out.println("Using greedy algorithm: "+modelName+" spread model on "+networkName
+									+"network; "+k+" honeypots; "+t_0+" time step(s); "
+									+run+" samples; false negative probability="+r+"; transmissability (p)="+p);
+				int[] selectedColumns = greedy.select(k);
+				Instant toc = Instant.now();
+				elapsed = elapsed.plus(Duration.between(tic, toc));
+				double objectiveValue = greedy.getNumberOfCoveredRows()*1.0/run;
+				System.out.println("Objective value = "+objectiveValue);
+				double wallTimeInSeconds = 1.0*elapsed.toMillis()/1000;
+				System.out.println("Wall time (second) = "+ wallTimeInSeconds);
+				
+				// the guarantee of stochastic greedy holds in expectation only
+				double aPrioriUB = greedyAlgorithm.equals("stochastic") ? Double.NaN
+										: Math.min(Math.exp(1)/(Math.exp(1)-1)*objectiveValue, 1);
+				// sum of the marginal gains of the top k nodes not in the solution (section 2.4.1 in Lee (2012))
+				double delta = greedy.sumOfLargestGains(k)*1.0/run;
+				double posteriorUB = Math.min(objectiveValue+delta, 1);
+				if (localSearchTimeInSeconds>0)
+				{
+					tic = Instant.now();
+					swapLocalSearch localSearch = new swapLocalSearch(successfulDetectMatrix, selectedColumns);
+					boolean localOptimum = localSearch.improve(localSearchTimeInSeconds);
+					selectedColumns = localSearch.getState().getSelection();
+					objectiveValue = localSearch.getState().getNumberOfCoveredRows()*1.0/run;
+					wallTimeInSeconds += 1.0*Duration.between(tic, Instant.now()).toMillis()/1000;
+					// the bound holds for any set of honeypots
+					delta = localSearch.getState().sumOfLargestGains(k)*1.0/run;
+					posteriorUB = Math.min(posteriorUB, objectiveValue+delta);
+					System.out.println("Local search: "+localSearch.getNumberOfOneSwaps()+" 1-swaps, "
+										+localSearch.getNumberOfTwoSwaps()+" 2-swaps"
+										+(localOptimum ? " (local optimum)" : " (time budget ran out)")
+										+"; objective value = "+objectiveValue+"; wall time (second) = "
+										+wallTimeInSeconds);
+				}
+				List<Integer> honeypots = new ArrayList<>(k);
+				for (int column: selectedColumns)
+					honeypots.add(successfulDetectMatrix.getLabel(column));
+				// System.out.println("Honeypots: \n"+honeypots.toString()+"\n---------------------------");
+				outputMap.put(param, new algorithmOutput(objectiveValue, honeypots,
+						wallTimeInSeconds, aPrioriUB, posteriorUB));
+				tic = Instant.now();
 			}
-			Instant toc = Instant.now();
-			if ((r>0) && (zeroNode))
-				honeypots = honeypots.stream().map(e -> e - 1).collect(Collectors.toList());
-			// System.out.println("Honeypots: \n"+honeypots.toString()+"\n---------------------------");
-			indicesOfSamplesCovered.removeAll(indicesOfSamplesToBeConsidered);
-			double objectiveValue = indicesOfSamplesCovered.size()*1.0/run;
-			System.out.println("Objective value = "+objectiveValue);
-			double wallTimeInSeconds = 1.0*Duration.between(tic, toc).toMillis()/1000;
-			System.out.println("Wall time (second) = "+ wallTimeInSeconds);
-			
-			double factor = Math.exp(1)/(Math.exp(1)-1);
-			double delta = commonMethods.calculateDelta(g,
-					successfulDetectMatrix, honeypots, indicesOfSamplesCovered.size());
-			outputMap.put(param, new algorithmOutput(objectiveValue, honeypots,
-					wallTimeInSeconds, Math.min(factor*objectiveValue, 1),
-					Math.min(objectiveValue+delta, 1)));
 		}
 	}
 	
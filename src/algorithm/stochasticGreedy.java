@@ -0,0 +1,194 @@
+package algorithm;
+
+import dataTypes.detectionMatrix;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.SplittableRandom;
+
+/**
+ * Represents the stochastic greedy algorithm for maximum coverage on a {@code detectionMatrix}:
+ * at each step, a random subset of {@code s = ceil((n/k)*ln(1/epsilon))} unselected columns is drawn
+ * (without replacement), and the column in the subset that covers the most uncovered rows is selected
+ * (ties are broken by the smallest column).
+ * See
+ * Mirzasoleiman, Baharan, et al. "Lazier than lazy greedy." Proceedings of the AAAI Conference on
+ * Artificial Intelligence. 2015.
+ * <p>
+ *     The expected coverage of the {@code k} selected columns is at least {@code (1-1/e-epsilon)} times
+ *     the optimal coverage, with O(n*ln(1/epsilon)) gain evaluations in total,
+ *     instead of O(n*k) for the plain greedy algorithm.
+ *     A gain evaluation walks the rows of the column in the inverted index, against a bit set of covered rows.
+ * </p>
+ * <p>
+ *     Rows are counted, not weighted: every row has the same weight, as in a matrix built from sample paths.
+ * </p>
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+class stochasticGreedy implements coverageGreedy
+{
+	/**
+	 * Detection matrix.
+	 */
+	final detectionMatrix matrix;
+	
+	/**
+	 * Size of the random subset drawn at each step.
+	 */
+	final int sampleSize;
+	
+	/**
+	 * Random number generator for the subsets.
+	 */
+	final SplittableRandom generator;
+	
+	/**
+	 * Rows covered by the selected columns.
+	 */
+	final BitSet covered;
+	
+	/**
+	 * Number of rows covered by the selected columns.
+	 */
+	int numberOfCoveredRows;
+	
+	/**
+	 * Unselected columns, in {@code candidates[0]}, ..., {@code candidates[numberOfCandidates-1]}.
+	 */
+	final int[] candidates;
+	
+	/**
+	 * Number of unselected columns.
+	 */
+	int numberOfCandidates;
+	
+	/**
+	 * Selected columns, in the order in which they were selected.
+	 */
+	int[] selection;
+	
+	/**
+	 * Number of selected columns.
+	 */
+	int size;
+	
+	/**
+	 * Constructor.
+	 *
+	 * @param matrix detection matrix
+	 * @param k number of columns that will be selected; determines the size of the random subsets
+	 * @param epsilon accuracy of the approximation guarantee (in (0, 1))
+	 * @param seed seed of the random number generator.
+	 */
+	stochasticGreedy(detectionMatrix matrix, int k, double epsilon, long seed)
+	{
+		this.matrix = matrix;
+		final int n = matrix.getNumberOfColumns();
+		this.sampleSize = (int) Math.min(n, Math.max(1, Math.ceil(1.0*n/Math.max(1, k)*Math.log(1/epsilon))));
+		this.generator = new SplittableRandom(seed);
+		this.covered = new BitSet(matrix.getNumberOfRows());
+		this.numberOfCoveredRows = 0;
+		this.candidates = new int[n];
+		for (int j=0; j<n; j++)
+			candidates[j] = j;
+		this.numberOfCandidates = n;
+		this.selection = new int[0];
+		this.size = 0;
+	}
+	
+	/**
+	 * Selects columns until {@code k} columns are selected; at each step, the best column of a random subset
+	 * of the unselected columns is selected.
+	 *
+	 * @param k number of columns; if greater than the number of columns, all columns are selected.
+	 * @return the selected columns, in the order in which they were selected.
+	 */
+	@Override
+	public int[] select(int k)
+	{
+		k = Math.min(k, candidates.length);
+		if (selection.length<k)
+			selection = Arrays.copyOf(selection, k);
+		int[] rows = matrix.getRows();
+		while (size<k)
+		{
+			// partial Fisher-Yates shuffle: the subset is candidates[0], ..., candidates[subsetSize-1]
+			int subsetSize = Math.min(sampleSize, numberOfCandidates);
+			int bestIndex = -1;
+			int bestGain = -1;
+			for (int t=0; t<subsetSize; t++)
+			{
+				int other = t+generator.nextInt(numberOfCandidates-t);
+				int column = candidates[other];
+				candidates[other] = candidates[t];
+				candidates[t] = column;
+				int gain = evaluate(column);
+				if ((gain>bestGain) || ((gain==bestGain) && (column<candidates[bestIndex])))
+				{
+					bestIndex = t;
+					bestGain = gain;
+				}
+			}
+			int best = candidates[bestIndex];
+			candidates[bestIndex] = candidates[--numberOfCandidates];
+			selection[size++] = best;
+			for (int position=matrix.getColumnStart(best); position<matrix.getColumnEnd(best); position++)
+			{
+				if (!covered.get(rows[position]))
+				{
+					covered.set(rows[position]);
+					numberOfCoveredRows++;
+				}
+			}
+		}
+		return Arrays.copyOf(selection, size);
+	}
+	
+	/**
+	 * Returns the sum of the (current) marginal gains of the {@code k} unselected columns with the largest gains.
+	 * The columns stay unselected.
+	 * Unlike the selection, this evaluates the gain of every unselected column.
+	 *
+	 * @param k number of columns.
+	 * @return the sum of the {@code k} largest marginal gains.
+	 */
+	@Override
+	public int sumOfLargestGains(int k)
+	{
+		int[] gains = new int[numberOfCandidates];
+		for (int t=0; t<numberOfCandidates; t++)
+			gains[t] = evaluate(candidates[t]);
+		Arrays.sort(gains);
+		int sum = 0;
+		for (int t=gains.length-1; t>=Math.max(0, gains.length-k); t--)
+			sum += gains[t];
+		return sum;
+	}
+	
+	/**
+	 * Getter.
+	 *
+	 * @return {@code numberOfCoveredRows}.
+	 */
+	@Override
+	public int getNumberOfCoveredRows()
+	{
+		return numberOfCoveredRows;
+	}
+	
+	/**
+	 * Evaluates the marginal gain of a column.
+	 *
+	 * @param column column.
+	 * @return the number of uncovered rows in {@code column}.
+	 */
+	private int evaluate(int column)
+	{
+		int[] rows = matrix.getRows();
+		int gain = 0;
+		for (int position=matrix.getColumnStart(column); position<matrix.getColumnEnd(column); position++)
+			if (!covered.get(rows[position]))
+				gain++;
+		return gain;
+	}
+}
@@ -0,0 +1,283 @@
+package algorithm;
+
+import dataTypes.algorithmOutput;
+import dataTypes.detectionMatrix;
+import dataTypes.parameters;
+import helper.commonMethods;
+import network.graph;
+import org.javatuples.Sextet;
+import simulation.simulationRuns;
+import simulation.spreadModel;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Represents results of a streaming greedy heuristic, which consumes replications directly from the simulator
+ * and never materializes the successful detection matrix of all the samples.
+ * <p>
+ *     Replications are streamed in one pass
+ *     (see {@link simulationRuns#streamRuns}).
+ *     Samples in which no node detects the virus cannot be covered, so only their number is kept;
+ *     the other samples go through a reservoir sample (a uniform random sample) of at most
+ *     {@link streamingGreedyHeuristic#sketchSize} samples.
+ *     The greedy algorithm then runs on the reservoir, and the objective value is estimated by
+ *     (fraction of samples in which some node detects the virus) times (fraction of the reservoir covered).
+ *     Memory is bounded by the reservoir, whatever the number of samples.
+ * </p>
+ * <p>
+ *     If the reservoir holds every sample (at most {@code sketchSize} samples in which some node detects
+ *     the virus), the honeypots and the objective value are those of {@link nodeInMaxRowsGreedyHeuristic}
+ *     on the same samples.
+ * </p>
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+public class streamingGreedyHeuristic
+{
+	/**
+	 * A map from {@code parameters} to {@code algorithmOutput}.
+	 * Basically, stores the outputs for different input parameters.
+	 * <p>
+	 *     Parameters: (model (TN11C, RAEPC, etc.), network name, time step, repetitions,
+	 *     false negative probability, transmissability (p), number of honeypots).
+	 * </p>
+	 * <p>
+	 *     Algorithm output: estimated objective value, honeypot, wall time, a priori upper bound,
+	 *     and posterior upper bound (both estimated from the reservoir).
+	 * </p>
+	 */
+	Map<parameters, algorithmOutput> outputMap;
+	
+	/**
+	 * Maximum number of samples in the reservoir; 10000 by default.
+	 */
+	int sketchSize = 10000;
+	
+	/**
+	 * Constructor.
+	 */
+	public streamingGreedyHeuristic()
+	{
+		this(new HashMap<>());
+	}
+	
+	/**
+	 * Constructor.
+	 *
+	 * @param outputMap an instance of {@code outputMap}.
+	 */
+	public streamingGreedyHeuristic(Map<parameters, algorithmOutput> outputMap)
+	{
+		this.outputMap = outputMap;
+	}
+	
+	/**
+	 * Getter.
+	 *
+	 * @return {@code outputMap}.
+	 */
+	public Map<parameters, algorithmOutput> getOutputMap()
+	{
+		return outputMap;
+	}
+	
+	/**
+	 * Setter.
+	 *
+	 * @param sketchSize maximum number of samples in the reservoir.
+	 * @throws Exception thrown if {@code sketchSize<1}.
+	 */
+	public void setSketchSize(int sketchSize) throws Exception
+	{
+		if (sketchSize<1)
+			throw new Exception("Sketch size should be positive!");
+		this.sketchSize = sketchSize;
+	}
+	
+	/**
+	 * Returns a string representation of the object.
+	 *
+	 * @return a string representation of the object.
+	 */
+	@Override
+	public String toString()
+	{
+		StringBuilder str = new StringBuilder(1000);
+		str.append("Streaming greedy heuristic (sketch size = ").append(sketchSize).append("):");
+		for(Map.Entry<parameters, algorithmOutput> e: outputMap.entrySet())
+		{
+			str.append("\n\t<").append(e.getKey()).append(",");
+			str.append("\n\t\t Objective value (estimated):\n\t\t\t").append(e.getValue().getObjectiveValue());
+			str.append("\n\t\t Honeypots:\n\t\t\t").append(e.getValue().getHoneypots());
+			str.append("\n\t\t a priori UB:\n\t\t\t").append(e.getValue().getAPrioriUB());
+			str.append("\n\t\t posterior UB:\n\t\t\t").append(e.getValue().getPosteriorUB());
+			str.append("\n\t\t Wall time (second):\n\t\t\t").append(e.getValue().getWallTime());
+			str.append("\n\t>");
+		}
+		return str.toString();
+	}
+	
+	/**
+	 * Writes algorithm results to csv file.
+	 *
+	 * @param filename path to output file
+	 * @param append {@code true}, if you wish to append to existing file; {@code false}, otherwise.
+	 * @throws IOException thrown if error in input-output operation.
+	 */
+	public void writeToCSV(String filename, boolean append) throws IOException
+	{
+		String[] header = {"Model", "Network", "t_0", "Simulation repetitions", "FN probability",
+				"transmissability (p)", "no. of honeypots", "objective value", "honeypots",
+				"a priori UB", "posterior UB", "Posterior Gap (%)", "Wall time (s)", "Sketch size", "UTC"};
+		List<String[]> lines = new ArrayList<>();
+		String now = Instant.now().toString();
+		for (Map.Entry<parameters, algorithmOutput> e: outputMap.entrySet())
+		{
+			String[] line = new String[15];
+			line[0] = e.getKey().getSpreadModelName();
+			line[1] = e.getKey().getNetworkName();
+			line[2] = String.valueOf(e.getKey().getTimeStep());
+			line[3] = String.valueOf(e.getKey().getNumberOfSimulationRepetitions());
+			line[4] = String.valueOf(e.getKey().getFalseNegativeProbability());
+			line[5] = String.valueOf(e.getKey().getTransmissability());
+			line[6] = String.valueOf(e.getKey().getNumberOfHoneypots());
+			double objectiveValue = e.getValue().getObjectiveValue();
+			line[7] = String.valueOf(objectiveValue);
+			line[8] = e.getValue().getHoneypots().toString();
+			line[9] = String.valueOf(e.getValue().getAPrioriUB());
+			double posteriorUB = e.getValue().getPosteriorUB();
+			line[10] = String.valueOf(posteriorUB);
+			line[11] = String.valueOf(
+					100.0*(posteriorUB-objectiveValue)/(objectiveValue));
+			line[12] = String.valueOf(e.getValue().getWallTime());
+			line[13] = String.valueOf(sketchSize);
+			line[14] = now;
+			lines.add(line);
+		}
+		commonMethods.writeToCSV(filename, append, header, lines);
+		System.out.println("Streaming heuristic results successfully written to \""+filename+"\".");
+	}
+	
+	/**
+	 * Solves the sample-average approximation model using a greedy algorithm on a reservoir sample of the
+	 * replications, which are simulated and consumed in one pass.
+	 * The replications are those of
+	 * {@link simulationRuns#simulateRuns(graph, spreadModel, List, double, long, int)} with the same {@code seed};
+	 * the spread model is {@link spreadModel#of(String, double)} of the model name and transmissability
+	 * in the parameters.
+	 * Parameters that differ only in the number of honeypots share one pass and one greedy run.
+	 * The wall time is the time of the greedy algorithm on the reservoir (the time to stream the replications
+	 * is printed separately).
+	 *
+	 * @param g network graph
+	 * @param listOfParams list of the set of parameters
+	 * @param seed seed of the random number generators of the simulation; the reservoir uses it too
+	 * @param threads number of threads used by the simulation.
+	 * @throws Exception thrown if graph {@code g} has self-loops,
+	 *  or if node labels are negative integers,
+	 *  or if the network name in one of the parameters and the network name stored in the graph {@code g}
+	 *      do not match,
+	 *  or if the number of nodes is less than the number of honeypots in any of the parameters
+	 *      in {@code listOfParams},
+	 *  or if the spread model in one of the parameters is not supported by {@link spreadModel#of(String, double)}.
+	 */
+	public void runSAAUsingHeuristic(graph g, List<parameters> listOfParams, long seed, int threads)
+			throws Exception
+	{
+		if (g.hasSelfLoops())
+			throw new Exception("Graphs has self-loops!");
+		
+		// minimum label of vertex
+		if (g.findMinimumNodeLabel()<0)
+			throw new Exception("Node labels are negative integers!");
+		
+		// parameters that share a pass, in increasing order of the number of honeypots
+		Map<Sextet<String, String, Integer, Integer, Double, Double>, List<parameters>> groups =
+																							new LinkedHashMap<>();
+		for (parameters param: listOfParams)
+		{
+			if (!param.getNetworkName().equals(g.getNetworkName()))
+				throw new Exception("Parameters are for a different network than that has been provided as input!");
+			if (param.getNumberOfHoneypots()>g.getVertexSet().size())
+				throw new Exception("Number of honeypots cannot be greater than the number of nodes!");
+			groups.computeIfAbsent(new Sextet<>(param.getSpreadModelName(), param.getNetworkName(),
+								param.getTimeStep(), param.getNumberOfSimulationRepetitions(),
+								param.getFalseNegativeProbability(), param.getTransmissability()),
+								key -> new ArrayList<>()).add(param);
+		}
+		
+		for (Map.Entry<Sextet<String, String, Integer, Integer, Double, Double>, List<parameters>> e:
+				groups.entrySet())
+		{
+			List<parameters> group = e.getValue();
+			group.sort(Comparator.comparingInt(parameters::getNumberOfHoneypots));
+			String modelName = e.getKey().getValue0();
+			String networkName = e.getKey().getValue1();
+			int t_0 = e.getKey().getValue2();
+			int run = e.getKey().getValue3();
+			double r = e.getKey().getValue4();
+			double p = e.getKey().getValue5();
+			System.out.println("Using streaming greedy algorithm: "+modelName+" spread model on "+networkName
+								+"network; "+t_0+" time step(s); "+run+" samples; false negative probability="+r
+								+"; transmissability (p)="+p+"; sketch size="+sketchSize);
+			
+			// reservoir of samples in which some node detects the virus (nodes that detect the virus only)
+			List<List<Integer>> reservoir = new ArrayList<>(Math.min(sketchSize, run));
+			int[] numberOfDetectableSamples = new int[1];
+			SplittableRandom reservoirGen = new SplittableRandom(seed);
+			Instant tic = Instant.now();
+			simulationRuns.streamRuns(g, spreadModel.of(modelName, p), t_0, run, r, seed, threads,
+				(samplePath, virtualDetections) ->
+				{
+					List<Integer> row = new ArrayList<>();
+					for (int j=0; j<samplePath.size(); j++)
+						if (virtualDetections.get(j)==1)
+							row.add(samplePath.get(j));
+					if (row.isEmpty())
+						return;
+					numberOfDetectableSamples[0]++;
+					if (reservoir.size()<sketchSize)
+						reservoir.add(row);
+					else
+					{
+						int position = reservoirGen.nextInt(numberOfDetectableSamples[0]);
+						if (position<sketchSize)
+							reservoir.set(position, row);
+					}
+				});
+			Instant toc = Instant.now();
+			System.out.println("Streaming time (second) = "+1.0*Duration.between(tic, toc).toMillis()/1000
+								+"; "+numberOfDetectableSamples[0]+" samples with a detection");
+			
+			// number of samples with a detection per sample in the reservoir (1, if the reservoir holds all of them)
+			double scale = (reservoir.isEmpty()) ? 0 : numberOfDetectableSamples[0]*1.0/reservoir.size();
+			Duration elapsed = Duration.ZERO;
+			tic = Instant.now();
+			detectionMatrix sketchMatrix = new detectionMatrix(g.getVertexSet(), reservoir, null);
+			lazyGreedy greedy = new lazyGreedy(sketchMatrix);
+			for (parameters param: group)
+			{
+				int k = param.getNumberOfHoneypots();
+				int[] selectedColumns = greedy.select(k);
+				toc = Instant.now();
+				elapsed = elapsed.plus(Duration.between(tic, toc));
+				List<Integer> honeypots = new ArrayList<>(k);
+				for (int column: selectedColumns)
+					honeypots.add(sketchMatrix.getLabel(column));
+				double objectiveValue = greedy.getNumberOfCoveredRows()*scale/run;
+				System.out.println(k+" honeypots: objective value (estimated) = "+objectiveValue);
+				double wallTimeInSeconds = 1.0*elapsed.toMillis()/1000;
+				
+				double factor = Math.exp(1)/(Math.exp(1)-1);
+				// sum of the marginal gains of the top k nodes not in the solution (section 2.4.1 in Lee (2012))
+				double delta = greedy.sumOfLargestGains(k)*scale/run;
+				outputMap.put(param, new algorithmOutput(objectiveValue, honeypots,
+						wallTimeInSeconds, Math.min(factor*objectiveValue, 1),
+						Math.min(objectiveValue+delta, 1)));
+				tic = Instant.now();
+			}
+		}
+	}
+}
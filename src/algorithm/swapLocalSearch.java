@@ -0,0 +1,234 @@
+package algorithm;
+
+import dataTypes.detectionMatrix;
+
+/**
+ * Represents a local search for maximum coverage on a {@code detectionMatrix} that improves a set of
+ * {@code k} columns (for example, the columns selected by a greedy algorithm) by swaps.
+ * <p>
+ *     1-swap: an unselected column replaces a selected column.
+ *     The unselected columns are visited in a cycle; for each of them, the best selected column to replace is
+ *     found with one walk over its rows (see {@link coverageState#scanSwaps(int)}),
+ *     and the swap is made if it covers more rows.
+ *     A column is skipped if it has no more rows than the smallest loss of the selected columns,
+ *     since no swap with it can cover more rows.
+ *     The search stops when a whole cycle makes no swap (a 1-swap local optimum).
+ * </p>
+ * <p>
+ *     Restricted 2-swap: at a 1-swap local optimum, two unselected columns replace two selected columns.
+ *     For each unselected column, only its best 1-swap is made (even if it covers fewer rows),
+ *     and then the best 1-swap from there is looked for; the pair is kept if together they cover more rows,
+ *     and undone otherwise.
+ *     This is not the full 2-swap neighbourhood (the first swap is not tried with every selected column),
+ *     so the final set of columns is a 1-swap local optimum, but not necessarily a 2-swap local optimum.
+ *     After an improving 2-swap, the search goes back to 1-swaps.
+ * </p>
+ * <p>
+ *     The number of covered rows increases with every kept move, and the search stops when the time budget
+ *     runs out, even if it is not at a local optimum.
+ * </p>
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+class swapLocalSearch
+{
+	/**
+	 * Current set of columns.
+	 */
+	final coverageState state;
+	
+	/**
+	 * Number of kept 1-swaps.
+	 */
+	int numberOfOneSwaps;
+	
+	/**
+	 * Number of kept 2-swaps.
+	 */
+	int numberOfTwoSwaps;
+	
+	/**
+	 * Time (in nanoseconds, see {@link System#nanoTime()}) at which the search stops.
+	 */
+	long deadline;
+	
+	/**
+	 * Constructor.
+	 *
+	 * @param matrix detection matrix
+	 * @param initialColumns initial set of columns (distinct).
+	 */
+	swapLocalSearch(detectionMatrix matrix, int[] initialColumns)
+	{
+		this.state = new coverageState(matrix, initialColumns);
+	}
+	
+	/**
+	 * Getter.
+	 *
+	 * @return {@code state}.
+	 */
+	coverageState getState()
+	{
+		return state;
+	}
+	
+	/**
+	 * Getter.
+	 *
+	 * @return {@code numberOfOneSwaps}.
+	 */
+	int getNumberOfOneSwaps()
+	{
+		return numberOfOneSwaps;
+	}
+	
+	/**
+	 * Getter.
+	 *
+	 * @return {@code numberOfTwoSwaps}.
+	 */
+	int getNumberOfTwoSwaps()
+	{
+		return numberOfTwoSwaps;
+	}
+	
+	/**
+	 * Improves the set of columns by 1-swaps and restricted 2-swaps until neither finds a move that covers
+	 * more rows, or until the time budget runs out.
+	 *
+	 * @param timeBudgetInSeconds time budget.
+	 * @return {@code true}, if no 1-swap and no move in the restricted 2-swap neighbourhood covers more rows
+	 *  (the set of columns is a 1-swap local optimum); {@code false}, if the time budget ran out first.
+	 */
+	boolean improve(double timeBudgetInSeconds)
+	{
+		deadline = System.nanoTime()+(long) (timeBudgetInSeconds*1e9);
+		int n = state.matrix.getNumberOfColumns();
+		if ((state.size==0) || (state.size==n))
+			return true;
+		while (true)
+		{
+			Boolean improved = oneSwapCycle();
+			if (improved==null)
+				return false;
+			improved = twoSwapPass();
+			if (improved==null)
+				return false;
+			if (!improved)
+				return true;
+		}
+	}
+	
+	/**
+	 * Makes improving 1-swaps until a whole cycle over the unselected columns makes none.
+	 *
+	 * @return {@code true}, if a swap was made; {@code false}, if none was made;
+	 *  {@code null}, if the time budget ran out.
+	 */
+	private Boolean oneSwapCycle()
+	{
+		int n = state.matrix.getNumberOfColumns();
+		boolean improved = false;
+		int lastSwap = 0;
+		int column = 0;
+		do
+		{
+			if (System.nanoTime()>deadline)
+				return null;
+			if (!state.isSelected(column))
+			{
+				int removed = bestSwap(column, -1, 0);
+				if (removed>=0)
+				{
+					state.swap(removed, column);
+					numberOfOneSwaps++;
+					improved = true;
+					lastSwap = column;
+				}
+			}
+			column = (column+1)%n;
+		} while (column!=lastSwap);
+		return improved;
+	}
+	
+	/**
+	 * Looks for an improving 2-swap in the restricted 2-swap neighbourhood, and makes the first one found.
+	 *
+	 * @return {@code true}, if a 2-swap was made; {@code false}, if none was found;
+	 *  {@code null}, if the time budget ran out.
+	 */
+	private Boolean twoSwapPass()
+	{
+		int n = state.matrix.getNumberOfColumns();
+		for (int first=0; first<n; first++)
+		{
+			if (System.nanoTime()>deadline)
+				return null;
+			if (state.isSelected(first))
+				continue;
+			int firstRemoved = bestSwap(first, -1, Integer.MIN_VALUE);
+			if (firstRemoved<0)
+				continue;
+			int firstDelta = state.swapDelta(firstRemoved);
+			state.swap(firstRemoved, first);
+			int bestDelta = 0;
+			int secondAdded = -1;
+			int secondRemoved = -1;
+			for (int second=0; second<n; second++)
+			{
+				if ((second==firstRemoved) || state.isSelected(second))
+					continue;
+				int removed = bestSwap(second, first, bestDelta-firstDelta);
+				if (removed>=0)
+				{
+					bestDelta = firstDelta+state.swapDelta(removed);
+					secondAdded = second;
+					secondRemoved = removed;
+				}
+			}
+			if (secondAdded>=0)
+			{
+				state.swap(secondRemoved, secondAdded);
+				numberOfTwoSwaps++;
+				return true;
+			}
+			state.swap(first, firstRemoved);
+		}
+		return false;
+	}
+	
+	/**
+	 * Returns the best selected column to swap with an unselected column, other than a given column,
+	 * if the change of the swap is greater than a threshold.
+	 * The rows of {@code added} are walked only if the bound (rows of {@code added})-(smallest loss)
+	 * on the change of the swap is greater than {@code threshold}.
+	 *
+	 * @param added unselected column
+	 * @param excluded selected column that may not be removed (-1, if none)
+	 * @param threshold threshold on the change of the swap.
+	 * @return the selected column (other than {@code excluded}) whose swap with {@code added} covers the most rows
+	 *  (ties are broken by the smallest column), if its change is greater than {@code threshold}; -1, otherwise.
+	 */
+	private int bestSwap(int added, int excluded, int threshold)
+	{
+		int smallestLoss = Integer.MAX_VALUE;
+		for (int t=0; t<state.size; t++)
+			if (state.selection[t]!=excluded)
+				smallestLoss = Math.min(smallestLoss, state.loss(state.selection[t]));
+		int length = state.matrix.getColumnEnd(added)-state.matrix.getColumnStart(added);
+		if ((smallestLoss==Integer.MAX_VALUE) || (length-smallestLoss<=threshold))
+			return -1;
+		state.scanSwaps(added);
+		int best = -1;
+		for (int t=0; t<state.size; t++)
+		{
+			int removed = state.selection[t];
+			if (removed==excluded)
+				continue;
+			if ((best<0) || (state.swapDelta(removed)>state.swapDelta(best))
+					|| ((state.swapDelta(removed)==state.swapDelta(best)) && (removed<best)))
+				best = removed;
+		}
+		return (state.swapDelta(best)>threshold) ? best : -1;
+	}
+}
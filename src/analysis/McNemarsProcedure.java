@@ -11,6 +11,7 @@ import org.apache.commons.math3.distribution.NormalDistribution;
 import org.javatuples.Pair;
 import org.javatuples.Sextet;
 import simulation.simulationRuns;
+import simulation.spreadModel;
 
 import java.io.File;
 import java.io.FileWriter;
@@ -201,24 +202,7 @@ public class McNemarsProcedure
 			simulationRuns observations = new simulationRuns();
 			List<Pair<Integer, Integer>> t0_runs = new ArrayList<>();
 			t0_runs.add(new Pair<>(t_0, sampleSize));
-			if (modelName.equals("TN11C"))
-			{
-				int[]  seed = {5072+hashcode, 1012+hashcode, 5673+hashcode};
-				observations.simulateTN11CRuns(g, t0_runs, r, seed);
-			}
-			else
-			{
-				if (modelName.equals("RA1PC"))
-				{
-					int[] seed = {5072+hashcode, 1012+hashcode, 1013+hashcode, 5673+hashcode};
-					observations.simulateRA1PCRuns(g, t0_runs, r, p, seed);
-				}
-				else if (modelName.equals("RAEPC"))
-				{
-					int[]  seed = {5072+hashcode, 1012+hashcode, 5673+hashcode};
-					observations.simulateRAEPCRuns(g, t0_runs, r, p, seed);
-				}
-			}
+			observations.simulateRuns(g, spreadModel.of(modelName, p), t0_runs, r, 5072+hashcode);
 			Sextet<String, String, Integer, Integer, Double, Double> key =
 														new Sextet<>(modelName, networkName, t_0, sampleSize, r, p);
 			List<List<Integer>> virusSpreadSamples =
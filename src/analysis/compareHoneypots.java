@@ -10,6 +10,7 @@ import org.javatuples.Pair;
 import org.javatuples.Sextet;
 import org.javatuples.Triplet;
 import simulation.simulationRuns;
+import simulation.spreadModel;
 
 import java.io.File;
 import java.io.FileWriter;
@@ -47,6 +48,17 @@ public class compareHoneypots
 	 */
 	Map<Triplet<parameters, parameters, Integer>, Integer> mapParamsPairToSemiHammingDistance;
 	
+	/**
+	 * Folder where the out-of-sample simulation results and their checkpoints are stored;
+	 * {@code null} if checkpoints are disabled.
+	 */
+	String checkpointFolder;
+	
+	/**
+	 * Minimum time (in seconds) between two writes of a checkpoint to disk.
+	 */
+	int checkpointIntervalInSeconds;
+	
 	/**
 	 * Constructor.
 	 */
@@ -136,6 +148,20 @@ public class compareHoneypots
 		return sb.toString();
 	}
 	
+	/**
+	 * Enables checkpoints of the out-of-sample simulation runs, so that an interrupted evaluation can be resumed
+	 * by calling {@link compareHoneypots#evaluateHoneypotsOnFalseNegativeModel} again with the same arguments.
+	 * See {@link simulationRuns#enableCheckpoints(String, int)}.
+	 *
+	 * @param checkpointFolder folder where the out-of-sample simulation results and their checkpoints are stored
+	 * @param checkpointIntervalInSeconds minimum time (in seconds) between two writes of a checkpoint to disk.
+	 */
+	public void enableCheckpoints(String checkpointFolder, int checkpointIntervalInSeconds)
+	{
+		this.checkpointFolder = checkpointFolder;
+		this.checkpointIntervalInSeconds = checkpointIntervalInSeconds;
+	}
+	
 	/**
 	 * Evaluates two sets of honeypots for the pairs of parameters provided on a larger independent sample.
 	 * Assumption: False-negative probability in the second parameter of the pair is the correct one i.e., true model.
@@ -221,43 +247,33 @@ public class compareHoneypots
 			simulationRuns simulationRuns2 = new simulationRuns();      // corresponding to second pair
 			simulationRuns trueSimulationRuns = new simulationRuns();   // samples on which solutions evaluated
 			
-			switch (spreadModelName1)
+			spreadModel model1, model2;
+			try
 			{
-				case "TN11C" ->
-				{
-					int[] TN11CSeed = {2507+hashCode, 2101+hashCode, 3567+hashCode};
-					int[] seed = {2507+newHashCode+1, 2101+newHashCode+1, 3567+newHashCode+1};
-					simulationRuns1.simulateTN11CRuns(g, t0_runs1, falseNegativeProbability1, TN11CSeed);
-					simulationRuns2.simulateTN11CRuns(g, t0_runs2, falseNegativeProbability2, TN11CSeed);
-					trueSimulationRuns.simulateTN11CRuns(g, t0_runs, falseNegativeProbability2, seed);
-				}
-				case "RA1PC" ->
-				{
-					int[] RA1PCSeed = {2507+hashCode, 2101+hashCode, 2101+hashCode, 3567+hashCode};
-					int[] seed = {2507+newHashCode+1, 2101+newHashCode+1, 2101+newHashCode+1, 3567+newHashCode+1};
-					simulationRuns1.simulateRA1PCRuns(g, t0_runs1, falseNegativeProbability1,
-														transmissability1, RA1PCSeed);
-					simulationRuns2.simulateRA1PCRuns(g, t0_runs2, falseNegativeProbability2,
-														transmissability2, RA1PCSeed);
-					trueSimulationRuns.simulateRA1PCRuns(g, t0_runs, falseNegativeProbability2, transmissability1, seed);
-				}
-				case "RAEPC" ->
-				{
-					int[] RAEPCSeed = {2507+hashCode, 2101+hashCode, 3567+hashCode};
-					int[] seed = {2507+newHashCode+1, 2101+newHashCode+1, 3567+newHashCode+1};
-					simulationRuns1.simulateRAEPCRuns(g, t0_runs1, falseNegativeProbability1,
-														transmissability1, RAEPCSeed);
-					simulationRuns2.simulateRAEPCRuns(g, t0_runs2, falseNegativeProbability2,
-														transmissability2, RAEPCSeed);
-					trueSimulationRuns.simulateRAEPCRuns(g, t0_runs, falseNegativeProbability2, transmissability1, seed);
-				}
-				default ->
-				{
-					System.out.println("Invalid model name!");
-					System.out.println("Skipping parameter pair: "+ cParam);
-					continue;
-				}
+				model1 = spreadModel.of(spreadModelName1, transmissability1);
+				model2 = spreadModel.of(spreadModelName1, transmissability2);
 			}
+			catch (Exception e)
+			{
+				System.out.println(e.getMessage());
+				System.out.println("Skipping parameter pair: "+ cParam);
+				continue;
+			}
+			// same seed for both pairs: common sample paths, detections differ only through false negative prob.
+			simulationRuns1.simulateRuns(g, model1, t0_runs1, falseNegativeProbability1, 2507+hashCode);
+			simulationRuns2.simulateRuns(g, model2, t0_runs2, falseNegativeProbability2, 2507+hashCode);
+			if (checkpointFolder!=null)
+			{
+				String samplesSerialFilename = checkpointFolder+g.getNetworkName()+"_"+spreadModelName1
+												+"_outofsample_"+(newHashCode+1)+".ser";
+				if (new File(samplesSerialFilename).exists())
+					trueSimulationRuns.loadRunsFromFile(samplesSerialFilename);
+				trueSimulationRuns.enableCheckpoints(samplesSerialFilename, checkpointIntervalInSeconds);
+				trueSimulationRuns.simulateOnlyNecessaryRuns(g, model1, t0_runs, falseNegativeProbability2,
+																2507+newHashCode+1);
+			}
+			else
+				trueSimulationRuns.simulateRuns(g, model1, t0_runs, falseNegativeProbability2, 2507+newHashCode+1);
 			
 			// find honeypot solutions for these samples
 			nodeInMaxRowsGreedyHeuristic heuristicResults1 = new nodeInMaxRowsGreedyHeuristic();
@@ -2,15 +2,20 @@ package analysis;
 
 import com.opencsv.CSVWriter;
 import dataTypes.algorithmOutput;
+import dataTypes.detectionMatrix;
 import dataTypes.parameters;
+import dataTypes.solverOutput;
 import dataTypes.statisticalOutput;
 import helper.commonMethods;
 import network.graph;
+import optimization.coveragePresolve;
 import optimization.gurobiSolver;
+import optimization.lagrangianBound;
 import org.apache.commons.math3.distribution.TDistribution;
 import org.javatuples.Pair;
 import org.javatuples.Sextet;
 import simulation.simulationRuns;
+import simulation.spreadModel;
 
 import java.io.File;
 import java.io.FileWriter;
@@ -168,6 +173,39 @@ public class multipleReplicationsProcedure
 	public void estimateGap(graph g, Map<parameters, algorithmOutput> algorithmOutputs,
 	                        double alpha, int sampleSize, int replicationSize, String algorithm) throws Exception
 	{
+		estimateGap(g, algorithmOutputs, alpha, sampleSize, replicationSize, algorithm, "LP relaxation");
+	}
+	
+	/**
+	 * Estimates gap in objective value using MRP.
+	 * Gap = optimal objective - objective value of a candidate solution.
+	 * The optimal objective of each replication is bounded from above by {@code upperBound}:
+	 * <dl>
+	 *     <dt>LP relaxation</dt> <dd>the LP relaxation of the SAA model, solved by Gurobi</dd>
+	 *     <dt>Lagrangian</dt> <dd>the Lagrangian relaxation bound of {@link optimization.lagrangianBound},
+	 *                         which needs no solver license and uses all the available processors.</dd>
+	 * </dl>
+	 *
+	 * @param g network graph
+	 * @param algorithmOutputs list of honeypots as a candidate solution
+	 * @param alpha alpha value for confidence interval
+	 * @param sampleSize sample size
+	 * @param replicationSize replication size
+	 * @param algorithm possible values: {"greedy"}
+	 * @param upperBound possible values: {"LP relaxation", "Lagrangian"}.
+	 * @throws Exception thrown if {@code 0<alpha<1} does not hold,
+	 *  or if the label of a node in {@code g} is a negative integer,
+	 *  or if the network name in one of the parameters and the network name stored in the graph {@code g}
+	 *      do not match,
+	 *  or if in one of the parameters of {@code algorithmOutputs}, {@code p<=0},
+	 *  or if {@code algorithm} has a value for which gap estimation calculation has not been implemented,
+	 *  or if {@code upperBound} is not one of the possible values.
+	 */
+	public void estimateGap(graph g, Map<parameters, algorithmOutput> algorithmOutputs, double alpha,
+	                        int sampleSize, int replicationSize, String algorithm, String upperBound) throws Exception
+	{
+		if (!(upperBound.equals("LP relaxation") || upperBound.equals("Lagrangian")))
+			throw new Exception("Invalid upper bound method!");
 		if ((alpha<=0) || (alpha>=1))
 			throw new Exception("Invalid value of alpha!");
 		// minimum label of vertex
@@ -205,24 +243,7 @@ public class multipleReplicationsProcedure
 				simulationRuns observations = new simulationRuns();
 				List<Pair<Integer, Integer>> t0_runs = new ArrayList<>();
 				t0_runs.add(new Pair<>(t_0, sampleSize));
-				if (modelName.equals("TN11C"))
-				{
-					int[]  seed = {2507+newHashCode, 2101+newHashCode, 3567+newHashCode};
-					observations.simulateTN11CRuns(g, t0_runs, r, seed);
-				}
-				else
-				{
-					if (modelName.equals("RA1PC"))
-					{
-						int[] seed = {2507+newHashCode, 2101+newHashCode, 2101+newHashCode, 3567+newHashCode};
-						observations.simulateRA1PCRuns(g, t0_runs, r, p, seed);
-					}
-					else if (modelName.equals("RAEPC"))
-					{
-						int[]  seed = {2507+newHashCode, 2101+newHashCode, 3567+newHashCode};
-						observations.simulateRAEPCRuns(g, t0_runs, r, p, seed);
-					}
-				}
+				observations.simulateRuns(g, spreadModel.of(modelName, p), t0_runs, r, 2507+newHashCode);
 				
 				// solve LP relaxation to get an UB on the optimal objective
 				List<parameters> listOfParams = new ArrayList<>();
@@ -238,20 +259,35 @@ public class multipleReplicationsProcedure
 //				{
 //					throw new Exception("Gap estimate calculation for other algorithms have not been implemented!");
 //				}
-				int threads = 1;
-				int timeLimit = 3600;
-				String lpRelaxationLogFilename = "tmpGapEstimateLPRelaxation.log";
-				gurobiSolver lpRelaxationResults = new gurobiSolver();
-				lpRelaxationResults.solveSAALPRelaxation(g, observations, listOfParams, threads,
-															timeLimit, lpRelaxationLogFilename);
-				
-				// evaluate honeypots on these observations
 				Sextet<String, String, Integer, Integer, Double, Double> key =
 						new Sextet<>(modelName, networkName, t_0, sampleSize, r, p);
 				List<List<Integer>> virusSpreadSamples =
 						observations.getMapModelNetworkT0RunsFalseNegativeToSimulationRuns().get(key);
 				List<List<Integer>> virtualDetectionSamples =
 						observations.getMapModelNetworkT0RunsFalseNegativeToVirtualDetections().get(key);
+				double bestUB;
+				if (upperBound.equals("Lagrangian"))
+				{
+					detectionMatrix matrix = new coveragePresolve(new detectionMatrix(g.getVertexSet(),
+												virusSpreadSamples, (r>0) ? virtualDetectionSamples : null))
+												.getReducedMatrix();
+					solverOutput bound = new lagrangianBound(matrix, Runtime.getRuntime().availableProcessors())
+												.solve(k);
+					System.out.println("Lagrangian bound = "+bound.getBestUB()+"; "+bound.getSolverMessage());
+					bestUB = bound.getBestUB();
+				}
+				else
+				{
+					int threads = 1;
+					int timeLimit = 3600;
+					String lpRelaxationLogFilename = "tmpGapEstimateLPRelaxation.log";
+					gurobiSolver lpRelaxationResults = new gurobiSolver();
+					lpRelaxationResults.solveSAALPRelaxation(g, observations, listOfParams, threads,
+																timeLimit, lpRelaxationLogFilename);
+					bestUB = lpRelaxationResults.getOutputMap().get(newKey).getBestUB();
+				}
+				
+				// evaluate honeypots on these observations
 				List<List<Integer>> successfulDetectMatrix;
 				List<Integer> honeypots = candidate.getValue().getHoneypots();
 				Set<Integer> candidates;
@@ -288,7 +324,7 @@ public class multipleReplicationsProcedure
 				// calculate gap
 //				double gap = algoResults.getOutputMap().get(newKey).getObjectiveValue()
 //								- candidateObjective;
-				double gap = lpRelaxationResults.getOutputMap().get(newKey).getBestUB() - candidateObjective;
+				double gap = bestUB - candidateObjective;
 				gaps.add(gap);
 				System.out.println("--------- End of replication "+i+"---------");
 			}
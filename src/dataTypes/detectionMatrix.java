@@ -0,0 +1,460 @@
+package dataTypes;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Represents the successful detection matrix of the sample-average approximation in compressed sparse row form.
+ * Row {@code i} is the set of candidate nodes that would detect the virus in sample {@code i},
+ * i.e., the nodes infected in sample path {@code i} whose virtual detection is 1 (at least once,
+ * if the node appears more than once in the sample path).
+ * Candidate nodes are the columns, numbered 0, 1, ..., n-1 in increasing order of their labels.
+ * <p>
+ *     Every row has a weight (its coefficient in the objective), which is {@code 1/runs} for a matrix
+ *     built from sample paths.
+ *     A column-wise copy (the inverted index: for each node, the rows in which it appears) is built on first use.
+ * </p>
+ * <p>
+ *     Since labels are stored explicitly, the label 0 needs no special treatment,
+ *     unlike the element-wise product of sample paths and virtual detections.
+ * </p>
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+public class detectionMatrix
+{
+	/**
+	 * {@code labels[j]} is the label of the node in column {@code j}; sorted in increasing order.
+	 */
+	final int[] labels;
+	
+	/**
+	 * Columns of row {@code i} are stored in {@code columns[rowStarts[i]]}, ..., {@code columns[rowStarts[i+1]-1]}.
+	 */
+	final int[] rowStarts;
+	
+	/**
+	 * Columns of all rows, stored contiguously; sorted in increasing order, and distinct, within a row.
+	 */
+	final int[] columns;
+	
+	/**
+	 * Weight of each row.
+	 */
+	final double[] rowWeights;
+	
+	/**
+	 * Rows of column {@code j} are stored in {@code rows[columnStarts[j]]}, ..., {@code rows[columnStarts[j+1]-1]};
+	 * {@code null} until first used.
+	 */
+	int[] columnStarts;
+	
+	/**
+	 * Rows of all columns, stored contiguously; sorted in increasing order within a column.
+	 */
+	volatile int[] rows;
+	
+	/**
+	 * Minimum number of rows in a block of rows that is processed by one thread
+	 * (when the matrix is built from sample paths, and when the column-wise copy is built).
+	 */
+	static final int MINIMUM_ROWS_PER_BLOCK = 1 << 12;
+	
+	/**
+	 * Constructor.
+	 *
+	 * @param labels labels of the columns, sorted in increasing order
+	 * @param rowStarts start of each row in {@code columns}, with {@code rowStarts[numberOfRows]=columns.length}
+	 * @param columns columns of all rows, stored contiguously and sorted within a row
+	 * @param rowWeights weight of each row.
+	 */
+	public detectionMatrix(int[] labels, int[] rowStarts, int[] columns, double[] rowWeights)
+	{
+		this.labels = labels;
+		this.rowStarts = rowStarts;
+		this.columns = columns;
+		this.rowWeights = rowWeights;
+	}
+	
+	/**
+	 * Constructor.
+	 * Builds the matrix from sample paths; each row has weight {@code 1/samplePaths.size()}.
+	 *
+	 * @param nodes candidate nodes (labels)
+	 * @param samplePaths sample paths (labels of infected nodes)
+	 * @param virtualDetections virtual detections (0 or 1) of the nodes in {@code samplePaths};
+	 *                          if {@code null}, every infected node detects the virus.
+	 * @throws Exception thrown if {@code samplePaths} and {@code virtualDetections} are not of the same size,
+	 *  or if a sample path has a node that is not a candidate.
+	 */
+	public detectionMatrix(Collection<Integer> nodes, List<List<Integer>> samplePaths,
+	                       List<List<Integer>> virtualDetections) throws Exception
+	{
+		if ((virtualDetections!=null) && (samplePaths.size()!=virtualDetections.size()))
+			throw new Exception("Inputs are not of the same size!");
+		this.labels = nodes.stream().mapToInt(Integer::intValue).sorted().toArray();
+		Map<Integer, Integer> labelToColumn = new HashMap<>(2*labels.length);
+		for (int j=0; j<labels.length; j++)
+			labelToColumn.put(labels[j], j);
+		final int numberOfRows = samplePaths.size();
+		this.rowStarts = new int[numberOfRows+1];
+		// blocks of rows are built in parallel; rowStarts[i+1] is first the number of columns in row i
+		final int numberOfBlocks = getNumberOfBlocks(numberOfRows);
+		int[][] blockEntries = new int[numberOfBlocks][];
+		String[] errors = new String[numberOfBlocks];
+		IntStream.range(0, numberOfBlocks).parallel().forEach(block ->
+		{
+			int firstRow = getFirstRow(block, numberOfBlocks, numberOfRows);
+			int endRow = getFirstRow(block+1, numberOfBlocks, numberOfRows);
+			int nonzeros = 0;
+			for (int i=firstRow; i<endRow; i++)
+				nonzeros += samplePaths.get(i).size();
+			int[] entries = new int[nonzeros];
+			int position = 0;
+			for (int i=firstRow; i<endRow; i++)
+			{
+				List<Integer> samplePath = samplePaths.get(i);
+				List<Integer> detections = (virtualDetections==null) ? null : virtualDetections.get(i);
+				int start = position;
+				for (int j=0; j<samplePath.size(); j++)
+				{
+					if ((detections!=null) && (detections.get(j)==0))
+						continue;
+					Integer column = labelToColumn.get(samplePath.get(j));
+					if (column==null)
+					{
+						errors[block] = "Node "+samplePath.get(j)+" in sample path "+(i+1)+" is not a candidate!";
+						return;
+					}
+					entries[position++] = column;
+				}
+				// a node can appear more than once in a sample path (for example, in TN11C)
+				Arrays.sort(entries, start, position);
+				int end = start;
+				for (int p=start; p<position; p++)
+					if ((p==start) || (entries[p]!=entries[p-1]))
+						entries[end++] = entries[p];
+				position = end;
+				rowStarts[i+1] = end-start;
+			}
+			blockEntries[block] = entries;
+		});
+		for (String error: errors)
+			if (error!=null)
+				throw new Exception(error);
+		for (int i=0; i<numberOfRows; i++)
+			rowStarts[i+1] += rowStarts[i];
+		this.columns = new int[rowStarts[numberOfRows]];
+		for (int block=0; block<numberOfBlocks; block++)
+		{
+			int firstRow = getFirstRow(block, numberOfBlocks, numberOfRows);
+			int endRow = getFirstRow(block+1, numberOfBlocks, numberOfRows);
+			System.arraycopy(blockEntries[block], 0, columns, rowStarts[firstRow],
+								rowStarts[endRow]-rowStarts[firstRow]);
+		}
+		this.rowWeights = new double[numberOfRows];
+		Arrays.fill(rowWeights, 1.0/numberOfRows);
+	}
+	
+	/**
+	 * Returns the number of rows (samples).
+	 *
+	 * @return the number of rows.
+	 */
+	public int getNumberOfRows()
+	{
+		return rowWeights.length;
+	}
+	
+	/**
+	 * Returns the number of columns (candidate nodes).
+	 *
+	 * @return the number of columns.
+	 */
+	public int getNumberOfColumns()
+	{
+		return labels.length;
+	}
+	
+	/**
+	 * Returns the number of nonzero entries.
+	 *
+	 * @return the number of nonzero entries.
+	 */
+	public int getNumberOfNonzeros()
+	{
+		return columns.length;
+	}
+	
+	/**
+	 * Returns the label of the node in a column.
+	 *
+	 * @param column the column.
+	 * @return the label of the node.
+	 */
+	public int getLabel(int column)
+	{
+		return labels[column];
+	}
+	
+	/**
+	 * Returns the column of a node.
+	 *
+	 * @param label label of the node.
+	 * @return the column of the node; -1, if the node is not a candidate.
+	 */
+	public int getColumn(int label)
+	{
+		int column = Arrays.binarySearch(labels, label);
+		return (column<0) ? -1 : column;
+	}
+	
+	/**
+	 * Returns the weight of a row.
+	 *
+	 * @param row the row.
+	 * @return the weight of the row.
+	 */
+	public double getRowWeight(int row)
+	{
+		return rowWeights[row];
+	}
+	
+	/**
+	 * Returns the position in {@link detectionMatrix#getColumns()} of the first entry of a row.
+	 *
+	 * @param row the row.
+	 * @return the start of the row.
+	 */
+	public int getRowStart(int row)
+	{
+		return rowStarts[row];
+	}
+	
+	/**
+	 * Returns the position in {@link detectionMatrix#getColumns()} after the last entry of a row.
+	 *
+	 * @param row the row.
+	 * @return the end of the row.
+	 */
+	public int getRowEnd(int row)
+	{
+		return rowStarts[row+1];
+	}
+	
+	/**
+	 * Returns the columns of all rows, stored contiguously.
+	 * The array is shared, and should not be modified.
+	 *
+	 * @return the columns of all rows.
+	 */
+	public int[] getColumns()
+	{
+		return columns;
+	}
+	
+	/**
+	 * Returns the position in {@link detectionMatrix#getRows()} of the first entry of a column.
+	 *
+	 * @param column the column.
+	 * @return the start of the column.
+	 */
+	public int getColumnStart(int column)
+	{
+		if (rows==null)
+			buildColumnIndex();
+		return columnStarts[column];
+	}
+	
+	/**
+	 * Returns the position in {@link detectionMatrix#getRows()} after the last entry of a column.
+	 *
+	 * @param column the column.
+	 * @return the end of the column.
+	 */
+	public int getColumnEnd(int column)
+	{
+		if (rows==null)
+			buildColumnIndex();
+		return columnStarts[column+1];
+	}
+	
+	/**
+	 * Returns the rows of all columns (the inverted index), stored contiguously.
+	 * The array is shared, and should not be modified.
+	 *
+	 * @return the rows of all columns.
+	 */
+	public int[] getRows()
+	{
+		if (rows==null)
+			buildColumnIndex();
+		return rows;
+	}
+	
+	/**
+	 * Returns the rows covered by a set of columns.
+	 *
+	 * @param x {@code x[j]>0.5} if column {@code j} is selected.
+	 * @return the set of covered rows.
+	 */
+	public BitSet getCoveredRows(double[] x)
+	{
+		if (rows==null)
+			buildColumnIndex();
+		BitSet covered = new BitSet(rowWeights.length);
+		for (int j=0; j<labels.length; j++)
+			if (x[j]>0.5)
+				for (int position=columnStarts[j]; position<columnStarts[j+1]; position++)
+					covered.set(rows[position]);
+		return covered;
+	}
+	
+	/**
+	 * Returns the weight of the rows covered by a set of columns.
+	 *
+	 * @param selectedColumns the selected columns.
+	 * @return the total weight of the covered rows.
+	 */
+	public double getCoveredWeight(int[] selectedColumns)
+	{
+		double[] x = new double[labels.length];
+		for (int column: selectedColumns)
+			x[column] = 1;
+		BitSet covered = getCoveredRows(x);
+		double weight = 0;
+		for (int i=covered.nextSetBit(0); i>=0; i=covered.nextSetBit(i+1))
+			weight += rowWeights[i];
+		return weight;
+	}
+	
+	/**
+	 * Extends a set of columns greedily to {@code k} columns: one at a time, the column that covers
+	 * the largest weight of uncovered rows is added (ties are broken by the smallest column).
+	 *
+	 * @param initialColumns columns to start with (may be empty)
+	 * @param k number of columns; if greater than the number of columns, all columns are returned.
+	 * @return the selected columns; the initial columns first, then in the order in which they were added.
+	 */
+	public int[] extendGreedily(int[] initialColumns, int k)
+	{
+		if (rows==null)
+			buildColumnIndex();
+		final int n = labels.length;
+		k = Math.min(k, n);
+		boolean[] selected = new boolean[n];
+		int[] output = new int[Math.max(k, initialColumns.length)];
+		int size = 0;
+		for (int column: initialColumns)
+		{
+			if (selected[column])
+				continue;
+			selected[column] = true;
+			output[size++] = column;
+		}
+		double[] x = new double[n];
+		for (int j=0; j<size; j++)
+			x[output[j]] = 1;
+		BitSet covered = getCoveredRows(x);
+		// gain of a column = weight of uncovered rows it covers
+		double[] gain = new double[n];
+		for (int i=covered.nextClearBit(0); i<rowWeights.length; i=covered.nextClearBit(i+1))
+			for (int position=rowStarts[i]; position<rowStarts[i+1]; position++)
+				gain[columns[position]] += rowWeights[i];
+		while (size<k)
+		{
+			int best = -1;
+			for (int j=0; j<n; j++)
+				if ((!selected[j]) && ((best<0) || (gain[j]>gain[best])))
+					best = j;
+			selected[best] = true;
+			output[size++] = best;
+			for (int position=columnStarts[best]; position<columnStarts[best+1]; position++)
+			{
+				int i = rows[position];
+				if (covered.get(i))
+					continue;
+				covered.set(i);
+				for (int p=rowStarts[i]; p<rowStarts[i+1]; p++)
+					gain[columns[p]] -= rowWeights[i];
+			}
+		}
+		return Arrays.copyOf(output, size);
+	}
+	
+	/**
+	 * Builds the column-wise copy of the matrix, if not already built.
+	 * <p>
+	 *     Blocks of rows are processed in parallel: each block counts its nonzeros per column into its own
+	 *     counter, and then fills its part of every column.
+	 *     Rows within a column end up in increasing order, whatever the number of blocks.
+	 * </p>
+	 */
+	private synchronized void buildColumnIndex()
+	{
+		if (rows!=null)
+			return;
+		final int n = labels.length;
+		final int numberOfRows = rowWeights.length;
+		final int numberOfBlocks = getNumberOfBlocks(numberOfRows);
+		int[][] next = new int[numberOfBlocks][];
+		IntStream.range(0, numberOfBlocks).parallel().forEach(block ->
+		{
+			int[] count = new int[n];
+			for (int position=rowStarts[getFirstRow(block, numberOfBlocks, numberOfRows)];
+			     position<rowStarts[getFirstRow(block+1, numberOfBlocks, numberOfRows)]; position++)
+				count[columns[position]]++;
+			next[block] = count;
+		});
+		// next[block][j]: where block puts its first row of column j
+		int[] starts = new int[n+1];
+		for (int j=0; j<n; j++)
+		{
+			int position = starts[j];
+			for (int block=0; block<numberOfBlocks; block++)
+			{
+				int count = next[block][j];
+				next[block][j] = position;
+				position += count;
+			}
+			starts[j+1] = position;
+		}
+		int[] entries = new int[columns.length];
+		IntStream.range(0, numberOfBlocks).parallel().forEach(block ->
+		{
+			int[] blockNext = next[block];
+			for (int i=getFirstRow(block, numberOfBlocks, numberOfRows);
+			     i<getFirstRow(block+1, numberOfBlocks, numberOfRows); i++)
+				for (int position=rowStarts[i]; position<rowStarts[i+1]; position++)
+					entries[blockNext[columns[position]]++] = i;
+		});
+		columnStarts = starts;
+		rows = entries;
+	}
+	
+	/**
+	 * Returns the number of blocks of rows that are processed in parallel:
+	 * one per thread of the common fork-join pool,
+	 * with at least {@link detectionMatrix#MINIMUM_ROWS_PER_BLOCK} rows per block.
+	 *
+	 * @param numberOfRows number of rows.
+	 * @return the number of blocks (at least 1).
+	 */
+	private static int getNumberOfBlocks(int numberOfRows)
+	{
+		return Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism(), numberOfRows/MINIMUM_ROWS_PER_BLOCK));
+	}
+	
+	/**
+	 * Returns the first row of a block of rows.
+	 *
+	 * @param block block; {@code numberOfBlocks} for the end of the last block
+	 * @param numberOfBlocks number of blocks
+	 * @param numberOfRows number of rows.
+	 * @return the first row of {@code block}.
+	 */
+	private static int getFirstRow(int block, int numberOfBlocks, int numberOfRows)
+	{
+		return (int) ((long) numberOfRows*block/numberOfBlocks);
+	}
+}
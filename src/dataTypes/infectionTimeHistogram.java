@@ -0,0 +1,188 @@
+package dataTypes;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Represents a histogram of the (integer) time steps required to reach a given percentage infection.
+ * Since time steps are integers, the histogram is exact: the mean, variance and quantiles are the same as
+ * those computed on the full list of infection times, but the memory used only grows with the largest time step.
+ * Two histograms can be merged, so that partial results (for example, from different threads) can be combined.
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+public class infectionTimeHistogram implements Serializable
+{
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * Number of observations for each time step; {@code counts[t]} is the frequency of time step {@code t}.
+	 */
+	long[] counts;
+	
+	/**
+	 * Total number of observations.
+	 */
+	long numberOfObservations;
+	
+	/**
+	 * Sum of the observations.
+	 */
+	long sum;
+	
+	/**
+	 * Constructor.
+	 */
+	public infectionTimeHistogram()
+	{
+		this.counts = new long[16];
+	}
+	
+	/**
+	 * Copy constructor.
+	 *
+	 * @param histogram an instance of {@code infectionTimeHistogram}.
+	 */
+	public infectionTimeHistogram(infectionTimeHistogram histogram)
+	{
+		this.counts = Arrays.copyOf(histogram.counts, histogram.counts.length);
+		this.numberOfObservations = histogram.numberOfObservations;
+		this.sum = histogram.sum;
+	}
+	
+	/**
+	 * Records an infection time.
+	 *
+	 * @param time time steps required to reach the percentage infection.
+	 * @throws IllegalArgumentException thrown if {@code time} is negative.
+	 */
+	public void add(int time)
+	{
+		if (time<0)
+			throw new IllegalArgumentException("Infection time cannot be negative!");
+		if (time>=counts.length)
+			counts = Arrays.copyOf(counts, Math.max(time+1, 2*counts.length));
+		counts[time]++;
+		numberOfObservations++;
+		sum += time;
+	}
+	
+	/**
+	 * Adds all the observations in {@code other} to this histogram.
+	 *
+	 * @param other the histogram to be merged into this one.
+	 */
+	public void merge(infectionTimeHistogram other)
+	{
+		if (other.counts.length>counts.length)
+			counts = Arrays.copyOf(counts, other.counts.length);
+		for (int t=0; t<other.counts.length; t++)
+			counts[t] += other.counts[t];
+		numberOfObservations += other.numberOfObservations;
+		sum += other.sum;
+	}
+	
+	/**
+	 * Getter.
+	 *
+	 * @return {@code numberOfObservations}.
+	 */
+	public long getNumberOfObservations()
+	{
+		return numberOfObservations;
+	}
+	
+	/**
+	 * Returns the number of observations equal to {@code time}.
+	 *
+	 * @param time time step.
+	 * @return the frequency of {@code time}.
+	 */
+	public long getCount(int time)
+	{
+		return (time<0 || time>=counts.length) ? 0 : counts[time];
+	}
+	
+	/**
+	 * Returns the mean infection time.
+	 *
+	 * @return the mean, or {@code Double.NaN} if the histogram is empty.
+	 */
+	public double getMean()
+	{
+		if (numberOfObservations==0)
+			return Double.NaN;
+		return 1.0*sum/numberOfObservations;
+	}
+	
+	/**
+	 * Returns the (unbiased) sample variance of the infection times.
+	 * The squared deviations from the mean are summed over the time steps, which, unlike the sum of squares
+	 * minus {@code n} times the squared mean, does not lose precision when the variance is small relative to
+	 * the mean.
+	 *
+	 * @return the sample variance, or {@code Double.NaN} if there are fewer than two observations.
+	 */
+	public double getVariance()
+	{
+		if (numberOfObservations<2)
+			return Double.NaN;
+		double mean = getMean();
+		double sumOfSquaredDeviations = 0;
+		for (int t=0; t<counts.length; t++)
+			if (counts[t]>0)
+				sumOfSquaredDeviations += counts[t]*(t-mean)*(t-mean);
+		return sumOfSquaredDeviations/(numberOfObservations-1);
+	}
+	
+	/**
+	 * Returns the sample standard deviation of the infection times.
+	 *
+	 * @return the sample standard deviation.
+	 */
+	public double getStDev()
+	{
+		return Math.sqrt(getVariance());
+	}
+	
+	/**
+	 * Returns the {@code q}-quantile (nearest-rank definition) of the infection times.
+	 *
+	 * @param q a value in (0, 1]; for example, 0.9 for the 90th percentile.
+	 * @return the smallest time step {@code t} such that at least {@code q} fraction of observations are
+	 *      at most {@code t}; {@code -1} if the histogram is empty.
+	 * @throws IllegalArgumentException thrown if {@code q} is not in (0, 1].
+	 */
+	public int getQuantile(double q)
+	{
+		if ((q<=0) || (q>1))
+			throw new IllegalArgumentException("Invalid value of q!");
+		if (numberOfObservations==0)
+			return -1;
+		long rank = (long) Math.ceil(q*numberOfObservations);
+		long cumulative = 0;
+		for (int t=0; t<counts.length; t++)
+		{
+			cumulative += counts[t];
+			if (cumulative>=rank)
+				return t;
+		}
+		return counts.length-1;
+	}
+	
+	/**
+	 * Returns a string representation of the object.
+	 *
+	 * @return a string representation of the object.
+	 */
+	@Override
+	public String toString()
+	{
+		return "Infection time histogram: "
+				+"observations = "+numberOfObservations+"; "
+				+"mean = "+getMean()+"; "
+				+"std. dev. = "+getStDev()+"; "
+				+"p50 = "+getQuantile(0.5)+"; "
+				+"p90 = "+getQuantile(0.9)+"; "
+				+"p99 = "+getQuantile(0.99)+".";
+	}
+}
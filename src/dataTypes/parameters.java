@@ -3,6 +3,7 @@ package dataTypes;
 
 import lombok.EqualsAndHashCode;
 
+import java.io.Serializable;
 import java.util.Objects;
 
 /**
@@ -11,8 +12,10 @@ import java.util.Objects;
  * Last Updated: October 1, 2020.
  */
 @EqualsAndHashCode
-public class parameters
+public class parameters implements Serializable
 {
+	private static final long serialVersionUID = 1L;
+	
 	/**
 	 * Name of the spread model (TN11C, RAEPC, etc.).
 	 */
@@ -41,7 +41,13 @@ public class solverOutput
 	 *     <dt>MIPGap</dt> <dd>current relative MIP optimality gap</dd>
 	 *     <dt>threads</dt> <dd>number of threads to apply to parallel algorithms</dd>
 	 *     <dt>Presolve</dt> <dd>controls the presolve level</dd>
-	 *     <dt>TimeLimit</dt> <dd>limits the total time expended (in seconds).</dd>
+	 *     <dt>TimeLimit</dt> <dd>limits the total time expended (in seconds)</dd>
+	 *     <dt>MIPStart</dt> <dd>source of the MIP start (none, heuristic, greedy, or previous)</dd>
+	 *     <dt>BestObjStop</dt> <dd>objective value at which the optimization stops</dd>
+	 *     <dt>ReduceDetectionMatrix</dt> <dd>if the detection matrix was reduced before the model was built</dd>
+	 *     <dt>NodeCount</dt> <dd>number of branch-and-bound nodes explored (pure-Java branch-and-bound)</dd>
+	 *     <dt>WarmupIterations</dt> <dd>benchmark mode: number of re-solves whose wall times were discarded</dd>
+	 *     <dt>MeasurementIterations</dt> <dd>benchmark mode: number of re-solves whose wall times were averaged.</dd>
 	 * </dl>
 	 */
 	Map<String, String> solverOptionsUsed;
@@ -51,6 +57,12 @@ public class solverOutput
 	 */
 	String solverMessage;
 	
+	/**
+	 * Progress of the solve over time; {@code null} if it was not recorded.
+	 * Not compared by {@link solverOutput#equals(Object)}.
+	 */
+	solverProgress progress;
+	
 	/**
 	 * Constructor.
 	 *
@@ -85,6 +97,7 @@ public class solverOutput
 		this.wallTimeInSeconds = output.wallTimeInSeconds;
 		this.solverOptionsUsed = output.solverOptionsUsed;
 		this.solverMessage = output.solverMessage;
+		this.progress = output.progress;
 	}
 	
 	/**
@@ -216,6 +229,26 @@ public class solverOutput
 		this.solverMessage = solverMessage;
 	}
 	
+	/**
+	 * Getter.
+	 *
+	 * @return progress of the solve over time {@code progress}; {@code null} if it was not recorded.
+	 */
+	public solverProgress getProgress()
+	{
+		return progress;
+	}
+	
+	/**
+	 * Setter.
+	 *
+	 * @param progress progress of the solve over time.
+	 */
+	public void setProgress(solverProgress progress)
+	{
+		this.progress = progress;
+	}
+	
 	/**
 	 * Returns a string representation of the object.
 	 *
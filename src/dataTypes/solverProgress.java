@@ -0,0 +1,161 @@
+package dataTypes;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents the progress of a MIP solve over time: a timeline of the objective value of the incumbent,
+ * the best bound, the relative gap, and the number of explored nodes.
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+public class solverProgress
+{
+	/**
+	 * Event at which each point was recorded (for example, "MIPSOL" for a new incumbent, "MIP" for a periodic
+	 * update, "final" for the end of the solve).
+	 */
+	final List<String> events;
+	
+	/**
+	 * Time (in seconds, since the start of the solve) of each point.
+	 */
+	final List<Double> times;
+	
+	/**
+	 * Objective value of the incumbent at each point.
+	 */
+	final List<Double> objectiveValues;
+	
+	/**
+	 * Best bound at each point.
+	 */
+	final List<Double> bounds;
+	
+	/**
+	 * Number of explored nodes at each point.
+	 */
+	final List<Double> nodeCounts;
+	
+	/**
+	 * Constructor.
+	 */
+	public solverProgress()
+	{
+		this.events = new ArrayList<>();
+		this.times = new ArrayList<>();
+		this.objectiveValues = new ArrayList<>();
+		this.bounds = new ArrayList<>();
+		this.nodeCounts = new ArrayList<>();
+	}
+	
+	/**
+	 * Adds a point to the timeline.
+	 *
+	 * @param event event at which the point is recorded
+	 * @param time time (in seconds) since the start of the solve
+	 * @param objectiveValue objective value of the incumbent
+	 * @param bound best bound
+	 * @param nodeCount number of explored nodes.
+	 */
+	public void add(String event, double time, double objectiveValue, double bound, double nodeCount)
+	{
+		events.add(event);
+		times.add(time);
+		objectiveValues.add(objectiveValue);
+		bounds.add(bound);
+		nodeCounts.add(nodeCount);
+	}
+	
+	/**
+	 * Returns the number of points.
+	 *
+	 * @return the number of points.
+	 */
+	public int size()
+	{
+		return times.size();
+	}
+	
+	/**
+	 * Getter.
+	 *
+	 * @param i index of the point.
+	 * @return the event at which point {@code i} was recorded.
+	 */
+	public String getEvent(int i)
+	{
+		return events.get(i);
+	}
+	
+	/**
+	 * Getter.
+	 *
+	 * @param i index of the point.
+	 * @return the time (in seconds) of point {@code i}.
+	 */
+	public double getTime(int i)
+	{
+		return times.get(i);
+	}
+	
+	/**
+	 * Getter.
+	 *
+	 * @param i index of the point.
+	 * @return the objective value of the incumbent at point {@code i}.
+	 */
+	public double getObjectiveValue(int i)
+	{
+		return objectiveValues.get(i);
+	}
+	
+	/**
+	 * Getter.
+	 *
+	 * @param i index of the point.
+	 * @return the best bound at point {@code i}.
+	 */
+	public double getBound(int i)
+	{
+		return bounds.get(i);
+	}
+	
+	/**
+	 * Getter.
+	 *
+	 * @param i index of the point.
+	 * @return the number of explored nodes at point {@code i}.
+	 */
+	public double getNodeCount(int i)
+	{
+		return nodeCounts.get(i);
+	}
+	
+	/**
+	 * Returns the relative gap {@code |bound-objective value|/|objective value|} at a point,
+	 * as defined by Gurobi.
+	 *
+	 * @param i index of the point.
+	 * @return the relative gap at point {@code i}; infinity, if there is no incumbent (or its objective value is 0).
+	 */
+	public double getGap(int i)
+	{
+		double objectiveValue = objectiveValues.get(i);
+		if ((objectiveValue==0) || (Math.abs(objectiveValue)>=1e100))
+			return Double.POSITIVE_INFINITY;
+		return Math.abs(bounds.get(i)-objectiveValue)/Math.abs(objectiveValue);
+	}
+	
+	/**
+	 * Returns a string representation of the object.
+	 *
+	 * @return a string representation of the object.
+	 */
+	@Override
+	public String toString()
+	{
+		return "Solver progress: "+size()+" points"
+				+((size()>0) ? "; last: time = "+getTime(size()-1)+", objective value = "+getObjectiveValue(size()-1)
+				+", bound = "+getBound(size()-1)+", gap = "+getGap(size()-1) : "")+".";
+	}
+}
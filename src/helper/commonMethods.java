@@ -1,8 +1,14 @@
 package helper;
 
+import com.opencsv.CSVWriter;
 import network.graph;
 
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -41,8 +47,16 @@ public class commonMethods
 		return output;
 	}
 	
+	/**
+	 * Minimum number of rows in a block of rows that is counted by one thread
+	 * (see {@link commonMethods#countNodesInRows(List, Map, int, Predicate, boolean)}).
+	 */
+	static final int MINIMUM_ROWS_PER_BLOCK = 1 << 12;
+	
 	/**
 	 * Finds a node in {@code nodes} which is present in the most rows of {@code arr}.
+	 * Rows are counted in parallel (see {@link commonMethods#countNodesInRows(List, Map, int, Predicate, boolean)});
+	 * ties are broken by the first node in {@code nodes}, so the result does not depend on the number of threads.
 	 *
 	 * @param arr a list of lists
 	 * @param nodes a list of integers (nodes).
@@ -50,14 +64,89 @@ public class commonMethods
 	 */
 	public static int findMaxRowFrequencyNode(List<List<Integer>> arr, List<Integer> nodes)
 	{
-		Map<Integer, Integer> rowCount = nodes.stream().collect(Collectors
-				.toMap(node -> node, node -> 0, (a, b) -> b, () -> new HashMap<>(nodes.size())));
-		for (List<Integer> row : arr)
-			for (int key : row)
-				if (rowCount.containsKey(key))
-					rowCount.put(key, rowCount.get(key) + 1);
-		return Objects.requireNonNull(rowCount.entrySet()
-				.stream().max(Comparator.comparingInt(Map.Entry::getValue)).orElse(null)).getKey();
+		Map<Integer, Integer> nodeToIndex = new HashMap<>(2*nodes.size());
+		for (int j=0; j<nodes.size(); j++)
+			nodeToIndex.putIfAbsent(nodes.get(j), j);
+		int[] rowCount = countNodesInRows(arr, nodeToIndex, nodes.size(), null, false);
+		int maxIndex = 0;
+		for (int j=1; j<nodes.size(); j++)
+			if (rowCount[j]>rowCount[maxIndex])
+				maxIndex = j;
+		return nodes.get(maxIndex);
+	}
+	
+	/**
+	 * Counts the occurrences of nodes in the rows of {@code arr}.
+	 * <p>
+	 *     Rows are split into contiguous blocks, which are counted in parallel, each into its own {@code int[]}
+	 *     counter; the counters are then added up.
+	 *     Since integer addition is exact, the counts do not depend on the number of blocks or threads.
+	 * </p>
+	 *
+	 * @param arr a list of lists
+	 * @param nodeToIndex map from a node to its index in the output; nodes that are not in the map are not counted
+	 * @param numberOfIndices number of indices in the output
+	 * @param rowFilter only rows that satisfy this predicate are counted; if {@code null}, all rows are counted
+	 * @param oncePerRow {@code true}, if a node that occurs more than once in a row should be counted once;
+	 *                   {@code false}, if every occurrence should be counted.
+	 * @return the count of each node, at its index.
+	 */
+	public static int[] countNodesInRows(List<List<Integer>> arr, Map<Integer, Integer> nodeToIndex,
+	                                     int numberOfIndices, Predicate<List<Integer>> rowFilter, boolean oncePerRow)
+	{
+		return countNodesInRows(arr, nodeToIndex, numberOfIndices, rowFilter, oncePerRow,
+				Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism(), arr.size()/MINIMUM_ROWS_PER_BLOCK)));
+	}
+	
+	/**
+	 * Counts the occurrences of nodes in the rows of {@code arr}, with a given number of blocks of rows
+	 * (see {@link commonMethods#countNodesInRows(List, Map, int, Predicate, boolean)}).
+	 *
+	 * @param arr a list of lists
+	 * @param nodeToIndex map from a node to its index in the output; nodes that are not in the map are not counted
+	 * @param numberOfIndices number of indices in the output
+	 * @param rowFilter only rows that satisfy this predicate are counted; if {@code null}, all rows are counted
+	 * @param oncePerRow {@code true}, if a node that occurs more than once in a row should be counted once;
+	 *                   {@code false}, if every occurrence should be counted
+	 * @param numberOfBlocks number of blocks of rows (at least 1).
+	 * @return the count of each node, at its index.
+	 */
+	static int[] countNodesInRows(List<List<Integer>> arr, Map<Integer, Integer> nodeToIndex, int numberOfIndices,
+	                              Predicate<List<Integer>> rowFilter, boolean oncePerRow, int numberOfBlocks)
+	{
+		return IntStream.range(0, numberOfBlocks).parallel().mapToObj(block ->
+		{
+			int[] count = new int[numberOfIndices];
+			// last row (plus one) in which a node was counted
+			int[] lastRow = oncePerRow ? new int[numberOfIndices] : null;
+			int firstRow = (int) ((long) arr.size()*block/numberOfBlocks);
+			int endRow = (int) ((long) arr.size()*(block+1)/numberOfBlocks);
+			for (int i=firstRow; i<endRow; i++)
+			{
+				List<Integer> row = arr.get(i);
+				if ((rowFilter!=null) && (!rowFilter.test(row)))
+					continue;
+				for (int node: row)
+				{
+					Integer index = nodeToIndex.get(node);
+					if (index==null)
+						continue;
+					if (oncePerRow)
+					{
+						if (lastRow[index]==i+1)
+							continue;
+						lastRow[index] = i+1;
+					}
+					count[index]++;
+				}
+			}
+			return count;
+		}).reduce((a, b) ->
+		{
+			for (int j=0; j<numberOfIndices; j++)
+				a[j] += b[j];
+			return a;
+		}).orElseGet(() -> new int[numberOfIndices]);
 	}
 	
 	/**
@@ -121,22 +210,22 @@ public class commonMethods
 		int k = honeypots.size();
 		
 		// failedVertices: vertices not in honeypot
-		Set<Integer> failedVertices = new HashSet<>(g.getG().vertexSet());
+		Set<Integer> failedVertices = new LinkedHashSet<>(g.getG().vertexSet());
 		failedVertices.removeAll(honeypots);
 		//System.out.println("Failed nodes: "+failedVertices.toString());
 		
-		// find rows not covered by honeypots in the heuristic solution
-		List<List<Integer>> uncoveredSamplePaths = simulationResults.stream().filter(samplePath -> samplePath.stream()
-				.noneMatch(honeypots::contains)).map(ArrayList::new)
-				.collect(Collectors
-						.toCollection(() -> new ArrayList<>(simulationResults.size())));
-		//System.out.println("Uncovered sample paths: "+uncoveredSamplePaths.toString());
-		
-		// find frequency of failedVertices in uncoveredSamplePaths
+		// find frequency of failedVertices in the rows not covered by honeypots in the heuristic solution
+		Set<Integer> honeypotSet = new HashSet<>(honeypots);
+		List<Integer> nodes = new ArrayList<>(failedVertices);
+		Map<Integer, Integer> nodeToIndex = new HashMap<>(2*nodes.size());
+		for (int j=0; j<nodes.size(); j++)
+			nodeToIndex.put(nodes.get(j), j);
+		int[] count = countNodesInRows(simulationResults, nodeToIndex, nodes.size(),
+										samplePath -> samplePath.stream().noneMatch(honeypotSet::contains), true);
 		Map<Integer, Integer> frequency = new HashMap<>();
-		failedVertices.forEach(node -> uncoveredSamplePaths.stream()
-				.filter(samplePath -> samplePath.contains(node))
-				.forEach(samplePath -> frequency.put(node, frequency.getOrDefault(node, 0) + 1)));
+		for (int j=0; j<nodes.size(); j++)
+			if (count[j]>0)
+				frequency.put(nodes.get(j), count[j]);
 		//System.out.println("Frequency: "+frequency.toString());
 		
 		// choose top k nodes based on their frequency
@@ -222,7 +311,7 @@ public class commonMethods
 						onePresent = true;
 						break;
 					}
-					
+				
 				}
 				for (Integer e2: nodes2)
 				{
@@ -231,7 +320,7 @@ public class commonMethods
 						twoPresent = true;
 						break;
 					}
-					
+				
 				}
 				if (onePresent && twoPresent)
 					break;
@@ -258,4 +347,27 @@ public class commonMethods
 		output.put("n22", n22);
 		return output;
 	}
+	
+	/**
+	 * Writes rows to a csv file; the header is written first if the file does not exist
+	 * or if it is overwritten.
+	 *
+	 * @param filename path to output file
+	 * @param append {@code true}, if you wish to append to existing file; {@code false}, otherwise
+	 * @param header header of the csv file
+	 * @param lines rows to write.
+	 * @throws IOException thrown if error in input-output operation.
+	 */
+	public static void writeToCSV(String filename, boolean append, String[] header, List<String[]> lines)
+			throws IOException
+	{
+		boolean writeHeader = (!new File(filename).exists()) || (!append);
+		try (CSVWriter writer = new CSVWriter(new FileWriter(filename, append)))
+		{
+			if (writeHeader)
+				writer.writeNext(header);
+			for (String[] line: lines)
+				writer.writeNext(line);
+		}
+	}
 }
@@ -0,0 +1,162 @@
+package network;
+
+import org.jgrapht.Graphs;
+
+import java.util.*;
+
+/**
+ * Represents a read-only, array-based view of a {@link graph}.
+ * Nodes are relabeled with indices 0, 1, ..., n-1 in increasing order of their labels,
+ * and the neighbors of a node are stored contiguously (in the order returned by {@link Graphs#neighborListOf}).
+ * Meant for simulation and optimization kernels that should not box integers or allocate neighbor lists.
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+public class indexedGraph
+{
+	/**
+	 * Name of the network.
+	 */
+	final String networkName;
+	
+	/**
+	 * {@code labels[i]} is the label of the node with index {@code i}; sorted in increasing order.
+	 */
+	final int[] labels;
+	
+	/**
+	 * Neighbors of node {@code i} are stored in {@code neighbors[offsets[i]]}, ...,
+	 * {@code neighbors[offsets[i+1]-1]}.
+	 */
+	final int[] offsets;
+	
+	/**
+	 * Indices of neighbors of all nodes, stored contiguously.
+	 */
+	final int[] neighbors;
+	
+	/**
+	 * A map from node label to node index.
+	 */
+	final Map<Integer, Integer> labelToIndex;
+	
+	/**
+	 * Constructor.
+	 *
+	 * @param g network graph.
+	 */
+	public indexedGraph(graph g)
+	{
+		this.networkName = g.getNetworkName();
+		this.labels = g.getVertexSet().stream().mapToInt(Integer::intValue).sorted().toArray();
+		final int n = labels.length;
+		this.labelToIndex = new HashMap<>(2*n);
+		for (int i=0; i<n; i++)
+			labelToIndex.put(labels[i], i);
+		this.offsets = new int[n+1];
+		List<List<Integer>> neighborLists = new ArrayList<>(n);
+		for (int i=0; i<n; i++)
+		{
+			List<Integer> currentNeighbors = Graphs.neighborListOf(g.getG(), labels[i]);
+			neighborLists.add(currentNeighbors);
+			offsets[i+1] = offsets[i]+currentNeighbors.size();
+		}
+		this.neighbors = new int[offsets[n]];
+		for (int i=0; i<n; i++)
+		{
+			int position = offsets[i];
+			for (int neighbor: neighborLists.get(i))
+				neighbors[position++] = labelToIndex.get(neighbor);
+		}
+	}
+	
+	/**
+	 * Getter.
+	 *
+	 * @return {@code networkName}.
+	 */
+	public String getNetworkName()
+	{
+		return networkName;
+	}
+	
+	/**
+	 * Returns the number of nodes.
+	 *
+	 * @return the number of nodes.
+	 */
+	public int getNumberOfNodes()
+	{
+		return labels.length;
+	}
+	
+	/**
+	 * Returns the label of a node.
+	 *
+	 * @param index index of the node.
+	 * @return the label of the node.
+	 */
+	public int getLabel(int index)
+	{
+		return labels[index];
+	}
+	
+	/**
+	 * Returns the index of a node.
+	 *
+	 * @param label label of the node.
+	 * @return the index of the node.
+	 * @throws NoSuchElementException thrown if there is no node with label {@code label}.
+	 */
+	public int getIndex(int label)
+	{
+		Integer index = labelToIndex.get(label);
+		if (index==null)
+			throw new NoSuchElementException("Node "+label+" not in the graph!");
+		return index;
+	}
+	
+	/**
+	 * Returns the degree of a node.
+	 *
+	 * @param index index of the node.
+	 * @return the degree of the node.
+	 */
+	public int getDegree(int index)
+	{
+		return offsets[index+1]-offsets[index];
+	}
+	
+	/**
+	 * Returns the {@code j}-th neighbor of a node.
+	 *
+	 * @param index index of the node
+	 * @param j position of the neighbor, {@code 0<=j<getDegree(index)}.
+	 * @return the index of the neighbor.
+	 */
+	public int getNeighbor(int index, int j)
+	{
+		return neighbors[offsets[index]+j];
+	}
+	
+	/**
+	 * Returns the position in {@link indexedGraph#getNeighbors()} of the first neighbor of a node.
+	 *
+	 * @param index index of the node.
+	 * @return the offset of the neighbors of the node.
+	 */
+	public int getOffset(int index)
+	{
+		return offsets[index];
+	}
+	
+	/**
+	 * Returns the neighbors of all nodes, stored contiguously.
+	 * The array is shared, and should not be modified.
+	 *
+	 * @return the neighbors of all nodes.
+	 */
+	public int[] getNeighbors()
+	{
+		return neighbors;
+	}
+}
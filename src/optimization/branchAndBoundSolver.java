@@ -0,0 +1,263 @@
+package optimization;
+
+import dataTypes.detectionMatrix;
+import dataTypes.parameters;
+import dataTypes.solverOutput;
+import helper.commonMethods;
+import network.graph;
+import org.javatuples.Sextet;
+import simulation.simulationRuns;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents results of the sample-average approximation (SAA) on {@code simulationRuns} using an in-house
+ * branch-and-bound for maximum coverage ({@link coverageBranchAndBound}); unlike {@link gurobiSolver},
+ * no solver license is needed.
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+public class branchAndBoundSolver implements saaSolver
+{
+	/**
+	 * A map from {@link dataTypes.parameters} to {@link dataTypes.solverOutput}.
+	 * Basically, stores the outputs for different input parameters.
+	 * <p>
+	 *     Parameters: (model (TN11C, RAEPC, etc.), network name, time step, repetitions,
+	 *     false negative probability, transmissability (p), number of honeypots).
+	 * </p>
+	 * <p>
+	 *     Solver output: objective value, best upper bound, honeypots, wall time,
+	 *     solver options used, and solver message.
+	 * </p>
+	 */
+	Map<parameters, solverOutput> outputMap;
+	
+	/**
+	 * A map from {@link dataTypes.parameters} to a string representing UTC time.
+	 */
+	Map<parameters, String> mapParamsToUTC;
+	
+	/**
+	 * Relative gap at which the branch-and-bound stops; 1e-2 by default (as for {@link gurobiSolver}).
+	 */
+	double mipGap = 1e-2;
+	
+	/**
+	 * If {@code true}, the detection matrix is reduced by {@link coveragePresolve} before the branch-and-bound.
+	 * {@code true} by default.
+	 */
+	boolean reduceDetectionMatrix = true;
+	
+	/**
+	 * Constructor.
+	 *
+	 * @param outputMap a map from {@link dataTypes.parameters} to {@link dataTypes.solverOutput}.
+	 */
+	public branchAndBoundSolver(Map<parameters, solverOutput> outputMap)
+	{
+		this.outputMap = outputMap;
+		this.mapParamsToUTC = new HashMap<>();
+	}
+	
+	/**
+	 * Constructor.
+	 */
+	public branchAndBoundSolver()
+	{
+		this(new HashMap<>());
+	}
+	
+	/**
+	 * Getter.
+	 *
+	 * @return {@link branchAndBoundSolver#outputMap}.
+	 */
+	@Override
+	public Map<parameters, solverOutput> getOutputMap()
+	{
+		return outputMap;
+	}
+	
+	/**
+	 * Getter.
+	 *
+	 * @return {@link branchAndBoundSolver#mapParamsToUTC}.
+	 */
+	public Map<parameters, String> getMapParamsToUTC()
+	{
+		return mapParamsToUTC;
+	}
+	
+	/**
+	 * Setter.
+	 *
+	 * @param mipGap relative gap at which the branch-and-bound stops.
+	 */
+	public void setMIPGap(double mipGap)
+	{
+		this.mipGap = mipGap;
+	}
+	
+	/**
+	 * Setter.
+	 *
+	 * @param reduceDetectionMatrix {@code true}, if the detection matrix should be reduced by
+	 *                              {@link coveragePresolve} before the branch-and-bound; {@code false}, otherwise.
+	 */
+	public void setReduceDetectionMatrix(boolean reduceDetectionMatrix)
+	{
+		this.reduceDetectionMatrix = reduceDetectionMatrix;
+	}
+	
+	/**
+	 * Returns a string representation of the object.
+	 *
+	 * @return a string representation of the object.
+	 */
+	@Override
+	public String toString()
+	{
+		StringBuilder str = new StringBuilder(1000);
+		str.append("Branch-and-bound solver results:");
+		for(Map.Entry<parameters, solverOutput> e: outputMap.entrySet())
+		{
+			str.append("\n\t<").append(e.getKey()).append(",");
+			str.append("\n\t\t objective value = ").append(e.getValue().getObjectiveValue());
+			str.append("\n\t\t best upper bound = ").append(e.getValue().getBestUB());
+			str.append("\n\t\t honeypots:\n\t\t\t").append(e.getValue().getHoneypots());
+			str.append("\n\t\t wall time (second) = ").append(e.getValue().getWallTimeInSeconds());
+			str.append("\n\t\t solver options used:\n\t\t\t").append(e.getValue().getSolverOptionsUsed());
+			str.append("\n\t\t solver message:\n\t\t\t").append(e.getValue().getSolverMessage());
+			str.append("\n\t\t UTC: ").append(mapParamsToUTC.get(e.getKey()));
+			str.append("\n\t>");
+		}
+		return str.toString();
+	}
+	
+	/**
+	 * Writes results to csv file, in the same format as {@link gurobiSolver#writeToCSV(String, boolean)}
+	 * (with solver "branch-and-bound").
+	 *
+	 * @param filename path to output file
+	 * @param append true, if you wish to append to existing file; false, otherwise.
+	 * @throws IOException thrown if error in input-output operation.
+	 */
+	@Override
+	public void writeToCSV(String filename, boolean append) throws IOException
+	{
+		String[] header = {"Model", "Network", "t_0", "Simulation repetitions", "FN probability",
+							"transmissability (p)", "no. of honeypots", "solver", "solver options",
+							"objective value", "best UB", "solver message", "honeypots", "Wall time (s)", "UTC"};
+		String solverName = "branch-and-bound";
+		List<String[]> lines = new ArrayList<>();
+		String now = Instant.now().toString();
+		for (Map.Entry<parameters, solverOutput> e: outputMap.entrySet())
+		{
+			String[] line = new String[15];
+			line[0] = e.getKey().getSpreadModelName();
+			line[1] = e.getKey().getNetworkName();
+			line[2] = String.valueOf(e.getKey().getTimeStep());
+			line[3] = String.valueOf(e.getKey().getNumberOfSimulationRepetitions());
+			line[4] = String.valueOf(e.getKey().getFalseNegativeProbability());
+			line[5] = String.valueOf(e.getKey().getTransmissability());
+			line[6] = String.valueOf(e.getKey().getNumberOfHoneypots());
+			line[7] = solverName;
+			line[8] = e.getValue().getSolverOptionsUsed().toString();
+			line[9] = String.valueOf(e.getValue().getObjectiveValue());
+			line[10] = String.valueOf(e.getValue().getBestUB());
+			line[11] = e.getValue().getSolverMessage();
+			line[12] = e.getValue().getHoneypots().toString();
+			line[13] = String.valueOf(e.getValue().getWallTimeInSeconds());
+			line[14] = mapParamsToUTC.computeIfAbsent(e.getKey(), key -> now);
+			lines.add(line);
+		}
+		commonMethods.writeToCSV(filename, append, header, lines);
+		System.out.println("Branch-and-bound results successfully written to \""+filename+"\".");
+	}
+	
+	/**
+	 * Solves the sample-average approximation (SAA) model with the branch-and-bound.
+	 * See model 4.6 in
+	 * Lee, Jinho. Stochastic optimization models for rapid detection of viruses in cellphone networks. Diss. 2012.
+	 *
+	 * @param g network graph
+	 * @param simulationResults results of simulation as an instance of {@code simulationRuns}
+	 * @param listOfParams list of the set of parameters used to get {@code simulationResults}
+	 * @param threads number of threads exploring the branch-and-bound tree
+	 * @param timeLimit time limit (in seconds) of each optimization
+	 * @param logFilename not used; the branch-and-bound writes no log file.
+	 * @throws Exception thrown if the graph {@code g} has self loops,
+	 *  or if the label of a node in {@code g} is a negative integer,
+	 *  or if the network name in one of the parameters and the network name stored in the graph {@code g}
+	 *      do not match,
+	 *  or if the number of nodes is less than the number of honeypots in any of the parameters in {@code listOfParams}.
+	 */
+	@Override
+	public void solveSAA(graph g, simulationRuns simulationResults, List<parameters> listOfParams,
+	                     int threads, int timeLimit, String logFilename) throws Exception
+	{
+		if (g.hasSelfLoops())
+			throw new Exception("Graphs has self-loops!");
+		if (g.findMinimumNodeLabel()<0)
+			throw new Exception("Node labels are negative integers!");
+		
+		detectionMatrix matrix = null;
+		coveragePresolve reduction = null;
+		Sextet<String, String, Integer, Integer, Double, Double> lastKey = null;
+		for (parameters param: listOfParams)
+		{
+			String modelName = param.getSpreadModelName();
+			String networkName = param.getNetworkName();
+			if (!networkName.equals(g.getNetworkName()))
+				throw new Exception("Parameters are for a different network than that has been provided as input!");
+			int k = param.getNumberOfHoneypots();
+			if (k>g.getVertexSet().size())
+				throw new Exception("Number of honeypots cannot be greater than the number of nodes!");
+			int t_0 = param.getTimeStep();
+			int run = param.getNumberOfSimulationRepetitions();
+			double r = param.getFalseNegativeProbability();
+			double p = param.getTransmissability();
+			
+			Sextet<String, String, Integer, Integer, Double, Double> key =
+															new Sextet<>(modelName, networkName, t_0, run, r, p);
+			System.out.println("Solving with branch-and-bound: "+modelName+" spread model on "+networkName
+					+"network; "+k+" honeypots; "+t_0+" time step(s); "
+					+run+" samples; false negative probability="+r+"; transmissability (p)="+p);
+			if (!key.equals(lastKey))
+			{
+				// the matrix depends only on the samples, not on the number of honeypots
+				List<List<Integer>> virusSpreadSamples =
+						simulationResults.getMapModelNetworkT0RunsFalseNegativeToSimulationRuns().get(key);
+				List<List<Integer>> virtualDetectionSamples =
+						simulationResults.getMapModelNetworkT0RunsFalseNegativeToVirtualDetections().get(key);
+				matrix = new detectionMatrix(g.getVertexSet(), virusSpreadSamples,
+												(r>0) ? virtualDetectionSamples : null);
+				reduction = null;
+				if (reduceDetectionMatrix)
+				{
+					reduction = new coveragePresolve(matrix);
+					System.out.println(reduction);
+					matrix = reduction.getReducedMatrix();
+				}
+				lastKey = key;
+			}
+			
+			coverageBranchAndBound tree = new coverageBranchAndBound(matrix, k);
+			tree.setMIPGap(mipGap);
+			solverOutput currOutput = tree.solve(threads, timeLimit);
+			if (reduction!=null)
+				currOutput.setHoneypots(reduction.completeHoneypots(currOutput.getHoneypots(), k));
+			currOutput.getSolverOptionsUsed().put("ReduceDetectionMatrix", String.valueOf(reduceDetectionMatrix));
+			
+			System.out.println("Objective value = "+currOutput.getObjectiveValue());
+			System.out.println("Best upper bound = "+currOutput.getBestUB());
+			System.out.println("Wall time (second) = "+currOutput.getWallTimeInSeconds());
+			outputMap.put(param, currOutput);
+		}
+	}
+}
@@ -0,0 +1,634 @@
+package optimization;
+
+import dataTypes.detectionMatrix;
+import dataTypes.solverOutput;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Represents a branch-and-bound for the sample-average approximation (SAA) of the honeypot placement problem
+ * (weighted maximum coverage with {@code k} nodes) on a {@link detectionMatrix}; no solver is needed.
+ * <p>
+ *     A node of the tree fixes some nodes to be honeypots and some nodes not to be honeypots.
+ *     At every node:
+ *     <ul>
+ *         <li>the fixed honeypots are extended greedily to a solution, which may improve the incumbent;</li>
+ *         <li>the bound is computed by Lagrangian relaxation of the coverage constraints of the samples that the
+ *             fixed honeypots do not detect (see {@link lagrangianBound}), starting from the multipliers of the
+ *             parent node; the {@code k} nodes that define each bound are also evaluated as a solution;</li>
+ *         <li>the node is pruned if its bound does not exceed the objective value of the incumbent by more than
+ *             the relative gap {@code mipGap};</li>
+ *         <li>otherwise, nodes are fixed by their Lagrangian costs (a node whose inclusion, or exclusion,
+ *             brings the bound below the pruning threshold is fixed out, or in), and the tree branches on
+ *             the free node with the largest Lagrangian cost among those that define the bound.</li>
+ *     </ul>
+ *     Samples detected by the fixed honeypots are kept in a bit set.
+ * </p>
+ * <p>
+ *     Each thread takes the open node with the largest bound, and dives into its subtree
+ *     (the child with the branching node as a honeypot first), leaving the other children open,
+ *     so that threads explore different subtrees in parallel and share the incumbent.
+ *     The objective value is within the gap of the optimal objective value,
+ *     but with more than one thread, which of several such solutions is returned may vary from run to run.
+ * </p>
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+class coverageBranchAndBound
+{
+	/**
+	 * Successful detection matrix.
+	 */
+	final detectionMatrix matrix;
+	
+	/**
+	 * Number of honeypots; at most the number of columns.
+	 */
+	final int budget;
+	
+	/**
+	 * Relative gap: a node is pruned if its bound is at most {@code (1+mipGap)} times the incumbent objective value.
+	 */
+	double mipGap = 1e-2;
+	
+	/**
+	 * Known upper bound on the optimal objective value, used as the bound of the root node if it is smaller
+	 * than the total weight of the rows.
+	 */
+	double initialBound = Double.POSITIVE_INFINITY;
+	
+	/**
+	 * Number of subgradient iterations at the root node.
+	 */
+	int rootIterations = 1000;
+	
+	/**
+	 * Number of subgradient iterations at the other nodes.
+	 */
+	int nodeIterations = 30;
+	
+	/**
+	 * Open nodes; the node with the largest bound first.
+	 */
+	final PriorityQueue<node> openNodes;
+	
+	/**
+	 * Number of threads working on a node.
+	 */
+	int activeWorkers;
+	
+	/**
+	 * {@code true} if the time limit was reached.
+	 */
+	boolean stopped;
+	
+	/**
+	 * Objective value of the incumbent.
+	 */
+	volatile double incumbentValue;
+	
+	/**
+	 * Columns of the incumbent.
+	 */
+	int[] incumbent;
+	
+	/**
+	 * Largest bound of a pruned node.
+	 */
+	double prunedBound;
+	
+	/**
+	 * Number of nodes explored.
+	 */
+	final AtomicLong nodeCount;
+	
+	/**
+	 * Time (from {@link System#nanoTime()}) at which the search stops.
+	 */
+	long deadline;
+	
+	/**
+	 * A node of the branch-and-bound tree.
+	 */
+	static class node
+	{
+		/**
+		 * Columns fixed to be honeypots.
+		 */
+		final int[] fixedIn;
+		
+		/**
+		 * Columns fixed not to be honeypots.
+		 */
+		final BitSet fixedOut;
+		
+		/**
+		 * Lagrangian multipliers to start from; shared with the sibling node, and not modified.
+		 */
+		final double[] lambda;
+		
+		/**
+		 * Upper bound on the objective value of any solution in the subtree.
+		 */
+		final double bound;
+		
+		/**
+		 * Constructor.
+		 *
+		 * @param fixedIn columns fixed to be honeypots
+		 * @param fixedOut columns fixed not to be honeypots
+		 * @param lambda Lagrangian multipliers to start from
+		 * @param bound upper bound on the objective value of any solution in the subtree.
+		 */
+		node(int[] fixedIn, BitSet fixedOut, double[] lambda, double bound)
+		{
+			this.fixedIn = fixedIn;
+			this.fixedOut = fixedOut;
+			this.lambda = lambda;
+			this.bound = bound;
+		}
+	}
+	
+	/**
+	 * Constructor.
+	 *
+	 * @param matrix successful detection matrix
+	 * @param k number of honeypots; if greater than the number of candidate nodes, every node is a honeypot.
+	 * @throws Exception thrown if {@code k<1}.
+	 */
+	coverageBranchAndBound(detectionMatrix matrix, int k) throws Exception
+	{
+		if (k<1)
+			throw new Exception("Number of honeypots should be positive!");
+		this.matrix = matrix;
+		this.budget = Math.min(k, matrix.getNumberOfColumns());
+		this.openNodes = new PriorityQueue<>((a, b) -> (a.bound!=b.bound) ? Double.compare(b.bound, a.bound)
+																: Integer.compare(b.fixedIn.length, a.fixedIn.length));
+		this.nodeCount = new AtomicLong();
+	}
+	
+	/**
+	 * Setter.
+	 *
+	 * @param mipGap relative gap at which the search stops.
+	 */
+	void setMIPGap(double mipGap)
+	{
+		this.mipGap = mipGap;
+	}
+	
+	/**
+	 * Setter.
+	 *
+	 * @param initialBound known upper bound on the optimal objective value (for example, from an earlier solve).
+	 */
+	void setInitialBound(double initialBound)
+	{
+		this.initialBound = initialBound;
+	}
+	
+	/**
+	 * Solves the problem.
+	 *
+	 * @param threads number of threads
+	 * @param timeLimit time limit in seconds.
+	 * @return the objective value, the best upper bound, the labels of the honeypots, the wall time,
+	 *  the options used, and the message ("Optimal: ..." or "Time Limit").
+	 * @throws Exception thrown if {@code threads<1}, or if a thread fails.
+	 */
+	solverOutput solve(int threads, double timeLimit) throws Exception
+	{
+		if (threads<1)
+			throw new Exception("Number of threads should be positive!");
+		long tic = System.nanoTime();
+		deadline = tic+(long) (timeLimit*1e9);
+		final int run = matrix.getNumberOfRows();
+		
+		incumbent = matrix.extendGreedily(new int[0], budget);
+		incumbentValue = matrix.getCoveredWeight(incumbent);
+		prunedBound = Double.NEGATIVE_INFINITY;
+		double[] lambda = new double[run];
+		double totalWeight = 0;
+		for (int i=0; i<run; i++)
+		{
+			lambda[i] = matrix.getRowWeight(i);
+			totalWeight += lambda[i];
+		}
+		openNodes.add(new node(new int[0], new BitSet(), lambda, Math.min(totalWeight, initialBound)));
+		
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try
+		{
+			List<Future<?>> workers = new ArrayList<>(threads);
+			for (int t=0; t<threads; t++)
+				workers.add(pool.submit(() ->
+				{
+					explore();
+					return null;
+				}));
+			for (Future<?> worker: workers)
+				worker.get();
+		}
+		finally
+		{
+			pool.shutdownNow();
+		}
+		
+		double bestUB = Math.max(incumbentValue, prunedBound);
+		for (node open: openNodes)
+			bestUB = Math.max(bestUB, open.bound);
+		int[] columns = incumbent.clone();
+		Arrays.sort(columns);
+		List<Integer> honeypots = new ArrayList<>(columns.length);
+		for (int column: columns)
+			honeypots.add(matrix.getLabel(column));
+		Map<String, String> options = new HashMap<>();
+		options.put("threads", String.valueOf(threads));
+		options.put("MIPGap", String.valueOf(mipGap));
+		options.put("TimeLimit", String.valueOf(timeLimit));
+		options.put("NodeCount", String.valueOf(nodeCount.get()));
+		String message = openNodes.isEmpty() ? "Optimal: Model was solved to optimality (subject to tolerances)."
+												: "Time Limit";
+		return new solverOutput(incumbentValue, bestUB, honeypots, (System.nanoTime()-tic)/1e9, options, message);
+	}
+	
+	/**
+	 * Work of one thread: takes the open node with the largest bound, and dives into its subtree,
+	 * until there are no open nodes left or the time limit is reached.
+	 *
+	 * @throws InterruptedException thrown if the thread is interrupted while waiting for an open node.
+	 */
+	private void explore() throws InterruptedException
+	{
+		final int n = matrix.getNumberOfColumns();
+		workspace space = new workspace(n, matrix.getNumberOfRows());
+		node current;
+		while ((current = take())!=null)
+		{
+			while (current!=null)
+			{
+				if (System.nanoTime()>deadline)
+				{
+					stop(current);
+					break;
+				}
+				if (current.bound<=pruningThreshold())
+				{
+					prune(current.bound);
+					break;
+				}
+				current = process(current, space);
+			}
+			finish();
+		}
+	}
+	
+	/**
+	 * Arrays used by one thread to process nodes.
+	 */
+	private static class workspace
+	{
+		/**
+		 * Lagrangian cost of each column.
+		 */
+		final double[] c;
+		
+		/**
+		 * Number of selected columns that cover each row.
+		 */
+		final int[] cover;
+		
+		/**
+		 * {@code true} if a column is neither fixed in nor fixed out.
+		 */
+		final boolean[] free;
+		
+		/**
+		 * Constructor.
+		 *
+		 * @param n number of columns
+		 * @param run number of rows.
+		 */
+		workspace(int n, int run)
+		{
+			this.c = new double[n];
+			this.cover = new int[run];
+			this.free = new boolean[n];
+		}
+	}
+	
+	/**
+	 * Processes a node: updates the incumbent, computes the bound, and either prunes the node,
+	 * or fixes columns and branches.
+	 *
+	 * @param current the node
+	 * @param space arrays of the thread.
+	 * @return the child to dive into; {@code null}, if the node was pruned, solved, or put back (time limit).
+	 */
+	private node process(node current, workspace space)
+	{
+		nodeCount.incrementAndGet();
+		final int n = matrix.getNumberOfColumns();
+		final int[] rows = matrix.getRows();
+		final double[] c = space.c;
+		final int[] cover = space.cover;
+		final boolean[] free = space.free;
+		final int m = budget-current.fixedIn.length;
+		
+		// samples detected by the fixed honeypots
+		BitSet covered = new BitSet(matrix.getNumberOfRows());
+		for (int column: current.fixedIn)
+			for (int position=matrix.getColumnStart(column); position<matrix.getColumnEnd(column); position++)
+				covered.set(rows[position]);
+		double coveredWeight = 0;
+		for (int i=covered.nextSetBit(0); i>=0; i=covered.nextSetBit(i+1))
+			coveredWeight += matrix.getRowWeight(i);
+		if (m==0)
+		{
+			offer(current.fixedIn, null, 0, coveredWeight);
+			return null;
+		}
+		Arrays.fill(free, true);
+		for (int column: current.fixedIn)
+			free[column] = false;
+		for (int column=current.fixedOut.nextSetBit(0); column>=0; column=current.fixedOut.nextSetBit(column+1))
+			free[column] = false;
+		int[] freeColumns = new int[n];
+		int numberOfFreeColumns = 0;
+		for (int j=0; j<n; j++)
+			if (free[j])
+				freeColumns[numberOfFreeColumns++] = j;
+		freeColumns = Arrays.copyOf(freeColumns, numberOfFreeColumns);
+		if (numberOfFreeColumns<=m)
+		{
+			// adding a honeypot never decreases the objective value
+			offer(current.fixedIn, freeColumns, numberOfFreeColumns, matrix.getCoveredWeight(concat(current.fixedIn,
+																		freeColumns, numberOfFreeColumns)));
+			return null;
+		}
+		int[] greedy = matrix.extendGreedily(current.fixedIn, budget);
+		double greedyValue = matrix.getCoveredWeight(greedy);
+		if (greedyValue>incumbentValue)
+			offer(greedy, null, 0, greedyValue);
+		
+		// Lagrangian relaxation of the coverage constraints of the samples not detected by the fixed honeypots
+		int[] uncoveredRows = new int[matrix.getNumberOfRows()-covered.cardinality()];
+		int numberOfUncoveredRows = 0;
+		for (int i=covered.nextClearBit(0); i<matrix.getNumberOfRows(); i=covered.nextClearBit(i+1))
+			uncoveredRows[numberOfUncoveredRows++] = i;
+		double[] lambda = current.lambda.clone();
+		final boolean root = (current.fixedIn.length==0) && current.fixedOut.isEmpty();
+		final int iterations = root ? rootIterations : nodeIterations;
+		final int iterationsBeforeHalving = root ? 20 : 5;
+		double theta = root ? 2 : 1;
+		int iterationsWithoutImprovement = 0;
+		// bound of the node: the smaller of the bound of the parent and the best Lagrangian bound
+		double bestBound = current.bound;
+		// best Lagrangian bound L(bestLambda); the costs bestC are those of bestLambda, so fixing uses this bound
+		double bestLagrangianBound = Double.POSITIVE_INFINITY;
+		double[] bestLambda = current.lambda;
+		double[] bestC = null;
+		int[] order = freeColumns.clone();
+		int[] bestOrder = null;
+		for (int iteration=0; iteration<iterations; iteration++)
+		{
+			if (System.nanoTime()>deadline)
+			{
+				stop(current);
+				return null;
+			}
+			for (int j: freeColumns)
+			{
+				double sum = 0;
+				for (int position=matrix.getColumnStart(j); position<matrix.getColumnEnd(j); position++)
+					if (!covered.get(rows[position]))
+						sum += lambda[rows[position]];
+				c[j] = sum;
+			}
+			lagrangianBound.selectLargest(order, c, m);
+			double bound = coveredWeight;
+			for (int t=0; t<numberOfUncoveredRows; t++)
+				bound += Math.max(0, matrix.getRowWeight(uncoveredRows[t])-lambda[uncoveredRows[t]]);
+			for (int t=0; t<m; t++)
+				bound += c[order[t]];
+			if ((bestC==null) || (bound<bestLagrangianBound-1e-12))
+			{
+				bestLagrangianBound = bound;
+				bestBound = Math.min(bound, current.bound);
+				bestLambda = lambda.clone();
+				bestC = c.clone();
+				bestOrder = order.clone();
+				iterationsWithoutImprovement = 0;
+			}
+			else if (++iterationsWithoutImprovement>=iterationsBeforeHalving)
+			{
+				theta /= 2;
+				iterationsWithoutImprovement = 0;
+			}
+			
+			// the m columns of the bound, with the fixed honeypots, are a solution
+			double objectiveValue = coveredWeight;
+			for (int t=0; t<m; t++)
+				for (int position=matrix.getColumnStart(order[t]); position<matrix.getColumnEnd(order[t]); position++)
+					if ((!covered.get(rows[position])) && (cover[rows[position]]++==0))
+						objectiveValue += matrix.getRowWeight(rows[position]);
+			if (objectiveValue>incumbentValue)
+				offer(current.fixedIn, order, m, objectiveValue);
+			
+			double threshold = pruningThreshold();
+			if (bestBound<=threshold)
+			{
+				clear(cover, order, m);
+				prune(bestBound);
+				return null;
+			}
+			// subgradient of L at lambda: (number of selected columns covering i) - u_i
+			double squaredNorm = 0;
+			for (int t=0; t<numberOfUncoveredRows; t++)
+			{
+				int i = uncoveredRows[t];
+				double subgradient = cover[i]-((lambda[i]<matrix.getRowWeight(i)) ? 1 : 0);
+				squaredNorm += subgradient*subgradient;
+			}
+			if ((squaredNorm==0) || (theta<1e-8))
+			{
+				clear(cover, order, m);
+				break;
+			}
+			double step = theta*(bound-threshold)/squaredNorm;
+			for (int t=0; t<numberOfUncoveredRows; t++)
+			{
+				int i = uncoveredRows[t];
+				double subgradient = cover[i]-((lambda[i]<matrix.getRowWeight(i)) ? 1 : 0);
+				lambda[i] = Math.min(matrix.getRowWeight(i), Math.max(0, lambda[i]-step*subgradient));
+			}
+			clear(cover, order, m);
+		}
+		double threshold = pruningThreshold();
+		if (bestBound<=threshold)
+		{
+			prune(bestBound);
+			return null;
+		}
+		
+		// fixing by Lagrangian costs
+		double smallestSelected = Double.POSITIVE_INFINITY, largestUnselected = Double.NEGATIVE_INFINITY;
+		for (int t=0; t<m; t++)
+			smallestSelected = Math.min(smallestSelected, bestC[bestOrder[t]]);
+		for (int t=m; t<numberOfFreeColumns; t++)
+			largestUnselected = Math.max(largestUnselected, bestC[bestOrder[t]]);
+		BitSet fixedOut = (BitSet) current.fixedOut.clone();
+		for (int t=m; t<numberOfFreeColumns; t++)
+			if (bestLagrangianBound-smallestSelected+bestC[bestOrder[t]]<=threshold)
+				fixedOut.set(bestOrder[t]);
+		int[] fixedIn = Arrays.copyOf(current.fixedIn, budget);
+		int numberOfFixedIn = current.fixedIn.length;
+		int branchingColumn = -1;
+		for (int t=0; t<m; t++)
+		{
+			int j = bestOrder[t];
+			if (bestLagrangianBound-bestC[j]+largestUnselected<=threshold)
+				fixedIn[numberOfFixedIn++] = j;
+			else if ((branchingColumn<0) || (bestC[j]>bestC[branchingColumn])
+					|| ((bestC[j]==bestC[branchingColumn]) && (j<branchingColumn)))
+				branchingColumn = j;
+		}
+		fixedIn = Arrays.copyOf(fixedIn, numberOfFixedIn);
+		if (branchingColumn<0)
+			return new node(fixedIn, fixedOut, bestLambda, bestBound);
+		
+		// branching
+		BitSet fixedOutWithoutBranchingColumn = (BitSet) fixedOut.clone();
+		fixedOutWithoutBranchingColumn.set(branchingColumn);
+		push(new node(fixedIn, fixedOutWithoutBranchingColumn, bestLambda, bestBound));
+		int[] fixedInWithBranchingColumn = Arrays.copyOf(fixedIn, numberOfFixedIn+1);
+		fixedInWithBranchingColumn[numberOfFixedIn] = branchingColumn;
+		return new node(fixedInWithBranchingColumn, fixedOut, bestLambda, bestBound);
+	}
+	
+	/**
+	 * Resets {@code cover} for the rows of the first {@code m} columns in {@code order}.
+	 *
+	 * @param cover number of selected columns that cover each row
+	 * @param order columns
+	 * @param m number of selected columns.
+	 */
+	private void clear(int[] cover, int[] order, int m)
+	{
+		final int[] rows = matrix.getRows();
+		for (int t=0; t<m; t++)
+			for (int position=matrix.getColumnStart(order[t]); position<matrix.getColumnEnd(order[t]); position++)
+				cover[rows[position]] = 0;
+	}
+	
+	/**
+	 * Returns the fixed honeypots followed by the first {@code m} columns in {@code order}.
+	 *
+	 * @param fixedIn fixed honeypots
+	 * @param order columns
+	 * @param m number of columns of {@code order}.
+	 * @return the columns.
+	 */
+	private static int[] concat(int[] fixedIn, int[] order, int m)
+	{
+		int[] columns = Arrays.copyOf(fixedIn, fixedIn.length+m);
+		if (m>0)
+			System.arraycopy(order, 0, columns, fixedIn.length, m);
+		return columns;
+	}
+	
+	/**
+	 * Returns the bound below which nodes are pruned.
+	 *
+	 * @return the pruning threshold.
+	 */
+	private double pruningThreshold()
+	{
+		double value = incumbentValue;
+		return value+Math.max(1e-9, mipGap*value);
+	}
+	
+	/**
+	 * Updates the incumbent if the solution is better.
+	 *
+	 * @param fixedIn fixed honeypots
+	 * @param order columns
+	 * @param m number of columns of {@code order} in the solution
+	 * @param objectiveValue objective value of the solution.
+	 */
+	private synchronized void offer(int[] fixedIn, int[] order, int m, double objectiveValue)
+	{
+		if (objectiveValue<=incumbentValue)
+			return;
+		incumbent = concat(fixedIn, order, m);
+		incumbentValue = objectiveValue;
+	}
+	
+	/**
+	 * Records the bound of a pruned node.
+	 *
+	 * @param bound bound of the node.
+	 */
+	private synchronized void prune(double bound)
+	{
+		prunedBound = Math.max(prunedBound, bound);
+	}
+	
+	/**
+	 * Adds an open node.
+	 *
+	 * @param open the node.
+	 */
+	private synchronized void push(node open)
+	{
+		openNodes.add(open);
+		notifyAll();
+	}
+	
+	/**
+	 * Puts a node back, and stops the search (time limit).
+	 *
+	 * @param open the node.
+	 */
+	private synchronized void stop(node open)
+	{
+		openNodes.add(open);
+		stopped = true;
+		notifyAll();
+	}
+	
+	/**
+	 * Waits for an open node, and takes the one with the largest bound.
+	 *
+	 * @return the node; {@code null}, if the search is over.
+	 * @throws InterruptedException thrown if the thread is interrupted while waiting.
+	 */
+	private synchronized node take() throws InterruptedException
+	{
+		while (true)
+		{
+			if (stopped)
+				return null;
+			if (!openNodes.isEmpty())
+			{
+				activeWorkers++;
+				return openNodes.poll();
+			}
+			if (activeWorkers==0)
+				return null;
+			wait();
+		}
+	}
+	
+	/**
+	 * Marks the end of a dive.
+	 */
+	private synchronized void finish()
+	{
+		activeWorkers--;
+		notifyAll();
+	}
+}
@@ -0,0 +1,238 @@
+package optimization;
+
+import dataTypes.detectionMatrix;
+import gurobi.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Represents the Gurobi model of the sample-average approximation (SAA) of the honeypot placement problem.
+ * See model 4.6 in
+ * Lee, Jinho. Stochastic optimization models for rapid detection of viruses in cellphone networks. Diss. 2012.
+ * <p>
+ *     The model is built from a {@link detectionMatrix}: one variable {@code x} per candidate node,
+ *     one variable {@code u} per sample, one coverage constraint per sample built directly from the nonzeros
+ *     of its row, and the honeypot budget constraint.
+ *     Variables and coverage constraints are added with the batched array methods of the Gurobi API,
+ *     so building the model is linear in the number of nonzeros.
+ * </p>
+ * <p>
+ *     The same model can be re-solved for a different number of honeypots by changing the right-hand side of
+ *     the budget constraint ({@link coverageModel#setBudget(int)}).
+ *     The LP relaxation then restarts from the previous basis; for the MIP, the previous incumbent
+ *     (see {@link coverageModel#saveIncumbent()}) is extended greedily to the new budget and used as a MIP start.
+ *     A MIP start can also be set from any other solution, such as that of a heuristic
+ *     ({@link coverageModel#setStart(int[], int)}).
+ * </p>
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+class coverageModel
+{
+	/**
+	 * Successful detection matrix.
+	 */
+	final detectionMatrix matrix;
+	
+	/**
+	 * Gurobi model.
+	 */
+	final GRBModel model;
+	
+	/**
+	 * {@code x[j]} is 1 if a honeypot is placed at the node in column {@code j}.
+	 */
+	final GRBVar[] x;
+	
+	/**
+	 * {@code u[i]} is 1 if the virus is detected in sample {@code i}.
+	 */
+	final GRBVar[] u;
+	
+	/**
+	 * Honeypot budget constraint.
+	 */
+	final GRBConstr budgetConstraint;
+	
+	/**
+	 * {@link GRB#BINARY} for the MIP, or {@link GRB#CONTINUOUS} for the LP relaxation.
+	 */
+	final char variableType;
+	
+	/**
+	 * Columns of the honeypots in the last saved MIP solution; {@code null} if there is none.
+	 */
+	int[] incumbent;
+	
+	/**
+	 * Constructor.
+	 *
+	 * @param env Gurobi environment
+	 * @param matrix successful detection matrix
+	 * @param k number of honeypots; if greater than the number of candidate nodes, every node is a honeypot
+	 * @param variableType {@link GRB#BINARY} for the MIP, or {@link GRB#CONTINUOUS} for the LP relaxation.
+	 * @throws GRBException thrown if the model cannot be built.
+	 */
+	coverageModel(GRBEnv env, detectionMatrix matrix, int k, char variableType) throws GRBException
+	{
+		this.matrix = matrix;
+		this.variableType = variableType;
+		this.model = new GRBModel(env);
+		final int n = matrix.getNumberOfColumns();
+		final int run = matrix.getNumberOfRows();
+		
+		// Create variables
+		String[] xNames = new String[n];
+		for (int j=0; j<n; j++)
+			xNames[j] = "x_"+matrix.getLabel(j);
+		char[] xTypes = new char[n];
+		Arrays.fill(xTypes, variableType);
+		double[] xUB = new double[n];
+		Arrays.fill(xUB, 1);
+		this.x = model.addVars(new double[n], xUB, new double[n], xTypes, xNames);
+		// u can be relaxed to GRB.CONTINUOUS
+		String[] uNames = new String[run];
+		double[] uObj = new double[run];
+		for (int i=0; i<run; i++)
+		{
+			uNames[i] = "u_"+(i+1);
+			uObj[i] = matrix.getRowWeight(i);
+		}
+		char[] uTypes = new char[run];
+		Arrays.fill(uTypes, variableType);
+		double[] uUB = new double[run];
+		Arrays.fill(uUB, 1);
+		this.u = model.addVars(new double[run], uUB, uObj, uTypes, uNames);
+		
+		// Create Objective
+		model.set(GRB.IntAttr.ModelSense, GRB.MAXIMIZE);
+		
+		// Create Constraints
+		// honeypot in sample constraint
+		final int[] columns = matrix.getColumns();
+		GRBLinExpr[] exprs = new GRBLinExpr[run];
+		char[] senses = new char[run];
+		Arrays.fill(senses, GRB.GREATER_EQUAL);
+		String[] names = new String[run];
+		double[] ones = new double[0];
+		for (int i=0; i<run; i++)
+		{
+			final int start = matrix.getRowStart(i);
+			final int length = matrix.getRowEnd(i)-start;
+			GRBVar[] rowVars = new GRBVar[length];
+			for (int position=0; position<length; position++)
+				rowVars[position] = x[columns[start+position]];
+			if (ones.length<length)
+			{
+				ones = new double[Math.max(length, 2*ones.length)];
+				Arrays.fill(ones, 1);
+			}
+			exprs[i] = new GRBLinExpr();
+			exprs[i].addTerm(-1, u[i]);
+			exprs[i].addTerms(ones, rowVars, 0, length);
+			names[i] = "Honeypot in sample "+(i+1)+" constraint";
+		}
+		model.addConstrs(exprs, senses, new double[run], names);
+		
+		// honeypot budget constraint
+		GRBLinExpr expr = new GRBLinExpr();
+		double[] xOnes = new double[n];
+		Arrays.fill(xOnes, 1);
+		expr.addTerms(xOnes, x);
+		this.budgetConstraint = model.addConstr(expr, GRB.EQUAL, Math.min(k, n), "Honeypot budget constraint");
+	}
+	
+	/**
+	 * Returns the labels of the nodes whose {@code x} value in the current solution is greater than
+	 * {@code threshold}, in increasing order.
+	 *
+	 * @param threshold threshold on the value of {@code x}.
+	 * @return the honeypots.
+	 * @throws GRBException thrown if there is no solution.
+	 */
+	List<Integer> getHoneypots(double threshold) throws GRBException
+	{
+		double[] values = model.get(GRB.DoubleAttr.X, x);
+		List<Integer> honeypots = new ArrayList<>();
+		for (int j=0; j<values.length; j++)
+			if (values[j]>threshold)
+				honeypots.add(matrix.getLabel(j));
+		return honeypots;
+	}
+	
+	/**
+	 * Saves the honeypots of the current MIP solution, to be used as a start by {@link coverageModel#setBudget(int)}.
+	 *
+	 * @throws GRBException thrown if the solution cannot be read.
+	 */
+	void saveIncumbent() throws GRBException
+	{
+		if (model.get(GRB.IntAttr.SolCount)==0)
+			return;
+		double[] values = model.get(GRB.DoubleAttr.X, x);
+		incumbent = new int[values.length];
+		int size = 0;
+		for (int j=0; j<values.length; j++)
+			if (values[j]>0.5)
+				incumbent[size++] = j;
+		incumbent = Arrays.copyOf(incumbent, size);
+	}
+	
+	/**
+	 * Changes the number of honeypots (the right-hand side of the budget constraint).
+	 * For the MIP, if there is a saved incumbent with at most {@code k} honeypots, it is extended greedily
+	 * to {@code k} honeypots, and set as the MIP start (see {@link coverageModel#setStart(int[], int)}).
+	 *
+	 * @param k number of honeypots; if greater than the number of candidate nodes, every node is a honeypot.
+	 * @throws GRBException thrown if the model cannot be modified.
+	 */
+	void setBudget(int k) throws GRBException
+	{
+		k = Math.min(k, matrix.getNumberOfColumns());
+		budgetConstraint.set(GRB.DoubleAttr.RHS, k);
+		if ((variableType==GRB.BINARY) && (incumbent!=null))
+			setStart(incumbent, k);
+	}
+	
+	/**
+	 * Sets the MIP start to the honeypots in {@code initialColumns}, extended greedily
+	 * ({@link detectionMatrix#extendGreedily(int[], int)}) to {@code k} honeypots.
+	 * Nothing is set if {@code initialColumns} has more than {@code k} honeypots.
+	 *
+	 * @param initialColumns columns of the initial honeypots (may be empty)
+	 * @param k number of honeypots; if greater than the number of candidate nodes, every node is a honeypot.
+	 * @return the objective value of the MIP start; -1, if no start was set.
+	 * @throws GRBException thrown if the model cannot be modified.
+	 */
+	double setStart(int[] initialColumns, int k) throws GRBException
+	{
+		k = Math.min(k, matrix.getNumberOfColumns());
+		if (initialColumns.length>k)
+			return -1;
+		final int run = matrix.getNumberOfRows();
+		double[] xStart = new double[matrix.getNumberOfColumns()];
+		for (int column: matrix.extendGreedily(initialColumns, k))
+			xStart[column] = 1;
+		BitSet covered = matrix.getCoveredRows(xStart);
+		double[] uStart = new double[run];
+		double objectiveValue = 0;
+		for (int i=covered.nextSetBit(0); i>=0; i=covered.nextSetBit(i+1))
+		{
+			uStart[i] = 1;
+			objectiveValue += matrix.getRowWeight(i);
+		}
+		model.set(GRB.DoubleAttr.Start, x, xStart);
+		model.set(GRB.DoubleAttr.Start, u, uStart);
+		return objectiveValue;
+	}
+	
+	/**
+	 * Frees the resources of the Gurobi model.
+	 */
+	void dispose()
+	{
+		model.dispose();
+	}
+}
@@ -0,0 +1,272 @@
+package optimization;
+
+import dataTypes.detectionMatrix;
+
+import java.util.*;
+
+/**
+ * Represents a problem-specific presolve of the sample-average approximation (SAA) of the honeypot placement
+ * problem (a weighted maximum coverage problem with a cardinality constraint) over its {@link detectionMatrix}.
+ * <p>
+ *     The following reductions are applied, in order:
+ * </p>
+ * <ol>
+ *     <li>Nodes that never detect the virus (empty columns) are removed.</li>
+ *     <li>Dominated nodes are removed: node {@code a} is dominated by node {@code b} if every sample detected
+ *         by {@code a} is also detected by {@code b} (for identical sets of samples, the node with the smallest
+ *         label is kept).
+ *         Replacing {@code a} with {@code b} in a solution never decreases its objective value.
+ *         The dominators of {@code a} are found by intersecting the rows of {@code a}, which stops as soon as the
+ *         intersection has no node other than {@code a}.</li>
+ *     <li>Samples that no remaining node detects (empty rows) are removed; they are never covered.</li>
+ *     <li>Identical samples are merged into one row whose weight is the sum of their weights.</li>
+ * </ol>
+ * <p>
+ *     The optimal objective value of the reduced problem is the same as that of the original problem.
+ *     If the reduced problem has fewer than {@code k} nodes, the budget is the number of remaining nodes,
+ *     and the solution is completed with removed nodes ({@link coveragePresolve#completeHoneypots(List, int)}).
+ *     Samples that are supersets of other samples are not removed: unlike in set covering, every covered sample
+ *     adds to the objective of maximum coverage.
+ * </p>
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+public class coveragePresolve
+{
+	/**
+	 * Maximum number of elements merged while looking for dominated nodes;
+	 * once exceeded, the remaining nodes are not checked for dominance.
+	 */
+	static final long DOMINANCE_WORK_LIMIT = 1L << 30;
+	
+	/**
+	 * Detection matrix before presolve.
+	 */
+	final detectionMatrix originalMatrix;
+	
+	/**
+	 * Detection matrix after presolve.
+	 */
+	final detectionMatrix reducedMatrix;
+	
+	/**
+	 * Number of nodes removed because they never detect the virus.
+	 */
+	final int numberOfEmptyColumns;
+	
+	/**
+	 * Number of nodes removed because they are dominated by another node.
+	 */
+	final int numberOfDominatedColumns;
+	
+	/**
+	 * {@code false} if some nodes were not checked for dominance because of {@link coveragePresolve#DOMINANCE_WORK_LIMIT}.
+	 */
+	final boolean dominanceCheckCompleted;
+	
+	/**
+	 * Number of samples removed because no remaining node detects the virus.
+	 */
+	final int numberOfEmptyRows;
+	
+	/**
+	 * Number of samples merged into an identical sample.
+	 */
+	final int numberOfDuplicateRows;
+	
+	/**
+	 * Labels of the removed nodes; empty columns first, then dominated columns.
+	 */
+	final List<Integer> removedLabels;
+	
+	/**
+	 * Constructor.
+	 * Runs the presolve on {@code matrix}.
+	 *
+	 * @param matrix detection matrix.
+	 */
+	public coveragePresolve(detectionMatrix matrix)
+	{
+		this.originalMatrix = matrix;
+		final int n = matrix.getNumberOfColumns();
+		final int run = matrix.getNumberOfRows();
+		final int[] rows = matrix.getRows();
+		final int[] columns = matrix.getColumns();
+		
+		// empty and dominated columns
+		boolean[] removed = new boolean[n];
+		List<Integer> emptyLabels = new ArrayList<>();
+		List<Integer> dominatedLabels = new ArrayList<>();
+		// columns are checked in increasing order of size, since small columns are the most likely to be dominated
+		Integer[] order = new Integer[n];
+		for (int j=0; j<n; j++)
+			order[j] = j;
+		Arrays.sort(order, Comparator.comparingInt(j -> matrix.getColumnEnd(j)-matrix.getColumnStart(j)));
+		int[] candidates = new int[n];
+		long work = 0;
+		boolean dominanceCheckCompleted = true;
+		for (int a: order)
+		{
+			final int size = matrix.getColumnEnd(a)-matrix.getColumnStart(a);
+			if (size==0)
+			{
+				removed[a] = true;
+				emptyLabels.add(matrix.getLabel(a));
+				continue;
+			}
+			if (work>DOMINANCE_WORK_LIMIT)
+			{
+				dominanceCheckCompleted = false;
+				continue;
+			}
+			// candidates = nodes (other than a) that detect every sample detected by a
+			int numberOfCandidates = 0;
+			int i = rows[matrix.getColumnStart(a)];
+			for (int p=matrix.getRowStart(i); p<matrix.getRowEnd(i); p++)
+				if (columns[p]!=a)
+					candidates[numberOfCandidates++] = columns[p];
+			for (int position=matrix.getColumnStart(a)+1;
+			     (position<matrix.getColumnEnd(a)) && (numberOfCandidates>0); position++)
+			{
+				i = rows[position];
+				work += numberOfCandidates+matrix.getRowEnd(i)-matrix.getRowStart(i);
+				// intersection of two sorted lists
+				int c = 0, m = 0, p = matrix.getRowStart(i);
+				while ((c<numberOfCandidates) && (p<matrix.getRowEnd(i)))
+				{
+					if (candidates[c]<columns[p])
+						c++;
+					else if (candidates[c]>columns[p])
+						p++;
+					else
+					{
+						candidates[m++] = candidates[c++];
+						p++;
+					}
+				}
+				numberOfCandidates = m;
+			}
+			for (int c=0; c<numberOfCandidates; c++)
+			{
+				int b = candidates[c];
+				int sizeOfB = matrix.getColumnEnd(b)-matrix.getColumnStart(b);
+				if ((sizeOfB>size) || (b<a))
+				{
+					removed[a] = true;
+					dominatedLabels.add(matrix.getLabel(a));
+					break;
+				}
+			}
+		}
+		this.dominanceCheckCompleted = dominanceCheckCompleted;
+		this.numberOfEmptyColumns = emptyLabels.size();
+		this.numberOfDominatedColumns = dominatedLabels.size();
+		this.removedLabels = new ArrayList<>(emptyLabels);
+		removedLabels.addAll(dominatedLabels);
+		
+		int[] newColumn = new int[n];
+		int reducedN = 0;
+		for (int j=0; j<n; j++)
+			newColumn[j] = removed[j] ? -1 : reducedN++;
+		int[] labels = new int[reducedN];
+		for (int j=0; j<n; j++)
+			if (!removed[j])
+				labels[newColumn[j]] = matrix.getLabel(j);
+		
+		// empty and duplicate rows
+		int[] rowStarts = new int[run+1];
+		int[] entries = new int[columns.length];
+		double[] rowWeights = new double[run];
+		Map<Integer, List<Integer>> rowsByHash = new HashMap<>();
+		int reducedRun = 0, position = 0, emptyRows = 0, duplicateRows = 0;
+		for (int i=0; i<run; i++)
+		{
+			final int start = position;
+			for (int p=matrix.getRowStart(i); p<matrix.getRowEnd(i); p++)
+				if (!removed[columns[p]])
+					entries[position++] = newColumn[columns[p]];
+			if (position==start)
+			{
+				emptyRows++;
+				continue;
+			}
+			int hash = 1;
+			for (int p=start; p<position; p++)
+				hash = 31*hash+entries[p];
+			List<Integer> sameHash = rowsByHash.computeIfAbsent(hash, h -> new ArrayList<>(1));
+			int duplicateOf = -1;
+			for (int other: sameHash)
+			{
+				if (Arrays.equals(entries, rowStarts[other], rowStarts[other+1], entries, start, position))
+				{
+					duplicateOf = other;
+					break;
+				}
+			}
+			if (duplicateOf>=0)
+			{
+				rowWeights[duplicateOf] += matrix.getRowWeight(i);
+				position = start;
+				duplicateRows++;
+				continue;
+			}
+			sameHash.add(reducedRun);
+			rowWeights[reducedRun] = matrix.getRowWeight(i);
+			rowStarts[++reducedRun] = position;
+		}
+		this.numberOfEmptyRows = emptyRows;
+		this.numberOfDuplicateRows = duplicateRows;
+		this.reducedMatrix = new detectionMatrix(labels, Arrays.copyOf(rowStarts, reducedRun+1),
+												Arrays.copyOf(entries, position), Arrays.copyOf(rowWeights, reducedRun));
+	}
+	
+	/**
+	 * Getter.
+	 *
+	 * @return {@code reducedMatrix}.
+	 */
+	public detectionMatrix getReducedMatrix()
+	{
+		return reducedMatrix;
+	}
+	
+	/**
+	 * Getter.
+	 *
+	 * @return {@code removedLabels}.
+	 */
+	public List<Integer> getRemovedLabels()
+	{
+		return removedLabels;
+	}
+	
+	/**
+	 * Completes a solution of the reduced problem to {@code k} honeypots with removed nodes, if needed.
+	 *
+	 * @param honeypots honeypots in a solution of the reduced problem
+	 * @param k number of honeypots.
+	 * @return the honeypots, with removed nodes added until there are {@code k} of them.
+	 */
+	public List<Integer> completeHoneypots(List<Integer> honeypots, int k)
+	{
+		List<Integer> output = new ArrayList<>(honeypots);
+		for (int i=0; (output.size()<k) && (i<removedLabels.size()); i++)
+			output.add(removedLabels.get(i));
+		return output;
+	}
+	
+	/**
+	 * Returns a string representation of the object.
+	 *
+	 * @return a string representation of the object.
+	 */
+	@Override
+	public String toString()
+	{
+		return "Presolve: removed "+removedLabels.size()+" of "+originalMatrix.getNumberOfColumns()+" nodes ("
+				+numberOfEmptyColumns+" never detect, "+numberOfDominatedColumns+" dominated"
+				+(dominanceCheckCompleted ? "" : ", dominance check stopped early")+"); removed "
+				+numberOfEmptyRows+" empty and merged "+numberOfDuplicateRows+" duplicate samples, leaving "
+				+reducedMatrix.getNumberOfRows()+" of "+originalMatrix.getNumberOfRows()+"; nonzeros "
+				+originalMatrix.getNumberOfNonzeros()+" -> "+reducedMatrix.getNumberOfNonzeros()+".";
+	}
+}
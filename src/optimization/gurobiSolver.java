@@ -1,25 +1,30 @@
 package optimization;
 
+import com.opencsv.CSVReader;
 import com.opencsv.CSVWriter;
+import dataTypes.algorithmOutput;
+import dataTypes.detectionMatrix;
 import dataTypes.parameters;
 import dataTypes.solverOutput;
+import dataTypes.solverProgress;
 import gurobi.*;
 import helper.commonMethods;
 import network.graph;
+import org.javatuples.Quartet;
 import org.javatuples.Sextet;
 import simulation.simulationRuns;
 
 import java.io.*;
 import java.time.Instant;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.*;
 
 /**
  * Represents results of MIP on {@code simulationRuns} using the Gurobi solver.
  * @author Sudesh Agrawal (sudesh@utexas.edu).
  * Last Updated: May 22, 2020.
  */
-public class gurobiSolver
+public class gurobiSolver implements saaSolver
 {
 	/**
 	 * A map from {@link dataTypes.parameters} to {@link dataTypes.solverOutput}.
@@ -45,6 +50,77 @@ public class gurobiSolver
 	 */
 	Map<parameters, Boolean> mapParamsToLoadedResults;
 	
+	/**
+	 * If {@code true}, parameters that differ only in the number of honeypots share one model:
+	 * the model is built once, and re-solved (in increasing order of the number of honeypots) after changing
+	 * the right-hand side of the honeypot budget constraint, warm-starting from the previous solution.
+	 * {@code false} by default.
+	 */
+	boolean reuseModelAcrossBudgets;
+	
+	/**
+	 * A map from {@link dataTypes.parameters} to the output of a heuristic
+	 * (for example, {@link algorithm.nodeInMaxRowsGreedyHeuristic}).
+	 * In {@link gurobiSolver#solveSAA}, the honeypots of the heuristic are used as the MIP start,
+	 * and the optimization stops once the objective value of the incumbent reaches the posterior upper bound.
+	 */
+	Map<parameters, algorithmOutput> heuristicOutputMap;
+	
+	/**
+	 * If {@code true}, {@link gurobiSolver#solveSAA} computes a greedy MIP start for the parameters
+	 * that are not in {@link gurobiSolver#heuristicOutputMap}.
+	 * {@code false} by default.
+	 */
+	boolean greedyMIPStart;
+	
+	/**
+	 * If {@code true}, the detection matrix is reduced by {@link coveragePresolve} before the model is built.
+	 * {@code true} by default.
+	 */
+	boolean reduceDetectionMatrix = true;
+	
+	/**
+	 * Maximum number of independent solves that run at the same time, each in its own Gurobi environment,
+	 * sharing the {@code threads} of {@link gurobiSolver#solveSAA} and {@link gurobiSolver#solveSAALPRelaxation}.
+	 * 1 by default.
+	 */
+	int concurrentSolves = 1;
+	
+	/**
+	 * Benchmark mode: number of re-solves, after each optimization, whose wall times are discarded.
+	 */
+	int warmupIterations;
+	
+	/**
+	 * Benchmark mode: number of re-solves, after the warmup re-solves, whose wall times are recorded.
+	 * 0 (benchmark mode off) by default: each set of parameters is optimized exactly once.
+	 */
+	int measurementIterations;
+	
+	/**
+	 * A map from {@link dataTypes.parameters} to the wall times (in seconds) of the measurement re-solves
+	 * in benchmark mode.
+	 */
+	Map<parameters, List<Double>> mapParamsToWallTimeSamples;
+	
+	/**
+	 * If {@code true}, {@link gurobiSolver#solveSAA} records the progress of each MIP solve (incumbent, bound, gap,
+	 * and node count over time) with {@link progressCallback}, in {@link solverOutput#getProgress()}.
+	 * {@code false} by default.
+	 */
+	boolean recordProgress;
+	
+	/**
+	 * Minimum time (in seconds) between two recorded points without a change of the incumbent or the bound.
+	 */
+	double progressInterval = 1;
+	
+	/**
+	 * Store of results; if not {@code null}, every new result is appended to it, and
+	 * {@link gurobiSolver#solveSAAOnlyNecessaryOnes} uses the results in it.
+	 */
+	resultStore store;
+	
 	/**
 	 * Constructor.
 	 *
@@ -55,6 +131,8 @@ public class gurobiSolver
 		this.outputMap = outputMap;
 		this.mapParamsToUTC = new HashMap<>();
 		this.mapParamsToLoadedResults = new HashMap<>();
+		this.heuristicOutputMap = new HashMap<>();
+		this.mapParamsToWallTimeSamples = new HashMap<>();
 	}
 	
 	/**
@@ -79,6 +157,8 @@ public class gurobiSolver
 		this.outputMap = outputMap;
 		this.mapParamsToUTC = UTCMap;
 		this.mapParamsToLoadedResults = loadedResultsMap;
+		this.heuristicOutputMap = new HashMap<>();
+		this.mapParamsToWallTimeSamples = new HashMap<>();
 	}
 	
 	/**
@@ -86,6 +166,7 @@ public class gurobiSolver
 	 *
 	 * @return {@link gurobiSolver#outputMap}.
 	 */
+	@Override
 	public Map<parameters, solverOutput> getOutputMap()
 	{
 		return outputMap;
@@ -111,6 +192,116 @@ public class gurobiSolver
 		return mapParamsToLoadedResults;
 	}
 	
+	/**
+	 * Getter.
+	 *
+	 * @return {@link gurobiSolver#mapParamsToWallTimeSamples}.
+	 */
+	public Map<parameters, List<Double>> getMapParamsToWallTimeSamples()
+	{
+		return mapParamsToWallTimeSamples;
+	}
+	
+	/**
+	 * Turns on benchmark mode: after each optimization, whose solution is the result, the model is reset and
+	 * re-solved {@code warmupIterations} times (wall times discarded), and then {@code measurementIterations} times
+	 * (wall times recorded in {@link gurobiSolver#mapParamsToWallTimeSamples}, and their average reported as the
+	 * wall time).
+	 * With {@code measurementIterations=0}, benchmark mode is off.
+	 *
+	 * @param warmupIterations number of re-solves whose wall times are discarded
+	 * @param measurementIterations number of re-solves whose wall times are recorded.
+	 * @throws Exception thrown if {@code warmupIterations<0} or {@code measurementIterations<0}.
+	 */
+	public void setBenchmark(int warmupIterations, int measurementIterations) throws Exception
+	{
+		if ((warmupIterations<0) || (measurementIterations<0))
+			throw new Exception("Number of iterations cannot be negative!");
+		this.warmupIterations = warmupIterations;
+		this.measurementIterations = measurementIterations;
+	}
+	
+	/**
+	 * Setter.
+	 *
+	 * @param recordProgress {@code true}, if the progress of each MIP solve should be recorded;
+	 *                       {@code false}, otherwise.
+	 */
+	public void setRecordProgress(boolean recordProgress)
+	{
+		this.recordProgress = recordProgress;
+	}
+	
+	/**
+	 * Sets the store of results: every new result is appended to it (as soon as it is available), and
+	 * {@link gurobiSolver#solveSAAOnlyNecessaryOnes} loads the results for parameters already in it
+	 * instead of solving them again.
+	 *
+	 * @param store store of results.
+	 */
+	public void setResultStore(resultStore store)
+	{
+		this.store = store;
+	}
+	
+	/**
+	 * Setter.
+	 *
+	 * @param reuseModelAcrossBudgets {@code true}, if parameters that differ only in the number of honeypots
+	 *                                should be solved by re-optimizing one model; {@code false}, otherwise.
+	 */
+	public void setReuseModelAcrossBudgets(boolean reuseModelAcrossBudgets)
+	{
+		this.reuseModelAcrossBudgets = reuseModelAcrossBudgets;
+	}
+	
+	/**
+	 * Sets the heuristic results to be used as MIP starts in {@link gurobiSolver#solveSAA}.
+	 *
+	 * @param heuristicOutputMap a map from {@link dataTypes.parameters} to {@link dataTypes.algorithmOutput},
+	 *                           for example, {@link algorithm.nodeInMaxRowsGreedyHeuristic#getOutputMap()}.
+	 */
+	public void setMIPStarts(Map<parameters, algorithmOutput> heuristicOutputMap)
+	{
+		this.heuristicOutputMap = heuristicOutputMap;
+	}
+	
+	/**
+	 * Setter.
+	 *
+	 * @param greedyMIPStart {@code true}, if {@link gurobiSolver#solveSAA} should compute a greedy MIP start
+	 *                       for parameters without heuristic results; {@code false}, otherwise.
+	 */
+	public void setGreedyMIPStart(boolean greedyMIPStart)
+	{
+		this.greedyMIPStart = greedyMIPStart;
+	}
+	
+	/**
+	 * Setter.
+	 *
+	 * @param reduceDetectionMatrix {@code true}, if the detection matrix should be reduced by
+	 *                              {@link coveragePresolve} before the model is built; {@code false}, otherwise.
+	 */
+	public void setReduceDetectionMatrix(boolean reduceDetectionMatrix)
+	{
+		this.reduceDetectionMatrix = reduceDetectionMatrix;
+	}
+	
+	/**
+	 * Setter.
+	 *
+	 * @param concurrentSolves maximum number of independent solves that run at the same time;
+	 *                         {@code threads} is then the total number of threads shared by them.
+	 * @throws Exception thrown if {@code concurrentSolves<1}.
+	 */
+	public void setConcurrentSolves(int concurrentSolves) throws Exception
+	{
+		if (concurrentSolves<1)
+			throw new Exception("Number of concurrent solves should be positive!");
+		this.concurrentSolves = concurrentSolves;
+	}
+	
 	/**
 	 * Returns a string representation of the object.
 	 *
@@ -144,6 +335,7 @@ public class gurobiSolver
 	 * @param append true, if you wish to append to existing file; false, otherwise.
 	 * @throws IOException thrown if error in input-output operation.
 	 */
+	@Override
 	public void writeToCSV(String filename, boolean append) throws IOException
 	{
 		File fileObj = new File(filename);
@@ -198,6 +390,92 @@ public class gurobiSolver
 		System.out.println("Optimization results successfully written to \""+filename+"\".");
 	}
 	
+	/**
+	 * Writes the recorded progress of the MIP solves (see {@link gurobiSolver#setRecordProgress(boolean)})
+	 * to csv file, one row per point.
+	 *
+	 * @param filename path to output file
+	 * @param append true, if you wish to append to existing file; false, otherwise.
+	 * @throws IOException thrown if error in input-output operation.
+	 */
+	public void writeProgressToCSV(String filename, boolean append) throws IOException
+	{
+		String[] header = {"Model", "Network", "t_0", "Simulation repetitions", "FN probability",
+							"transmissability (p)", "no. of honeypots", "solver", "threads", "event", "time (s)",
+							"objective value", "bound", "gap", "node count", "UTC"};
+		String solverName = "gurobi";
+		List<String[]> lines = new ArrayList<>();
+		String now = Instant.now().toString();
+		for (Map.Entry<parameters, solverOutput> e: outputMap.entrySet())
+		{
+			solverProgress progress = e.getValue().getProgress();
+			if (progress==null)
+				continue;
+			for (int i=0; i<progress.size(); i++)
+			{
+				String[] line = new String[16];
+				line[0] = e.getKey().getSpreadModelName();
+				line[1] = e.getKey().getNetworkName();
+				line[2] = String.valueOf(e.getKey().getTimeStep());
+				line[3] = String.valueOf(e.getKey().getNumberOfSimulationRepetitions());
+				line[4] = String.valueOf(e.getKey().getFalseNegativeProbability());
+				line[5] = String.valueOf(e.getKey().getTransmissability());
+				line[6] = String.valueOf(e.getKey().getNumberOfHoneypots());
+				line[7] = solverName;
+				line[8] = e.getValue().getSolverOptionsUsed().get("threads");
+				line[9] = progress.getEvent(i);
+				line[10] = String.valueOf(progress.getTime(i));
+				line[11] = String.valueOf(progress.getObjectiveValue(i));
+				line[12] = String.valueOf(progress.getBound(i));
+				line[13] = String.valueOf(progress.getGap(i));
+				line[14] = String.valueOf(progress.getNodeCount(i));
+				line[15] = mapParamsToUTC.getOrDefault(e.getKey(), now);
+				lines.add(line);
+			}
+		}
+		commonMethods.writeToCSV(filename, append, header, lines);
+		System.out.println("Solver progress successfully written to \""+filename+"\".");
+	}
+	
+	/**
+	 * Writes the wall times of benchmark mode to csv file, one row per measurement re-solve.
+	 *
+	 * @param filename path to output file
+	 * @param append true, if you wish to append to existing file; false, otherwise.
+	 * @throws IOException thrown if error in input-output operation.
+	 */
+	public void writeBenchmarkToCSV(String filename, boolean append) throws IOException
+	{
+		String[] header = {"Model", "Network", "t_0", "Simulation repetitions", "FN probability",
+							"transmissability (p)", "no. of honeypots", "solver", "warmup iterations",
+							"measurement", "Wall time (s)", "UTC"};
+		String solverName = "gurobi";
+		List<String[]> lines = new ArrayList<>();
+		String now = Instant.now().toString();
+		for (Map.Entry<parameters, List<Double>> e: mapParamsToWallTimeSamples.entrySet())
+		{
+			for (int i=0; i<e.getValue().size(); i++)
+			{
+				String[] line = new String[12];
+				line[0] = e.getKey().getSpreadModelName();
+				line[1] = e.getKey().getNetworkName();
+				line[2] = String.valueOf(e.getKey().getTimeStep());
+				line[3] = String.valueOf(e.getKey().getNumberOfSimulationRepetitions());
+				line[4] = String.valueOf(e.getKey().getFalseNegativeProbability());
+				line[5] = String.valueOf(e.getKey().getTransmissability());
+				line[6] = String.valueOf(e.getKey().getNumberOfHoneypots());
+				line[7] = solverName;
+				line[8] = String.valueOf(warmupIterations);
+				line[9] = String.valueOf(i+1);
+				line[10] = String.valueOf(e.getValue().get(i));
+				line[11] = now;
+				lines.add(line);
+			}
+		}
+		commonMethods.writeToCSV(filename, append, header, lines);
+		System.out.println("Benchmark wall times successfully written to \""+filename+"\".");
+	}
+	
 	/**
 	 * Solves the sample-average approximation (SAA) model using the Gurobi solver.
 	 * Optimization formulation written using Gurobi API.
@@ -206,7 +484,8 @@ public class gurobiSolver
 	 * @param g network graph
 	 * @param simulationResults results of simulation as an instance of {@code simulationRuns}
 	 * @param listOfParams list of the set of parameters used to get {@code simulationResults}
-	 * @param threads number of threads solver should use
+	 * @param threads number of threads solver should use; the total number of threads, if more than one solve runs
+	 *                at a time (see {@link gurobiSolver#setConcurrentSolves(int)})
 	 * @param timeLimit total time to spend in optimization, solver terminates the optimization process after this much
 	 *                      time is expended
 	 * @param logFilename file path to log file; logs from solver written here.
@@ -216,33 +495,97 @@ public class gurobiSolver
 	 *      do not match,
 	 *  or if the number of nodes is less than the number of honeypots in any of the parameters in {@code listOfParams}.
 	 */
+	@Override
 	public void solveSAA(graph g, simulationRuns simulationResults, List<parameters> listOfParams,
 	                     int threads, int timeLimit, String logFilename) throws Exception
 	{
 		if (g.hasSelfLoops())
 			throw new Exception("Graphs has self-loops!");
-		final int n = g.getVertexSet().size();
+		if (g.findMinimumNodeLabel()<0)
+			throw new Exception("Node labels are negative integers!");
 		
-		// minimum label of vertex
-		boolean zeroNode = false;
-		int minNode = g.findMinimumNodeLabel();
-		if (minNode==0)
-			zeroNode = true;
-		else
+		solveConcurrently(simulationResults, listOfParams, threads, logFilename,
+				(env, group, groupThreads) -> solveSAA(env, g, simulationResults, group, groupThreads, timeLimit));
+	}
+	
+	/**
+	 * Solves SAA by calling {@code solveSAA} only for those parameters
+	 * whose results are not already there in {@code outputMap}.
+	 *
+	 * @param g network graph
+	 * @param simulationResults results of simulation as an instance of {@code simulationRuns}
+	 * @param listOfParams list of the set of parameters used to get {@code simulationResults}
+	 * @param threads number of threads solver should use
+	 * @param timeLimit total time to spend in optimization, solver terminates the optimization process after this much
+	 *                      time is expended
+	 * @param logFilename file path to log file; logs from solver written here.
+	 * @throws Exception thrown if the graph {@code g} has self loops,
+	 *  or if the label of a node in {@code g} is a negative integer,
+	 *  or if the network name in one of the parameters and the network name stored in the graph {@code g}
+	 *      do not match,
+	 *  or if the number of nodes is less than the number of honeypots in any of the parameters in {@code listOfParams}.
+	 */
+	public boolean solveSAAOnlyNecessaryOnes(graph g, simulationRuns simulationResults, List<parameters> listOfParams,
+	                     int threads, int timeLimit, String logFilename) throws Exception
+	{
+		boolean ranNewSimulations = false;
+		List<parameters> newListOfParams = new ArrayList<>();
+		for (parameters param: listOfParams)
 		{
-			if (minNode<0)
-				throw new Exception("Node labels are negative integers!");
+			if (outputMap.containsKey(param))
+				continue;
+			if ((store!=null) && store.contains(param))
+			{
+				outputMap.put(param, store.get(param));
+				mapParamsToUTC.put(param, store.getUTC(param));
+				mapParamsToLoadedResults.put(param, true);
+				System.out.println("Using MIP results in the result store for "+param.toString());
+			}
+			else
+				newListOfParams.add(param);
 		}
+		if (newListOfParams.size()>0)
+		{
+			System.out.println("Running MIP for: \n\t"+newListOfParams.toString());
+			solveSAA(g, simulationResults, newListOfParams, threads, timeLimit, logFilename);
+			ranNewSimulations = true;
+		}
+		return ranNewSimulations;
+	}
+	
+	public void solveSAALPRelaxation(graph g, simulationRuns simulationResults, List<parameters> listOfParams,
+	                                 int threads, int timeLimit, String logFilename) throws Exception
+	{
+		if (g.hasSelfLoops())
+			throw new Exception("Graphs has self-loops!");
+		if (g.findMinimumNodeLabel()<0)
+			throw new Exception("Node labels are negative integers!");
 		
-		// Create empty environment, set options, and start
-		GRBEnv env = new GRBEnv(true);
-		env.set("logFile", logFilename);
-		env.set(GRB.IntParam.LogToConsole, 0);
-		// OutputFlag turns on/off both console and log file output
-		// env.set(GRB.IntParam.valueOf("OutputFlag"), 0);
-		env.start();
-		
-		for (parameters param: listOfParams)
+		solveConcurrently(simulationResults, listOfParams, threads, logFilename,
+				(env, group, groupThreads) -> solveSAALPRelaxation(env, g, simulationResults, group, groupThreads,
+																	timeLimit));
+	}
+	
+	/**
+	 * Solves the SAA model (MIP) for a group of parameters, one after another, in one Gurobi environment.
+	 *
+	 * @param env Gurobi environment
+	 * @param g network graph
+	 * @param simulationResults results of simulation as an instance of {@code simulationRuns}
+	 * @param group parameters, in the order in which they are solved
+	 * @param threads number of threads solver should use
+	 * @param timeLimit time limit (in seconds) of each optimization.
+	 * @throws Exception thrown if the network name in one of the parameters and the network name stored in the graph
+	 *  {@code g} do not match,
+	 *  or if the number of nodes is less than the number of honeypots in any of the parameters in {@code group}.
+	 */
+	private void solveSAA(GRBEnv env, graph g, simulationRuns simulationResults, List<parameters> group,
+	                      int threads, int timeLimit) throws Exception
+	{
+		coverageModel coverage = null;
+		coveragePresolve reduction = null;
+		Sextet<String, String, Integer, Integer, Double, Double> lastKey = null;
+		for (parameters param: group)
 		{
 			String modelName = param.getSpreadModelName();
 			String networkName = param.getNetworkName();
@@ -261,78 +604,35 @@ public class gurobiSolver
 			System.out.println("Solving MIP: "+modelName+" spread model on "+networkName
 					+"network; "+k+" honeypots; "+t_0+" time step(s); "
 					+run+" samples; false negative probability="+r+"; transmissability (p)="+p);
-			List<List<Integer>> virusSpreadSamples =
-					simulationResults.getMapModelNetworkT0RunsFalseNegativeToSimulationRuns().get(key);
-			List<List<Integer>> virtualDetectionSamples =
-					simulationResults.getMapModelNetworkT0RunsFalseNegativeToVirtualDetections().get(key);
-			// System.out.println("Virus spread samples:\n"+virusSpreadSamples+"\n"+virtualDetectionSamples);
-			List<List<Integer>> successfulDetectMatrix;
-			Set<Integer> candidates;
-			if (r>0)
+			if (reuseModelAcrossBudgets && (coverage!=null) && key.equals(lastKey))
 			{
-				if (zeroNode)
-				{
-					List<List<Integer>> newVirusSpreadSamples = virusSpreadSamples.stream()
-							.map(virusSpreadSample -> virusSpreadSample.stream()
-							.map(integer -> integer + 1)
-							.collect(Collectors.toCollection(() -> new ArrayList<>(t_0 + 1))))
-							.collect(Collectors.toCollection(() -> new ArrayList<>(run)));
-					successfulDetectMatrix = commonMethods.elementwiseMultiplyMatrix(Collections
-											.unmodifiableList(newVirusSpreadSamples),
-											Collections.unmodifiableList(virtualDetectionSamples));
-					candidates = g.getVertexSet().stream().map(e -> e+1).collect(Collectors.toSet());
-				}
-				else
-				{
-					successfulDetectMatrix = commonMethods.elementwiseMultiplyMatrix(
-							Collections.unmodifiableList(virusSpreadSamples),
-							Collections.unmodifiableList(virtualDetectionSamples));
-					candidates = new HashSet<>(g.getVertexSet());
-				}
+				// only the right-hand side of the budget constraint changes
+				coverage.setBudget(k);
 			}
 			else
 			{
-				successfulDetectMatrix = new ArrayList<>(virusSpreadSamples);
-				candidates = new HashSet<>(g.getVertexSet());
-			}
-			
-			// Create empty model
-			GRBModel model = new GRBModel(env);
-			
-			// Create variables
-			Map<Integer, GRBVar> x = new HashMap<>(n);
-			for (int node: candidates)
-				x.put(node, model.addVar(0, 1, 0, GRB.BINARY, "x_" + node));
-			Map<Integer, GRBVar> u = new HashMap<>(run);
-			// u can be relaxed to GRB.CONTINUOUS
-			for (int i=0; i<run; i++)
-				u.put(i+1, model.addVar(0, 1, 0, GRB.BINARY, "u_" + (i+1)));
-			
-			// Create Objective
-			GRBLinExpr obj = new GRBLinExpr();
-			final double objCoefficient = 1.0/run;
-			for (int i=0; i<run; i++)
-				obj.addTerm(objCoefficient, u.get(i + 1));
-			model.setObjective(obj, GRB.MAXIMIZE);
-			
-			// Create Constraints
-			GRBLinExpr expr;
-			// honeypot in sample constraint
-			for (int i=0; i<run; i++)
-			{
-				expr  = new GRBLinExpr();
-				expr.addTerm(-1, u.get(i+1));
-				for (int node : candidates)
-					if (successfulDetectMatrix.get(i).contains(node))
-						expr.addTerm(1, x.get(node));
-				model.addConstr(expr, GRB.GREATER_EQUAL, 0, "Honeypot in sample "+(i+1)+" constraint");
+				if (coverage!=null)
+					coverage.dispose();
+				List<List<Integer>> virusSpreadSamples =
+						simulationResults.getMapModelNetworkT0RunsFalseNegativeToSimulationRuns().get(key);
+				List<List<Integer>> virtualDetectionSamples =
+						simulationResults.getMapModelNetworkT0RunsFalseNegativeToVirtualDetections().get(key);
+				// System.out.println("Virus spread samples:\n"+virusSpreadSamples+"\n"+virtualDetectionSamples);
+				detectionMatrix matrix = new detectionMatrix(g.getVertexSet(), virusSpreadSamples,
+																(r>0) ? virtualDetectionSamples : null);
+				reduction = null;
+				if (reduceDetectionMatrix)
+				{
+					reduction = new coveragePresolve(matrix);
+					System.out.println(reduction);
+					matrix = reduction.getReducedMatrix();
+				}
+				
+				// Create model
+				coverage = new coverageModel(env, matrix, k, GRB.BINARY);
+				lastKey = key;
 			}
-			
-			// honeypot budget constraint
-			expr  = new GRBLinExpr();
-			for (int node : candidates)
-				expr.addTerm(1.0, x.get(node));
-			model.addConstr(expr, GRB.EQUAL, k, "Honeypot budget constraint");
+			GRBModel model = coverage.model;
 			
 			// Solve the model
 			double intFeasTol = 1e-9, mipGap = 1e-2;
@@ -344,29 +644,71 @@ public class gurobiSolver
 			model.set(GRB.IntParam.Presolve, presolve);
 			model.set(GRB.DoubleParam.TimeLimit, timeLimit);
 			
+			// MIP start
+			String mipStart = "none";
+			double bestObjStop = GRB.INFINITY;
+			algorithmOutput heuristicOutput = heuristicOutputMap.get(param);
+			if (heuristicOutput!=null)
+			{
+				int[] startColumns = heuristicOutput.getHoneypots().stream()
+										.mapToInt(coverage.matrix::getColumn).filter(column -> column>=0).toArray();
+				double startValue = coverage.setStart(startColumns, k);
+				if (startValue>=0)
+				{
+					mipStart = "heuristic";
+					System.out.println("MIP start from heuristic: objective value = "+startValue);
+				}
+				// the posterior upper bound is an upper bound on the optimal objective value, so an incumbent that
+				// reaches it is optimal
+				bestObjStop = heuristicOutput.getPosteriorUB();
+			}
+			else if (greedyMIPStart)
+			{
+				double startValue = coverage.setStart(new int[0], k);
+				mipStart = "greedy";
+				System.out.println("MIP start from greedy: objective value = "+startValue);
+			}
+			else if (reuseModelAcrossBudgets && (coverage.incumbent!=null) && (coverage.incumbent.length<=k))
+				mipStart = "previous";
+			model.set(GRB.DoubleParam.BestObjStop, bestObjStop);
+			progressCallback callback = null;
+			if (recordProgress)
+			{
+				callback = new progressCallback(progressInterval);
+				model.setCallback(callback);
+			}
+			
 			// model.write("mip.lp");
 			model.optimize();
+			if (callback!=null)
+			{
+				model.setCallback(null);
+				callback.record("final", model.get(GRB.DoubleAttr.Runtime), model.get(GRB.DoubleAttr.ObjVal),
+								model.get(GRB.DoubleAttr.ObjBound), model.get(GRB.DoubleAttr.NodeCount));
+			}
 			
 			// Display/Return the results
 			solverOutput currOutput = new solverOutput();
 			currOutput.setObjectiveValue(model.get(GRB.DoubleAttr.ObjVal));
 			currOutput.setBestUB(model.get(GRB.DoubleAttr.ObjBound));
 			currOutput.setWallTimeInSeconds(model.get(GRB.DoubleAttr.Runtime));
+			if (callback!=null)
+				currOutput.setProgress(callback.progress);
 			
-			List<Integer> honeypots = new ArrayList<>();
-			for (int node : candidates)
-			{
-				if ((int)x.get(node).get(GRB.DoubleAttr.X)==1)
-					honeypots.add(node);
-			}
-			if ((r>0) && (zeroNode))
-				honeypots = honeypots.stream().map(e -> e - 1).collect(Collectors.toList());
+			List<Integer> honeypots = coverage.getHoneypots(0.5);
+			if (reduction!=null)
+				honeypots = reduction.completeHoneypots(honeypots, k);
 			currOutput.setHoneypots(honeypots);
+			coverage.saveIncumbent();
 			currOutput.getSolverOptionsUsed().put("IntFeasTol", String.valueOf(intFeasTol));
 			currOutput.getSolverOptionsUsed().put("MIPGap", String.valueOf(mipGap));
 			currOutput.getSolverOptionsUsed().put("threads", String.valueOf(threads));
 			currOutput.getSolverOptionsUsed().put("Presolve", String.valueOf(presolve));
 			currOutput.getSolverOptionsUsed().put("TimeLimit", String.valueOf(timeLimit));
+			currOutput.getSolverOptionsUsed().put("ReduceDetectionMatrix", String.valueOf(reduceDetectionMatrix));
+			currOutput.getSolverOptionsUsed().put("MIPStart", mipStart);
+			if (bestObjStop<GRB.INFINITY)
+				currOutput.getSolverOptionsUsed().put("BestObjStop", String.valueOf(bestObjStop));
 			
 			// https://www.gurobi.com/documentation/9.0/refman/optimization_status_codes.html
 			switch (model.get(GRB.IntAttr.Status))
@@ -383,103 +725,57 @@ public class gurobiSolver
 				case 9 -> currOutput.setSolverMessage("Time Limit");
 				case 13 -> currOutput.setSolverMessage("Suboptimal");
 				case 14 -> currOutput.setSolverMessage("In progress");
-				case 6, 8, 10, 11, 12, 15 -> currOutput.setSolverMessage("Others");
+				case 15 -> currOutput.setSolverMessage("User Objective Limit");
+				case 6, 8, 10, 11, 12 -> currOutput.setSolverMessage("Others");
 				default -> throw new IllegalStateException("Unexpected value: " + model.get(GRB.IntAttr.Status));
 			}
 			
-			// find average run time over several optimization calls
-			List<Double> wallTimes = new ArrayList<>(5);
-			double currentWallTime = model.get(GRB.DoubleAttr.Runtime);
-			wallTimes.add(currentWallTime);
-			int timerRepeat = 0;
-			if (currentWallTime <= 1)
-				timerRepeat = 5;
-			else if (currentWallTime <= 10)
-				timerRepeat = 3;
-			for (int i=1; i<=timerRepeat; i++)
-			{
-				// reset the value of variables
-				model.reset(0);
-				model.optimize();
-				// System.out.println("Last Objective Value = "+model.get(GRB.DoubleAttr.ObjVal));
-				wallTimes.add(model.get(GRB.DoubleAttr.Runtime));
-				
-			}
-			//System.out.println("Wall Times (s): "+wallTimes.toString());
-			currOutput.setWallTimeInSeconds(wallTimes.stream().mapToDouble(e -> e).average().getAsDouble());
+			benchmark(model, param, currOutput);
 			
 			System.out.println("Objective value = "+currOutput.getObjectiveValue());
 			System.out.println("Wall time (second) = "+currOutput.getWallTimeInSeconds());
-			outputMap.put(param, currOutput);
+			synchronized (outputMap)
+			{
+				outputMap.put(param, currOutput);
+				if (store!=null)
+				{
+					String now = Instant.now().toString();
+					store.append("gurobi", param, currOutput, now);
+					mapParamsToUTC.put(param, now);
+				}
+			}
 			
-			model.dispose();
+			if (!reuseModelAcrossBudgets)
+			{
+				coverage.dispose();
+				coverage = null;
+			}
 		}
-		env.dispose();
+		if (coverage!=null)
+			coverage.dispose();
 	}
 	
 	/**
-	 * Solves SAA by calling {@code solveSAA} only for those parameters
-	 * whose results are not already there in {@code outputMap}.
+	 * Solves the LP relaxation of the SAA model for a group of parameters, one after another,
+	 * in one Gurobi environment.
 	 *
+	 * @param env Gurobi environment
 	 * @param g network graph
 	 * @param simulationResults results of simulation as an instance of {@code simulationRuns}
-	 * @param listOfParams list of the set of parameters used to get {@code simulationResults}
+	 * @param group parameters, in the order in which they are solved
 	 * @param threads number of threads solver should use
-	 * @param timeLimit total time to spend in optimization, solver terminates the optimization process after this much
-	 *                      time is expended
-	 * @param logFilename file path to log file; logs from solver written here.
-	 * @throws Exception thrown if the graph {@code g} has self loops,
-	 *  or if the label of a node in {@code g} is a negative integer,
-	 *  or if the network name in one of the parameters and the network name stored in the graph {@code g}
-	 *      do not match,
-	 *  or if the number of nodes is less than the number of honeypots in any of the parameters in {@code listOfParams}.
+	 * @param timeLimit time limit (in seconds) of each optimization.
+	 * @throws Exception thrown if the network name in one of the parameters and the network name stored in the graph
+	 *  {@code g} do not match,
+	 *  or if the number of nodes is less than the number of honeypots in any of the parameters in {@code group}.
 	 */
-	public boolean solveSAAOnlyNecessaryOnes(graph g, simulationRuns simulationResults, List<parameters> listOfParams,
-	                     int threads, int timeLimit, String logFilename) throws Exception
-	{
-		boolean ranNewSimulations = false;
-		List<parameters> newListOfParams = new ArrayList<>();
-		for (parameters param: listOfParams)
-		{
-			if (!outputMap.containsKey(param))
-				newListOfParams.add(param);
-		}
-		if (newListOfParams.size()>0)
-		{
-			System.out.println("Running MIP for: \n\t"+newListOfParams.toString());
-			solveSAA(g, simulationResults, newListOfParams, threads, timeLimit, logFilename);
-			ranNewSimulations = true;
-		}
-		return ranNewSimulations;
-	}
-	
-	public void solveSAALPRelaxation(graph g, simulationRuns simulationResults, List<parameters> listOfParams,
-	                                 int threads, int timeLimit, String logFilename) throws Exception
+	private void solveSAALPRelaxation(GRBEnv env, graph g, simulationRuns simulationResults, List<parameters> group,
+	                                  int threads, int timeLimit) throws Exception
 	{
-		if (g.hasSelfLoops())
-			throw new Exception("Graphs has self-loops!");
-		final int n = g.getVertexSet().size();
-		
-		// minimum label of vertex
-		boolean zeroNode = false;
-		int minNode = g.findMinimumNodeLabel();
-		if (minNode==0)
-			zeroNode = true;
-		else
-		{
-			if (minNode<0)
-				throw new Exception("Node labels are negative integers!");
-		}
-		
-		// Create empty environment, set options, and start
-		GRBEnv env = new GRBEnv(true);
-		env.set("logFile", logFilename);
-		env.set(GRB.IntParam.LogToConsole, 0);
-		// OutputFlag turns on/off both console and log file output
-		// env.set(GRB.IntParam.valueOf("OutputFlag"), 0);
-		env.start();
-		
-		for (parameters param: listOfParams)
+		coverageModel coverage = null;
+		coveragePresolve reduction = null;
+		Sextet<String, String, Integer, Integer, Double, Double> lastKey = null;
+		for (parameters param: group)
 		{
 			String modelName = param.getSpreadModelName();
 			String networkName = param.getNetworkName();
@@ -498,78 +794,35 @@ public class gurobiSolver
 			System.out.println("Solving LP Relaxation: "+modelName+" spread model on "+networkName
 					+"network; "+k+" honeypots; "+t_0+" time step(s); "
 					+run+" samples; false negative probability="+r+"; transmissability (p)="+p);
-			List<List<Integer>> virusSpreadSamples =
-					simulationResults.getMapModelNetworkT0RunsFalseNegativeToSimulationRuns().get(key);
-			List<List<Integer>> virtualDetectionSamples =
-					simulationResults.getMapModelNetworkT0RunsFalseNegativeToVirtualDetections().get(key);
-			// System.out.println("Virus spread samples:\n"+virusSpreadSamples+"\n"+virtualDetectionSamples);
-			List<List<Integer>> successfulDetectMatrix;
-			Set<Integer> candidates;
-			if (r>0)
+			if (reuseModelAcrossBudgets && (coverage!=null) && key.equals(lastKey))
 			{
-				if (zeroNode)
-				{
-					List<List<Integer>> newVirusSpreadSamples = virusSpreadSamples.stream()
-							.map(virusSpreadSample -> virusSpreadSample.stream()
-									.map(integer -> integer + 1)
-									.collect(Collectors.toCollection(() -> new ArrayList<>(t_0 + 1))))
-							.collect(Collectors.toCollection(() -> new ArrayList<>(run)));
-					successfulDetectMatrix = commonMethods.elementwiseMultiplyMatrix(Collections
-									.unmodifiableList(newVirusSpreadSamples),
-							Collections.unmodifiableList(virtualDetectionSamples));
-					candidates = g.getVertexSet().stream().map(e -> e+1).collect(Collectors.toSet());
-				}
-				else
-				{
-					successfulDetectMatrix = commonMethods.elementwiseMultiplyMatrix(
-							Collections.unmodifiableList(virusSpreadSamples),
-							Collections.unmodifiableList(virtualDetectionSamples));
-					candidates = new HashSet<>(g.getVertexSet());
-				}
+				// only the right-hand side of the budget constraint changes
+				coverage.setBudget(k);
 			}
 			else
 			{
-				successfulDetectMatrix = new ArrayList<>(virusSpreadSamples);
-				candidates = new HashSet<>(g.getVertexSet());
-			}
-			
-			// Create empty model
-			GRBModel model = new GRBModel(env);
-			
-			// Create variables
-			Map<Integer, GRBVar> x = new HashMap<>(n);
-			for (int node: candidates)
-				x.put(node, model.addVar(0, 1, 0, GRB.CONTINUOUS, "x_" + node));
-			Map<Integer, GRBVar> u = new HashMap<>(run);
-			// u can be relaxed to GRB.CONTINUOUS
-			for (int i=0; i<run; i++)
-				u.put(i+1, model.addVar(0, 1, 0, GRB.CONTINUOUS, "u_" + (i+1)));
-			
-			// Create Objective
-			GRBLinExpr obj = new GRBLinExpr();
-			final double objCoefficient = 1.0/run;
-			for (int i=0; i<run; i++)
-				obj.addTerm(objCoefficient, u.get(i + 1));
-			model.setObjective(obj, GRB.MAXIMIZE);
-			
-			// Create Constraints
-			GRBLinExpr expr;
-			// honeypot in sample constraint
-			for (int i=0; i<run; i++)
-			{
-				expr  = new GRBLinExpr();
-				expr.addTerm(-1, u.get(i+1));
-				for (int node : candidates)
-					if (successfulDetectMatrix.get(i).contains(node))
-						expr.addTerm(1, x.get(node));
-				model.addConstr(expr, GRB.GREATER_EQUAL, 0, "Honeypot in sample "+(i+1)+" constraint");
+				if (coverage!=null)
+					coverage.dispose();
+				List<List<Integer>> virusSpreadSamples =
+						simulationResults.getMapModelNetworkT0RunsFalseNegativeToSimulationRuns().get(key);
+				List<List<Integer>> virtualDetectionSamples =
+						simulationResults.getMapModelNetworkT0RunsFalseNegativeToVirtualDetections().get(key);
+				// System.out.println("Virus spread samples:\n"+virusSpreadSamples+"\n"+virtualDetectionSamples);
+				detectionMatrix matrix = new detectionMatrix(g.getVertexSet(), virusSpreadSamples,
+																(r>0) ? virtualDetectionSamples : null);
+				reduction = null;
+				if (reduceDetectionMatrix)
+				{
+					reduction = new coveragePresolve(matrix);
+					System.out.println(reduction);
+					matrix = reduction.getReducedMatrix();
+				}
+				
+				// Create model
+				coverage = new coverageModel(env, matrix, k, GRB.CONTINUOUS);
+				lastKey = key;
 			}
-			
-			// honeypot budget constraint
-			expr  = new GRBLinExpr();
-			for (int node : candidates)
-				expr.addTerm(1.0, x.get(node));
-			model.addConstr(expr, GRB.EQUAL, k, "Honeypot budget constraint");
+			GRBModel model = coverage.model;
 			
 			// Solve the model
 			double intFeasTol = 1e-9, mipGap = 1e-2;
@@ -590,21 +843,13 @@ public class gurobiSolver
 			currOutput.setBestUB(model.get(GRB.DoubleAttr.ObjBound));
 			currOutput.setWallTimeInSeconds(model.get(GRB.DoubleAttr.Runtime));
 			
-			List<Integer> honeypots = new ArrayList<>();
-			for (int node : candidates)
-			{
-				//System.out.println("x value for node "+node+"= "+);
-				if (x.get(node).get(GRB.DoubleAttr.X)>0)
-					honeypots.add(node);
-			}
-			if ((r>0) && (zeroNode))
-				honeypots = honeypots.stream().map(e -> e - 1).collect(Collectors.toList());
-			currOutput.setHoneypots(honeypots);
+			currOutput.setHoneypots(coverage.getHoneypots(0));
 			currOutput.getSolverOptionsUsed().put("IntFeasTol", String.valueOf(intFeasTol));
 			currOutput.getSolverOptionsUsed().put("MIPGap", String.valueOf(mipGap));
 			currOutput.getSolverOptionsUsed().put("threads", String.valueOf(threads));
 			currOutput.getSolverOptionsUsed().put("Presolve", String.valueOf(presolve));
 			currOutput.getSolverOptionsUsed().put("TimeLimit", String.valueOf(timeLimit));
+			currOutput.getSolverOptionsUsed().put("ReduceDetectionMatrix", String.valueOf(reduceDetectionMatrix));
 			
 			// https://www.gurobi.com/documentation/9.0/refman/optimization_status_codes.html
 			switch (model.get(GRB.IntAttr.Status))
@@ -625,107 +870,323 @@ public class gurobiSolver
 				default -> throw new IllegalStateException("Unexpected value: " + model.get(GRB.IntAttr.Status));
 			}
 			
-//			// find average run time over several optimization calls
-//			List<Double> wallTimes = new ArrayList<>(5);
-//			double currentWallTime = model.get(GRB.DoubleAttr.Runtime);
-//			wallTimes.add(currentWallTime);
-//			int timerRepeat = 0;
-//			if (currentWallTime <= 1)
-//				timerRepeat = 5;
-//			else if (currentWallTime <= 10)
-//				timerRepeat = 3;
-//			for (int i=1; i<=timerRepeat; i++)
-//			{
-//				// reset the value of variables
-//				model.reset(0);
-//				model.optimize();
-//				// System.out.println("Last Objective Value = "+model.get(GRB.DoubleAttr.ObjVal));
-//				wallTimes.add(model.get(GRB.DoubleAttr.Runtime));
-//
-//			}
-//			//System.out.println("Wall Times (s): "+wallTimes.toString());
-//			currOutput.setWallTimeInSeconds(wallTimes.stream().mapToDouble(e -> e).average().getAsDouble());
+			benchmark(model, param, currOutput);
 			
 			System.out.println("Objective value = "+currOutput.getObjectiveValue());
 			System.out.println("Wall time (second) = "+currOutput.getWallTimeInSeconds());
-			outputMap.put(param, currOutput);
+			synchronized (outputMap)
+			{
+				outputMap.put(param, currOutput);
+				if (store!=null)
+				{
+					String now = Instant.now().toString();
+					store.append("gurobi", param, currOutput, now);
+					mapParamsToUTC.put(param, now);
+				}
+			}
 			
-			model.dispose();
+			if (!reuseModelAcrossBudgets)
+			{
+				coverage.dispose();
+				coverage = null;
+			}
 		}
-		env.dispose();
+		if (coverage!=null)
+			coverage.dispose();
 	}
 	
 	/**
-	 * Loads results created using {@link gurobiSolver#writeToCSV(String, boolean)} from previous run(s).
+	 * In benchmark mode, re-solves {@code model} {@link gurobiSolver#warmupIterations} times and then
+	 * {@link gurobiSolver#measurementIterations} times, from scratch ({@code model.reset(0)}),
+	 * records the wall times of the latter, and sets their average as the wall time of {@code currOutput};
+	 * otherwise, does nothing.
 	 *
-	 * @param filename path of the file where results from previous run(s) are stored.
+	 * @param model solved model
+	 * @param param parameters of the model
+	 * @param currOutput output of the solved model.
+	 * @throws GRBException thrown if the model cannot be re-solved.
 	 */
-	public void loadResultsFromCSVFile(String filename)
+	private void benchmark(GRBModel model, parameters param, solverOutput currOutput) throws GRBException
+	{
+		if (measurementIterations==0)
+			return;
+		for (int i=1; i<=warmupIterations; i++)
+		{
+			// reset the value of variables
+			model.reset(0);
+			model.optimize();
+		}
+		List<Double> wallTimes = new ArrayList<>(measurementIterations);
+		for (int i=1; i<=measurementIterations; i++)
+		{
+			model.reset(0);
+			model.optimize();
+			wallTimes.add(model.get(GRB.DoubleAttr.Runtime));
+		}
+		System.out.println("Wall times (second) of benchmark: "+wallTimes);
+		currOutput.setWallTimeInSeconds(wallTimes.stream().mapToDouble(e -> e).average().getAsDouble());
+		currOutput.getSolverOptionsUsed().put("WarmupIterations", String.valueOf(warmupIterations));
+		currOutput.getSolverOptionsUsed().put("MeasurementIterations", String.valueOf(measurementIterations));
+		synchronized (mapParamsToWallTimeSamples)
+		{
+			mapParamsToWallTimeSamples.put(param, wallTimes);
+		}
+	}
+	
+	/**
+	 * Solves a group of parameters in a Gurobi environment with a given number of threads.
+	 */
+	private interface groupSolve
+	{
+		/**
+		 * Solves the parameters in {@code group}, one after another.
+		 *
+		 * @param env Gurobi environment
+		 * @param group parameters, in the order in which they are solved
+		 * @param threads number of threads solver should use.
+		 * @throws Exception thrown if the group cannot be solved.
+		 */
+		void solve(GRBEnv env, List<parameters> group, int threads) throws Exception;
+	}
+	
+	/**
+	 * Solves the parameters in {@code listOfParams} with {@code solve}.
+	 * <p>
+	 *     If {@link gurobiSolver#concurrentSolves} is 1, everything is solved in one environment
+	 *     with {@code threads} threads, in the order given by {@link gurobiSolver#groupByKey(List)}.
+	 * </p>
+	 * <p>
+	 *     Otherwise, the parameters are split into independent tasks (one task per parameters,
+	 *     or, if {@link gurobiSolver#reuseModelAcrossBudgets} is {@code true}, one task per group of parameters
+	 *     that share a model), which run concurrently, each in an environment from a pool of
+	 *     {@code min(concurrentSolves, threads, number of tasks)} environments.
+	 *     {@code threads} is the total thread budget: a task gets a share of it proportional to the size of its
+	 *     model (the number of nonzeros of its detection matrix, times the number of parameters it solves),
+	 *     with an average of {@code threads/(number of environments)}, at least 1, and at most {@code threads}.
+	 *     A task waits until its threads are available, so that no more than {@code threads} threads are in use
+	 *     at a time, and tasks start in decreasing order of size.
+	 *     Each environment writes its own log file: {@code logFilename} with "_1", "_2", etc.
+	 *     before the extension.
+	 * </p>
+	 *
+	 * @param simulationResults results of simulation as an instance of {@code simulationRuns}
+	 * @param listOfParams list of the set of parameters used to get {@code simulationResults}
+	 * @param threads total number of threads
+	 * @param logFilename file path to log file
+	 * @param solve solves a group of parameters.
+	 * @throws Exception thrown if a group cannot be solved.
+	 */
+	private void solveConcurrently(simulationRuns simulationResults, List<parameters> listOfParams, int threads,
+	                               String logFilename, groupSolve solve) throws Exception
 	{
+		List<List<parameters>> tasks = new ArrayList<>();
+		if (reuseModelAcrossBudgets)
+		{
+			Map<Sextet<String, String, Integer, Integer, Double, Double>, List<parameters>> groups =
+																							new LinkedHashMap<>();
+			for (parameters param: groupByKey(listOfParams))
+				groups.computeIfAbsent(getKey(param), key -> new ArrayList<>()).add(param);
+			tasks.addAll(groups.values());
+		}
+		else
+		{
+			for (parameters param: listOfParams)
+				tasks.add(Collections.singletonList(param));
+		}
+		final int concurrency = Math.min(Math.min(concurrentSolves, threads), tasks.size());
+		if (concurrency<=1)
+		{
+			GRBEnv env = startEnvironment(logFilename);
+			try
+			{
+				solve.solve(env, groupByKey(listOfParams), threads);
+			}
+			finally
+			{
+				env.dispose();
+			}
+			return;
+		}
+		
+		// size of a task: nonzeros (at most) of its detection matrix times the number of parameters
+		double[] sizes = new double[tasks.size()];
+		double totalSize = 0;
+		for (int t=0; t<tasks.size(); t++)
+		{
+			List<List<Integer>> samples = simulationResults.getMapModelNetworkT0RunsFalseNegativeToSimulationRuns()
+												.get(getKey(tasks.get(t).get(0)));
+			double nonzeros = (samples==null) ? 1 : Math.max(1, samples.stream().mapToInt(List::size).sum());
+			sizes[t] = nonzeros*tasks.get(t).size();
+			totalSize += sizes[t];
+		}
+		final double averageSize = totalSize/tasks.size();
+		Integer[] order = new Integer[tasks.size()];
+		for (int t=0; t<tasks.size(); t++)
+			order[t] = t;
+		Arrays.sort(order, (a, b) -> Double.compare(sizes[b], sizes[a]));
+		
+		BlockingQueue<GRBEnv> environments = new ArrayBlockingQueue<>(concurrency);
+		ExecutorService pool = Executors.newFixedThreadPool(concurrency);
 		try
 		{
-			FileReader fileReader = new FileReader(filename);
-			BufferedReader csvReader = new BufferedReader(fileReader);
-			String row;
-			boolean header = true;
-			Map<parameters, Instant> timeRecordOfRows = new HashMap<>();
-			while ((row = csvReader.readLine()) != null)
+			int dot = logFilename.lastIndexOf('.');
+			if (dot<=Math.max(logFilename.lastIndexOf('/'), logFilename.lastIndexOf('\\')))
+				dot = logFilename.length();
+			for (int i=1; i<=concurrency; i++)
+				environments.add(startEnvironment(logFilename.substring(0, dot)+"_"+i+logFilename.substring(dot)));
+			Semaphore threadBudget = new Semaphore(threads, true);
+			List<Future<?>> futures = new ArrayList<>(tasks.size());
+			for (int t: order)
 			{
-				if (!header)
+				final List<parameters> task = tasks.get(t);
+				final int taskThreads = (int) Math.max(1, Math.min(threads,
+											Math.round(sizes[t]/averageSize*threads/concurrency)));
+				futures.add(pool.submit(() ->
 				{
-					String[] data = row.split("\",");
-					String modelName = data[0].substring(1);
-					String networkName = data[1].substring(1);
-					int timeSteps = Integer.parseInt(data[2].substring(1));
-					int runs = Integer.parseInt(data[3].substring(1));
-					double falseNegProb = Double.parseDouble(data[4].substring(1));
-					double transmissability = Double.parseDouble(data[5].substring(1));
-					int numberOfHoneypots = Integer.parseInt(data[6].substring(1));
-					//String solverName = data[7].substring(1);
-					double objective = Double.parseDouble(data[9].substring(1));
-					double bestUB = Double.parseDouble(data[10].substring(1));
-					String solverMessage = data[11].substring(1);
-					double wallTime = Double.parseDouble(data[13].substring(1));
-					Map<String, String> solverOptions;
-					String solverOptionsAsString = data[8].substring(1);
-					String[] tokens = solverOptionsAsString
-										.replaceAll("\\s","")
-										.replaceAll("}", "")
-										.substring(1).split(",");
-					
-					solverOptions = Arrays.stream(tokens).map(token -> token.split("="))
-									.collect(Collectors
-									.toMap(innerTokens -> innerTokens[0], innerTokens -> innerTokens[1], (a, b) -> b));
-					String[] tokens2AsString = data[12].substring(2, data[12].length()-1).split(",");
-					List<Integer> honeypots = Arrays.stream(tokens2AsString)
-												.map(s -> Integer.parseInt(s.trim()))
-												.collect(Collectors.toCollection(() ->
-														new ArrayList<>(numberOfHoneypots)));
-					parameters param = new parameters(modelName, networkName, timeSteps, runs, falseNegProb,
-														transmissability, numberOfHoneypots, 0);
-					solverOutput output = new solverOutput(objective, bestUB, honeypots, wallTime,
-															solverOptions, solverMessage);
-					Instant timeStamp = Instant.parse(data[14].substring(1, data[14].length()-1));
-					if (timeRecordOfRows.containsKey(param))
+					threadBudget.acquire(taskThreads);
+					try
 					{
-						if (timeStamp.compareTo(timeRecordOfRows.get(param)) > 0)
+						GRBEnv env = environments.take();
+						try
+						{
+							solve.solve(env, task, taskThreads);
+						}
+						finally
 						{
-							outputMap.put(param, output);
-							timeRecordOfRows.put(param, timeStamp);
-							mapParamsToUTC.put(param, timeStamp.toString());
+							// never blocks (there are as many slots as environments), so it also returns the
+							// environment when a cancelled task still has its interrupt flag set
+							environments.offer(env);
 						}
 					}
-					else
+					finally
+					{
+						threadBudget.release(taskThreads);
+					}
+					return null;
+				}));
+			}
+			for (Future<?> future: futures)
+			{
+				try
+				{
+					future.get();
+				}
+				catch (ExecutionException e)
+				{
+					for (Future<?> other: futures)
+						other.cancel(true);
+					if (e.getCause() instanceof Exception)
+						throw (Exception) e.getCause();
+					throw e;
+				}
+			}
+		}
+		finally
+		{
+			pool.shutdownNow();
+			pool.awaitTermination(1, TimeUnit.DAYS);
+			for (GRBEnv env: environments)
+				env.dispose();
+		}
+	}
+	
+	/**
+	 * Creates and starts a Gurobi environment that logs to a file (and not to the console).
+	 *
+	 * @param logFilename file path to log file.
+	 * @return the environment.
+	 * @throws GRBException thrown if the environment cannot be started.
+	 */
+	private static GRBEnv startEnvironment(String logFilename) throws GRBException
+	{
+		// Create empty environment, set options, and start
+		GRBEnv env = new GRBEnv(true);
+		env.set("logFile", logFilename);
+		env.set(GRB.IntParam.LogToConsole, 0);
+		// OutputFlag turns on/off both console and log file output
+		// env.set(GRB.IntParam.valueOf("OutputFlag"), 0);
+		env.start();
+		return env;
+	}
+	
+	/**
+	 * Returns the key of the simulation results of a set of parameters.
+	 *
+	 * @param param parameters.
+	 * @return (model, network, time step, repetitions, false negative probability, transmissability).
+	 */
+	private static Sextet<String, String, Integer, Integer, Double, Double> getKey(parameters param)
+	{
+		return new Sextet<>(param.getSpreadModelName(), param.getNetworkName(), param.getTimeStep(),
+							param.getNumberOfSimulationRepetitions(), param.getFalseNegativeProbability(),
+							param.getTransmissability());
+	}
+	
+	/**
+	 * Returns the order in which the parameters are solved.
+	 * If {@link gurobiSolver#reuseModelAcrossBudgets} is {@code true}, parameters are grouped by
+	 * (model, network, time step, repetitions, false negative probability, transmissability),
+	 * in order of first appearance, and sorted by the number of honeypots within a group;
+	 * otherwise, the order is unchanged.
+	 *
+	 * @param listOfParams list of parameters.
+	 * @return list of parameters in the order in which they are solved.
+	 */
+	private List<parameters> groupByKey(List<parameters> listOfParams)
+	{
+		if (!reuseModelAcrossBudgets)
+			return listOfParams;
+		Map<Sextet<String, String, Integer, Integer, Double, Double>, List<parameters>> groups =
+																							new LinkedHashMap<>();
+		for (parameters param: listOfParams)
+			groups.computeIfAbsent(getKey(param), key -> new ArrayList<>()).add(param);
+		List<parameters> orderedParams = new ArrayList<>(listOfParams.size());
+		for (List<parameters> group: groups.values())
+		{
+			group.sort(Comparator.comparingInt(parameters::getNumberOfHoneypots));
+			orderedParams.addAll(group);
+		}
+		return orderedParams;
+	}
+	
+	/**
+	 * Loads results created using {@link gurobiSolver#writeToCSV(String, boolean)} from previous run(s).
+	 * For large files of results, a {@link resultStore} (see {@link gurobiSolver#setResultStore(resultStore)})
+	 * avoids re-reading the file on every run.
+	 *
+	 * @param filename path of the file where results from previous run(s) are stored.
+	 */
+	public void loadResultsFromCSVFile(String filename)
+	{
+		try (CSVReader csvReader = new CSVReader(new FileReader(filename)))
+		{
+			Map<parameters, Instant> timeRecordOfRows = new HashMap<>();
+			// header
+			csvReader.readNext();
+			String[] data;
+			while ((data = csvReader.readNext()) != null)
+			{
+				Quartet<String, parameters, solverOutput, String> row = resultStore.readCSVRow(data);
+				parameters param = row.getValue1();
+				solverOutput output = row.getValue2();
+				Instant timeStamp = Instant.parse(row.getValue3());
+				if (timeRecordOfRows.containsKey(param))
+				{
+					if (timeStamp.compareTo(timeRecordOfRows.get(param)) > 0)
 					{
 						outputMap.put(param, output);
 						timeRecordOfRows.put(param, timeStamp);
 						mapParamsToUTC.put(param, timeStamp.toString());
-						mapParamsToLoadedResults.put(param, true);
-						System.out.println("Using MIP results in \""+filename+"\" for "+param.toString());
 					}
-					
 				}
-				header = false;
+				else
+				{
+					outputMap.put(param, output);
+					timeRecordOfRows.put(param, timeStamp);
+					mapParamsToUTC.put(param, timeStamp.toString());
+					mapParamsToLoadedResults.put(param, true);
+					System.out.println("Using MIP results in \""+filename+"\" for "+param.toString());
+				}
 			}
 		}
 		catch (FileNotFoundException e1)
@@ -0,0 +1,271 @@
+package optimization;
+
+import dataTypes.detectionMatrix;
+import dataTypes.solverOutput;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Represents an upper bound on the optimal objective value of the sample-average approximation (SAA) of the
+ * honeypot placement problem (weighted maximum coverage with {@code k} nodes) by Lagrangian relaxation,
+ * computed with the subgradient method directly on a {@link detectionMatrix}; no solver is needed.
+ * <p>
+ *     Relaxing the coverage constraints {@code u_i <= sum_{j in row i} x_j} with multipliers
+ *     {@code 0<=lambda_i<=w_i} gives the bound
+ *     {@code L(lambda) = sum_i max(0, w_i-lambda_i) + (sum of the k largest c_j)},
+ *     where {@code c_j} is the sum of {@code lambda_i} over the rows of column {@code j}.
+ *     Every {@code L(lambda)} is a valid upper bound, and the smallest one equals the bound of the LP relaxation.
+ *     The multipliers start at {@code lambda_i=w_i} (the bound is then the sum of the {@code k} largest column
+ *     weights) and are updated by projected subgradient steps with Polyak step sizes, using the best known
+ *     objective value as the target.
+ *     The {@code k} nodes that define the bound in each iteration are also a feasible solution, so the method
+ *     returns a lower bound (the best of these and the greedy solution) as well.
+ * </p>
+ * <p>
+ *     The sums {@code c_j}, which take most of the time, are computed in parallel over columns with the
+ *     inverted index of the matrix; every sum is over the rows of one column in a fixed order,
+ *     so the results do not depend on the number of threads.
+ * </p>
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+public class lagrangianBound
+{
+	/**
+	 * Successful detection matrix.
+	 */
+	final detectionMatrix matrix;
+	
+	/**
+	 * Number of threads.
+	 */
+	final int threads;
+	
+	/**
+	 * Maximum number of subgradient iterations.
+	 */
+	int maxIterations = 1000;
+	
+	/**
+	 * The method stops when the upper bound and the lower bound are within this (absolute) tolerance.
+	 */
+	double gapTolerance = 1e-6;
+	
+	/**
+	 * Number of iterations without improvement of the upper bound after which the step size is halved.
+	 */
+	int iterationsBeforeHalving = 20;
+	
+	/**
+	 * Constructor.
+	 *
+	 * @param matrix successful detection matrix
+	 * @param threads number of threads.
+	 * @throws Exception thrown if {@code threads<1}.
+	 */
+	public lagrangianBound(detectionMatrix matrix, int threads) throws Exception
+	{
+		if (threads<1)
+			throw new Exception("Number of threads should be positive!");
+		this.matrix = matrix;
+		this.threads = threads;
+	}
+	
+	/**
+	 * Setter.
+	 *
+	 * @param maxIterations maximum number of subgradient iterations.
+	 */
+	public void setMaxIterations(int maxIterations)
+	{
+		this.maxIterations = maxIterations;
+	}
+	
+	/**
+	 * Setter.
+	 *
+	 * @param gapTolerance the method stops when the upper and lower bounds are within this tolerance.
+	 */
+	public void setGapTolerance(double gapTolerance)
+	{
+		this.gapTolerance = gapTolerance;
+	}
+	
+	/**
+	 * Computes the bounds for {@code k} honeypots.
+	 *
+	 * @param k number of honeypots.
+	 * @return the lower bound as the objective value, the upper bound as the best upper bound,
+	 *  the nodes of the lower bound as the honeypots, the wall time, the options used, and a message.
+	 * @throws Exception thrown if {@code k<1}, or if the parallel computation fails.
+	 */
+	public solverOutput solve(int k) throws Exception
+	{
+		if (k<1)
+			throw new Exception("Number of honeypots should be positive!");
+		long tic = System.nanoTime();
+		final int n = matrix.getNumberOfColumns();
+		final int run = matrix.getNumberOfRows();
+		final int[] rows = matrix.getRows();
+		final int budget = Math.min(k, n);
+		
+		double totalWeight = 0;
+		double[] lambda = new double[run];
+		for (int i=0; i<run; i++)
+		{
+			lambda[i] = matrix.getRowWeight(i);
+			totalWeight += lambda[i];
+		}
+		int[] bestColumns = matrix.extendGreedily(new int[0], budget);
+		double lowerBound = matrix.getCoveredWeight(bestColumns);
+		// if every node is a honeypot, the greedy solution is optimal
+		double upperBound = (budget==n) ? lowerBound : totalWeight;
+		double theta = 2;
+		int iterationsWithoutImprovement = 0;
+		int iteration = 0;
+		
+		double[] c = new double[n];
+		int[] order = new int[n];
+		int[] cover = new int[run];
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		try
+		{
+			while ((iteration<maxIterations) && (upperBound-lowerBound>gapTolerance))
+			{
+				iteration++;
+				// c_j = sum of lambda_i over the rows of column j
+				pool.submit(() -> IntStream.range(0, n).parallel().forEach(j ->
+				{
+					double sum = 0;
+					for (int position=matrix.getColumnStart(j); position<matrix.getColumnEnd(j); position++)
+						sum += lambda[rows[position]];
+					c[j] = sum;
+				})).get();
+				for (int j=0; j<n; j++)
+					order[j] = j;
+				selectLargest(order, c, budget);
+				
+				// bound
+				double bound = 0;
+				for (int i=0; i<run; i++)
+					bound += Math.max(0, matrix.getRowWeight(i)-lambda[i]);
+				for (int t=0; t<budget; t++)
+					bound += c[order[t]];
+				if (bound<upperBound-1e-12)
+				{
+					upperBound = bound;
+					iterationsWithoutImprovement = 0;
+				}
+				else if (++iterationsWithoutImprovement>=iterationsBeforeHalving)
+				{
+					theta /= 2;
+					iterationsWithoutImprovement = 0;
+				}
+				
+				// the k nodes of the bound are a feasible solution
+				Arrays.fill(cover, 0);
+				for (int t=0; t<budget; t++)
+					for (int position=matrix.getColumnStart(order[t]); position<matrix.getColumnEnd(order[t]); position++)
+						cover[rows[position]]++;
+				double objectiveValue = 0;
+				for (int i=0; i<run; i++)
+					if (cover[i]>0)
+						objectiveValue += matrix.getRowWeight(i);
+				if (objectiveValue>lowerBound)
+				{
+					lowerBound = objectiveValue;
+					bestColumns = Arrays.copyOf(order, budget);
+				}
+				if ((upperBound-lowerBound<=gapTolerance) || (theta<1e-8))
+					break;
+				
+				// subgradient of L at lambda: (number of selected columns covering i) - u_i
+				double squaredNorm = 0;
+				for (int i=0; i<run; i++)
+				{
+					double subgradient = cover[i]-((lambda[i]<matrix.getRowWeight(i)) ? 1 : 0);
+					squaredNorm += subgradient*subgradient;
+				}
+				if (squaredNorm==0)
+				{
+					// lambda minimizes L
+					break;
+				}
+				double step = theta*(bound-lowerBound)/squaredNorm;
+				for (int i=0; i<run; i++)
+				{
+					double subgradient = cover[i]-((lambda[i]<matrix.getRowWeight(i)) ? 1 : 0);
+					lambda[i] = Math.min(matrix.getRowWeight(i), Math.max(0, lambda[i]-step*subgradient));
+				}
+			}
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+		
+		List<Integer> honeypots = new ArrayList<>(budget);
+		Arrays.sort(bestColumns);
+		for (int column: bestColumns)
+			honeypots.add(matrix.getLabel(column));
+		Map<String, String> options = new HashMap<>();
+		options.put("threads", String.valueOf(threads));
+		options.put("MaxIterations", String.valueOf(maxIterations));
+		options.put("GapTolerance", String.valueOf(gapTolerance));
+		String message = (upperBound-lowerBound<=gapTolerance) ? "Optimal: bounds within gap tolerance."
+							: "Lagrangian bound after "+iteration+" iterations.";
+		return new solverOutput(lowerBound, upperBound, honeypots, (System.nanoTime()-tic)/1e9, options, message);
+	}
+	
+	/**
+	 * Rearranges {@code order} so that its first {@code k} elements are the indices of the {@code k} largest
+	 * values in {@code values} (ties are broken by the smallest index).
+	 *
+	 * @param order indices to be rearranged
+	 * @param values values
+	 * @param k number of largest values.
+	 */
+	static void selectLargest(int[] order, double[] values, int k)
+	{
+		int left = 0, right = order.length-1;
+		while ((left<right) && (k>0) && (k<order.length))
+		{
+			int pivot = order[(left+right) >>> 1];
+			int i = left, j = right;
+			while (i<=j)
+			{
+				while (isBefore(order[i], pivot, values))
+					i++;
+				while (isBefore(pivot, order[j], values))
+					j--;
+				if (i<=j)
+				{
+					int tmp = order[i];
+					order[i++] = order[j];
+					order[j--] = tmp;
+				}
+			}
+			if (k-1<=j)
+				right = j;
+			else if (k-1>=i)
+				left = i;
+			else
+				break;
+		}
+	}
+	
+	/**
+	 * Returns {@code true} if index {@code a} comes before index {@code b}:
+	 * a larger value first, and the smaller index first for equal values.
+	 *
+	 * @param a an index
+	 * @param b an index
+	 * @param values values.
+	 * @return {@code true}, if {@code a} comes before {@code b}; {@code false}, otherwise.
+	 */
+	private static boolean isBefore(int a, int b, double[] values)
+	{
+		return (values[a]>values[b]) || ((values[a]==values[b]) && (a<b));
+	}
+}
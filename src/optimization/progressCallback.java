@@ -0,0 +1,111 @@
+package optimization;
+
+import dataTypes.solverProgress;
+import gurobi.*;
+
+/**
+ * Represents a Gurobi callback that records the progress of a MIP solve ({@link dataTypes.solverProgress}).
+ * <p>
+ *     Every new incumbent (MIPSOL callback) is recorded.
+ *     MIP callbacks, which Gurobi calls very often, are recorded only if the incumbent or the bound changed,
+ *     or if at least {@code interval} seconds passed since the last recorded point.
+ * </p>
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+class progressCallback extends GRBCallback
+{
+	/**
+	 * Recorded progress.
+	 */
+	final solverProgress progress;
+	
+	/**
+	 * Minimum time (in seconds) between two points recorded at MIP callbacks with no change.
+	 */
+	final double interval;
+	
+	/**
+	 * Time of the last recorded point.
+	 */
+	double lastTime = Double.NEGATIVE_INFINITY;
+	
+	/**
+	 * Objective value of the incumbent at the last recorded point.
+	 */
+	double lastObjectiveValue = Double.NaN;
+	
+	/**
+	 * Bound at the last recorded point.
+	 */
+	double lastBound = Double.NaN;
+	
+	/**
+	 * Constructor.
+	 *
+	 * @param interval minimum time (in seconds) between two points recorded at MIP callbacks with no change.
+	 */
+	progressCallback(double interval)
+	{
+		this.progress = new solverProgress();
+		this.interval = interval;
+	}
+	
+	/**
+	 * Records a point at MIPSOL and MIP callbacks.
+	 */
+	@Override
+	protected void callback()
+	{
+		try
+		{
+			if (where==GRB.CB_MIPSOL)
+			{
+				record("MIPSOL", getDoubleInfo(GRB.CB_RUNTIME), getDoubleInfo(GRB.CB_MIPSOL_OBJBST),
+						getDoubleInfo(GRB.CB_MIPSOL_OBJBND), getDoubleInfo(GRB.CB_MIPSOL_NODCNT));
+			}
+			else if (where==GRB.CB_MIP)
+			{
+				double time = getDoubleInfo(GRB.CB_RUNTIME);
+				double objectiveValue = getDoubleInfo(GRB.CB_MIP_OBJBST);
+				double bound = getDoubleInfo(GRB.CB_MIP_OBJBND);
+				if (shouldRecord(time, objectiveValue, bound))
+					record("MIP", time, objectiveValue, bound, getDoubleInfo(GRB.CB_MIP_NODCNT));
+			}
+		}
+		catch (GRBException e)
+		{
+			System.out.println("Error code: "+e.getErrorCode()+". "+e.getMessage());
+		}
+	}
+	
+	/**
+	 * Checks if a point at a MIP callback is to be recorded.
+	 *
+	 * @param time time (in seconds) since the start of the solve
+	 * @param objectiveValue objective value of the incumbent
+	 * @param bound best bound.
+	 * @return {@code true}, if the incumbent or the bound changed since the last recorded point, or if at least
+	 *  {@code interval} seconds passed since then; {@code false}, otherwise.
+	 */
+	boolean shouldRecord(double time, double objectiveValue, double bound)
+	{
+		return (objectiveValue!=lastObjectiveValue) || (bound!=lastBound) || (time-lastTime>=interval);
+	}
+	
+	/**
+	 * Records a point.
+	 *
+	 * @param event event at which the point is recorded
+	 * @param time time (in seconds) since the start of the solve
+	 * @param objectiveValue objective value of the incumbent
+	 * @param bound best bound
+	 * @param nodeCount number of explored nodes.
+	 */
+	void record(String event, double time, double objectiveValue, double bound, double nodeCount)
+	{
+		progress.add(event, time, objectiveValue, bound, nodeCount);
+		lastTime = time;
+		lastObjectiveValue = objectiveValue;
+		lastBound = bound;
+	}
+}
@@ -0,0 +1,407 @@
+package optimization;
+
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+import dataTypes.parameters;
+import dataTypes.solverOutput;
+import helper.commonMethods;
+import org.javatuples.Quartet;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Represents an append-only binary store of optimization results, with an in-memory index from
+ * {@link dataTypes.parameters} to the latest result (by UTC time) for those parameters.
+ * <p>
+ *     The file starts with a tag, followed by one record per result: the length of the record, the solver name,
+ *     the parameters, the solver output (objective value, best upper bound, wall time, solver message,
+ *     solver options, honeypots) and the UTC time.
+ *     The file is read once, when the store is opened, to build the index; after that, lookups
+ *     ({@link resultStore#contains(parameters)}, {@link resultStore#get(parameters)}) are hash map lookups,
+ *     and new results are appended (and flushed) one record at a time, so results of a run that is killed are kept.
+ *     A record that was only partly written is discarded when the store is opened.
+ *     Older results for the same parameters stay in the file until {@link resultStore#compact()} is called.
+ * </p>
+ * <p>
+ *     As for the csv files of results, MIP and LP relaxation results (or results of different solvers)
+ *     should be kept in different stores.
+ *     Results in the csv format of {@link gurobiSolver#writeToCSV(String, boolean)} can be imported
+ *     ({@link resultStore#importFromCSVFile(String)}) and exported ({@link resultStore#exportToCSV(String)}).
+ * </p>
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+public class resultStore implements Closeable
+{
+	/**
+	 * Tag at the start of a result store file.
+	 */
+	static final String FILE_TAG = "resultStore.v1";
+	
+	/**
+	 * Path of the store file.
+	 */
+	final Path path;
+	
+	/**
+	 * A map from {@link dataTypes.parameters} to the latest (solver name, solver output, UTC time).
+	 */
+	final Map<parameters, Quartet<String, solverOutput, String, Instant>> index;
+	
+	/**
+	 * Output stream of the store file.
+	 */
+	DataOutputStream out;
+	
+	/**
+	 * Constructor.
+	 * Opens the store (creating the file, if it does not exist), and builds the index.
+	 *
+	 * @param filename path of the store file.
+	 * @throws IOException thrown if the file is not a result store, or cannot be read or written.
+	 */
+	public resultStore(String filename) throws IOException
+	{
+		this.path = Paths.get(filename);
+		this.index = new HashMap<>();
+		long validLength = 0;
+		int records = 0;
+		if (Files.exists(path) && (Files.size(path)>0))
+		{
+			try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path))))
+			{
+				if (!in.readUTF().equals(FILE_TAG))
+					throw new IOException("\""+filename+"\" is not a result store!");
+				validLength = 2+FILE_TAG.length();
+				while (true)
+				{
+					int length = in.readInt();
+					byte[] record = new byte[length];
+					in.readFully(record);
+					readRecord(record);
+					validLength += 4+length;
+					records++;
+				}
+			}
+			catch (EOFException e)
+			{
+				// end of file, or last record was only partly written
+			}
+			try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE))
+			{
+				channel.truncate(validLength);
+			}
+			out = new DataOutputStream(new BufferedOutputStream(
+									Files.newOutputStream(path, StandardOpenOption.APPEND)));
+			System.out.println("Opened result store \""+filename+"\": "+records+" results for "+index.size()
+								+" sets of parameters.");
+		}
+		else
+		{
+			out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)));
+			out.writeUTF(FILE_TAG);
+			out.flush();
+		}
+	}
+	
+	/**
+	 * Returns {@code true} if the store has a result for the parameters.
+	 *
+	 * @param param parameters.
+	 * @return {@code true}, if there is a result for {@code param}; {@code false}, otherwise.
+	 */
+	public synchronized boolean contains(parameters param)
+	{
+		return index.containsKey(param);
+	}
+	
+	/**
+	 * Returns the latest result for the parameters.
+	 *
+	 * @param param parameters.
+	 * @return the latest solver output for {@code param}; {@code null}, if there is none.
+	 */
+	public synchronized solverOutput get(parameters param)
+	{
+		Quartet<String, solverOutput, String, Instant> entry = index.get(param);
+		return (entry==null) ? null : entry.getValue1();
+	}
+	
+	/**
+	 * Returns the UTC time of the latest result for the parameters.
+	 *
+	 * @param param parameters.
+	 * @return the UTC time of the latest result for {@code param}; {@code null}, if there is none.
+	 */
+	public synchronized String getUTC(parameters param)
+	{
+		Quartet<String, solverOutput, String, Instant> entry = index.get(param);
+		return (entry==null) ? null : entry.getValue2();
+	}
+	
+	/**
+	 * Returns the number of sets of parameters with a result.
+	 *
+	 * @return the number of sets of parameters with a result.
+	 */
+	public synchronized int size()
+	{
+		return index.size();
+	}
+	
+	/**
+	 * Appends a result to the store, and flushes it to disk.
+	 *
+	 * @param solverName name of the solver
+	 * @param param parameters
+	 * @param output solver output
+	 * @param utc UTC time of the result (as from {@link Instant#toString()}).
+	 * @throws IOException thrown if the store file cannot be written.
+	 */
+	public synchronized void append(String solverName, parameters param, solverOutput output, String utc)
+			throws IOException
+	{
+		byte[] record = writeRecord(solverName, param, output, utc);
+		out.writeInt(record.length);
+		out.write(record);
+		out.flush();
+		put(param, solverName, output, utc);
+	}
+	
+	/**
+	 * Rewrites the store file with only the latest result for each set of parameters.
+	 *
+	 * @throws IOException thrown if the store file cannot be written.
+	 */
+	public synchronized void compact() throws IOException
+	{
+		out.close();
+		Path temporaryPath = Paths.get(path.toString()+".tmp");
+		try (DataOutputStream tmp = new DataOutputStream(new BufferedOutputStream(
+																Files.newOutputStream(temporaryPath))))
+		{
+			tmp.writeUTF(FILE_TAG);
+			for (Map.Entry<parameters, Quartet<String, solverOutput, String, Instant>> e: index.entrySet())
+			{
+				byte[] record = writeRecord(e.getValue().getValue0(), e.getKey(), e.getValue().getValue1(),
+											e.getValue().getValue2());
+				tmp.writeInt(record.length);
+				tmp.write(record);
+			}
+		}
+		Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path, StandardOpenOption.APPEND)));
+	}
+	
+	/**
+	 * Imports results from a csv file in the format of {@link gurobiSolver#writeToCSV(String, boolean)}
+	 * (parsed with a csv reader, so that fields may contain commas and quotes).
+	 *
+	 * @param filename path of the csv file.
+	 * @return the number of results imported.
+	 * @throws IOException thrown if the csv file cannot be read, or if the store file cannot be written.
+	 */
+	public synchronized int importFromCSVFile(String filename) throws IOException
+	{
+		int rows = 0;
+		try (CSVReader reader = new CSVReader(new FileReader(filename)))
+		{
+			reader.readNext();
+			String[] data;
+			while ((data = reader.readNext())!=null)
+			{
+				Quartet<String, parameters, solverOutput, String> row = readCSVRow(data);
+				append(row.getValue0(), row.getValue1(), row.getValue2(), row.getValue3());
+				rows++;
+			}
+		}
+		catch (CsvValidationException e)
+		{
+			throw new IOException("Invalid csv file \""+filename+"\": "+e.getMessage());
+		}
+		System.out.println("Imported "+rows+" results from \""+filename+"\".");
+		return rows;
+	}
+	
+	/**
+	 * Writes the latest result for each set of parameters to csv file,
+	 * in the format of {@link gurobiSolver#writeToCSV(String, boolean)}.
+	 *
+	 * @param filename path to output file.
+	 * @throws IOException thrown if error in input-output operation.
+	 */
+	public synchronized void exportToCSV(String filename) throws IOException
+	{
+		String[] header = {"Model", "Network", "t_0", "Simulation repetitions", "FN probability",
+							"transmissability (p)", "no. of honeypots", "solver", "solver options",
+							"objective value", "best UB", "solver message", "honeypots", "Wall time (s)", "UTC"};
+		List<String[]> lines = new ArrayList<>(index.size());
+		for (Map.Entry<parameters, Quartet<String, solverOutput, String, Instant>> e: index.entrySet())
+		{
+			solverOutput output = e.getValue().getValue1();
+			String[] line = new String[15];
+			line[0] = e.getKey().getSpreadModelName();
+			line[1] = e.getKey().getNetworkName();
+			line[2] = String.valueOf(e.getKey().getTimeStep());
+			line[3] = String.valueOf(e.getKey().getNumberOfSimulationRepetitions());
+			line[4] = String.valueOf(e.getKey().getFalseNegativeProbability());
+			line[5] = String.valueOf(e.getKey().getTransmissability());
+			line[6] = String.valueOf(e.getKey().getNumberOfHoneypots());
+			line[7] = e.getValue().getValue0();
+			line[8] = output.getSolverOptionsUsed().toString();
+			line[9] = String.valueOf(output.getObjectiveValue());
+			line[10] = String.valueOf(output.getBestUB());
+			line[11] = output.getSolverMessage();
+			line[12] = output.getHoneypots().toString();
+			line[13] = String.valueOf(output.getWallTimeInSeconds());
+			line[14] = e.getValue().getValue2();
+			lines.add(line);
+		}
+		commonMethods.writeToCSV(filename, false, header, lines);
+		System.out.println("Result store successfully exported to \""+filename+"\".");
+	}
+	
+	/**
+	 * Writes any buffered records to disk, and closes the store file.
+	 *
+	 * @throws IOException thrown if the store file cannot be written.
+	 */
+	@Override
+	public synchronized void close() throws IOException
+	{
+		if (out!=null)
+		{
+			out.close();
+			out = null;
+		}
+	}
+	
+	/**
+	 * Parses a row of a csv file in the format of {@link gurobiSolver#writeToCSV(String, boolean)}.
+	 *
+	 * @param data fields of the row.
+	 * @return (solver name, parameters, solver output, UTC time).
+	 */
+	static Quartet<String, parameters, solverOutput, String> readCSVRow(String[] data)
+	{
+		int numberOfHoneypots = Integer.parseInt(data[6]);
+		parameters param = new parameters(data[0], data[1], Integer.parseInt(data[2]), Integer.parseInt(data[3]),
+											Double.parseDouble(data[4]), Double.parseDouble(data[5]),
+											numberOfHoneypots, 0);
+		Map<String, String> solverOptions = new HashMap<>();
+		String options = data[8].trim();
+		if (options.startsWith("{") && options.endsWith("}"))
+			options = options.substring(1, options.length()-1);
+		for (String token: options.split(","))
+		{
+			int equals = token.indexOf('=');
+			if (equals>0)
+				solverOptions.put(token.substring(0, equals).trim(), token.substring(equals+1).trim());
+		}
+		List<Integer> honeypots = new ArrayList<>(numberOfHoneypots);
+		String list = data[12].trim();
+		if (list.startsWith("[") && list.endsWith("]"))
+			list = list.substring(1, list.length()-1);
+		for (String token: list.split(","))
+			if (!token.isBlank())
+				honeypots.add(Integer.parseInt(token.trim()));
+		solverOutput output = new solverOutput(Double.parseDouble(data[9]), Double.parseDouble(data[10]), honeypots,
+												Double.parseDouble(data[13]), solverOptions, data[11]);
+		return new Quartet<>(data[7], param, output, data[14]);
+	}
+	
+	/**
+	 * Serializes a result.
+	 *
+	 * @param solverName name of the solver
+	 * @param param parameters
+	 * @param output solver output
+	 * @param utc UTC time of the result.
+	 * @return the record.
+	 * @throws IOException thrown if the record cannot be written.
+	 */
+	private static byte[] writeRecord(String solverName, parameters param, solverOutput output, String utc)
+			throws IOException
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+		DataOutputStream record = new DataOutputStream(bytes);
+		record.writeUTF(solverName);
+		record.writeUTF(param.getSpreadModelName());
+		record.writeUTF(param.getNetworkName());
+		record.writeInt(param.getTimeStep());
+		record.writeInt(param.getNumberOfSimulationRepetitions());
+		record.writeDouble(param.getFalseNegativeProbability());
+		record.writeDouble(param.getTransmissability());
+		record.writeInt(param.getNumberOfHoneypots());
+		record.writeDouble(param.getPercentInfection());
+		record.writeDouble(output.getObjectiveValue());
+		record.writeDouble(output.getBestUB());
+		record.writeDouble(output.getWallTimeInSeconds());
+		record.writeUTF(output.getSolverMessage());
+		record.writeInt(output.getSolverOptionsUsed().size());
+		for (Map.Entry<String, String> option: output.getSolverOptionsUsed().entrySet())
+		{
+			record.writeUTF(option.getKey());
+			record.writeUTF(option.getValue());
+		}
+		record.writeInt(output.getHoneypots().size());
+		for (int honeypot: output.getHoneypots())
+			record.writeInt(honeypot);
+		record.writeUTF(utc);
+		record.flush();
+		return bytes.toByteArray();
+	}
+	
+	/**
+	 * Deserializes a result, and adds it to the index if it is the latest for its parameters.
+	 *
+	 * @param bytes the record.
+	 * @throws IOException thrown if the record cannot be read.
+	 */
+	private void readRecord(byte[] bytes) throws IOException
+	{
+		DataInputStream record = new DataInputStream(new ByteArrayInputStream(bytes));
+		String solverName = record.readUTF();
+		parameters param = new parameters(record.readUTF(), record.readUTF(), record.readInt(), record.readInt(),
+											record.readDouble(), record.readDouble(), record.readInt(),
+											record.readDouble());
+		double objectiveValue = record.readDouble();
+		double bestUB = record.readDouble();
+		double wallTime = record.readDouble();
+		String solverMessage = record.readUTF();
+		int numberOfOptions = record.readInt();
+		Map<String, String> solverOptions = new HashMap<>();
+		for (int i=0; i<numberOfOptions; i++)
+			solverOptions.put(record.readUTF(), record.readUTF());
+		int numberOfHoneypots = record.readInt();
+		List<Integer> honeypots = new ArrayList<>(numberOfHoneypots);
+		for (int i=0; i<numberOfHoneypots; i++)
+			honeypots.add(record.readInt());
+		String utc = record.readUTF();
+		put(param, solverName, new solverOutput(objectiveValue, bestUB, honeypots, wallTime, solverOptions,
+												solverMessage), utc);
+	}
+	
+	/**
+	 * Adds a result to the index, unless there is a later result for the same parameters.
+	 *
+	 * @param param parameters
+	 * @param solverName name of the solver
+	 * @param output solver output
+	 * @param utc UTC time of the result.
+	 */
+	private void put(parameters param, String solverName, solverOutput output, String utc)
+	{
+		Instant timeStamp = Instant.parse(utc);
+		Quartet<String, solverOutput, String, Instant> previous = index.get(param);
+		if ((previous==null) || (timeStamp.compareTo(previous.getValue3())>=0))
+			index.put(param, new Quartet<>(solverName, output, utc, timeStamp));
+	}
+}
@@ -0,0 +1,56 @@
+package optimization;
+
+import dataTypes.parameters;
+import dataTypes.solverOutput;
+import network.graph;
+import simulation.simulationRuns;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents a solver backend for the sample-average approximation (SAA) of the honeypot placement problem.
+ * <p>
+ *     Implementations: {@link gurobiSolver} (needs a Gurobi license),
+ *     and {@link branchAndBoundSolver} (pure Java).
+ * </p>
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+public interface saaSolver
+{
+	/**
+	 * Solves the SAA model for every set of parameters in {@code listOfParams},
+	 * and stores the results in {@link saaSolver#getOutputMap()}.
+	 *
+	 * @param g network graph
+	 * @param simulationResults results of simulation as an instance of {@code simulationRuns}
+	 * @param listOfParams list of the set of parameters used to get {@code simulationResults}
+	 * @param threads number of threads solver should use
+	 * @param timeLimit time limit (in seconds) of each optimization
+	 * @param logFilename file path to log file; logs from solver written here (if the backend writes logs).
+	 * @throws Exception thrown if the graph {@code g} has self loops,
+	 *  or if the label of a node in {@code g} is a negative integer,
+	 *  or if the network name in one of the parameters and the network name stored in the graph {@code g}
+	 *      do not match,
+	 *  or if the number of nodes is less than the number of honeypots in any of the parameters in {@code listOfParams}.
+	 */
+	void solveSAA(graph g, simulationRuns simulationResults, List<parameters> listOfParams,
+	              int threads, int timeLimit, String logFilename) throws Exception;
+	
+	/**
+	 * Returns the results: a map from {@link dataTypes.parameters} to {@link dataTypes.solverOutput}.
+	 *
+	 * @return the map from parameters to solver outputs.
+	 */
+	Map<parameters, solverOutput> getOutputMap();
+	
+	/**
+	 * Writes results to csv file.
+	 *
+	 * @param filename path to output file
+	 * @param append true, if you wish to append to existing file; false, otherwise.
+	 * @throws IOException thrown if error in input-output operation.
+	 */
+	void writeToCSV(String filename, boolean append) throws IOException;
+}
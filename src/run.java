@@ -4,6 +4,7 @@ import network.graph;
 import org.javatuples.Pair;
 import org.jgrapht.alg.util.Triple;
 import simulation.simulationRuns;
+import simulation.spreadModel;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -115,44 +116,19 @@ public class run
 									+"_r"+(int) (100*r)+"_p"+(int) (100*p)+"_simulationresults_fixedt0.ser";
 		simulationRuns simulationResults = new simulationRuns();
 		boolean ranNewSimulations = true;
-		if (modelName.equals("TN11C"))
-		{
-			int[]  seed = {2507, 2101, 3567};
-			if (doNotUseSerialFile)
-				simulationResults.simulateTN11CRuns(network, t0_runs, r, seed);
-			else
-			{
-				simulationResults.loadRunsFromFile(simulationsSerialFilename);
-				// Check we have runs for all t0_runs
-				ranNewSimulations = simulationResults.simulateOnlyNecessaryTN11CRuns(network, t0_runs, r, seed);
-			}
-		}
+		spreadModel model = spreadModel.of(modelName, p);
+		// for RAEPC, samples with the same distribution can be drawn as reachable sets (without time steps)
+		// spreadModel model = spreadModel.reachableSetRAEPC(p);
+		long seed = 2507;
+		int checkpointIntervalInSeconds = 600;
+		simulationResults.enableCheckpoints(simulationsSerialFilename, checkpointIntervalInSeconds);
+		if (doNotUseSerialFile)
+			simulationResults.simulateRuns(network, model, t0_runs, r, seed);
 		else
 		{
-			if (modelName.equals("RA1PC"))
-			{
-				int[] seed = {2507, 2101, 2101, 3567};
-				if (doNotUseSerialFile)
-					simulationResults.simulateRA1PCRuns(network, t0_runs, r, p, seed);
-				else
-				{
-					simulationResults.loadRunsFromFile(simulationsSerialFilename);
-					// Check we have runs for all t0_runs
-					ranNewSimulations = simulationResults.simulateOnlyNecessaryRA1PCRuns(network, t0_runs, r, p, seed);
-				}
-			}
-			else if (modelName.equals("RAEPC"))
-			{
-				int[]  seed = {2507, 2101, 3567};
-				if (doNotUseSerialFile)
-					simulationResults.simulateRAEPCRuns(network, t0_runs, r, p, seed);
-				else
-				{
-					simulationResults.loadRunsFromFile(simulationsSerialFilename);
-					// Check we have runs for all t0_runs
-					ranNewSimulations = simulationResults.simulateOnlyNecessaryRAEPCRuns(network, t0_runs, r, p, seed);
-				}
-			}
+			simulationResults.loadRunsFromFile(simulationsSerialFilename);
+			// Check we have runs for all t0_runs
+			ranNewSimulations = simulationResults.simulateOnlyNecessaryRuns(network, model, t0_runs, r, seed);
 		}
 		if (ranNewSimulations)
 			simulationResults.serializeRuns(simulationsSerialFilename);
@@ -162,6 +138,17 @@ public class run
 //		int timeLimit = 3600;
 //		boolean ranNewOptimization = true;
 //		gurobiSolver mipResults = new gurobiSolver();
+//		mipResults.setReuseModelAcrossBudgets(true);
+//		mipResults.setGreedyMIPStart(true);
+//		// with threads = 96, for example, up to 12 solves at a time share the 96 threads
+//		mipResults.setConcurrentSolves(12);
+//		// benchmark mode: 1 warmup and 5 timed re-solves per parameters (see writeBenchmarkToCSV)
+//		//mipResults.setBenchmark(1, 5);
+//		// incumbent/bound/gap timeline of each solve (see writeProgressToCSV)
+//		mipResults.setRecordProgress(true);
+//		// indexed store of every MIP result; read once at startup, appended to after each solve
+//		resultStore mipStore = new resultStore(outputFolder+"mip_results.bin");
+//		mipResults.setResultStore(mipStore);
 //		if (doNotUseMIPResultsInCSVFile)
 //		{
 //			mipResults.solveSAA(network, simulationResults, listOfParams, threads, timeLimit, mipLogFilename);
@@ -174,19 +161,38 @@ public class run
 //		}
 //		//System.out.println(mipResults.toString());
 //		if (ranNewOptimization)
+//		{
 //			mipResults.writeToCSV(mipOutputFilename, append);
+//			mipResults.writeProgressToCSV(outputFolder+"mip_progress.csv", append);
+//		}
+//		mipStore.close();
 		
 //		// LP Relaxation
 //		gurobiSolver lpResults = new gurobiSolver();
+//		lpResults.setReuseModelAcrossBudgets(true);
 //		lpResults.solveSAALPRelaxation(network, simulationResults, listOfParams, threads, timeLimit, lpLogFilename);
 //		lpResults.writeToCSV(lpOutputFilename, append);
 		
 
 //		// Heuristic
 //		nodeInMaxRowsGreedyHeuristic heuristicResults = new nodeInMaxRowsGreedyHeuristic();
+//		// one greedy run per (model, t_0, ...) up to the largest k, instead of one per k
+//		heuristicResults.setReuseGreedyAcrossBudgets(true);
+//		// improve greedy's honeypots by 1-swaps and restricted 2-swaps, for at most 60 seconds per k
+//		heuristicResults.setLocalSearchTimeInSeconds(60);
 //		heuristicResults.runSAAUsingHeuristic(network, simulationResults, listOfParams);
 //		//System.out.println(heuristicResults.toString());
 //		heuristicResults.writeToCSV(heuristicOutputFilename, append);
+//
+//		// Metaheuristic (simulated annealing or tabu search), with greedy's objective values as targets
+//		metaheuristicSearch metaheuristicResults = new metaheuristicSearch();
+//		Map<parameters, Double> targets = new HashMap<>();
+//		heuristicResults.getOutputMap().forEach((param, output) -> targets.put(param, output.getObjectiveValue()));
+//		metaheuristicResults.setTargets(targets);
+//		metaheuristicResults.setStarts(8, 60, seed);
+//		metaheuristicResults.runSAAUsingMetaheuristic(network, simulationResults, listOfParams,
+//														Runtime.getRuntime().availableProcessors());
+//		metaheuristicResults.writeToCSV(outputFolder+"metaheuristic_results_"+modelName+".csv", append);
 
 //		// Degree centrality
 //		degreeCentrality degreeCentralityResults = new degreeCentrality();
@@ -204,7 +210,7 @@ public class run
 //		// Multiple Replications Procedure
 //		multipleReplicationsProcedure MRPResults = new multipleReplicationsProcedure();
 //		MRPResults.estimateGap(network, heuristicResults.getOutputMap(), 0.05, 50000, 20,
-//								"greedy");
+//								"greedy", "Lagrangian");
 //		MRPResults.writeToCSV(MRPOutputFilename, append);
 //
 //		// McNemar's procedure to compare MIP and greedy heuristic
@@ -260,6 +266,7 @@ public class run
 		//String costOfFNModelFilename = outputFolder + "cost_of_FNmodel_"+networkName+"_"
 		//								+compareModelName+"_varyHoneypots_R5_P50.csv";
 		compareHoneypots costOfFNModel = new compareHoneypots();
+		costOfFNModel.enableCheckpoints(outputFolder, checkpointIntervalInSeconds);
 		costOfFNModel.evaluateHoneypotsOnFalseNegativeModel(network, compareParams,
 															outSampleSize, alphaForDetectorFallibility);
 		costOfFNModel.writeToCSV(costOfFNModelFilename, compareAppend);
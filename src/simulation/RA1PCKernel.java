@@ -0,0 +1,159 @@
+package simulation;
+
+import network.indexedGraph;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Kernel of the RA1PC spread model.
+ * R: Virus replicates itself and sends copies;
+ * A: All infected vertices distribute the virus;
+ * 1: Virus propagates to 1 randomly selected neighbor;
+ * P: Virus is transmissable w.p. p;
+ * C: Transmission occurs in constant time steps.
+ * <p>
+ *     Random number streams: (0) choice of neighbor, (1) transmissability.
+ * </p>
+ * <p>
+ *     Order of random draws: in each time step, the nodes infected before the time step are visited in
+ *     increasing order of labels; for each node, one {@code nextInt(degree)} is drawn from stream (0) to choose
+ *     the neighbor (in the order of {@link org.jgrapht.Graphs#neighborListOf}), and then one {@code nextDouble()}
+ *     is drawn from stream (1) for transmissability, whether or not the neighbor is already infected.
+ *     Nodes infected in a time step start sending from the next time step.
+ *     This is the same order as iterating over a {@code TreeSet} of the infected labels, so the sample paths
+ *     do not depend on how the infected nodes are stored.
+ * </p>
+ * <p>
+ *     Infected nodes are kept in a bitset (for membership) and in a frontier array sorted by index (for
+ *     iteration); newly infected nodes of a time step are sorted and merged into the frontier.
+ *     All buffers are allocated once, so a replication does not allocate (except for the sample path returned
+ *     by {@link spreadKernel#getSamplePath()}).
+ *     A kernel holds no shared state, so replications can be run in parallel with one kernel per thread.
+ * </p>
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+public class RA1PCKernel extends timeStepKernel
+{
+	/**
+	 * Transmissability probability.
+	 */
+	final double p;
+	
+	/**
+	 * Bit {@code i} is set if node {@code i} is infected in the current replication.
+	 */
+	final long[] infectedBits;
+	
+	/**
+	 * Nodes infected in the current time step.
+	 */
+	final int[] newlyInfected;
+	
+	/**
+	 * Buffer used to merge {@code newlyInfected} into {@code infected}.
+	 */
+	int[] mergeBuffer;
+	
+	/**
+	 * Random number generator for the choice of neighbor.
+	 */
+	SplittableRandom neighborGenChoice;
+	
+	/**
+	 * Random number generator for transmissability.
+	 */
+	SplittableRandom transmissableGen;
+	
+	/**
+	 * Constructor.
+	 *
+	 * @param g network graph
+	 * @param p transmissability probability.
+	 */
+	public RA1PCKernel(indexedGraph g, double p)
+	{
+		super(g, true);
+		this.p = p;
+		this.infectedBits = new long[(g.getNumberOfNodes()+63) >>> 6];
+		this.newlyInfected = new int[g.getNumberOfNodes()];
+		this.mergeBuffer = new int[infected.length];
+	}
+	
+	/**
+	 * Sets up the state at time step 0.
+	 *
+	 * @param initialNode index of the initial location of the virus
+	 * @param streams random number generators to be used in this replication.
+	 */
+	@Override
+	protected void initialize(int initialNode, SplittableRandom[] streams)
+	{
+		neighborGenChoice = streams[0];
+		transmissableGen = streams[1];
+		infectedBits[initialNode >>> 6] |= 1L << initialNode;
+		infected[0] = initialNode;
+		numberOfInfected = 1;
+	}
+	
+	/**
+	 * Advances the state by one time step.
+	 * See the class description for the order of random draws.
+	 *
+	 * @param t the time step.
+	 */
+	@Override
+	protected void step(int t)
+	{
+		int numberOfNewlyInfected = 0;
+		// infected is sorted in increasing order of indices, i.e., of labels
+		for (int i=0; i<numberOfInfected; i++)
+		{
+			int node = infected[i];
+			int target = g.getNeighbor(node, neighborGenChoice.nextInt(g.getDegree(node)));
+			if (transmissableGen.nextDouble()<=p)
+			{
+				long mask = 1L << target;
+				if ((infectedBits[target >>> 6] & mask)==0)
+				{
+					infectedBits[target >>> 6] |= mask;
+					newlyInfected[numberOfNewlyInfected++] = target;
+				}
+			}
+		}
+		if (numberOfNewlyInfected>0)
+			mergeNewlyInfected(numberOfNewlyInfected);
+	}
+	
+	/**
+	 * Clears the bitset of the last replication before starting a new one.
+	 */
+	@Override
+	void startRun()
+	{
+		for (int i=0; i<numberOfInfected; i++)
+			infectedBits[infected[i] >>> 6] = 0L;
+		super.startRun();
+	}
+	
+	/**
+	 * Sorts the newly infected nodes and merges them into {@code infected}.
+	 *
+	 * @param numberOfNewlyInfected number of elements in {@code newlyInfected}.
+	 */
+	private void mergeNewlyInfected(int numberOfNewlyInfected)
+	{
+		Arrays.sort(newlyInfected, 0, numberOfNewlyInfected);
+		int i = 0, j = 0, k = 0;
+		while ((i<numberOfInfected) && (j<numberOfNewlyInfected))
+			mergeBuffer[k++] = (infected[i]<newlyInfected[j]) ? infected[i++] : newlyInfected[j++];
+		while (i<numberOfInfected)
+			mergeBuffer[k++] = infected[i++];
+		while (j<numberOfNewlyInfected)
+			mergeBuffer[k++] = newlyInfected[j++];
+		int[] tmp = infected;
+		infected = mergeBuffer;
+		mergeBuffer = tmp;
+		numberOfInfected = k;
+	}
+}
@@ -0,0 +1,80 @@
+package simulation;
+
+import network.indexedGraph;
+
+import java.util.SplittableRandom;
+
+/**
+ * Kernel of the RAEPC spread model.
+ * R: Virus replicates itself and sends copies;
+ * A: All infected vertices distribute the virus;
+ * E: Virus propagates to every neighbor;
+ * P: Virus is transmissable w.p. p;
+ * C: Transmission occurs in constant time steps.
+ * <p>
+ *     Random number streams: (0) transmissability.
+ * </p>
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+public class RAEPCKernel extends timeStepKernel
+{
+	/**
+	 * Transmissability probability.
+	 */
+	final double p;
+	
+	/**
+	 * Random number generator for transmissability.
+	 */
+	SplittableRandom transmissableGen;
+	
+	/**
+	 * Constructor.
+	 *
+	 * @param g network graph
+	 * @param p transmissability probability.
+	 */
+	public RAEPCKernel(indexedGraph g, double p)
+	{
+		super(g, true);
+		this.p = p;
+	}
+	
+	/**
+	 * Sets up the state at time step 0.
+	 *
+	 * @param initialNode index of the initial location of the virus
+	 * @param streams random number generators to be used in this replication.
+	 */
+	@Override
+	protected void initialize(int initialNode, SplittableRandom[] streams)
+	{
+		transmissableGen = streams[0];
+		infect(initialNode);
+	}
+	
+	/**
+	 * Advances the state by one time step.
+	 * Every node infected before this time step tries to transmit to each of its uninfected neighbors.
+	 * A neighbor infected earlier in the same time step is not tried again;
+	 * this saves random draws without changing the distribution of the infected set.
+	 *
+	 * @param t the time step.
+	 */
+	@Override
+	protected void step(int t)
+	{
+		final int infectedBeforeStep = numberOfInfected;
+		for (int i=0; i<infectedBeforeStep; i++)
+		{
+			int node = infected[i];
+			int degree = g.getDegree(node);
+			for (int j=0; j<degree; j++)
+			{
+				int neighbor = g.getNeighbor(node, j);
+				if ((!isInfected(neighbor)) && (transmissableGen.nextDouble()<=p))
+					infect(neighbor);
+			}
+		}
+	}
+}
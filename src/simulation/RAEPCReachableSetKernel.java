@@ -0,0 +1,184 @@
+package simulation;
+
+import network.indexedGraph;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Kernel that samples the set of infected nodes of the RAEPC spread model (see {@link RAEPCKernel})
+ * as a reachable set of a percolated network, instead of simulating the time steps.
+ * <p>
+ *     In RAEPC, a node infected at time step {@code a} tries to transmit to each neighbor in every time step
+ *     after {@code a}, each w.p. p; so the neighbor is reached from this node after a delay that has
+ *     a geometric distribution with parameter p (on 1, 2, ...), independently for every (directed) edge.
+ *     Hence, a node is infected by time step {@code t0} if and only if its distance from the initial location
+ *     is at most {@code t0}, with these delays as edge lengths.
+ *     The kernel computes these distances with a bucket for each time step (Dijkstra's algorithm with integer
+ *     lengths), and stops at distance {@code t0}.
+ *     The delay of an edge is drawn once, when its tail is infected, and only if it can improve the tentative
+ *     infection time of its head; so the work done in a replication is proportional to the number of edges out
+ *     of the infected nodes, instead of that number times the number of time steps.
+ *     This pays off for long horizons (small p and large {@code t0}); when the infected set saturates
+ *     the network in a few time steps, {@link RAEPCKernel} does fewer random draws.
+ *     The sample paths have the same distribution as those of {@link RAEPCKernel}, but not the same values
+ *     for the same random number streams.
+ * </p>
+ * <p>
+ *     Since the edge lengths are independent and identically distributed in both directions,
+ *     the sample path is also distributed as the reverse-reachable set of the initial location:
+ *     the set of nodes from which the virus reaches the initial location by time step {@code t0}.
+ *     A row of the detection matrix is covered by a set of honeypots if and only if one of the honeypots
+ *     (that detects the virus) is in the row, so a sample path is exactly the information needed to decide
+ *     its coverage.
+ * </p>
+ * <p>
+ *     Random number streams: (0) delays.
+ * </p>
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+public class RAEPCReachableSetKernel extends spreadKernel
+{
+	/**
+	 * Transmissability probability.
+	 */
+	final double p;
+	
+	/**
+	 * {@code Math.log(1-p)}, used to draw the delays by inversion.
+	 */
+	final double logOfOneMinusP;
+	
+	/**
+	 * {@code tentativeStamp[i]==currentRun} if node {@code i} has a tentative infection time in the current
+	 * replication.
+	 */
+	final int[] tentativeStamp;
+	
+	/**
+	 * Tentative infection time of each node (valid if its stamp is the current replication).
+	 */
+	final int[] tentativeTime;
+	
+	/**
+	 * {@code buckets[t]} holds the nodes with tentative infection time {@code t} (a node may appear in several
+	 * buckets; only the first one counts).
+	 */
+	int[][] buckets;
+	
+	/**
+	 * Number of nodes in each bucket.
+	 */
+	int[] bucketSizes;
+	
+	/**
+	 * Constructor.
+	 *
+	 * @param g network graph
+	 * @param p transmissability probability.
+	 */
+	public RAEPCReachableSetKernel(indexedGraph g, double p)
+	{
+		super(g, true);
+		this.p = p;
+		this.logOfOneMinusP = Math.log(1-p);
+		this.tentativeStamp = new int[g.getNumberOfNodes()];
+		this.tentativeTime = new int[g.getNumberOfNodes()];
+		this.buckets = new int[0][];
+		this.bucketSizes = new int[0];
+	}
+	
+	/**
+	 * Simulates a single replication.
+	 *
+	 * @param initialNode index of the initial location of the virus
+	 * @param t0 simulation time
+	 * @param streams random number generators; (0) delays.
+	 */
+	@Override
+	public void simulate(int initialNode, int t0, SplittableRandom[] streams)
+	{
+		SplittableRandom delayGen = streams[0];
+		startRun();
+		if (currentRun==1)
+			Arrays.fill(tentativeStamp, 0);
+		if (buckets.length<=t0)
+		{
+			int oldLength = buckets.length;
+			buckets = Arrays.copyOf(buckets, t0+1);
+			for (int t=oldLength; t<=t0; t++)
+				buckets[t] = new int[16];
+		}
+		if (bucketSizes.length<=t0)
+			bucketSizes = new int[t0+1];
+		Arrays.fill(bucketSizes, 0, t0+1, 0);
+		infect(initialNode);
+		transmitToNeighbors(initialNode, 0, t0, delayGen);
+		for (int t=1; t<=t0; t++)
+		{
+			for (int b=0; b<bucketSizes[t]; b++)
+			{
+				int target = buckets[t][b];
+				// infected earlier, through a shorter path
+				if (isInfected(target))
+					continue;
+				infect(target);
+				transmitToNeighbors(target, t, t0, delayGen);
+			}
+		}
+	}
+	
+	/**
+	 * Draws the delays of the edges from a newly infected node to its uninfected neighbors,
+	 * and adds the neighbors whose tentative infection time improves (and is at most {@code t0}) to the buckets.
+	 *
+	 * @param node index of the newly infected node
+	 * @param time time step of infection of {@code node}
+	 * @param t0 simulation time
+	 * @param delayGen random number generator for the delays.
+	 */
+	private void transmitToNeighbors(int node, int time, int t0, SplittableRandom delayGen)
+	{
+		if (time>=t0)
+			return;
+		int degree = g.getDegree(node);
+		for (int j=0; j<degree; j++)
+		{
+			int neighbor = g.getNeighbor(node, j);
+			if (isInfected(neighbor))
+				continue;
+			// latest arrival that improves the tentative infection time of the neighbor
+			int latest = (tentativeStamp[neighbor]==currentRun) ? Math.min(t0, tentativeTime[neighbor]-1) : t0;
+			if (latest<=time)
+				continue;
+			int arrival = time+sampleDelay(delayGen, latest-time);
+			if (arrival<=latest)
+			{
+				tentativeStamp[neighbor] = currentRun;
+				tentativeTime[neighbor] = arrival;
+				if (bucketSizes[arrival]==buckets[arrival].length)
+					buckets[arrival] = Arrays.copyOf(buckets[arrival], 2*bucketSizes[arrival]);
+				buckets[arrival][bucketSizes[arrival]++] = neighbor;
+			}
+		}
+	}
+	
+	/**
+	 * Draws a delay from the geometric distribution with parameter p on 1, 2, ..., as far as it matters:
+	 * a delay greater than {@code cap} is returned as {@code cap+1}.
+	 * If {@code cap==1}, this is one try as in {@link RAEPCKernel}; otherwise, the delay is drawn by inversion.
+	 *
+	 * @param delayGen random number generator for the delays
+	 * @param cap largest delay that matters (at least 1).
+	 * @return a delay, at most {@code cap+1}.
+	 */
+	private int sampleDelay(SplittableRandom delayGen, int cap)
+	{
+		if (p>=1)
+			return 1;
+		if (cap==1)
+			return (delayGen.nextDouble()<=p) ? 1 : 2;
+		double failures = Math.floor(Math.log(1.0-delayGen.nextDouble())/logOfOneMinusP);
+		return (int) Math.min(failures, cap)+1;
+	}
+}
@@ -0,0 +1,65 @@
+package simulation;
+
+import network.indexedGraph;
+
+import java.util.SplittableRandom;
+
+/**
+ * Kernel of the TN11C spread model.
+ * T: Virus transits from vertex to vertex;
+ * N: Only newly infected vertices distribute the virus;
+ * 1: Virus propagates to 1 randomly selected neighbor;
+ * C: Transmission occurs in constant time steps.
+ * <p>
+ *     Random number streams: (0) choice of neighbor.
+ * </p>
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+public class TN11CKernel extends timeStepKernel
+{
+	/**
+	 * Random number generator for the choice of neighbor.
+	 */
+	SplittableRandom neighborGenChoice;
+	
+	/**
+	 * The node where the virus currently is.
+	 */
+	int currentInfected;
+	
+	/**
+	 * Constructor.
+	 *
+	 * @param g network graph.
+	 */
+	public TN11CKernel(indexedGraph g)
+	{
+		super(g, false);
+	}
+	
+	/**
+	 * Sets up the state at time step 0.
+	 *
+	 * @param initialNode index of the initial location of the virus
+	 * @param streams random number generators to be used in this replication.
+	 */
+	@Override
+	protected void initialize(int initialNode, SplittableRandom[] streams)
+	{
+		neighborGenChoice = streams[0];
+		currentInfected = initialNode;
+		record(currentInfected);
+	}
+	
+	/**
+	 * Advances the state by one time step.
+	 *
+	 * @param t the time step.
+	 */
+	@Override
+	protected void step(int t)
+	{
+		currentInfected = g.getNeighbor(currentInfected, neighborGenChoice.nextInt(g.getDegree(currentInfected)));
+		record(currentInfected);
+	}
+}
@@ -1,13 +1,16 @@
 package simulation;
 
-import com.opencsv.CSVWriter;
+import dataTypes.infectionTimeHistogram;
 import dataTypes.parameters;
+import helper.commonMethods;
 import network.graph;
 import org.jgrapht.Graphs;
 
-import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.time.Instant;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -49,8 +52,34 @@ public class chooseTimeStep
 	 */
 	Map<parameters, Double> mapParametersToMeanInfectionTime;
 	
+	/**
+	 * A map from {@code parameters} to the histogram of the time steps required to get a given percentage infection.
+	 * Populated for every parameter, irrespective of {@code retainSamples};
+	 * the statistics written to csv are computed from it.
+	 * <p>
+	 *     Parameters: (model (TN11C, RAEPC, etc.), network name, time step, repetitions,
+	 *     false negative probability, transmissability (p), number of honeypots).
+	 * </p>
+	 */
+	Map<parameters, infectionTimeHistogram> mapParametersToInfectionTimeHistogram;
+	
+	/**
+	 * If {@code true}, the infected nodes and the infection time of every repetition are stored in
+	 * {@code mapParametersToSimulationRuns} and {@code mapParametersToTimeForInfection};
+	 * otherwise, only the histogram and the mean of the infection times are stored.
+	 */
+	boolean retainSamples;
+	
+	/**
+	 * Path of the file where the results are checkpointed after every parameter;
+	 * {@code null} if checkpoints are disabled.
+	 */
+	String checkpointFilename;
+	
 	/**
 	 * Constructor.
+	 * Samples of every repetition are retained, and the histograms are built from
+	 * {@code mapParametersToTimeForInfection}.
 	 *
 	 * @param mapParametersToSimulationRuns a map from {@code parameters} to the simulation runs
 	 * @param mapParametersToTimeForInfection A map from {@code parameters} to
@@ -65,14 +94,36 @@ public class chooseTimeStep
 		this.mapParametersToSimulationRuns = mapParametersToSimulationRuns;
 		this.mapParametersToTimeForInfection = mapParametersToTimeForInfection;
 		this.mapParametersToMeanInfectionTime = mapParametersToMeanInfectionTime;
+		this.mapParametersToInfectionTimeHistogram = new HashMap<>();
+		for (Map.Entry<parameters, List<Integer>> e: mapParametersToTimeForInfection.entrySet())
+		{
+			infectionTimeHistogram histogram = new infectionTimeHistogram();
+			for (int time: e.getValue())
+				histogram.add(time);
+			mapParametersToInfectionTimeHistogram.put(e.getKey(), histogram);
+		}
+		this.retainSamples = true;
 	}
 	
 	/**
 	 * Constructor.
+	 *
+	 * @param retainSamples {@code true}, if the infected nodes and infection time of every repetition are to be stored;
+	 *                      {@code false}, if only the histogram of infection times is to be stored.
 	 */
-	public chooseTimeStep()
+	public chooseTimeStep(boolean retainSamples)
 	{
 		this(new HashMap<>(), new HashMap<>(), new HashMap<>());
+		this.retainSamples = retainSamples;
+	}
+	
+	/**
+	 * Constructor.
+	 * Only the histogram of infection times is stored for each parameter.
+	 */
+	public chooseTimeStep()
+	{
+		this(false);
 	}
 	
 	/**
@@ -105,6 +156,81 @@ public class chooseTimeStep
 		return mapParametersToMeanInfectionTime;
 	}
 	
+	/**
+	 * Getter.
+	 *
+	 * @return {@code mapParametersToInfectionTimeHistogram}.
+	 */
+	public Map<parameters, infectionTimeHistogram> getMapParametersToInfectionTimeHistogram()
+	{
+		return mapParametersToInfectionTimeHistogram;
+	}
+	
+	/**
+	 * Getter.
+	 *
+	 * @return {@code retainSamples}.
+	 */
+	public boolean isRetainSamples()
+	{
+		return retainSamples;
+	}
+	
+	/**
+	 * Enables checkpoints: the results are written to {@code serialFilename} after every parameter,
+	 * and parameters already in the results are skipped.
+	 * If {@code serialFilename} exists, the results in it are loaded, so that an interrupted sweep resumes from the
+	 * last completed parameter.
+	 * Since the random number generators are seeded per parameter, the results are identical to those of
+	 * an uninterrupted sweep.
+	 *
+	 * @param serialFilename path of the checkpoint file.
+	 * @throws Exception thrown if the checkpoint file exists but cannot be read.
+	 */
+	public void enableCheckpoints(String serialFilename) throws Exception
+	{
+		checkpointFilename = serialFilename;
+		if (new File(serialFilename).exists())
+		{
+			try (ObjectInputStream objin = new ObjectInputStream(new BufferedInputStream(
+																		new FileInputStream(serialFilename))))
+			{
+				List<Object> serObject = (List<Object>) objin.readObject();
+				mapParametersToSimulationRuns.putAll((Map<parameters, List<List<Integer>>>) serObject.get(0));
+				mapParametersToTimeForInfection.putAll((Map<parameters, List<Integer>>) serObject.get(1));
+				mapParametersToMeanInfectionTime.putAll((Map<parameters, Double>) serObject.get(2));
+				mapParametersToInfectionTimeHistogram.putAll(
+												(Map<parameters, infectionTimeHistogram>) serObject.get(3));
+			}
+			System.out.println("Resuming from checkpoint \""+serialFilename+"\": "
+								+mapParametersToInfectionTimeHistogram.size()+" parameters already completed.");
+		}
+	}
+	
+	/**
+	 * Writes the results to {@code checkpointFilename}.
+	 * The results are first written to a temporary file which then replaces the checkpoint,
+	 * so that an interruption while writing does not corrupt the last checkpoint.
+	 *
+	 * @throws IOException thrown if the checkpoint cannot be written.
+	 */
+	private void saveCheckpoint() throws IOException
+	{
+		Path checkpoint = Paths.get(checkpointFilename);
+		Path tmp = Paths.get(checkpointFilename+".tmp");
+		try (ObjectOutputStream objout = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(
+																							tmp.toFile()))))
+		{
+			List<Object> serObject = new ArrayList<>(4);
+			serObject.add(new HashMap<>(mapParametersToSimulationRuns));
+			serObject.add(new HashMap<>(mapParametersToTimeForInfection));
+			serObject.add(new HashMap<>(mapParametersToMeanInfectionTime));
+			serObject.add(new HashMap<>(mapParametersToInfectionTimeHistogram));
+			objout.writeObject(serObject);
+		}
+		Files.move(tmp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+	
 	/**
 	 * Function to determine what values of {@code t_0} are appropriate for TN1PC spread dynamics.
 	 * See Lee, Jinho. Stochastic optimization models for rapid detection of viruses in cellphone networks. Diss. 2012.
@@ -134,6 +260,11 @@ public class chooseTimeStep
 		for(parameters param : params)
 		{
 			System.out.println("\t "+param.toString());
+			if ((checkpointFilename!=null) && mapParametersToInfectionTimeHistogram.containsKey(param))
+			{
+				System.out.println("\t Already completed in checkpoint; skipping.");
+				continue;
+			}
 			double pi = param.getPercentInfection();
 			int rep = param.getNumberOfSimulationRepetitions();
 			double p = param.getTransmissability();
@@ -151,8 +282,9 @@ public class chooseTimeStep
 			int[] initialLocationRuns = IntStream.range(0, rep)
 										.map(i -> nodes.get(initialLocationGenChoice.nextInt(0, n))).toArray();
 			
-			List<Integer> t0Runs = new ArrayList<>(rep);
-			List<List<Integer>> samplePathRuns = new ArrayList<>(rep);
+			infectionTimeHistogram histogram = new infectionTimeHistogram();
+			List<Integer> t0Runs = retainSamples ? new ArrayList<>(rep) : null;
+			List<List<Integer>> samplePathRuns = retainSamples ? new ArrayList<>(rep) : null;
 			for (int x=0; x<rep; x++)
 			{
 				//System.out.println("\n\t\t Simulation run "+(x+1));
@@ -179,16 +311,27 @@ public class chooseTimeStep
 					//System.out.println("\t\t\t\t Current infected node: "+currentInfected);
 					t++;
 				}
-				t0Runs.add(t-1);
-				samplePathRuns.add(new ArrayList<>(infected));
+				histogram.add(t-1);
+				if (retainSamples)
+				{
+					t0Runs.add(t-1);
+					samplePathRuns.add(new ArrayList<>(infected));
+				}
 				//System.out.println("\t\t Infected nodes: "+infected.toString());
 			}
-			double meanInfectionTime = t0Runs.stream().mapToInt(Integer::intValue).average().orElseThrow();
-			mapParametersToSimulationRuns.put(param, samplePathRuns);
-			mapParametersToTimeForInfection.put(param, t0Runs);
+			double meanInfectionTime = histogram.getMean();
+			if (retainSamples)
+			{
+				mapParametersToSimulationRuns.put(param, samplePathRuns);
+				mapParametersToTimeForInfection.put(param, t0Runs);
+			}
+			mapParametersToInfectionTimeHistogram.put(param, histogram);
 			mapParametersToMeanInfectionTime.put(param, meanInfectionTime);
+			if (checkpointFilename!=null)
+				saveCheckpoint();
 			//System.out.println("\t Infection times: "+t0Runs);
 			System.out.println("\t Mean infection time: "+meanInfectionTime);
+			System.out.println("\t "+histogram);
 		}
 		System.out.println("Ending simulation runs...");
 	}
@@ -222,6 +365,11 @@ public class chooseTimeStep
 		for(parameters param : params)
 		{
 			System.out.println("\t "+param.toString());
+			if ((checkpointFilename!=null) && mapParametersToInfectionTimeHistogram.containsKey(param))
+			{
+				System.out.println("\t Already completed in checkpoint; skipping.");
+				continue;
+			}
 			double pi = param.getPercentInfection();
 			int rep = param.getNumberOfSimulationRepetitions();
 			double p = param.getTransmissability();
@@ -239,8 +387,9 @@ public class chooseTimeStep
 			int[] initialLocationRuns = IntStream.range(0, rep)
 					.map(i -> nodes.get(initialLocationGenChoice.nextInt(0, n))).toArray();
 			
-			List<Integer> t0Runs = new ArrayList<>(rep);
-			List<List<Integer>> samplePathRuns = new ArrayList<>(rep);
+			infectionTimeHistogram histogram = new infectionTimeHistogram();
+			List<Integer> t0Runs = retainSamples ? new ArrayList<>(rep) : null;
+			List<List<Integer>> samplePathRuns = retainSamples ? new ArrayList<>(rep) : null;
 			for (int x=0; x<rep; x++)
 			{
 				//System.out.println("\n\t\t Simulation run "+(x+1));
@@ -267,16 +416,27 @@ public class chooseTimeStep
 					//System.out.println("\t\t\t\t Nodes infected: "+tmpInfected);
 					t++;
 				}
-				t0Runs.add(t-1);
-				samplePathRuns.add(new ArrayList<>(infected));
+				histogram.add(t-1);
+				if (retainSamples)
+				{
+					t0Runs.add(t-1);
+					samplePathRuns.add(new ArrayList<>(infected));
+				}
 				//System.out.println("\t\t Infected nodes: "+infected.toString());
 			}
-			double meanInfectionTime = t0Runs.stream().mapToInt(Integer::intValue).average().orElseThrow();
-			mapParametersToSimulationRuns.put(param, samplePathRuns);
-			mapParametersToTimeForInfection.put(param, t0Runs);
+			double meanInfectionTime = histogram.getMean();
+			if (retainSamples)
+			{
+				mapParametersToSimulationRuns.put(param, samplePathRuns);
+				mapParametersToTimeForInfection.put(param, t0Runs);
+			}
+			mapParametersToInfectionTimeHistogram.put(param, histogram);
 			mapParametersToMeanInfectionTime.put(param, meanInfectionTime);
+			if (checkpointFilename!=null)
+				saveCheckpoint();
 			//System.out.println("\t Infection times: "+t0Runs);
 			System.out.println("\t Mean infection time: "+meanInfectionTime);
+			System.out.println("\t "+histogram);
 		}
 		System.out.println("Ending simulation runs...");
 	}
@@ -309,6 +469,11 @@ public class chooseTimeStep
 		for(parameters param : params)
 		{
 			System.out.println("\t "+param.toString());
+			if ((checkpointFilename!=null) && mapParametersToInfectionTimeHistogram.containsKey(param))
+			{
+				System.out.println("\t Already completed in checkpoint; skipping.");
+				continue;
+			}
 			double pi = param.getPercentInfection();
 			int rep = param.getNumberOfSimulationRepetitions();
 			double p = param.getTransmissability();
@@ -324,8 +489,9 @@ public class chooseTimeStep
 			int[] initialLocationRuns = IntStream.range(0, rep)
 					.map(i -> nodes.get(initialLocationGenChoice.nextInt(0, n))).toArray();
 			
-			List<Integer> t0Runs = new ArrayList<>(rep);
-			List<List<Integer>> samplePathRuns = new ArrayList<>(rep);
+			infectionTimeHistogram histogram = new infectionTimeHistogram();
+			List<Integer> t0Runs = retainSamples ? new ArrayList<>(rep) : null;
+			List<List<Integer>> samplePathRuns = retainSamples ? new ArrayList<>(rep) : null;
 			for (int x=0; x<rep; x++)
 			{
 				//System.out.println("\n\t\t Simulation run "+(x+1));
@@ -356,16 +522,27 @@ public class chooseTimeStep
 					//System.out.println("\t\t\t\t Nodes infected: "+tmpInfected);
 					t++;
 				}
-				t0Runs.add(t-1);
-				samplePathRuns.add(new ArrayList<>(infected));
+				histogram.add(t-1);
+				if (retainSamples)
+				{
+					t0Runs.add(t-1);
+					samplePathRuns.add(new ArrayList<>(infected));
+				}
 				//System.out.println("\t\t Infected nodes: "+infected.toString());
 			}
-			double meanInfectionTime = t0Runs.stream().mapToInt(Integer::intValue).average().orElseThrow();
-			mapParametersToSimulationRuns.put(param, samplePathRuns);
-			mapParametersToTimeForInfection.put(param, t0Runs);
+			double meanInfectionTime = histogram.getMean();
+			if (retainSamples)
+			{
+				mapParametersToSimulationRuns.put(param, samplePathRuns);
+				mapParametersToTimeForInfection.put(param, t0Runs);
+			}
+			mapParametersToInfectionTimeHistogram.put(param, histogram);
 			mapParametersToMeanInfectionTime.put(param, meanInfectionTime);
+			if (checkpointFilename!=null)
+				saveCheckpoint();
 			//System.out.println("\t Infection times: "+t0Runs);
 			System.out.println("\t Mean infection time: "+meanInfectionTime);
+			System.out.println("\t "+histogram);
 		}
 		System.out.println("Ending simulation runs...");
 	}
@@ -403,7 +580,10 @@ public class chooseTimeStep
 	
 	/**
 	 * Writes results to csv file.
-	 * List of time steps for each repetition is not written to csv; only the average time is written.
+	 * List of time steps for each repetition is not written to csv;
+	 * only the average, standard deviation and percentiles (from the histogram) are written.
+	 * Files written before the standard deviation and percentile columns were added have a different layout,
+	 * and should not be appended to.
 	 *
 	 * @param filename path to output file
 	 * @param append true, if you wish to append to existing file; false, otherwise.
@@ -411,35 +591,29 @@ public class chooseTimeStep
 	 */
 	public void writeToCSV(String filename, boolean append) throws IOException
 	{
-		File fileObj = new File(filename);
 		String[] header = {"Model", "Network", "Percent Infection", "Simulation repetitions",
-							"transmissability (p)", "Avg. time", "UTC"};
-		boolean writeHeader = false;
-		if (!fileObj.exists())
-			writeHeader = true;
-		else if (!append)
-			writeHeader = true;
-		CSVWriter writer = new CSVWriter(new FileWriter(filename, append));
-		if (writeHeader)
-		{
-			writer.writeNext(header);
-			writer.flush();
-		}
+							"transmissability (p)", "Avg. time", "Std. dev. time", "p50 time", "p90 time",
+							"p99 time", "UTC"};
+		List<String[]> lines = new ArrayList<>();
 		String now = Instant.now().toString();
-		for (parameters key : mapParametersToTimeForInfection.keySet())
+		for (parameters key : mapParametersToInfectionTimeHistogram.keySet())
 		{
-			String[] line = new String[7];
+			infectionTimeHistogram histogram = mapParametersToInfectionTimeHistogram.get(key);
+			String[] line = new String[11];
 			line[0] = key.getSpreadModelName();
 			line[1] = key.getNetworkName();
 			line[2] = String.valueOf(key.getPercentInfection());
 			line[3] = String.valueOf(key.getNumberOfSimulationRepetitions());
 			line[4] = String.valueOf(key.getTransmissability());
 			line[5] = String.valueOf(mapParametersToMeanInfectionTime.get(key));
-			line[6] = now;
-			writer.writeNext(line);
+			line[6] = String.valueOf(histogram.getStDev());
+			line[7] = String.valueOf(histogram.getQuantile(0.5));
+			line[8] = String.valueOf(histogram.getQuantile(0.9));
+			line[9] = String.valueOf(histogram.getQuantile(0.99));
+			line[10] = now;
+			lines.add(line);
 		}
-		writer.flush();
-		writer.close();
+		commonMethods.writeToCSV(filename, append, header, lines);
 		System.out.println("Results successfully written to \""+filename+"\".");
 	}
 	
@@ -455,6 +629,7 @@ public class chooseTimeStep
 				"\nmapParametersToSimulationRuns=" + mapParametersToSimulationRuns.toString() +
 				", \nmapParametersToTimeForInfection=" + mapParametersToTimeForInfection.toString() +
 				", \nmapParametersToMeanInfectionTime=" + mapParametersToMeanInfectionTime.toString() +
+				", \nmapParametersToInfectionTimeHistogram=" + mapParametersToInfectionTimeHistogram.toString() +
 				"\n}";
 	}
 }
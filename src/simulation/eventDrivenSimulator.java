@@ -0,0 +1,232 @@
+package simulation;
+
+import network.indexedGraph;
+
+import java.util.*;
+
+/**
+ * Event-driven simulator for continuous-time variants of the spread models.
+ * See Lee, Jinho. Stochastic optimization models for rapid detection of viruses in cellphone networks. Diss. 2012,
+ * for the constant time step ("C") variants.
+ * Instead of iterating over all infected nodes in every time step, pending infection events are kept in
+ * an {@link infectionEventQueue}, so the work done in a run is proportional to the number of transmissions
+ * (attempts) up to the time horizon {@code t_0}.
+ * <p>
+ *     Supported models (the last letter is the code of the {@link transmissionDelay}):
+ * </p>
+ * <dl>
+ *     <dt>TN11</dt> <dd>virus transits to 1 randomly selected neighbor after each delay;</dd>
+ *     <dt>RA1P</dt> <dd>every infected node sends a copy to 1 randomly selected neighbor after each delay,
+ *                      which is transmissable w.p. p;</dd>
+ *     <dt>RAEP</dt> <dd>every infected node keeps sending copies to each neighbor, one after each delay
+ *                      (drawn independently), and each copy is transmissable w.p. p; so the time to infect a
+ *                      neighbor is the sum of a geometric (p) number of delays, as a geometric (p) number of
+ *                      time steps in RAEPC (with exponential delays of mean m, it is exponential with
+ *                      mean m/p).</dd>
+ * </dl>
+ * An instance reuses its buffers across runs, and is not thread-safe.
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+public class eventDrivenSimulator extends spreadKernel
+{
+	/**
+	 * Model family: one of {"TN11", "RA1P", "RAEP"}.
+	 */
+	final String modelFamily;
+	
+	/**
+	 * Transmissability probability used by {@link eventDrivenSimulator#simulate(int, int, SplittableRandom[])}.
+	 */
+	final double p;
+	
+	/**
+	 * Distribution of the transmission delays.
+	 */
+	final transmissionDelay delay;
+	
+	/**
+	 * Pending infection events.
+	 */
+	final infectionEventQueue events;
+	
+	/**
+	 * Constructor.
+	 *
+	 * @param g network graph
+	 * @param modelFamily one of {"TN11", "RA1P", "RAEP"}
+	 * @param p transmissability probability (ignored for TN11)
+	 * @param delay distribution of the transmission delays.
+	 * @throws IllegalArgumentException thrown if {@code modelFamily} is not one of {"TN11", "RA1P", "RAEP"}.
+	 */
+	public eventDrivenSimulator(indexedGraph g, String modelFamily, double p, transmissionDelay delay)
+	{
+		super(g, !modelFamily.equals("TN11"));
+		if (!(modelFamily.equals("TN11") || modelFamily.equals("RA1P") || modelFamily.equals("RAEP")))
+			throw new IllegalArgumentException("Invalid model name!");
+		this.modelFamily = modelFamily;
+		this.p = p;
+		this.delay = delay;
+		this.events = new infectionEventQueue(g.getNumberOfNodes());
+	}
+	
+	/**
+	 * Simulates a single replication of the model family of this simulator.
+	 * Random number streams: for TN11, (0) choice of neighbor and (1) delays;
+	 * for RA1P, (0) choice of neighbor, (1) transmissability and (2) delays;
+	 * for RAEP, (0) transmissability and (1) delays.
+	 *
+	 * @param initialNode index of the initial location of the virus
+	 * @param t0 time horizon
+	 * @param streams random number generators.
+	 */
+	@Override
+	public void simulate(int initialNode, int t0, SplittableRandom[] streams)
+	{
+		switch (modelFamily)
+		{
+			case "TN11" -> simulateTN11(initialNode, t0, streams[0], streams[1]);
+			case "RA1P" -> simulateRA1P(initialNode, t0, p, streams[0], streams[1], streams[2]);
+			default -> simulateRAEP(initialNode, t0, p, streams[0], streams[1]);
+		}
+	}
+	
+	/**
+	 * Simulates a single run of the TN11 model.
+	 *
+	 * @param initialNode index of the initial location of the virus
+	 * @param t0 time horizon
+	 * @param neighborGenChoice random number generator for the choice of neighbor
+	 * @param delayGen random number generator for the delays.
+	 * @return number of nodes visited (including repeated visits and the initial location).
+	 */
+	public int simulateTN11(int initialNode, double t0, SplittableRandom neighborGenChoice,
+	                        SplittableRandom delayGen)
+	{
+		startRun();
+		int currentInfected = initialNode;
+		record(currentInfected);
+		double time = delay.sample(delayGen);
+		while (time<=t0)
+		{
+			currentInfected = g.getNeighbor(currentInfected, neighborGenChoice.nextInt(g.getDegree(currentInfected)));
+			record(currentInfected);
+			time += delay.sample(delayGen);
+		}
+		return numberOfInfected;
+	}
+	
+	/**
+	 * Simulates a single run of the RA1P model.
+	 * Each event in the queue is a send of a copy by an infected node.
+	 *
+	 * @param initialNode index of the initial location of the virus
+	 * @param t0 time horizon
+	 * @param p transmissability probability
+	 * @param neighborGenChoice random number generator for the choice of neighbor
+	 * @param transmissableGen random number generator for transmissability
+	 * @param delayGen random number generator for the delays.
+	 * @return number of infected nodes.
+	 */
+	public int simulateRA1P(int initialNode, double t0, double p, SplittableRandom neighborGenChoice,
+	                        SplittableRandom transmissableGen, SplittableRandom delayGen)
+	{
+		startRun();
+		infect(initialNode);
+		scheduleIfBeforeHorizon(delay.sample(delayGen), initialNode, t0);
+		while (!events.isEmpty())
+		{
+			double time = events.peekTime();
+			int sender = events.peekNode();
+			events.removeMin();
+			int target = g.getNeighbor(sender, neighborGenChoice.nextInt(g.getDegree(sender)));
+			if ((transmissableGen.nextDouble()<=p) && (!isInfected(target)))
+			{
+				infect(target);
+				scheduleIfBeforeHorizon(time+delay.sample(delayGen), target, t0);
+			}
+			scheduleIfBeforeHorizon(time+delay.sample(delayGen), sender, t0);
+		}
+		return numberOfInfected;
+	}
+	
+	/**
+	 * Simulates a single run of the RAEP model.
+	 * Each event in the queue is the first transmissable copy sent to a node by one of its infected neighbors.
+	 *
+	 * @param initialNode index of the initial location of the virus
+	 * @param t0 time horizon
+	 * @param p transmissability probability
+	 * @param transmissableGen random number generator for transmissability
+	 * @param delayGen random number generator for the delays.
+	 * @return number of infected nodes.
+	 */
+	public int simulateRAEP(int initialNode, double t0, double p, SplittableRandom transmissableGen,
+	                        SplittableRandom delayGen)
+	{
+		startRun();
+		infect(initialNode);
+		transmitToNeighbors(initialNode, 0, t0, p, transmissableGen, delayGen);
+		while (!events.isEmpty())
+		{
+			double time = events.peekTime();
+			int target = events.peekNode();
+			events.removeMin();
+			if (isInfected(target))
+				continue;
+			infect(target);
+			transmitToNeighbors(target, time, t0, p, transmissableGen, delayGen);
+		}
+		return numberOfInfected;
+	}
+	
+	/**
+	 * Schedules transmissions from a newly infected node to its uninfected neighbors:
+	 * for each neighbor, copies are sent after successive delays until one is transmissable,
+	 * or until the time horizon is passed.
+	 *
+	 * @param node index of the newly infected node
+	 * @param time time of infection of {@code node}
+	 * @param t0 time horizon
+	 * @param p transmissability probability
+	 * @param transmissableGen random number generator for transmissability
+	 * @param delayGen random number generator for the delays.
+	 */
+	private void transmitToNeighbors(int node, double time, double t0, double p,
+	                                 SplittableRandom transmissableGen, SplittableRandom delayGen)
+	{
+		int degree = g.getDegree(node);
+		for (int j=0; j<degree; j++)
+		{
+			int neighbor = g.getNeighbor(node, j);
+			if (isInfected(neighbor))
+				continue;
+			double transmissionTime = time+delay.sample(delayGen);
+			while ((transmissionTime<=t0) && (transmissableGen.nextDouble()>p))
+				transmissionTime += delay.sample(delayGen);
+			scheduleIfBeforeHorizon(transmissionTime, neighbor, t0);
+		}
+	}
+	
+	/**
+	 * Adds an event to the queue if it happens no later than the time horizon.
+	 *
+	 * @param time time of the event
+	 * @param node node of the event
+	 * @param t0 time horizon.
+	 */
+	private void scheduleIfBeforeHorizon(double time, int node, double t0)
+	{
+		if (time<=t0)
+			events.add(time, node);
+	}
+	
+	/**
+	 * Resets the state for a new run.
+	 */
+	@Override
+	void startRun()
+	{
+		super.startRun();
+		events.clear();
+	}
+}
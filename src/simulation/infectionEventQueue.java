@@ -0,0 +1,154 @@
+package simulation;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Represents a binary min-heap of pending infection events keyed by event time.
+ * Events are stored in primitive arrays, so adding and removing events does not allocate
+ * (except when the heap has to grow), and the heap can be reused by calling {@link infectionEventQueue#clear()}.
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+public class infectionEventQueue
+{
+	/**
+	 * Times of the events.
+	 */
+	double[] times;
+	
+	/**
+	 * Nodes (indices) of the events.
+	 */
+	int[] nodes;
+	
+	/**
+	 * Number of events in the heap.
+	 */
+	int size;
+	
+	/**
+	 * Constructor.
+	 *
+	 * @param initialCapacity initial capacity of the heap.
+	 */
+	public infectionEventQueue(int initialCapacity)
+	{
+		this.times = new double[Math.max(initialCapacity, 16)];
+		this.nodes = new int[times.length];
+		this.size = 0;
+	}
+	
+	/**
+	 * Adds an event.
+	 *
+	 * @param time time of the event
+	 * @param node node of the event.
+	 */
+	public void add(double time, int node)
+	{
+		if (size==times.length)
+		{
+			times = Arrays.copyOf(times, 2*size);
+			nodes = Arrays.copyOf(nodes, 2*size);
+		}
+		// sift up
+		int i = size++;
+		while (i>0)
+		{
+			int parent = (i-1) >>> 1;
+			if (times[parent]<=time)
+				break;
+			times[i] = times[parent];
+			nodes[i] = nodes[parent];
+			i = parent;
+		}
+		times[i] = time;
+		nodes[i] = node;
+	}
+	
+	/**
+	 * Returns the time of the earliest event.
+	 *
+	 * @return the time of the earliest event.
+	 * @throws NoSuchElementException thrown if the heap is empty.
+	 */
+	public double peekTime()
+	{
+		if (size==0)
+			throw new NoSuchElementException("No pending events!");
+		return times[0];
+	}
+	
+	/**
+	 * Returns the node of the earliest event.
+	 *
+	 * @return the node of the earliest event.
+	 * @throws NoSuchElementException thrown if the heap is empty.
+	 */
+	public int peekNode()
+	{
+		if (size==0)
+			throw new NoSuchElementException("No pending events!");
+		return nodes[0];
+	}
+	
+	/**
+	 * Removes the earliest event.
+	 *
+	 * @throws NoSuchElementException thrown if the heap is empty.
+	 */
+	public void removeMin()
+	{
+		if (size==0)
+			throw new NoSuchElementException("No pending events!");
+		size--;
+		if (size==0)
+			return;
+		double time = times[size];
+		int node = nodes[size];
+		// sift down
+		int i = 0;
+		int half = size >>> 1;
+		while (i<half)
+		{
+			int child = 2*i+1;
+			if ((child+1<size) && (times[child+1]<times[child]))
+				child++;
+			if (time<=times[child])
+				break;
+			times[i] = times[child];
+			nodes[i] = nodes[child];
+			i = child;
+		}
+		times[i] = time;
+		nodes[i] = node;
+	}
+	
+	/**
+	 * Checks if there are no pending events.
+	 *
+	 * @return {@code true}, if there are no pending events; {@code false}, otherwise.
+	 */
+	public boolean isEmpty()
+	{
+		return size==0;
+	}
+	
+	/**
+	 * Getter.
+	 *
+	 * @return {@code size}.
+	 */
+	public int size()
+	{
+		return size;
+	}
+	
+	/**
+	 * Removes all the events; the capacity of the heap is retained.
+	 */
+	public void clear()
+	{
+		size = 0;
+	}
+}
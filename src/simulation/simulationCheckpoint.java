@@ -0,0 +1,285 @@
+package simulation;
+
+import org.javatuples.Sextet;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Represents an append-only checkpoint file of the completed chunks of replications of a single
+ * (model, network, t0, runs, r, p) in {@link simulationRuns#simulateRuns}.
+ * <p>
+ *     The file starts with a header (the 6-tuple, the seed and the number of replications per chunk),
+ *     followed by one record per completed chunk: the index of the chunk and, for each replication in the chunk,
+ *     the length of the sample path, the labels of the infected nodes and the virtual detections (one byte each).
+ *     Since the random number generator of every chunk is derived from the seed by splitting in a fixed order,
+ *     the set of completed chunks is all that is needed to resume the random number streams;
+ *     the remaining chunks are simulated exactly as in an uninterrupted run.
+ * </p>
+ * <p>
+ *     A record that was only partly written (for example, if the program was killed) is discarded when the
+ *     checkpoint is restored.
+ *     Records are buffered, and flushed to disk when a chunk completes and at least
+ *     {@code checkpointIntervalInSeconds} seconds have elapsed since the last flush.
+ * </p>
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+class simulationCheckpoint implements Closeable
+{
+	/**
+	 * Tag at the start of a checkpoint file.
+	 */
+	static final String FILE_TAG = "simulationCheckpoint.v1";
+	
+	/**
+	 * Path of the checkpoint file.
+	 */
+	final Path path;
+	
+	/**
+	 * (model, network name, t0, runs, false negative probability, transmissability) of the replications.
+	 */
+	final Sextet<String, String, Integer, Integer, Double, Double> key;
+	
+	/**
+	 * Seed of the random number generators.
+	 */
+	final long seed;
+	
+	/**
+	 * Number of replications in a chunk.
+	 */
+	final int replicationsPerChunk;
+	
+	/**
+	 * Minimum time (in milliseconds) between two writes to disk.
+	 */
+	final long checkpointIntervalInMillis;
+	
+	/**
+	 * Output stream of the checkpoint file; {@code null} until {@link simulationCheckpoint#restore} is called.
+	 */
+	DataOutputStream out;
+	
+	/**
+	 * Time (in milliseconds) of the last write to disk.
+	 */
+	long lastFlush;
+	
+	/**
+	 * Constructor.
+	 *
+	 * @param filename path of the checkpoint file
+	 * @param key (model, network name, t0, runs, false negative probability, transmissability)
+	 * @param seed seed of the random number generators
+	 * @param replicationsPerChunk number of replications in a chunk
+	 * @param checkpointIntervalInSeconds minimum time (in seconds) between two writes to disk.
+	 */
+	simulationCheckpoint(String filename, Sextet<String, String, Integer, Integer, Double, Double> key, long seed,
+	                     int replicationsPerChunk, int checkpointIntervalInSeconds)
+	{
+		this.path = Paths.get(filename);
+		this.key = key;
+		this.seed = seed;
+		this.replicationsPerChunk = replicationsPerChunk;
+		this.checkpointIntervalInMillis = 1000L*checkpointIntervalInSeconds;
+	}
+	
+	/**
+	 * Reads the completed chunks from the checkpoint file into {@code samplePathRuns}
+	 * and {@code samplePathVirtualDetections}, and opens the file for appending new chunks.
+	 * If the file does not exist, or belongs to different replications, a new file is started.
+	 *
+	 * @param samplePathRuns list of sample paths (of size runs) to be filled
+	 * @param samplePathVirtualDetections list of virtual detections (of size runs) to be filled.
+	 * @return the set of indices of the completed chunks.
+	 * @throws IOException thrown if the checkpoint file cannot be read or written.
+	 */
+	BitSet restore(List<List<Integer>> samplePathRuns, List<List<Integer>> samplePathVirtualDetections)
+			throws IOException
+	{
+		BitSet completedChunks = new BitSet();
+		long validLength = 0;
+		if (Files.exists(path))
+		{
+			try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path))))
+			{
+				if (readHeader(in))
+				{
+					validLength = headerLength();
+					while (true)
+					{
+						int chunk = in.readInt();
+						int from = chunk*replicationsPerChunk;
+						int to = Math.min(samplePathRuns.size(), from+replicationsPerChunk);
+						if ((chunk<0) || (from>=to))
+							break;
+						long recordLength = 4;
+						List<List<Integer>> paths = new ArrayList<>(to-from);
+						List<List<Integer>> detections = new ArrayList<>(to-from);
+						for (int x=from; x<to; x++)
+						{
+							int size = in.readInt();
+							List<Integer> samplePath = new ArrayList<>(size);
+							for (int j=0; j<size; j++)
+								samplePath.add(in.readInt());
+							List<Integer> virtualDetections = new ArrayList<>(size);
+							for (int j=0; j<size; j++)
+								virtualDetections.add((int) in.readByte());
+							paths.add(samplePath);
+							detections.add(virtualDetections);
+							recordLength += 4+5L*size;
+						}
+						for (int x=from; x<to; x++)
+						{
+							samplePathRuns.set(x, paths.get(x-from));
+							samplePathVirtualDetections.set(x, detections.get(x-from));
+						}
+						completedChunks.set(chunk);
+						validLength += recordLength;
+					}
+				}
+			}
+			catch (EOFException e)
+			{
+				// last record was only partly written
+			}
+		}
+		if (completedChunks.isEmpty())
+		{
+			out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)));
+			writeHeader(out);
+			out.flush();
+		}
+		else
+		{
+			try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE))
+			{
+				channel.truncate(validLength);
+			}
+			out = new DataOutputStream(new BufferedOutputStream(
+									Files.newOutputStream(path, StandardOpenOption.APPEND)));
+			System.out.println("Resuming from checkpoint \""+path+"\": "+completedChunks.cardinality()
+									+" chunks of "+replicationsPerChunk+" replications already completed.");
+		}
+		lastFlush = System.currentTimeMillis();
+		return completedChunks;
+	}
+	
+	/**
+	 * Appends a completed chunk, and flushes the buffered records to disk if the checkpoint interval has elapsed.
+	 *
+	 * @param chunk index of the chunk
+	 * @param samplePathRuns list of sample paths
+	 * @param samplePathVirtualDetections list of virtual detections.
+	 * @throws IOException thrown if the checkpoint file cannot be written.
+	 */
+	void append(int chunk, List<List<Integer>> samplePathRuns, List<List<Integer>> samplePathVirtualDetections)
+			throws IOException
+	{
+		int from = chunk*replicationsPerChunk;
+		int to = Math.min(samplePathRuns.size(), from+replicationsPerChunk);
+		out.writeInt(chunk);
+		for (int x=from; x<to; x++)
+		{
+			List<Integer> samplePath = samplePathRuns.get(x);
+			List<Integer> virtualDetections = samplePathVirtualDetections.get(x);
+			out.writeInt(samplePath.size());
+			for (int label: samplePath)
+				out.writeInt(label);
+			for (int detection: virtualDetections)
+				out.writeByte(detection);
+		}
+		long now = System.currentTimeMillis();
+		if (now-lastFlush>=checkpointIntervalInMillis)
+		{
+			out.flush();
+			lastFlush = now;
+		}
+	}
+	
+	/**
+	 * Writes any buffered records to disk, and closes the checkpoint file.
+	 *
+	 * @throws IOException thrown if the checkpoint file cannot be written.
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		if (out!=null)
+		{
+			out.close();
+			out = null;
+		}
+	}
+	
+	/**
+	 * Closes and deletes the checkpoint file; called once all the replications are completed.
+	 *
+	 * @throws IOException thrown if the checkpoint file cannot be deleted.
+	 */
+	void delete() throws IOException
+	{
+		close();
+		Files.deleteIfExists(path);
+	}
+	
+	/**
+	 * Writes the header.
+	 *
+	 * @param out output stream.
+	 * @throws IOException thrown if the header cannot be written.
+	 */
+	private void writeHeader(DataOutputStream out) throws IOException
+	{
+		out.writeUTF(FILE_TAG);
+		out.writeUTF(key.getValue0());
+		out.writeUTF(key.getValue1());
+		out.writeInt(key.getValue2());
+		out.writeInt(key.getValue3());
+		out.writeDouble(key.getValue4());
+		out.writeDouble(key.getValue5());
+		out.writeLong(seed);
+		out.writeInt(replicationsPerChunk);
+	}
+	
+	/**
+	 * Reads the header, and checks if it matches the replications of this checkpoint.
+	 *
+	 * @param in input stream.
+	 * @return {@code true}, if the header matches; {@code false}, otherwise.
+	 * @throws IOException thrown if the header cannot be read.
+	 */
+	private boolean readHeader(DataInputStream in) throws IOException
+	{
+		return in.readUTF().equals(FILE_TAG)
+				&& in.readUTF().equals(key.getValue0())
+				&& in.readUTF().equals(key.getValue1())
+				&& (in.readInt()==key.getValue2())
+				&& (in.readInt()==key.getValue3())
+				&& (in.readDouble()==key.getValue4())
+				&& (in.readDouble()==key.getValue5())
+				&& (in.readLong()==seed)
+				&& (in.readInt()==replicationsPerChunk);
+	}
+	
+	/**
+	 * Returns the length (in bytes) of the header.
+	 *
+	 * @return the length of the header.
+	 * @throws IOException never thrown for in-memory streams.
+	 */
+	private long headerLength() throws IOException
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		writeHeader(new DataOutputStream(bytes));
+		return bytes.size();
+	}
+}
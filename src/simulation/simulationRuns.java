@@ -1,14 +1,18 @@
 package simulation;
 
 import network.graph;
+import network.indexedGraph;
 import org.javatuples.Pair;
 import org.javatuples.Sextet;
-import org.jgrapht.Graphs;
 
 import java.io.*;
 import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
 
 /**
  * Represents results of simulation runs.
@@ -35,6 +39,26 @@ public class simulationRuns
 	Map<Sextet<String, String, Integer, Integer, Double, Double>, List<List<Integer>>>
 																mapModelNetworkT0RunsFalseNegativeToVirtualDetections;
 	
+	/**
+	 * Number of replications in a chunk of work in
+	 * {@link simulationRuns#simulateRuns(graph, spreadModel, List, double, long, int)}.
+	 * Random number streams are derived per chunk, so it should not be changed
+	 * if results have to be reproducible.
+	 */
+	static final int REPLICATIONS_PER_CHUNK = 1024;
+	
+	/**
+	 * Path of the serialized simulation results used as the on-disk store for checkpoints;
+	 * {@code null} if checkpoints are disabled.
+	 * See {@link simulationRuns#enableCheckpoints(String, int)}.
+	 */
+	String checkpointStore;
+	
+	/**
+	 * Minimum time (in seconds) between two writes of a checkpoint to disk.
+	 */
+	int checkpointIntervalInSeconds;
+	
 	/**
 	 * Constructor.
 	 *
@@ -82,170 +106,6 @@ public class simulationRuns
 		return mapModelNetworkT0RunsFalseNegativeToVirtualDetections;
 	}
 	
-	/**
-	 * Function to simulate several runs of TN11C spread models where detectors are completely reliable.
-	 * See Lee, Jinho. Stochastic optimization models for rapid detection of viruses in cellphone networks. Diss. 2012.
-	 * Each detector has a reliability of 1-r, where r is false negative probability of the detectors.
-	 * T: Virus transits from vertex to vertex;
-	 * N: Only newly infected vertices distribute the virus;
-	 * 1: Virus propagates to 1 randomly selected neighbor;
-	 * P: Virus is transmissable w.p. p;
-	 * C: Transmission occurs in constant time steps.
-	 *
-	 * @param g network graph
-	 * @param t0_runs list of a pair of (t0, runs), where t0 is simulation time,
-	 *                   and runs is number of repetitions of simulation
-	 * @param r false negative probability
-	 * @param seed an array of length 2 (for {@code r=0}) or 3 (for {@code r>0});
-	 *             the first seed is for the initial random location of the virus,
-	 *             the second is for random choice of neighbor while spreading,
-	 *             and the third is for virtual detections.
-	 * @throws Exception exception thrown if length of {@code seed} is not {2, 3},
-	 *      or if the graph {@code g} has self-loops.
-	 */
-	public void simulateTN11CRuns(graph g, List<Pair<Integer, Integer>> t0_runs, double r, int[] seed) throws Exception
-	{
-		if ((seed.length!=2) && (seed.length!=3))
-			throw new Exception("Seed array should either be of length 2 (for r=0) or of length 3 (for r>0)!");
-		if (g.hasSelfLoops())
-			throw new Exception("Graphs has self-loops!");
-		
-		// transmissability
-		double p = 1.0;
-		String modelName = "TN11C";
-		
-		for (Pair<Integer, Integer> v: t0_runs)
-		{
-			int time0 = v.getValue0();
-			int rep = v.getValue1();
-			SplittableRandom initialLocationGenChoice = new SplittableRandom(seed[0]+time0+rep);
-			SplittableRandom neighborGenChoice = new SplittableRandom(seed[1]+time0+rep);
-			int[] initialLocationRuns = getInitialLocationRuns(g, initialLocationGenChoice, rep);
-			
-			List<List<Integer>> samplePathRuns = new ArrayList<>(rep);
-			
-			System.out.println("Starting simulation: "+modelName+" spread model on "+g.getNetworkName()
-					+"network; "+rep+" repetitions with "+time0+" time step for each repetition; false negative prob.="
-					+r+"; transmissability (p)="+p);
-			for (int x=0; x<rep; x++)
-			{
-				//System.out.println("\t Simulation run "+(x+1));
-				int initialLocation = initialLocationRuns[x];
-				//System.out.println("\t Initial location of virus: "+initialLocation);
-				List<Integer> infected = new ArrayList<>(time0);
-				
-				// time step 0
-				int currentInfected = initialLocation;
-				infected.add(currentInfected);
-				
-				for (int t=1; t<=time0; t++)
-				{
-					//System.out.println("\t\t Time: "+t);
-					currentInfected = getRandomInfectedNeighbor(g, neighborGenChoice, currentInfected);
-					infected.add(currentInfected);
-					//System.out.println("\t\t Current infected node: "+currentInfected);
-				}
-				samplePathRuns.add(infected);
-			}
-			System.out.println("Ending simulation: "+modelName+" spread model on "+g.getNetworkName()
-					+"network; "+rep+" repetitions with "+time0+" time step for each repetition; false negative prob.="
-					+r+"; transmissability (p)="+p);
-			Sextet<String, String, Integer, Integer, Double, Double> key =
-													new Sextet<>(modelName, g.getNetworkName(), time0, rep, r, p);
-			mapModelNetworkT0RunsFalseNegativeToSimulationRuns.put(key, samplePathRuns);
-			//virtual detections
-			if (r>0)
-			{
-				SplittableRandom reliabilityGenChoice = new SplittableRandom(seed[2]+time0+rep);
-				mapModelNetworkT0RunsFalseNegativeToVirtualDetections.put(key, new ArrayList<>(rep));
-				IntStream.range(0, rep).mapToObj(i -> IntStream.range(0, (time0 + 1))
-								.mapToObj(j -> reliabilityGenChoice.nextDouble() < r ? 0 : 1)
-								.collect(Collectors.toCollection(() -> new ArrayList<>(time0 + 1))))
-								.forEach(timeList -> mapModelNetworkT0RunsFalseNegativeToVirtualDetections.get(key)
-								.add(new ArrayList<>(timeList)));
-			}
-			else
-			{
-				List<List<Integer>> samplePathVirtualDetections = IntStream.range(0, rep)
-									.mapToObj(i -> IntStream.rangeClosed(0, time0)
-									.mapToObj(j -> 1)
-									.collect(Collectors.toList()))
-									.collect(Collectors.toList());
-				mapModelNetworkT0RunsFalseNegativeToVirtualDetections.put(key, samplePathVirtualDetections);
-			}
-		}
-	}
-	
-	/**
-	 * Get the random initial locations of the virus.
-	 *
-	 * @param g network graph
-	 * @param initialLocationGenChoice an instance of {@code SplittableRandom}
-	 *                                    to randomly choose the initial location of the virus
-	 * @param size length of output array.
-	 * @return returns an array of the initial locations of the virus.
-	 */
-	private int[] getInitialLocationRuns(graph g, SplittableRandom initialLocationGenChoice, int size)
-	{
-		List<Integer> vertices = new ArrayList<>(g.getG().vertexSet());
-		int[] initialLocationRunsIndices = initialLocationGenChoice.ints(size, 0, g.getG()
-																	.vertexSet().size()).toArray();
-		return Arrays.stream(initialLocationRunsIndices).map(vertices::get).toArray();
-	}
-	
-	/**
-	 * Chooses a neighbor uniformly at random to infect.
-	 *
-	 * @param g network graph
-	 * @param neighborGenChoice an instance of SplittableRandom
-	 * @param currentInfected the current infected node  (one of its neighboring vertex is randomly infected).
-	 * @return returns the vertex that is infected.
-	 */
-	private int getRandomInfectedNeighbor(graph g, SplittableRandom neighborGenChoice, int currentInfected)
-	{
-		List<Integer> currentNeighbors = Graphs.neighborListOf(g.getG(), currentInfected);
-		int rnd = neighborGenChoice.nextInt(currentNeighbors.size());
-		currentInfected = currentNeighbors.get(rnd);
-		return currentInfected;
-	}
-	
-	/**
-	 * Runs simulation for only those {@code t0_runs}
-	 * which are not already there in {@code mapModelNetworkT0RunsFalseNegativeToSimulationRuns}.
-	 *
-	 * @param g network graph
-	 * @param t0_runs array of a pair of (t0, runs), where t0 is simulation time,
-	 *                   and runs is number of repetitions of simulation
-	 * @param r false negative probability
-	 * @param seed an array of length 2; the first seed is for the initial random location of the virus,
-	 *              and the second is for random choice of neighbor while spreading.
-	 * @return returns true, if new simulations were run; false, otherwise.
-	 * @throws Exception exception thrown if length of {@code seed} is not {2, 3}.
-	 */
-	public boolean simulateOnlyNecessaryTN11CRuns(graph g, List<Pair<Integer, Integer>> t0_runs,
-	                                              double r, int[] seed) throws Exception
-	{
-		// transmissability
-		double p = 1.0;
-		String modelName = "TN11C";
-		boolean ranNewSimulations = false;
-		List<Pair<Integer, Integer>> new_t0_runs = new ArrayList<>();
-		for (Pair<Integer, Integer> time0_run : t0_runs)
-		{
-			Sextet<String, String, Integer, Integer, Double, Double> newKey;
-			newKey = new Sextet<>(modelName, g.getNetworkName(), time0_run.getValue0(), time0_run.getValue1(), r, p);
-			if (!mapModelNetworkT0RunsFalseNegativeToSimulationRuns.containsKey(newKey))
-				new_t0_runs.add(time0_run);
-		}
-		if (new_t0_runs.size() > 0)
-		{
-			System.out.println("Running more simulations for: "+new_t0_runs.toString());
-			simulateTN11CRuns(g, new_t0_runs, r, seed);
-			ranNewSimulations = true;
-		}
-		return ranNewSimulations;
-	}
-	
 	/**
 	 * Loads any simulation runs from serialized object in file.
 	 *
@@ -324,292 +184,310 @@ public class simulationRuns
 	}
 	
 	/**
-	 * Function to simulate several runs of RA1PC spread model where detectors may give false negative results.
-	 * See Lee, Jinho. Stochastic optimization models for rapid detection of viruses in cellphone networks. Diss. 2012.
-	 * Each detector has a reliability of 1-r, where r is false negative probability of the detectors.
-	 * R: Virus replicates itself and sends copies;
-	 * A: All infected vertices distribute the virus;
-	 * 1: Virus propagates to 1 randomly selected neighbor;
-	 * P: Virus is transmissable w.p. p;
-	 * C: Transmission occurs in constant time steps.
+	 * Enables checkpoints in {@link simulationRuns#simulateRuns(graph, spreadModel, List, double, long, int)}.
+	 * Completed chunks of replications of the (t0, runs) being simulated are appended to
+	 * {@code serialFilename+".checkpoint"}, which is flushed to disk at least every
+	 * {@code checkpointIntervalInSeconds} seconds (when a chunk completes).
+	 * Once all the replications of a (t0, runs) are completed, all the simulation results are serialized to
+	 * {@code serialFilename} (see {@link simulationRuns#serializeRuns(String)}) and the checkpoint is deleted.
+	 * <p>
+	 *     To resume an interrupted run, load {@code serialFilename} with
+	 *     {@link simulationRuns#loadRunsFromFile(String)}, enable checkpoints with the same arguments, and call
+	 *     {@link simulationRuns#simulateOnlyNecessaryRuns} with the same seed; the results are identical to those
+	 *     of an uninterrupted run.
+	 * </p>
+	 *
+	 * @param serialFilename path of the file where the serialized simulation results are stored
+	 * @param checkpointIntervalInSeconds minimum time (in seconds) between two writes of a checkpoint to disk.
+	 * @throws Exception thrown if {@code checkpointIntervalInSeconds<0}.
+	 */
+	public void enableCheckpoints(String serialFilename, int checkpointIntervalInSeconds) throws Exception
+	{
+		if (checkpointIntervalInSeconds<0)
+			throw new Exception("Invalid checkpoint interval!");
+		this.checkpointStore = serialFilename;
+		this.checkpointIntervalInSeconds = checkpointIntervalInSeconds;
+	}
+	
+	/**
+	 * Function to simulate several runs of a spread model, where detectors may give false negative results.
+	 * This is the shared driver for all the models implementing {@link spreadModel}:
+	 * it chooses the initial locations of the virus, derives the random number streams,
+	 * distributes the replications over threads, and stores the sample paths and virtual detections.
+	 * <p>
+	 *     Replications are split into chunks of {@link simulationRuns#REPLICATIONS_PER_CHUNK} replications.
+	 *     For each (t0, runs), a generator seeded with {@code seed+t0+runs} is split once per chunk (in order),
+	 *     and the generator of a chunk is split once per replication (in order).
+	 *     The generator of a replication draws the initial location, is split into the streams needed by the
+	 *     model, and then draws the virtual detections (in the order of the sample path).
+	 *     Hence, the results do not depend on the number of threads,
+	 *     and runs with the same {@code seed} but different {@code r} share the same sample paths.
+	 * </p>
+	 * <p>
+	 *     If checkpoints are enabled (see {@link simulationRuns#enableCheckpoints(String, int)}),
+	 *     completed chunks are written to a checkpoint, and only the chunks missing from the checkpoint are
+	 *     simulated.
+	 * </p>
 	 *
 	 * @param g network graph
+	 * @param model spread model
 	 * @param t0_runs list of a pair of (t0, runs), where t0 is simulation time,
 	 *                and runs is number of repetitions of simulation
 	 * @param r false negative probability
-	 * @param p transmissability probability
-	 * @param seed an array of length 3 (for {@code r=0}) or 4 (for {@code r>0});
-	 *             the first seed is for the initial random location of the virus,
-	 *             the second is for random choice of neighbor while spreading,
-	 *             the third is for transmissability,
-	 *             and the fourth is for virtual detections.
-	 * @throws Exception exception thrown if length of {@code seed} is not {3, 4},
-	 *  or if the graph {@code g} has self-loops,
-	 *  or if {@code p<=0}.
+	 * @param seed seed of the random number generators
+	 * @param threads number of threads.
+	 * @throws Exception exception thrown if the graph {@code g} has self-loops, or if {@code threads<1}.
 	 */
-	public void simulateRA1PCRuns(graph g, List<Pair<Integer, Integer>> t0_runs, double r,
-	                              double p, int[] seed) throws Exception
+	public void simulateRuns(graph g, spreadModel model, List<Pair<Integer, Integer>> t0_runs, double r,
+	                         long seed, int threads) throws Exception
 	{
-		if ((seed.length!=3) && (seed.length!=4))
-			throw new Exception("Seed array should either be of length 3 (for r=0) or of length 4 (for r>0)!");
 		if (g.hasSelfLoops())
 			throw new Exception("Graphs has self-loops!");
-		if (p<=0)
-			throw new Exception("Invalid value of p!");
+		if (threads<1)
+			throw new Exception("Invalid number of threads!");
 		
-		String modelName = "RA1PC";
+		String modelName = model.getModelName();
+		double p = model.getTransmissability();
+		indexedGraph indexedG = new indexedGraph(g);
 		for (Pair<Integer, Integer> v: t0_runs)
 		{
 			int time0 = v.getValue0();
 			int rep = v.getValue1();
-			SplittableRandom initialLocationGenChoice = new SplittableRandom(seed[0]+time0+rep);
-			SplittableRandom neighborGenChoice = new SplittableRandom(seed[1]+time0+rep);
-			SplittableRandom transmissableGen = new SplittableRandom(seed[2]+time0+rep);
-			int[] initialLocationRuns = getInitialLocationRuns(g, initialLocationGenChoice, rep);
+			int numberOfChunks = (rep+REPLICATIONS_PER_CHUNK-1)/REPLICATIONS_PER_CHUNK;
+			SplittableRandom masterGen = new SplittableRandom(seed+time0+rep);
+			SplittableRandom[] chunkGens = new SplittableRandom[numberOfChunks];
+			for (int c=0; c<numberOfChunks; c++)
+				chunkGens[c] = masterGen.split();
 			
-			List<List<Integer>> samplePathRuns = new ArrayList<>(rep);
+			// workers write to distinct positions
+			List<List<Integer>> samplePathRuns = new ArrayList<>(Collections.nCopies(rep, null));
+			List<List<Integer>> samplePathVirtualDetections = new ArrayList<>(Collections.nCopies(rep, null));
 			
 			System.out.println("Starting simulation: "+modelName+" spread model on "+g.getNetworkName()
 					+"network; "+rep+" repetitions with "+time0+" time step for each repetition; false negative prob.="
-					+r+"; transmissability (p)="+p);
-			for (int x=0; x<rep; x++)
+					+r+"; transmissability (p)="+p+"; threads="+threads);
+			Sextet<String, String, Integer, Integer, Double, Double> key =
+					new Sextet<>(modelName, g.getNetworkName(), time0, rep, r, p);
+			simulationCheckpoint checkpoint = null;
+			BitSet completedChunks = new BitSet(numberOfChunks);
+			if (checkpointStore!=null)
+			{
+				checkpoint = new simulationCheckpoint(checkpointStore+".checkpoint", key, seed,
+														REPLICATIONS_PER_CHUNK, checkpointIntervalInSeconds);
+				completedChunks = checkpoint.restore(samplePathRuns, samplePathVirtualDetections);
+			}
+			int workers = Math.max(1, Math.min(threads, numberOfChunks-completedChunks.cardinality()));
+			ExecutorService executor = Executors.newFixedThreadPool(workers);
+			try
 			{
-				//System.out.println("\t Simulation run "+(x+1));
-				int initialLocation = initialLocationRuns[x];
-				//System.out.println("\t Initial location of virus: "+initialLocation);
-				SortedSet<Integer> infected = new TreeSet<>();
-				
-				// time step 0
-				infected.add(initialLocation);
-				
-				for (int t=1; t<=time0; t++)
+				ThreadLocal<spreadKernel> kernels = ThreadLocal.withInitial(() -> model.createKernel(indexedG));
+				CompletionService<Integer> completionService = new ExecutorCompletionService<>(executor);
+				int submitted = 0;
+				for (int c=completedChunks.nextClearBit(0); c<numberOfChunks; c=completedChunks.nextClearBit(c+1))
+				{
+					final int chunk = c;
+					completionService.submit(() -> {
+						simulateChunk(kernels.get(), model.getNumberOfRandomStreams(), chunkGens[chunk], chunk, time0,
+										r, samplePathRuns, samplePathVirtualDetections, 0);
+						return chunk;
+					});
+					submitted++;
+				}
+				for (int i=0; i<submitted; i++)
 				{
-					//System.out.println("\t\t Time: "+t);
-					List<Integer> tmpInfected = infected.stream()
-												.mapToInt(node -> getRandomInfectedNeighbor(g, neighborGenChoice, node))
-												.filter(currentTarget -> transmissableGen.nextDouble() <= p)
-												.boxed().collect(Collectors.toList());
-					infected.addAll(tmpInfected);
-					//System.out.println("\t\t\t Newly infected nodes: "+tmpInfected.toString());
-					//System.out.println("\t\t Infected nodes: "+infected.toString());
+					int chunk = completionService.take().get();
+					if (checkpoint!=null)
+						checkpoint.append(chunk, samplePathRuns, samplePathVirtualDetections);
 				}
-				samplePathRuns.add(new ArrayList<>(infected));
+			}
+			finally
+			{
+				executor.shutdownNow();
+				if (checkpoint!=null)
+					checkpoint.close();
 			}
 			System.out.println("Ending simulation: "+modelName+" spread model on "+g.getNetworkName()
 					+"network; "+rep+" repetitions with "+time0+" time step for each repetition; false negative prob.="
-					+r+"; transmissability (p)="+p);
-			//System.out.println("Sample paths: \n"+samplePathRuns.toString());
-			Sextet<String, String, Integer, Integer, Double, Double> key =
-					new Sextet<>(modelName, g.getNetworkName(), time0, rep, r, p);
+					+r+"; transmissability (p)="+p+"; threads="+threads);
 			mapModelNetworkT0RunsFalseNegativeToSimulationRuns.put(key, samplePathRuns);
-			//virtual detections
-			List<List<Integer>> samplePathVirtualDetections;
-			if (r>0)
-			{
-				SplittableRandom reliabilityGenChoice = new SplittableRandom(seed[3]+time0+rep);
-				samplePathVirtualDetections = samplePathRuns.stream()
-								.map(samplePathRun -> IntStream.range(0, samplePathRun.size())
-								.mapToObj(j -> reliabilityGenChoice.nextDouble() < r ? 0 : 1)
-								.collect(Collectors.toList()))
-								.collect(Collectors.toCollection(() -> new ArrayList<>(samplePathRuns.size())));
-			}
-			else
+			mapModelNetworkT0RunsFalseNegativeToVirtualDetections.put(key, samplePathVirtualDetections);
+			if (checkpoint!=null)
 			{
-				samplePathVirtualDetections = samplePathRuns.stream()
-								.map(samplePathRun -> IntStream.range(0, samplePathRun.size())
-								.mapToObj(j -> 1)
-								.collect(Collectors.toList()))
-								.collect(Collectors.toList());
+				serializeRuns(checkpointStore);
+				checkpoint.delete();
 			}
-			mapModelNetworkT0RunsFalseNegativeToVirtualDetections.put(key, samplePathVirtualDetections);
 		}
 	}
 	
+	/**
+	 * Function to simulate several runs of a spread model using all available processors.
+	 * See {@link simulationRuns#simulateRuns(graph, spreadModel, List, double, long, int)}.
+	 *
+	 * @param g network graph
+	 * @param model spread model
+	 * @param t0_runs list of a pair of (t0, runs), where t0 is simulation time,
+	 *                and runs is number of repetitions of simulation
+	 * @param r false negative probability
+	 * @param seed seed of the random number generators.
+	 * @throws Exception exception thrown if the graph {@code g} has self-loops.
+	 */
+	public void simulateRuns(graph g, spreadModel model, List<Pair<Integer, Integer>> t0_runs, double r,
+	                         long seed) throws Exception
+	{
+		simulateRuns(g, model, t0_runs, r, seed, Runtime.getRuntime().availableProcessors());
+	}
+	
 	/**
 	 * Runs simulation for only those {@code t0_runs}
 	 * which are not already there in {@code mapModelNetworkT0RunsFalseNegativeToSimulationRuns}.
 	 *
 	 * @param g network graph
+	 * @param model spread model
 	 * @param t0_runs list of a pair of (t0, runs), where t0 is simulation time,
 	 *                and runs is number of repetitions of simulation
 	 * @param r false negative probability
-	 * @param p transmissability probability
-	 * @param seed an array of length 3 (for {@code r=0}) or 4 (for {@code r>0});
-	 *             the first seed is for the initial random location of the virus,
-	 *             the second is for random choice of neighbor while spreading,
-	 *             the third is for transmissability,
-	 *             and the fourth is for virtual detections.
+	 * @param seed seed of the random number generators.
 	 * @return returns true, if new simulations were run; false, otherwise.
-	 * @throws Exception exception thrown if length of {@code seed} is not {3, 4},
-	 *  or if the graph {@code g} has self-loops,
-	 *  or if {@code p<=0}.
+	 * @throws Exception exception thrown if the graph {@code g} has self-loops.
 	 */
-	public boolean simulateOnlyNecessaryRA1PCRuns(graph g, List<Pair<Integer, Integer>> t0_runs,
-	                                              double r, double p, int[] seed) throws Exception
+	public boolean simulateOnlyNecessaryRuns(graph g, spreadModel model, List<Pair<Integer, Integer>> t0_runs,
+	                                         double r, long seed) throws Exception
 	{
-		String modelName = "RA1PC";
 		boolean ranNewSimulations = false;
 		List<Pair<Integer, Integer>> new_t0_runs = new ArrayList<>();
 		for (Pair<Integer, Integer> time0_run : t0_runs)
 		{
 			Sextet<String, String, Integer, Integer, Double, Double> newKey;
-			newKey = new Sextet<>(modelName, g.getNetworkName(), time0_run.getValue0(), time0_run.getValue1(), r, p);
+			newKey = new Sextet<>(model.getModelName(), g.getNetworkName(), time0_run.getValue0(),
+									time0_run.getValue1(), r, model.getTransmissability());
 			if (!mapModelNetworkT0RunsFalseNegativeToSimulationRuns.containsKey(newKey))
 				new_t0_runs.add(time0_run);
 		}
 		if (new_t0_runs.size() > 0)
 		{
 			System.out.println("Running more simulations for: "+new_t0_runs.toString());
-			simulateRA1PCRuns(g, new_t0_runs, r, p, seed);
+			simulateRuns(g, model, new_t0_runs, r, seed);
 			ranNewSimulations = true;
 		}
 		return ranNewSimulations;
 	}
 	
 	/**
-	 * Function to simulate several runs of RAEPC spread models where detectors may give false negative results.
-	 * See Lee, Jinho. Stochastic optimization models for rapid detection of viruses in cellphone networks. Diss. 2012.
-	 * R: Virus replicates itself and sends copies;
-	 * A: All infected vertices distribute the virus;
-	 * E: Virus propagates to every neighbor;
-	 * P: Virus is transmissable w.p. p;
-	 * C: Transmission occurs in constant time steps.
+	 * Simulates replications of a spread model, and passes each replication to {@code consumer} instead of
+	 * storing it (nothing is added to the maps of simulation results).
+	 * <p>
+	 *     Replications are simulated in chunks, exactly as in
+	 *     {@link simulationRuns#simulateRuns(graph, spreadModel, List, double, long, int)} (with the same seed, they
+	 *     are the same replications), but only a window of {@code 2*threads} chunks is kept in memory at a time.
+	 *     {@code consumer} is called from the calling thread, in the order of the replications.
+	 * </p>
 	 *
 	 * @param g network graph
-	 * @param t0_runs list of a pair of (t0, runs), where t0 is simulation time,
-	 *                and runs is number of repetitions of simulation
+	 * @param model spread model
+	 * @param time0 simulation time
+	 * @param rep number of repetitions of simulation
 	 * @param r false negative probability
-	 * @param p transmissability probability
-	 * @param seed an array of length 2 (for {@code r=0}) or 3 (for {@code r>0});
-	 *             the first seed is for the initial random location of the virus,
-	 *             the second is for transmissability,
-	 *             and the third is for virtual detections.
-	 * @throws Exception exception thrown if length of {@code seed} is not {2, 3},
-	 *  or if the graph {@code g} has self-loops,
-	 *  or if {@code p<=0}.
+	 * @param seed seed of the random number generators
+	 * @param threads number of threads
+	 * @param consumer called with the sample path and the virtual detections of each replication.
+	 * @throws Exception exception thrown if the graph {@code g} has self-loops, or if {@code threads<1},
+	 *  or if a chunk cannot be simulated.
 	 */
-	public void simulateRAEPCRuns(graph g, List<Pair<Integer, Integer>> t0_runs, double r,
-	                              double p, int[] seed) throws Exception
+	public static void streamRuns(graph g, spreadModel model, int time0, int rep, double r, long seed, int threads,
+	                              BiConsumer<List<Integer>, List<Integer>> consumer) throws Exception
 	{
-		if ((seed.length!=2) && (seed.length!=3))
-			throw new Exception("Seed array should either be of length 2 (for r=0) or of length 3 (for r>0)!");
 		if (g.hasSelfLoops())
 			throw new Exception("Graphs has self-loops!");
-		if (p<=0)
-			throw new Exception("Invalid value of p!");
+		if (threads<1)
+			throw new Exception("Invalid number of threads!");
 		
-		String modelName = "RAEPC";
-		for (Pair<Integer, Integer> v: t0_runs)
+		indexedGraph indexedG = new indexedGraph(g);
+		int numberOfChunks = (rep+REPLICATIONS_PER_CHUNK-1)/REPLICATIONS_PER_CHUNK;
+		SplittableRandom masterGen = new SplittableRandom(seed+time0+rep);
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, numberOfChunks)));
+		try
 		{
-			int time0 = v.getValue0();
-			int rep = v.getValue1();
-			SplittableRandom initialLocationGenChoice = new SplittableRandom(seed[0]+time0+rep);
-			SplittableRandom transmissableGen = new SplittableRandom(seed[1]+time0+rep);
-			int[] initialLocationRuns = getInitialLocationRuns(g, initialLocationGenChoice, rep);
-			
-			List<List<Integer>> samplePathRuns = new ArrayList<>(rep);
-			System.out.println("Starting simulation: "+modelName+" spread model on "+g.getNetworkName()
-					+"network; "+rep+" repetitions with "+time0+" time step for each repetition; false negative prob.="
-					+r+"; transmissability (p)="+p);
-			for (int x=0; x<rep; x++)
+			ThreadLocal<spreadKernel> kernels = ThreadLocal.withInitial(() -> model.createKernel(indexedG));
+			Deque<Future<Pair<List<List<Integer>>, List<List<Integer>>>>> window = new ArrayDeque<>();
+			int submitted = 0;
+			for (int c=0; c<numberOfChunks; c++)
 			{
-				//System.out.println("\t Simulation run "+(x+1));
-				int initialLocation = initialLocationRuns[x];
-				//System.out.println("\t Initial location of virus: "+initialLocation);
-				SortedSet<Integer> infected = new TreeSet<>();
-				
-				// time step 0
-				infected.add(initialLocation);
-				
-				for (int t=1; t<=time0; t++)
+				while (submitted<Math.min(numberOfChunks, c+2*threads))
 				{
-					//System.out.println("\t\t Time: "+t);
-					List<Integer> tmpInfected = new ArrayList<>();
-					for (Integer node : infected)
-					{
-						List<Integer> tmpList = new ArrayList<>();
-						List<Integer> currentNeighbors = Graphs.neighborListOf(g.getG(), node);
-						currentNeighbors.removeAll(infected);
-						List<Double> currentTransmissable = transmissableGen.doubles(currentNeighbors.size())
-								.boxed().collect(Collectors.toList());
-						IntStream.range(0, currentNeighbors.size()).filter(i -> currentTransmissable.get(i) <= p)
-								.mapToObj(currentNeighbors::get).forEach(tmpList::add);
-						tmpInfected.addAll(tmpList);
-						//System.out.println("\t\t\t Node "+node+" infected node "+tmpList.toString()
-						//		+" of uninfected neighbors "+currentNeighbors.toString()+".");
-					}
-					infected.addAll(tmpInfected);
-					//System.out.println("\n\t\t Current infected nodes: "+infected.toString());
+					final int chunk = submitted;
+					// chunk generators are split in order, as in simulateRuns
+					final SplittableRandom chunkGen = masterGen.split();
+					final int size = Math.min(rep, (chunk+1)*REPLICATIONS_PER_CHUNK)-chunk*REPLICATIONS_PER_CHUNK;
+					window.addLast(executor.submit(() -> {
+						List<List<Integer>> samplePathRuns = new ArrayList<>(Collections.nCopies(size, null));
+						List<List<Integer>> samplePathVirtualDetections =
+																	new ArrayList<>(Collections.nCopies(size, null));
+						simulateChunk(kernels.get(), model.getNumberOfRandomStreams(), chunkGen, chunk, time0,
+												r, samplePathRuns, samplePathVirtualDetections,
+												chunk*REPLICATIONS_PER_CHUNK);
+						return new Pair<>(samplePathRuns, samplePathVirtualDetections);
+					}));
+					submitted++;
 				}
-				samplePathRuns.add(new ArrayList<>(infected));
-			}
-			System.out.println("Ending simulation: "+modelName+" spread model on "+g.getNetworkName()
-					+"network; "+rep+" repetitions with "+time0+" time step for each repetition; false negative prob.="
-					+r+"; transmissability (p)="+p);
-			//System.out.println("Sample paths: \n"+samplePathRuns.toString());
-			Sextet<String, String, Integer, Integer, Double, Double> key =
-					new Sextet<>(modelName, g.getNetworkName(), time0, rep, r, p);
-			mapModelNetworkT0RunsFalseNegativeToSimulationRuns.put(key, samplePathRuns);
-			//virtual detections
-			List<List<Integer>> samplePathVirtualDetections;
-			if (r>0)
-			{
-				SplittableRandom reliabilityGenChoice = new SplittableRandom(seed[2]+time0+rep);
-				samplePathVirtualDetections = samplePathRuns.stream()
-										.map(samplePathRun -> IntStream.range(0, samplePathRun.size())
-										.mapToObj(j -> reliabilityGenChoice.nextDouble() < r ? 0 : 1)
-										.collect(Collectors.toList()))
-										.collect(Collectors.toCollection(() -> new ArrayList<>(samplePathRuns.size())));
+				Pair<List<List<Integer>>, List<List<Integer>>> results = window.removeFirst().get();
+				for (int x=0; x<results.getValue0().size(); x++)
+					consumer.accept(results.getValue0().get(x), results.getValue1().get(x));
 			}
-			else
-			{
-				samplePathVirtualDetections = samplePathRuns.stream()
-										.map(samplePathRun -> IntStream.range(0, samplePathRun.size())
-										.mapToObj(j -> 1)
-										.collect(Collectors.toList()))
-										.collect(Collectors.toList());
-			}
-			mapModelNetworkT0RunsFalseNegativeToVirtualDetections.put(key, samplePathVirtualDetections);
+		}
+		finally
+		{
+			executor.shutdownNow();
 		}
 	}
 	
 	/**
-	 * Runs simulation for only those {@code t0_runs}
-	 * which are not already there in {@code mapModelNetworkT0RunsFalseNegativeToSimulationRuns}.
+	 * Simulates a chunk of replications; called by the workers of
+	 * {@link simulationRuns#simulateRuns(graph, spreadModel, List, double, long, int)}.
 	 *
-	 * @param g network graph
-	 * @param t0_runs list of a pair of (t0, runs), where t0 is simulation time,
-	 *                   and runs is number of repetitions of simulation
+	 * @param kernel kernel of the spread model owned by the worker
+	 * @param numberOfRandomStreams number of random number streams needed by the kernel
+	 * @param chunkGen random number generator of the chunk
+	 * @param chunk index of the chunk
+	 * @param time0 simulation time
 	 * @param r false negative probability
-	 * @param p transmissability probability
-	 * @param seed an array of length 2 (for {@code r=0}) or 3 (for {@code r>0});
-	 *             the first seed is for the initial random location of the virus,
-	 *             the second is for transmissability,
-	 *             and the third is for virtual detections.
-	 * @return returns true, if new simulations were run; false, otherwise.
-	 * @throws Exception exception thrown if length of {@code seed} is not {2, 3},
-	 *  or if the graph {@code g} has self-loops,
-	 *  or if {@code p<=0}.
+	 * @param samplePathRuns list where the sample paths are stored
+	 * @param samplePathVirtualDetections list where the virtual detections are stored
+	 * @param firstIndex replication stored at index 0 of {@code samplePathRuns} and
+	 *                   {@code samplePathVirtualDetections}; the lists end at the last replication.
 	 */
-	public boolean simulateOnlyNecessaryRAEPCRuns(graph g, List<Pair<Integer, Integer>> t0_runs,
-	                                              double r, double p, int[] seed) throws Exception
+	private static void simulateChunk(spreadKernel kernel, int numberOfRandomStreams, SplittableRandom chunkGen, int chunk,
+	                                  int time0, double r, List<List<Integer>> samplePathRuns,
+	                                  List<List<Integer>> samplePathVirtualDetections, int firstIndex)
 	{
-		String modelName = "RAEPC";
-		boolean ranNewSimulations = false;
-		List<Pair<Integer, Integer>> new_t0_runs = new ArrayList<>();
-		for (Pair<Integer, Integer> time0_run : t0_runs)
+		SplittableRandom[] streams = new SplittableRandom[numberOfRandomStreams];
+		int numberOfNodes = kernel.g.getNumberOfNodes();
+		int end = Math.min(firstIndex+samplePathRuns.size(), (chunk+1)*REPLICATIONS_PER_CHUNK);
+		for (int x=chunk*REPLICATIONS_PER_CHUNK; x<end; x++)
 		{
-			Sextet<String, String, Integer, Integer, Double, Double> newKey;
-			newKey = new Sextet<>(modelName, g.getNetworkName(), time0_run.getValue0(), time0_run.getValue1(), r, p);
-			if (!mapModelNetworkT0RunsFalseNegativeToSimulationRuns.containsKey(newKey))
-				new_t0_runs.add(time0_run);
+			SplittableRandom replicationGen = chunkGen.split();
+			int initialNode = replicationGen.nextInt(numberOfNodes);
+			for (int i=0; i<streams.length; i++)
+				streams[i] = replicationGen.split();
+			kernel.simulate(initialNode, time0, streams);
+			List<Integer> samplePath = kernel.getSamplePath();
+			samplePathRuns.set(x-firstIndex, samplePath);
+			samplePathVirtualDetections.set(x-firstIndex, getVirtualDetections(samplePath.size(), r, replicationGen));
 		}
-		if (new_t0_runs.size() > 0)
-		{
-			System.out.println("Running more simulations for: "+new_t0_runs.toString());
-			simulateRAEPCRuns(g, new_t0_runs, r, p, seed);
-			ranNewSimulations = true;
-		}
-		return ranNewSimulations;
+	}
+	
+	/**
+	 * Draws virtual detections for a sample path.
+	 *
+	 * @param size length of the sample path
+	 * @param r false negative probability
+	 * @param reliabilityGenChoice random number generator for virtual detections (not used if {@code r=0}).
+	 * @return list of virtual detections, 0 (not detected) or 1 (detected).
+	 */
+	private static List<Integer> getVirtualDetections(int size, double r, SplittableRandom reliabilityGenChoice)
+	{
+		List<Integer> virtualDetections = new ArrayList<>(size);
+		for (int j=0; j<size; j++)
+			virtualDetections.add((r>0) && (reliabilityGenChoice.nextDouble()<r) ? 0 : 1);
+		return virtualDetections;
 	}
 }
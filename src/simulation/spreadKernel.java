@@ -0,0 +1,162 @@
+package simulation;
+
+import network.indexedGraph;
+
+import java.util.*;
+
+/**
+ * Represents the per-worker state of a {@link spreadModel}, which simulates one replication at a time.
+ * The infected nodes are tracked with an array of stamps (so that the state does not have to be cleared
+ * between replications) and an array of node indices in the order of infection;
+ * all buffers are reused across replications.
+ * An instance is not thread-safe; each worker thread should create its own kernel
+ * using {@link spreadModel#createKernel(indexedGraph)}.
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+public abstract class spreadKernel
+{
+	/**
+	 * Network graph.
+	 */
+	final indexedGraph g;
+	
+	/**
+	 * {@code true}, if the sample path is a set of infected nodes reported in increasing order of labels
+	 * (as in RA1PC and RAEPC); {@code false}, if it is reported in the order of infection (as in TN11C).
+	 */
+	final boolean sortedSamplePath;
+	
+	/**
+	 * {@code infectionStamp[i]==currentRun} if node {@code i} is infected in the current replication.
+	 */
+	final int[] infectionStamp;
+	
+	/**
+	 * Identifier of the current replication.
+	 */
+	int currentRun;
+	
+	/**
+	 * Infected nodes (indices) in the order of infection; for TN11C, the nodes visited by the virus.
+	 */
+	int[] infected;
+	
+	/**
+	 * Number of elements in {@code infected}.
+	 */
+	int numberOfInfected;
+	
+	/**
+	 * Constructor.
+	 *
+	 * @param g network graph
+	 * @param sortedSamplePath {@code true}, if the sample path should be reported in increasing order of labels;
+	 *                         {@code false}, if it should be reported in the order of infection.
+	 */
+	protected spreadKernel(indexedGraph g, boolean sortedSamplePath)
+	{
+		this.g = g;
+		this.sortedSamplePath = sortedSamplePath;
+		this.infectionStamp = new int[g.getNumberOfNodes()];
+		this.infected = new int[Math.max(g.getNumberOfNodes(), 16)];
+		this.currentRun = 0;
+	}
+	
+	/**
+	 * Simulates a single replication.
+	 *
+	 * @param initialNode index of the initial location of the virus
+	 * @param t0 simulation time
+	 * @param streams random number generators; the number and the meaning of the streams are given by the
+	 *                {@link spreadModel} that created this kernel.
+	 */
+	public abstract void simulate(int initialNode, int t0, SplittableRandom[] streams);
+	
+	/**
+	 * Getter.
+	 *
+	 * @return {@code numberOfInfected}.
+	 */
+	public int getNumberOfInfected()
+	{
+		return numberOfInfected;
+	}
+	
+	/**
+	 * Returns the labels of the infected nodes in the last replication,
+	 * ordered as given by {@code sortedSamplePath}.
+	 *
+	 * @return list of labels of infected nodes.
+	 */
+	public List<Integer> getSamplePath()
+	{
+		return getSamplePath(sortedSamplePath);
+	}
+	
+	/**
+	 * Returns the labels of the infected nodes in the last replication.
+	 *
+	 * @param sorted {@code true}, if labels should be in increasing order;
+	 *               {@code false}, if labels should be in the order of infection.
+	 * @return list of labels of infected nodes.
+	 */
+	public List<Integer> getSamplePath(boolean sorted)
+	{
+		int[] path = Arrays.copyOf(infected, numberOfInfected);
+		// indices are in increasing order of labels
+		if (sorted)
+			Arrays.sort(path);
+		List<Integer> samplePath = new ArrayList<>(numberOfInfected);
+		for (int node: path)
+			samplePath.add(g.getLabel(node));
+		return samplePath;
+	}
+	
+	/**
+	 * Resets the state for a new replication.
+	 */
+	void startRun()
+	{
+		numberOfInfected = 0;
+		currentRun++;
+		if (currentRun==Integer.MAX_VALUE)
+		{
+			Arrays.fill(infectionStamp, 0);
+			currentRun = 1;
+		}
+	}
+	
+	/**
+	 * Checks if a node is infected in the current replication.
+	 *
+	 * @param node index of the node.
+	 * @return {@code true}, if {@code node} is infected; {@code false}, otherwise.
+	 */
+	boolean isInfected(int node)
+	{
+		return infectionStamp[node]==currentRun;
+	}
+	
+	/**
+	 * Marks a node as infected.
+	 *
+	 * @param node index of the node.
+	 */
+	void infect(int node)
+	{
+		infectionStamp[node] = currentRun;
+		record(node);
+	}
+	
+	/**
+	 * Appends a node to {@code infected}.
+	 *
+	 * @param node index of the node.
+	 */
+	void record(int node)
+	{
+		if (numberOfInfected==infected.length)
+			infected = Arrays.copyOf(infected, 2*infected.length);
+		infected[numberOfInfected++] = node;
+	}
+}
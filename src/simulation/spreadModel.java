@@ -0,0 +1,171 @@
+package simulation;
+
+import network.indexedGraph;
+
+import java.util.function.Function;
+
+/**
+ * Represents a spread model that can be simulated by the shared driver
+ * {@link simulationRuns#simulateRuns(network.graph, spreadModel, java.util.List, double, long, int)}.
+ * A model describes how its kernels are created and how many random number streams a replication needs;
+ * the driver owns the choice of initial locations, random number streams, parallelism, storage of
+ * sample paths and virtual detections.
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+public interface spreadModel
+{
+	/**
+	 * Name of the model (TN11C, RAEPC, etc.), used in the keys of the simulation results.
+	 *
+	 * @return name of the model.
+	 */
+	String getModelName();
+	
+	/**
+	 * Transmissability probability used in the keys of the simulation results.
+	 *
+	 * @return transmissability probability.
+	 */
+	double getTransmissability();
+	
+	/**
+	 * Number of random number streams needed by a kernel in one replication
+	 * (excluding the streams for the initial location and the virtual detections, which belong to the driver).
+	 *
+	 * @return number of random number streams.
+	 */
+	int getNumberOfRandomStreams();
+	
+	/**
+	 * Creates a kernel that simulates replications of this model on a network.
+	 * Each worker thread uses its own kernel.
+	 *
+	 * @param g network graph.
+	 * @return a new kernel.
+	 */
+	spreadKernel createKernel(indexedGraph g);
+	
+	/**
+	 * Returns the spread model with the given name.
+	 * Supported models are TN11C, RA1PC and RAEPC, and their continuous-time counterparts
+	 * TN11E, RA1PE and RAEPE with exponentially distributed delays of mean 1
+	 * (see {@link spreadModel#continuousTime(String, transmissionDelay, double)} for other delays).
+	 *
+	 * @param modelName name of the model
+	 * @param p transmissability probability (ignored for TN11C and TN11E, which use {@code p=1}).
+	 * @return the spread model.
+	 * @throws Exception thrown if {@code modelName} is not a supported model, or if {@code p<=0}.
+	 */
+	static spreadModel of(String modelName, double p) throws Exception
+	{
+		switch (modelName)
+		{
+			case "TN11C":
+				return create(modelName, 1.0, 1, TN11CKernel::new);
+			case "RA1PC":
+				if (p<=0)
+					throw new Exception("Invalid value of p!");
+				return create(modelName, p, 2, g -> new RA1PCKernel(g, p));
+			case "RAEPC":
+				if (p<=0)
+					throw new Exception("Invalid value of p!");
+				return create(modelName, p, 1, g -> new RAEPCKernel(g, p));
+			case "TN11E":
+			case "RA1PE":
+			case "RAEPE":
+				return continuousTime(modelName.substring(0, 4), transmissionDelay.exponential(1.0), p);
+			default:
+				throw new Exception("Invalid model name!");
+		}
+	}
+	
+	/**
+	 * Returns the RAEPC spread model, sampled by {@link RAEPCReachableSetKernel} instead of {@link RAEPCKernel}.
+	 * The model name is "RAEPC", so the samples can be used wherever samples of
+	 * {@code spreadModel.of("RAEPC", p)} are used (they have the same distribution, not the same values).
+	 *
+	 * @param p transmissability probability.
+	 * @return the spread model.
+	 * @throws Exception thrown if {@code p<=0}.
+	 */
+	static spreadModel reachableSetRAEPC(double p) throws Exception
+	{
+		if (p<=0)
+			throw new Exception("Invalid value of p!");
+		return create("RAEPC", p, 1, g -> new RAEPCReachableSetKernel(g, p));
+	}
+	
+	/**
+	 * Returns a continuous-time spread model simulated by an {@link eventDrivenSimulator}.
+	 * The model name is {@code modelFamily} followed by the code of {@code delay}.
+	 *
+	 * @param modelFamily one of {"TN11", "RA1P", "RAEP"}
+	 * @param delay distribution of the transmission delays
+	 * @param p transmissability probability (ignored for TN11, which uses {@code p=1}).
+	 * @return the spread model.
+	 * @throws Exception thrown if {@code modelFamily} is not one of {"TN11", "RA1P", "RAEP"}, or if {@code p<=0}.
+	 */
+	static spreadModel continuousTime(String modelFamily, transmissionDelay delay, double p) throws Exception
+	{
+		switch (modelFamily)
+		{
+			case "TN11":
+				return create(modelFamily+delay.getCode(), 1.0, 2,
+								g -> new eventDrivenSimulator(g, modelFamily, 1.0, delay));
+			case "RA1P":
+			case "RAEP":
+				if (p<=0)
+					throw new Exception("Invalid value of p!");
+				return create(modelFamily+delay.getCode(), p, modelFamily.equals("RA1P") ? 3 : 2,
+								g -> new eventDrivenSimulator(g, modelFamily, p, delay));
+			default:
+				throw new Exception("Invalid model name!");
+		}
+	}
+	
+	/**
+	 * Creates an instance of {@code spreadModel}.
+	 *
+	 * @param modelName name of the model
+	 * @param p transmissability probability
+	 * @param numberOfRandomStreams number of random number streams needed by a kernel
+	 * @param kernelFactory function that creates a kernel for a network graph.
+	 * @return an instance of {@code spreadModel}.
+	 */
+	private static spreadModel create(String modelName, double p, int numberOfRandomStreams,
+	                                  Function<indexedGraph, spreadKernel> kernelFactory)
+	{
+		return new spreadModel()
+		{
+			@Override
+			public String getModelName()
+			{
+				return modelName;
+			}
+			
+			@Override
+			public double getTransmissability()
+			{
+				return p;
+			}
+			
+			@Override
+			public int getNumberOfRandomStreams()
+			{
+				return numberOfRandomStreams;
+			}
+			
+			@Override
+			public spreadKernel createKernel(indexedGraph g)
+			{
+				return kernelFactory.apply(g);
+			}
+			
+			@Override
+			public String toString()
+			{
+				return modelName+" (p="+p+")";
+			}
+		};
+	}
+}
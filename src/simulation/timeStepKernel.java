@@ -0,0 +1,58 @@
+package simulation;
+
+import network.indexedGraph;
+
+import java.util.SplittableRandom;
+
+/**
+ * Represents a kernel of a spread model in which transmission occurs in constant time steps ("C" models).
+ * A replication sets up the initial state at time step 0, and then calls {@link timeStepKernel#step(int)}
+ * for time steps 1, 2, ..., t0.
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+public abstract class timeStepKernel extends spreadKernel
+{
+	/**
+	 * Constructor.
+	 *
+	 * @param g network graph
+	 * @param sortedSamplePath {@code true}, if the sample path should be reported in increasing order of labels;
+	 *                         {@code false}, if it should be reported in the order of infection.
+	 */
+	protected timeStepKernel(indexedGraph g, boolean sortedSamplePath)
+	{
+		super(g, sortedSamplePath);
+	}
+	
+	/**
+	 * Simulates a single replication.
+	 *
+	 * @param initialNode index of the initial location of the virus
+	 * @param t0 simulation time
+	 * @param streams random number generators; the number and the meaning of the streams are given by the
+	 *                {@link spreadModel} that created this kernel.
+	 */
+	@Override
+	public void simulate(int initialNode, int t0, SplittableRandom[] streams)
+	{
+		startRun();
+		initialize(initialNode, streams);
+		for (int t=1; t<=t0; t++)
+			step(t);
+	}
+	
+	/**
+	 * Sets up the state at time step 0.
+	 *
+	 * @param initialNode index of the initial location of the virus
+	 * @param streams random number generators to be used in this replication.
+	 */
+	protected abstract void initialize(int initialNode, SplittableRandom[] streams);
+	
+	/**
+	 * Advances the state by one time step.
+	 *
+	 * @param t the time step.
+	 */
+	protected abstract void step(int t);
+}
@@ -0,0 +1,66 @@
+package simulation;
+
+import java.util.SplittableRandom;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Represents the distribution of transmission delays in continuous-time spread models.
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+public interface transmissionDelay
+{
+	/**
+	 * Draws a (positive) delay.
+	 *
+	 * @param random random number generator to draw from.
+	 * @return a delay.
+	 */
+	double sample(SplittableRandom random);
+	
+	/**
+	 * Code of the delay distribution; it replaces the "C" (constant time steps) of the discrete models
+	 * in the model name, for example, "RAEPE" for RAEP with exponential delays.
+	 *
+	 * @return code of the delay distribution.
+	 */
+	String getCode();
+	
+	/**
+	 * Exponentially distributed delays.
+	 *
+	 * @param rate rate of the exponential distribution (the mean delay is {@code 1/rate}).
+	 * @return an instance of {@code transmissionDelay} with code "E".
+	 * @throws IllegalArgumentException thrown if {@code rate<=0}.
+	 */
+	static transmissionDelay exponential(double rate)
+	{
+		if (rate<=0)
+			throw new IllegalArgumentException("Invalid value of rate!");
+		return of("E", random -> -Math.log(1.0-random.nextDouble())/rate);
+	}
+	
+	/**
+	 * Delays drawn from an arbitrary distribution.
+	 *
+	 * @param code code of the delay distribution used in the model name
+	 * @param sampler function that draws a positive delay using the random number generator passed to it.
+	 * @return an instance of {@code transmissionDelay}.
+	 */
+	static transmissionDelay of(String code, ToDoubleFunction<SplittableRandom> sampler)
+	{
+		return new transmissionDelay()
+		{
+			@Override
+			public double sample(SplittableRandom random)
+			{
+				return sampler.applyAsDouble(random);
+			}
+			
+			@Override
+			public String getCode()
+			{
+				return code;
+			}
+		};
+	}
+}
@@ -0,0 +1,40 @@
+package algorithm;
+
+import dataTypes.coverageTestUtils;
+import dataTypes.detectionMatrix;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+/**
+ * Unit test for {@code bucketGreedy}.
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+class bucketGreedyTest
+{
+	/**
+	 * Test for {@link bucketGreedy#select(int)} and {@link bucketGreedy#sumOfLargestGains(int)}:
+	 * the same columns, covered rows, and sums of the largest gains as {@link lazyGreedy},
+	 * on matrices with many ties.
+	 *
+	 * @throws Exception thrown if the detection matrix cannot be built.
+	 */
+	@Test
+	void select() throws Exception
+	{
+		Random generator = new Random(2021);
+		for (int instance=0; instance<20; instance++)
+		{
+			int n = 30;
+			detectionMatrix matrix = coverageTestUtils.randomMatrix(generator, n, 50, 0.1);
+			bucketGreedy bucket = new bucketGreedy(matrix);
+			lazyGreedy lazy = new lazyGreedy(matrix);
+			for (int k=1; k<=n; k++)
+			{
+				assert Arrays.equals(bucket.select(k), lazy.select(k));
+				assert bucket.getNumberOfCoveredRows()==lazy.getNumberOfCoveredRows();
+				assert bucket.sumOfLargestGains(k)==lazy.sumOfLargestGains(k);
+			}
+		}
+	}
+}
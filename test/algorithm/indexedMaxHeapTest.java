@@ -0,0 +1,51 @@
+package algorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * Unit test for {@code indexedMaxHeap}.
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+class indexedMaxHeapTest
+{
+	/**
+	 * Test for {@link indexedMaxHeap#poll()} and {@link indexedMaxHeap#update(int, double)}:
+	 * after random increases and decreases of keys (with many ties), every poll returns the id with the largest key,
+	 * and the smallest such id in case of ties.
+	 */
+	@Test
+	void pollAndUpdate()
+	{
+		Random generator = new Random(2022);
+		for (int instance=0; instance<20; instance++)
+		{
+			int n = 1+generator.nextInt(60);
+			double[] keys = new double[n];
+			for (int id=0; id<n; id++)
+				keys[id] = generator.nextInt(10);
+			indexedMaxHeap heap = new indexedMaxHeap(keys);
+			boolean[] removed = new boolean[n];
+			while (!heap.isEmpty())
+			{
+				for (int update=0; update<5; update++)
+				{
+					int id = generator.nextInt(n);
+					if (removed[id])
+						continue;
+					keys[id] += generator.nextInt(7)-3;
+					heap.update(id, keys[id]);
+				}
+				int best = -1;
+				for (int id=0; id<n; id++)
+					if (!removed[id] && ((best<0) || (keys[id]>keys[best])))
+						best = id;
+				int polled = heap.poll();
+				assert polled==best;
+				assert !heap.contains(polled);
+				removed[polled] = true;
+			}
+		}
+	}
+}
\ No newline at end of file
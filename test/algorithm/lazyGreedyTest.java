@@ -0,0 +1,69 @@
+package algorithm;
+
+import dataTypes.coverageTestUtils;
+import dataTypes.detectionMatrix;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+/**
+ * Unit test for {@code lazyGreedy}.
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+class lazyGreedyTest
+{
+	/**
+	 * Test for {@link lazyGreedy#select(int)} and {@link lazyGreedy#sumOfLargestGains(int)}:
+	 * the selection is the one of the plain greedy algorithm (which recounts every row at every step),
+	 * and the sum of the largest gains matches the one found by recounting.
+	 *
+	 * @throws Exception thrown if the detection matrix cannot be built.
+	 */
+	@Test
+	void select() throws Exception
+	{
+		Random generator = new Random(2020);
+		int n = 40;
+		List<List<Integer>> samplePaths = coverageTestUtils.randomSamplePaths(generator, n, 300,
+																		j -> 0.05+0.005*j);
+		detectionMatrix matrix = coverageTestUtils.matrix(n, samplePaths);
+		
+		int k = 25;
+		lazyGreedy greedy = new lazyGreedy(matrix);
+		int[] selection = greedy.select(k);
+		assert selection.length==k;
+		
+		Set<Integer> selected = new HashSet<>();
+		Set<Integer> covered = new HashSet<>();
+		for (int step=0; step<k; step++)
+		{
+			int[] gains = new int[n];
+			for (int i=0; i<samplePaths.size(); i++)
+				if (!covered.contains(i))
+					for (int node: samplePaths.get(i))
+						gains[node]++;
+			int best = -1;
+			for (int j=0; j<n; j++)
+				if ((!selected.contains(j)) && ((best<0) || (gains[j]>gains[best])))
+					best = j;
+			assert selection[step]==best;
+			selected.add(best);
+			for (int i=0; i<samplePaths.size(); i++)
+				if (samplePaths.get(i).contains(best))
+					covered.add(i);
+		}
+		assert greedy.getNumberOfCoveredRows()==covered.size();
+		
+		int[] gains = new int[n];
+		for (int i=0; i<samplePaths.size(); i++)
+			if (!covered.contains(i))
+				for (int node: samplePaths.get(i))
+					if (!selected.contains(node))
+						gains[node]++;
+		int expectedSum = Arrays.stream(gains).boxed().sorted(Comparator.reverseOrder()).limit(5)
+								.mapToInt(Integer::intValue).sum();
+		assert greedy.sumOfLargestGains(5)==expectedSum;
+		// the columns stay unselected, so greedy can continue
+		assert greedy.select(k+1).length==k+1;
+	}
+}
@@ -0,0 +1,65 @@
+package algorithm;
+
+import dataTypes.algorithmOutput;
+import dataTypes.parameters;
+import network.graph;
+import org.javatuples.Pair;
+import org.junit.jupiter.api.Test;
+import simulation.simulationRuns;
+import simulation.spreadModel;
+
+import java.util.*;
+
+/**
+ * Unit test for {@code metaheuristicSearch}.
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+class metaheuristicSearchTest
+{
+	/**
+	 * Test for {@link metaheuristicSearch#runSAAUsingMetaheuristic(graph, simulationRuns, List, int)}:
+	 * with the objective value of greedy as the target, both metaheuristics return the number of honeypots,
+	 * a posterior upper bound that is not less than the objective value, and one time to target per start
+	 * (only properties that do not depend on how fast the machine is are checked).
+	 *
+	 * @throws Exception thrown if the network cannot be read from the file, or if the simulation fails.
+	 */
+	@Test
+	void runSAAUsingMetaheuristic() throws Exception
+	{
+		graph network = new graph("EUemailcomm_6-core");
+		network.buildGraphFromFile("./test/resources/networks/EUemailcomm_6-core.txt", ",");
+		simulationRuns simulationResults = new simulationRuns();
+		simulationResults.simulateRuns(network, spreadModel.of("RA1PC", 0.5),
+										Collections.singletonList(new Pair<>(4, 500)), 0.1, 2507, 2);
+		List<parameters> listOfParams = new ArrayList<>();
+		for (int k: new int[]{1, 5})
+			listOfParams.add(new parameters("RA1PC", "EUemailcomm_6-core", 4, 500, 0.1, 0.5, k, 0));
+		nodeInMaxRowsGreedyHeuristic greedy = new nodeInMaxRowsGreedyHeuristic();
+		greedy.runSAAUsingHeuristic(network, simulationResults, listOfParams);
+		Map<parameters, Double> targets = new HashMap<>();
+		for (parameters param: listOfParams)
+			targets.put(param, greedy.getOutputMap().get(param).getObjectiveValue());
+		
+		for (String method: new String[]{"annealing", "tabu"})
+		{
+			metaheuristicSearch search = new metaheuristicSearch();
+			if (method.equals("tabu"))
+				search.setTabuSearch(5);
+			search.setStarts(2, 1, 2507);
+			search.setTargets(targets);
+			search.runSAAUsingMetaheuristic(network, simulationResults, listOfParams, 2);
+			for (parameters param: listOfParams)
+			{
+				algorithmOutput output = search.getOutputMap().get(param);
+				assert new HashSet<>(output.getHoneypots()).size()==param.getNumberOfHoneypots();
+				assert (output.getObjectiveValue()>0) && (output.getObjectiveValue()<=1);
+				assert output.getPosteriorUB()>=output.getObjectiveValue();
+				assert Double.isNaN(output.getAPrioriUB());
+				assert search.getMapParamsToTimesToTarget().get(param).size()==2;
+				for (double time: search.getMapParamsToTimesToTarget().get(param))
+					assert Double.isNaN(time) || (time>=0);
+			}
+		}
+	}
+}
\ No newline at end of file
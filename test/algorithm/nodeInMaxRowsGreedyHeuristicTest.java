@@ -1,5 +1,15 @@
 package algorithm;
 
+import dataTypes.algorithmOutput;
+import dataTypes.parameters;
+import network.graph;
+import org.javatuples.Pair;
+import org.junit.jupiter.api.Test;
+import simulation.simulationRuns;
+import simulation.spreadModel;
+
+import java.util.*;
+
 /**
  * Unit test for {@code nodeInMaxRowsGreedyHeuristic}.
  * @author Sudesh Agrawal (sudesh@utexas.edu).
@@ -7,5 +17,56 @@ package algorithm;
  */
 class nodeInMaxRowsGreedyHeuristicTest
 {
-
+	/**
+	 * Test for {@link nodeInMaxRowsGreedyHeuristic#runSAAUsingHeuristic(graph, simulationRuns, List)}:
+	 * one greedy run across budgets gives the honeypots, objective values, and bounds of separate runs,
+	 * with both deterministic greedy algorithms;
+	 * stochastic greedy has no a priori upper bound.
+	 *
+	 * @throws Exception thrown if the network cannot be read from the file, or if the simulation fails.
+	 */
+	@Test
+	void runSAAUsingHeuristic() throws Exception
+	{
+		graph network = new graph("EUemailcomm_6-core");
+		network.buildGraphFromFile("./test/resources/networks/EUemailcomm_6-core.txt", ",");
+		simulationRuns simulationResults = new simulationRuns();
+		simulationResults.simulateRuns(network, spreadModel.of("RA1PC", 0.5),
+										Collections.singletonList(new Pair<>(4, 500)), 0.1, 2507, 2);
+		List<parameters> listOfParams = new ArrayList<>();
+		for (int k: new int[]{20, 5, 10, 1})
+			listOfParams.add(new parameters("RA1PC", "EUemailcomm_6-core", 4, 500, 0.1, 0.5, k, 0));
+		
+		nodeInMaxRowsGreedyHeuristic separate = new nodeInMaxRowsGreedyHeuristic();
+		separate.runSAAUsingHeuristic(network, simulationResults, listOfParams);
+		for (String greedyAlgorithm: new String[]{"lazy", "bucket"})
+		{
+			nodeInMaxRowsGreedyHeuristic reused = new nodeInMaxRowsGreedyHeuristic();
+			reused.setGreedyAlgorithm(greedyAlgorithm);
+			reused.setReuseGreedyAcrossBudgets(true);
+			reused.runSAAUsingHeuristic(network, simulationResults, listOfParams);
+			for (parameters param: listOfParams)
+			{
+				algorithmOutput expected = separate.getOutputMap().get(param);
+				algorithmOutput output = reused.getOutputMap().get(param);
+				assert output.getHoneypots().equals(expected.getHoneypots());
+				assert output.getHoneypots().size()==param.getNumberOfHoneypots();
+				assert output.getObjectiveValue()==expected.getObjectiveValue();
+				assert output.getAPrioriUB()==expected.getAPrioriUB();
+				assert output.getPosteriorUB()==expected.getPosteriorUB();
+			}
+		}
+		
+		// no a priori upper bound for stochastic greedy
+		nodeInMaxRowsGreedyHeuristic stochastic = new nodeInMaxRowsGreedyHeuristic();
+		stochastic.setStochasticGreedy(0.1, 2020);
+		stochastic.setReuseGreedyAcrossBudgets(true);
+		stochastic.runSAAUsingHeuristic(network, simulationResults, listOfParams);
+		for (parameters param: listOfParams)
+		{
+			algorithmOutput output = stochastic.getOutputMap().get(param);
+			assert Double.isNaN(output.getAPrioriUB());
+			assert output.getPosteriorUB()>=output.getObjectiveValue();
+		}
+	}
 }
\ No newline at end of file
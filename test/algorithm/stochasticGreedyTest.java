@@ -0,0 +1,64 @@
+package algorithm;
+
+import dataTypes.coverageTestUtils;
+import dataTypes.detectionMatrix;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+/**
+ * Unit test for {@code stochasticGreedy}.
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+class stochasticGreedyTest
+{
+	/**
+	 * Test for {@link stochasticGreedy#select(int)}:
+	 * the selection depends only on the seed; if the random subsets are all the unselected columns,
+	 * it is the selection of the plain greedy algorithm; and the coverage is not far from greedy's.
+	 *
+	 * @throws Exception thrown if the detection matrix cannot be built.
+	 */
+	@Test
+	void select() throws Exception
+	{
+		Random generator = new Random(2020);
+		int n = 200;
+		List<List<Integer>> samplePaths = coverageTestUtils.randomSamplePaths(generator, n, 1000,
+																		j -> 0.002*(1+j%10));
+		detectionMatrix matrix = coverageTestUtils.matrix(n, samplePaths);
+		
+		// ln(1/epsilon)>=k: every subset is all the unselected columns
+		int k = 5;
+		stochasticGreedy full = new stochasticGreedy(matrix, k, 1e-3, 1);
+		lazyGreedy lazy = new lazyGreedy(matrix);
+		assert Arrays.equals(full.select(k), lazy.select(k));
+		assert full.getNumberOfCoveredRows()==lazy.getNumberOfCoveredRows();
+		assert full.sumOfLargestGains(k)==lazy.sumOfLargestGains(k);
+		
+		k = 20;
+		int greedyCoverage = coverage(matrix, new lazyGreedy(matrix), k);
+		int[] selection = new stochasticGreedy(matrix, k, 0.1, 2507).select(k);
+		assert Arrays.equals(new stochasticGreedy(matrix, k, 0.1, 2507).select(k), selection);
+		assert Arrays.stream(selection).distinct().count()==k;
+		double averageCoverage = 0;
+		for (long seed=0; seed<20; seed++)
+			averageCoverage += coverage(matrix, new stochasticGreedy(matrix, k, 0.1, seed), k)/20.0;
+		assert averageCoverage>=(1-Math.exp(-1)-0.1)*greedyCoverage;
+	}
+	
+	/**
+	 * Returns the number of rows covered by a greedy algorithm after {@code k} selections.
+	 *
+	 * @param matrix detection matrix
+	 * @param greedy greedy algorithm
+	 * @param k number of columns.
+	 * @return the number of covered rows, counted from the matrix.
+	 */
+	private static int coverage(detectionMatrix matrix, coverageGreedy greedy, int k)
+	{
+		int covered = coverageTestUtils.coverage(matrix, greedy.select(k));
+		assert covered==greedy.getNumberOfCoveredRows();
+		return covered;
+	}
+}
@@ -0,0 +1,61 @@
+package algorithm;
+
+import dataTypes.algorithmOutput;
+import dataTypes.parameters;
+import network.graph;
+import org.javatuples.Pair;
+import org.junit.jupiter.api.Test;
+import simulation.simulationRuns;
+import simulation.spreadModel;
+
+import java.util.*;
+
+/**
+ * Unit test for {@code streamingGreedyHeuristic}.
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+class streamingGreedyHeuristicTest
+{
+	/**
+	 * Test for {@link streamingGreedyHeuristic#runSAAUsingHeuristic(graph, List, long, int)}:
+	 * with a reservoir that holds every sample, the honeypots and objective values of
+	 * {@link nodeInMaxRowsGreedyHeuristic} on the simulated samples;
+	 * with a small reservoir, the right number of honeypots and an estimate in [0, 1].
+	 *
+	 * @throws Exception thrown if the network cannot be read from the file, or if the simulation fails.
+	 */
+	@Test
+	void runSAAUsingHeuristic() throws Exception
+	{
+		graph network = new graph("EUemailcomm_6-core");
+		network.buildGraphFromFile("./test/resources/networks/EUemailcomm_6-core.txt", ",");
+		simulationRuns simulationResults = new simulationRuns();
+		simulationResults.simulateRuns(network, spreadModel.of("RA1PC", 0.5),
+										Collections.singletonList(new Pair<>(4, 500)), 0.1, 2507, 2);
+		List<parameters> listOfParams = new ArrayList<>();
+		for (int k: new int[]{10, 1, 5})
+			listOfParams.add(new parameters("RA1PC", "EUemailcomm_6-core", 4, 500, 0.1, 0.5, k, 0));
+		
+		nodeInMaxRowsGreedyHeuristic expected = new nodeInMaxRowsGreedyHeuristic();
+		expected.runSAAUsingHeuristic(network, simulationResults, listOfParams);
+		streamingGreedyHeuristic streaming = new streamingGreedyHeuristic();
+		streaming.setSketchSize(500);
+		streaming.runSAAUsingHeuristic(network, listOfParams, 2507, 2);
+		for (parameters param: listOfParams)
+		{
+			algorithmOutput output = streaming.getOutputMap().get(param);
+			assert output.getHoneypots().equals(expected.getOutputMap().get(param).getHoneypots());
+			assert output.getObjectiveValue()==expected.getOutputMap().get(param).getObjectiveValue();
+		}
+		
+		streamingGreedyHeuristic sketched = new streamingGreedyHeuristic();
+		sketched.setSketchSize(50);
+		sketched.runSAAUsingHeuristic(network, listOfParams, 2507, 2);
+		for (parameters param: listOfParams)
+		{
+			algorithmOutput output = sketched.getOutputMap().get(param);
+			assert new HashSet<>(output.getHoneypots()).size()==param.getNumberOfHoneypots();
+			assert (output.getObjectiveValue()>=0) && (output.getObjectiveValue()<=1);
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,64 @@
+package algorithm;
+
+import dataTypes.coverageTestUtils;
+import dataTypes.detectionMatrix;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+/**
+ * Unit test for {@code swapLocalSearch}.
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+class swapLocalSearchTest
+{
+	/**
+	 * Test for {@link swapLocalSearch#improve(double)}:
+	 * starting from greedy, the number of covered rows and the losses kept by the state are those counted from
+	 * the matrix, greedy is not worse, and no 1-swap covers more rows at the end.
+	 *
+	 * @throws Exception thrown if the detection matrix cannot be built.
+	 */
+	@Test
+	void improve() throws Exception
+	{
+		Random generator = new Random(2022);
+		for (int instance=0; instance<5; instance++)
+		{
+			int n = 25;
+			detectionMatrix matrix = coverageTestUtils.randomMatrix(generator, n, 80, 0.08);
+			int k = 4;
+			lazyGreedy greedy = new lazyGreedy(matrix);
+			swapLocalSearch localSearch = new swapLocalSearch(matrix, greedy.select(k));
+			assert localSearch.improve(60);
+			coverageState state = localSearch.getState();
+			int[] selection = state.getSelection();
+			int covered = coverageTestUtils.coverage(matrix, selection);
+			assert (selection.length==k) && (Arrays.stream(selection).distinct().count()==k);
+			assert covered==state.getNumberOfCoveredRows();
+			assert covered>=greedy.getNumberOfCoveredRows();
+			for (int t=0; t<k; t++)
+			{
+				int[] others = new int[k-1];
+				for (int u=0, v=0; u<k; u++)
+					if (u!=t)
+						others[v++] = selection[u];
+				assert covered-coverageTestUtils.coverage(matrix, others)==state.loss(selection[t]);
+			}
+			
+			// no better set of columns within one swap
+			for (int t1=0; t1<k; t1++)
+				for (int v1=0; v1<n; v1++)
+				{
+					Set<Integer> columns = new HashSet<>();
+					for (int t=0; t<k; t++)
+						if (t!=t1)
+							columns.add(selection[t]);
+					columns.add(v1);
+					int[] swapped = columns.stream().mapToInt(Integer::intValue).toArray();
+					if (swapped.length==k)
+						assert coverageTestUtils.coverage(matrix, swapped)<=covered;
+				}
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,110 @@
+package dataTypes;
+
+import java.util.*;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Random detection matrices, and coverage and optimal objective values found by enumeration,
+ * for the unit tests of the coverage algorithms (in the {@code algorithm} and {@code optimization} packages).
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+public class coverageTestUtils
+{
+	/**
+	 * Returns random sample paths over the nodes 0, 1, ..., n-1, in which node {@code j} appears independently
+	 * with probability {@code probability.applyAsDouble(j)}.
+	 *
+	 * @param generator random number generator
+	 * @param n number of nodes
+	 * @param numberOfSamplePaths number of sample paths
+	 * @param probability probability of each node.
+	 * @return the sample paths.
+	 */
+	public static List<List<Integer>> randomSamplePaths(Random generator, int n, int numberOfSamplePaths,
+	                                                   IntToDoubleFunction probability)
+	{
+		List<List<Integer>> samplePaths = new ArrayList<>(numberOfSamplePaths);
+		for (int i=0; i<numberOfSamplePaths; i++)
+		{
+			List<Integer> samplePath = new ArrayList<>();
+			for (int j=0; j<n; j++)
+				if (generator.nextDouble()<probability.applyAsDouble(j))
+					samplePath.add(j);
+			samplePaths.add(samplePath);
+		}
+		return samplePaths;
+	}
+	
+	/**
+	 * Returns the detection matrix of sample paths over the nodes 0, 1, ..., n-1 (with no virtual detections).
+	 *
+	 * @param n number of nodes
+	 * @param samplePaths sample paths.
+	 * @return the detection matrix.
+	 * @throws Exception thrown if the detection matrix cannot be built.
+	 */
+	public static detectionMatrix matrix(int n, List<List<Integer>> samplePaths) throws Exception
+	{
+		List<Integer> nodes = new ArrayList<>(n);
+		for (int j=0; j<n; j++)
+			nodes.add(j);
+		return new detectionMatrix(nodes, samplePaths, null);
+	}
+	
+	/**
+	 * Returns the detection matrix of random sample paths, in which every node appears independently
+	 * with the same probability.
+	 *
+	 * @param generator random number generator
+	 * @param n number of nodes
+	 * @param numberOfSamplePaths number of sample paths
+	 * @param probability probability of every node.
+	 * @return the detection matrix.
+	 * @throws Exception thrown if the detection matrix cannot be built.
+	 */
+	public static detectionMatrix randomMatrix(Random generator, int n, int numberOfSamplePaths,
+	                                           double probability) throws Exception
+	{
+		return matrix(n, randomSamplePaths(generator, n, numberOfSamplePaths, j -> probability));
+	}
+	
+	/**
+	 * Returns the number of rows covered by a set of columns, counted from the matrix.
+	 *
+	 * @param matrix detection matrix
+	 * @param columns columns.
+	 * @return the number of covered rows.
+	 */
+	public static int coverage(detectionMatrix matrix, int[] columns)
+	{
+		double[] x = new double[matrix.getNumberOfColumns()];
+		for (int column: columns)
+			x[column] = 1;
+		return matrix.getCoveredRows(x).cardinality();
+	}
+	
+	/**
+	 * Returns the largest weight covered by {@code k} columns, by enumeration of all sets of {@code k} columns.
+	 *
+	 * @param matrix detection matrix (with at most 30 columns)
+	 * @param k number of columns.
+	 * @return the optimal objective value.
+	 */
+	public static double optimalCoveredWeight(detectionMatrix matrix, int k)
+	{
+		int n = matrix.getNumberOfColumns();
+		double optimalValue = 0;
+		for (int subset=0; subset<(1 << n); subset++)
+		{
+			if (Integer.bitCount(subset)!=k)
+				continue;
+			int[] columns = new int[k];
+			int size = 0;
+			for (int j=0; j<n; j++)
+				if ((subset & (1 << j))!=0)
+					columns[size++] = j;
+			optimalValue = Math.max(optimalValue, matrix.getCoveredWeight(columns));
+		}
+		return optimalValue;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,162 @@
+package dataTypes;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit test for {@code infectionTimeHistogram}.
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+class infectionTimeHistogramTest
+{
+	/**
+	 * Returns the nearest-rank {@code q}-quantile of a list.
+	 *
+	 * @param times observations
+	 * @param q a value in (0, 1].
+	 * @return the quantile.
+	 */
+	private static int quantile(List<Integer> times, double q)
+	{
+		List<Integer> sorted = new ArrayList<>(times);
+		Collections.sort(sorted);
+		return sorted.get((int) Math.ceil(q*sorted.size())-1);
+	}
+	
+	/**
+	 * Checks the statistics of a histogram against those computed directly from the list of observations.
+	 *
+	 * @param histogram histogram
+	 * @param times observations.
+	 */
+	private static void assertMatches(infectionTimeHistogram histogram, List<Integer> times)
+	{
+		int n = times.size();
+		assert histogram.getNumberOfObservations()==n;
+		double mean = times.stream().mapToDouble(t -> t).sum()/n;
+		double variance = times.stream().mapToDouble(t -> (t-mean)*(t-mean)).sum()/(n-1);
+		assert Math.abs(histogram.getMean()-mean)<=1e-9*Math.max(1, mean);
+		assert Math.abs(histogram.getVariance()-variance)<=1e-9*Math.max(1, variance);
+		for (double q: new double[]{0.01, 0.1, 0.5, 0.9, 0.99, 1})
+			assert histogram.getQuantile(q)==quantile(times, q);
+		for (int t=-1; t<=Collections.max(times)+1; t++)
+			assert histogram.getCount(t)==Collections.frequency(times, t);
+	}
+	
+	/**
+	 * Test for {@link infectionTimeHistogram#add(int)} and the statistics:
+	 * mean, variance and quantiles should equal those computed from the list of observations.
+	 */
+	@Test
+	void add()
+	{
+		Random random = new Random(2026);
+		for (int trial=0; trial<20; trial++)
+		{
+			int n = 2+random.nextInt(200);
+			int range = 1+random.nextInt(100);
+			List<Integer> times = new ArrayList<>(n);
+			infectionTimeHistogram histogram = new infectionTimeHistogram();
+			for (int i=0; i<n; i++)
+			{
+				int time = random.nextInt(range);
+				times.add(time);
+				histogram.add(time);
+			}
+			assertMatches(histogram, times);
+		}
+	}
+	
+	/**
+	 * Test for {@link infectionTimeHistogram#getVariance()} when the variance is small relative to the mean:
+	 * the sum of squares minus {@code n} times the squared mean would cancel.
+	 */
+	@Test
+	void varianceOfLargeTimes()
+	{
+		List<Integer> times = new ArrayList<>();
+		infectionTimeHistogram histogram = new infectionTimeHistogram();
+		for (int i=0; i<100000; i++)
+		{
+			int time = 1000000+(i%2);
+			times.add(time);
+			histogram.add(time);
+		}
+		double variance = 0.25*100000/99999;
+		assert Math.abs(histogram.getVariance()-variance)<=1e-9;
+		assert histogram.getQuantile(0.5)==1000000;
+		assert histogram.getQuantile(1)==1000001;
+	}
+	
+	/**
+	 * Test for {@link infectionTimeHistogram#merge(infectionTimeHistogram)} of histograms of different lengths,
+	 * in both orders, and for the copy constructor.
+	 */
+	@Test
+	void merge()
+	{
+		Random random = new Random(2027);
+		List<Integer> shortTimes = new ArrayList<>();
+		List<Integer> longTimes = new ArrayList<>();
+		infectionTimeHistogram shortHistogram = new infectionTimeHistogram();
+		infectionTimeHistogram longHistogram = new infectionTimeHistogram();
+		for (int i=0; i<50; i++)
+		{
+			int time = random.nextInt(5);
+			shortTimes.add(time);
+			shortHistogram.add(time);
+		}
+		for (int i=0; i<70; i++)
+		{
+			int time = random.nextInt(300);
+			longTimes.add(time);
+			longHistogram.add(time);
+		}
+		List<Integer> allTimes = new ArrayList<>(shortTimes);
+		allTimes.addAll(longTimes);
+		
+		infectionTimeHistogram shortCopy = new infectionTimeHistogram(shortHistogram);
+		shortCopy.merge(longHistogram);
+		assertMatches(shortCopy, allTimes);
+		infectionTimeHistogram longCopy = new infectionTimeHistogram(longHistogram);
+		longCopy.merge(shortHistogram);
+		assertMatches(longCopy, allTimes);
+		
+		// the copies are independent of the originals
+		assertMatches(shortHistogram, shortTimes);
+		assertMatches(longHistogram, longTimes);
+		shortHistogram.add(1000);
+		assert shortCopy.getNumberOfObservations()==allTimes.size();
+		assert shortCopy.getCount(1000)==0;
+	}
+	
+	/**
+	 * Test for the edge cases of an empty histogram, a single observation, and invalid input.
+	 */
+	@Test
+	void edgeCases()
+	{
+		infectionTimeHistogram histogram = new infectionTimeHistogram();
+		assert histogram.getNumberOfObservations()==0;
+		assert Double.isNaN(histogram.getMean());
+		assert Double.isNaN(histogram.getVariance());
+		assert histogram.getQuantile(0.5)==-1;
+		assert histogram.getQuantile(1)==-1;
+		
+		histogram.add(7);
+		assert histogram.getMean()==7;
+		assert Double.isNaN(histogram.getVariance());
+		assert histogram.getQuantile(0.01)==7;
+		assert histogram.getQuantile(1)==7;
+		
+		histogram.merge(new infectionTimeHistogram());
+		assert histogram.getNumberOfObservations()==1;
+		
+		for (double q: new double[]{0, -0.5, 1.5})
+			assertThrows(IllegalArgumentException.class, () -> histogram.getQuantile(q));
+		assertThrows(IllegalArgumentException.class, () -> histogram.add(-1));
+	}
+}
\ No newline at end of file
@@ -0,0 +1,53 @@
+package dataTypes;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test for {@code solverProgress}.
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+class solverProgressTest
+{
+	/**
+	 * Test for {@link solverProgress#add(String, double, double, double, double)} and the getters:
+	 * points are kept in the order in which they are added.
+	 */
+	@Test
+	void add()
+	{
+		solverProgress progress = new solverProgress();
+		assert progress.size()==0;
+		progress.add("MIPSOL", 0.5, 0.2, 0.9, 0);
+		progress.add("MIP", 1.5, 0.4, 0.6, 120);
+		progress.add("final", 2.25, 0.5, 0.5, 300);
+		assert progress.size()==3;
+		assert progress.getEvent(0).equals("MIPSOL") && progress.getEvent(2).equals("final");
+		assert progress.getTime(1)==1.5;
+		assert progress.getObjectiveValue(1)==0.4;
+		assert progress.getBound(1)==0.6;
+		assert progress.getNodeCount(2)==300;
+	}
+	
+	/**
+	 * Test for {@link solverProgress#getGap(int)}:
+	 * the gap is |bound - objective value| / |objective value|, and infinite if there is no incumbent
+	 * (Gurobi reports an objective value of 1e100) or if the objective value is 0.
+	 */
+	@Test
+	void getGap()
+	{
+		solverProgress progress = new solverProgress();
+		progress.add("MIP", 0, 1e100, 0.9, 0);
+		progress.add("MIP", 1, -1e100, 0.9, 0);
+		progress.add("MIP", 2, 0, 0.9, 0);
+		progress.add("MIPSOL", 3, 0.4, 0.6, 10);
+		progress.add("MIPSOL", 4, -0.5, -0.4, 20);
+		progress.add("final", 5, 0.5, 0.5, 30);
+		assert progress.getGap(0)==Double.POSITIVE_INFINITY;
+		assert progress.getGap(1)==Double.POSITIVE_INFINITY;
+		assert progress.getGap(2)==Double.POSITIVE_INFINITY;
+		assert Math.abs(progress.getGap(3)-0.5)<1e-12;
+		assert Math.abs(progress.getGap(4)-0.2)<1e-12;
+		assert progress.getGap(5)==0;
+	}
+}
\ No newline at end of file
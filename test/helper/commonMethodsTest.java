@@ -6,6 +6,8 @@ import org.junit.jupiter.api.Test;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -139,6 +141,43 @@ class commonMethodsTest
 		assert indices.size()==0;
 	}
 	
+	@Test
+	void countNodesInRows()
+	{
+		// counts (and so the selected node) should not depend on the number of blocks of rows
+		Random generator = new Random(2020);
+		List<List<Integer>> arr = new ArrayList<>();
+		for (int i=0; i<10000; i++)
+		{
+			List<Integer> row = new ArrayList<>();
+			for (int j=0; j<5; j++)
+				row.add(generator.nextInt(50));
+			arr.add(row);
+		}
+		List<Integer> nodes = new ArrayList<>();
+		for (int node=49; node>=0; node--)
+			nodes.add(node);
+		Map<Integer, Integer> nodeToIndex = new HashMap<>();
+		for (int j=0; j<nodes.size(); j++)
+			nodeToIndex.put(nodes.get(j), j);
+		for (boolean oncePerRow: new boolean[]{false, true})
+		{
+			int[] expected = new int[nodes.size()];
+			for (List<Integer> row: arr)
+				for (int j=0; j<nodes.size(); j++)
+					if (row.contains(nodes.get(j)))
+						expected[j] += oncePerRow ? 1 : Collections.frequency(row, nodes.get(j));
+			for (int numberOfBlocks: new int[]{1, 3, 8})
+				assert Arrays.equals(commonMethods.countNodesInRows(arr, nodeToIndex, nodes.size(), null,
+																	oncePerRow, numberOfBlocks), expected);
+		}
+		
+		// ties are broken by the first node in nodes
+		List<List<Integer>> tied = Arrays.asList(Arrays.asList(1, 2), Arrays.asList(2, 3), Arrays.asList(3, 1));
+		assert commonMethods.findMaxRowFrequencyNode(tied, Arrays.asList(3, 1, 2))==3;
+		assert commonMethods.findMaxRowFrequencyNode(tied, Arrays.asList(2, 3, 1))==2;
+	}
+	
 	@Test
 	void calculateDelta() throws Exception
 	{
@@ -277,4 +316,25 @@ class commonMethodsTest
 		assert table.get("n21")==2;
 		assert table.get("n22")==1;
 	}
+	
+	/**
+	 * Test for {@link commonMethods#writeToCSV(String, boolean, String[], List)}:
+	 * the header is written when the file is overwritten, and not when rows are appended.
+	 *
+	 * @throws IOException thrown if error in input-output operation.
+	 */
+	@Test
+	void writeToCSV() throws IOException
+	{
+		Path file = Files.createTempDirectory("commonMethodsTest").resolve("out.csv");
+		String filename = file.toString();
+		String[] header = {"a", "b"};
+		commonMethods.writeToCSV(filename, true, header, Collections.singletonList(new String[]{"1", "2"}));
+		commonMethods.writeToCSV(filename, true, header, Collections.singletonList(new String[]{"3", "4"}));
+		List<String> lines = Files.readAllLines(file);
+		assert lines.equals(Arrays.asList("\"a\",\"b\"", "\"1\",\"2\"", "\"3\",\"4\""));
+		commonMethods.writeToCSV(filename, false, header, Collections.singletonList(new String[]{"5", "6"}));
+		lines = Files.readAllLines(file);
+		assert lines.equals(Arrays.asList("\"a\",\"b\"", "\"5\",\"6\""));
+	}
 }
\ No newline at end of file
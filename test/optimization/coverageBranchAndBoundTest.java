@@ -0,0 +1,75 @@
+package optimization;
+
+import dataTypes.coverageTestUtils;
+import dataTypes.detectionMatrix;
+import dataTypes.solverOutput;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+/**
+ * Unit test for {@code coverageBranchAndBound}.
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+class coverageBranchAndBoundTest
+{
+	/**
+	 * Test for {@link coverageBranchAndBound#solve(int, double)}:
+	 * with no gap, the objective value is the optimal objective value found by enumeration.
+	 *
+	 * @throws Exception thrown if the detection matrix cannot be built, or if the branch-and-bound fails.
+	 */
+	@Test
+	void solve() throws Exception
+	{
+		Random generator = new Random(2020);
+		int n = 14;
+		detectionMatrix matrix = coverageTestUtils.randomMatrix(generator, n, 60, 0.15);
+		for (int k=1; k<=4; k++)
+		{
+			double optimalValue = coverageTestUtils.optimalCoveredWeight(matrix, k);
+			for (int threads: new int[]{1, 4})
+			{
+				coverageBranchAndBound tree = new coverageBranchAndBound(matrix, k);
+				tree.setMIPGap(0);
+				solverOutput output = tree.solve(threads, 60);
+				assert output.getSolverMessage().startsWith("Optimal");
+				assert Math.abs(output.getObjectiveValue()-optimalValue)<1e-9;
+				assert output.getBestUB()<=optimalValue+1e-6;
+				assert output.getHoneypots().size()==k;
+				int[] columns = output.getHoneypots().stream().mapToInt(matrix::getColumn).toArray();
+				assert Math.abs(matrix.getCoveredWeight(columns)-optimalValue)<1e-9;
+			}
+		}
+	}
+	
+	/**
+	 * Test for {@link coverageBranchAndBound#solve(int, double)} when the bound of the root node is the optimal
+	 * objective value, which is tighter than the first Lagrangian bound of the root node:
+	 * nodes are fixed by the Lagrangian bound of their costs, not by the tighter bound,
+	 * so the optimal objective value is still found.
+	 *
+	 * @throws Exception thrown if the detection matrix cannot be built, or if the branch-and-bound fails.
+	 */
+	@Test
+	void solveWithTightInitialBound() throws Exception
+	{
+		Random generator = new Random(2021);
+		for (int instance=0; instance<40; instance++)
+		{
+			int n = 12;
+			detectionMatrix matrix = coverageTestUtils.randomMatrix(generator, n, 40, 0.2);
+			for (int k=2; k<=4; k++)
+			{
+				double optimalValue = coverageTestUtils.optimalCoveredWeight(matrix, k);
+				coverageBranchAndBound tree = new coverageBranchAndBound(matrix, k);
+				tree.setMIPGap(0);
+				tree.setInitialBound(optimalValue);
+				tree.rootIterations = 1;
+				tree.nodeIterations = 1;
+				solverOutput output = tree.solve(1, 60);
+				assert Math.abs(output.getObjectiveValue()-optimalValue)<1e-9;
+			}
+		}
+	}
+}
\ No newline at end of file
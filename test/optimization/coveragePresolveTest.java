@@ -0,0 +1,57 @@
+package optimization;
+
+import dataTypes.detectionMatrix;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+/**
+ * Unit test for {@code coveragePresolve}.
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+class coveragePresolveTest
+{
+	/**
+	 * Test for {@link coveragePresolve#coveragePresolve(detectionMatrix)}.
+	 *
+	 * @throws Exception thrown if the detection matrix cannot be built.
+	 */
+	@Test
+	void presolve() throws Exception
+	{
+		// node 0 detects nothing; node 5 detects a subset of what node 1 detects;
+		// nodes 2 and 4 detect the same samples; samples 0 and 3 are identical after node 5 is removed
+		List<Integer> nodes = Arrays.asList(0, 1, 2, 3, 4, 5);
+		List<List<Integer>> samplePaths = Arrays.asList(
+				Arrays.asList(1, 3),
+				Arrays.asList(2, 4),
+				Arrays.asList(5, 1),
+				Arrays.asList(3, 1, 5),
+				Arrays.asList(3),
+				Arrays.asList(0));
+		List<List<Integer>> virtualDetections = Arrays.asList(
+				Arrays.asList(1, 1),
+				Arrays.asList(1, 1),
+				Arrays.asList(1, 1),
+				Arrays.asList(1, 1, 1),
+				Arrays.asList(1),
+				Arrays.asList(0));
+		detectionMatrix matrix = new detectionMatrix(nodes, samplePaths, virtualDetections);
+		coveragePresolve presolve = new coveragePresolve(matrix);
+		detectionMatrix reduced = presolve.getReducedMatrix();
+		
+		assert presolve.getRemovedLabels().equals(Arrays.asList(0, 4, 5));
+		assert reduced.getNumberOfColumns()==3;
+		assert (reduced.getLabel(0)==1) && (reduced.getLabel(1)==2) && (reduced.getLabel(2)==3);
+		// rows: {1, 3} (weight 2/6), {2}, {1}, {3}
+		assert reduced.getNumberOfRows()==4;
+		assert Math.abs(reduced.getRowWeight(0)-2.0/6)<1e-12;
+		double totalWeight = 0;
+		for (int i=0; i<reduced.getNumberOfRows(); i++)
+			totalWeight += reduced.getRowWeight(i);
+		assert Math.abs(totalWeight-5.0/6)<1e-12;
+		assert reduced.getNumberOfNonzeros()==5;
+		
+		assert presolve.completeHoneypots(Arrays.asList(1, 2, 3), 5).equals(Arrays.asList(1, 2, 3, 0, 4));
+	}
+}
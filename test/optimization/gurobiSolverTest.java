@@ -0,0 +1,76 @@
+package optimization;
+
+import com.opencsv.CSVReader;
+import dataTypes.parameters;
+import dataTypes.solverOutput;
+import org.junit.jupiter.api.Test;
+
+import java.io.FileReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Unit test for {@code gurobiSolver}; only the methods that do not need a Gurobi license are tested.
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+class gurobiSolverTest
+{
+	/**
+	 * Test for {@link gurobiSolver#writeProgressToCSV(String, boolean)} with progress recorded by driving
+	 * {@link progressCallback#record(String, double, double, double, double)} directly:
+	 * one row per recorded point, in the order of the header, and none for a solve whose progress was not recorded.
+	 *
+	 * @throws Exception thrown if the csv file cannot be written or read.
+	 */
+	@Test
+	void writeProgressToCSV() throws Exception
+	{
+		parameters recorded = new parameters("RA1PC", "EUemailcomm_6-core", 3, 1000, 0.05, 1, 10, 0);
+		parameters notRecorded = new parameters("RA1PC", "EUemailcomm_6-core", 3, 1000, 0.05, 1, 20, 0);
+		Map<String, String> options = new HashMap<>();
+		options.put("threads", "4");
+		progressCallback callback = new progressCallback(5);
+		callback.record("MIPSOL", 0.5, 0.4, 0.6, 10);
+		callback.record("MIP", 6, 0.4, 0.5, 200);
+		callback.record("final", 7, 0.5, 0.5, 300);
+		solverOutput output = new solverOutput(0.5, 0.5, Arrays.asList(1, 2), 7, options, "Optimal");
+		output.setProgress(callback.progress);
+		Map<parameters, solverOutput> outputMap = new HashMap<>();
+		outputMap.put(recorded, output);
+		outputMap.put(notRecorded, new solverOutput(0.6, 0.6, Arrays.asList(1, 2, 3), 1, options, "Optimal"));
+		gurobiSolver solver = new gurobiSolver(outputMap);
+		
+		Path file = Files.createTempDirectory("gurobiSolverTest").resolve("progress.csv");
+		solver.writeProgressToCSV(file.toString(), false);
+		List<String[]> lines;
+		try (CSVReader reader = new CSVReader(new FileReader(file.toFile())))
+		{
+			lines = reader.readAll();
+		}
+		assert lines.size()==4;
+		List<String> header = Arrays.asList(lines.get(0));
+		assert header.size()==16;
+		String[] events = {"MIPSOL", "MIP", "final"};
+		for (int i=1; i<=3; i++)
+		{
+			String[] line = lines.get(i);
+			assert line.length==16;
+			assert line[header.indexOf("Model")].equals("RA1PC");
+			assert line[header.indexOf("no. of honeypots")].equals("10");
+			assert line[header.indexOf("solver")].equals("gurobi");
+			assert line[header.indexOf("threads")].equals("4");
+			assert line[header.indexOf("event")].equals(events[i-1]);
+			assert Double.parseDouble(line[header.indexOf("time (s)")])==callback.progress.getTime(i-1);
+			assert Double.parseDouble(line[header.indexOf("objective value")])
+					==callback.progress.getObjectiveValue(i-1);
+			assert Double.parseDouble(line[header.indexOf("bound")])==callback.progress.getBound(i-1);
+			assert Double.parseDouble(line[header.indexOf("gap")])==callback.progress.getGap(i-1);
+			assert Double.parseDouble(line[header.indexOf("node count")])==callback.progress.getNodeCount(i-1);
+		}
+		
+		// appending adds rows but not the header
+		solver.writeProgressToCSV(file.toString(), true);
+		assert Files.readAllLines(file).size()==7;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,97 @@
+package optimization;
+
+import dataTypes.coverageTestUtils;
+import dataTypes.detectionMatrix;
+import dataTypes.solverOutput;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+/**
+ * Unit test for {@code lagrangianBound}.
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+class lagrangianBoundTest
+{
+	/**
+	 * Test for {@link lagrangianBound#solve(int)}:
+	 * the upper bound is at least the optimal objective value found by enumeration, which is at least the lower
+	 * bound; the honeypots cover the weight of the lower bound; and the bounds do not depend on the number of
+	 * threads.
+	 *
+	 * @throws Exception thrown if the detection matrix cannot be built, or if the bound cannot be computed.
+	 */
+	@Test
+	void solve() throws Exception
+	{
+		Random generator = new Random(2023);
+		for (int instance=0; instance<20; instance++)
+		{
+			int n = 12;
+			detectionMatrix matrix = coverageTestUtils.randomMatrix(generator, n, 50, 0.1+0.02*(instance%5));
+			for (int k: new int[]{1, 2, 3, 5, n})
+			{
+				double optimalValue = coverageTestUtils.optimalCoveredWeight(matrix, k);
+				lagrangianBound bound = new lagrangianBound(matrix, 1);
+				bound.setMaxIterations(200);
+				solverOutput output = bound.solve(k);
+				assert output.getBestUB()>=optimalValue-1e-9;
+				assert optimalValue>=output.getObjectiveValue()-1e-9;
+				assert output.getHoneypots().size()==k;
+				int[] columns = output.getHoneypots().stream().mapToInt(matrix::getColumn).toArray();
+				assert Arrays.stream(columns).distinct().count()==k;
+				assert Math.abs(matrix.getCoveredWeight(columns)-output.getObjectiveValue())<1e-9;
+				
+				lagrangianBound parallel = new lagrangianBound(matrix, 3);
+				parallel.setMaxIterations(200);
+				solverOutput parallelOutput = parallel.solve(k);
+				assert parallelOutput.getBestUB()==output.getBestUB();
+				assert parallelOutput.getObjectiveValue()==output.getObjectiveValue();
+				assert parallelOutput.getHoneypots().equals(output.getHoneypots());
+			}
+		}
+	}
+	
+	/**
+	 * Test for {@link lagrangianBound#selectLargest(int[], double[], int)}:
+	 * the first {@code k} indices are those of a full sort (larger value first, smaller index first for ties),
+	 * including for values with many ties, {@code k=0} and {@code k=n}.
+	 */
+	@Test
+	void selectLargest()
+	{
+		Random generator = new Random(2024);
+		for (int instance=0; instance<200; instance++)
+		{
+			int n = 1+generator.nextInt(40);
+			int distinctValues = 1+generator.nextInt(n);
+			double[] values = new double[n];
+			for (int j=0; j<n; j++)
+				values[j] = generator.nextInt(distinctValues);
+			Integer[] sorted = new Integer[n];
+			for (int j=0; j<n; j++)
+				sorted[j] = j;
+			Arrays.sort(sorted, (a, b) -> (values[a]!=values[b]) ? Double.compare(values[b], values[a])
+																	: Integer.compare(a, b));
+			for (int k=0; k<=n; k++)
+			{
+				int[] order = new int[n];
+				for (int j=0; j<n; j++)
+					order[j] = n-1-j;
+				lagrangianBound.selectLargest(order, values, k);
+				int[] selected = Arrays.copyOf(order, k);
+				Arrays.sort(selected);
+				int[] expected = new int[k];
+				for (int t=0; t<k; t++)
+					expected[t] = sorted[t];
+				Arrays.sort(expected);
+				assert Arrays.equals(selected, expected);
+				// order is still a permutation
+				int[] all = order.clone();
+				Arrays.sort(all);
+				for (int j=0; j<n; j++)
+					assert all[j]==j;
+			}
+		}
+	}
+}
\ No newline at end of file
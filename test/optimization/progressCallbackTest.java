@@ -0,0 +1,45 @@
+package optimization;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test for {@code progressCallback}.
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+class progressCallbackTest
+{
+	/**
+	 * Test for {@link progressCallback#shouldRecord(double, double, double)} and
+	 * {@link progressCallback#record(String, double, double, double, double)}, driven directly (without a solve):
+	 * a MIP callback with no change is recorded only once {@code interval} seconds passed since the last point,
+	 * and a change of the incumbent or of the bound is always recorded.
+	 */
+	@Test
+	void throttling()
+	{
+		progressCallback callback = new progressCallback(5);
+		assert callback.shouldRecord(0, 1e100, 1);
+		callback.record("MIP", 0, 1e100, 1, 0);
+		
+		// no change, within the interval
+		assert !callback.shouldRecord(0.1, 1e100, 1);
+		assert !callback.shouldRecord(4.9, 1e100, 1);
+		// no change, after the interval
+		assert callback.shouldRecord(5, 1e100, 1);
+		// new bound or incumbent, within the interval
+		assert callback.shouldRecord(0.2, 1e100, 0.9);
+		assert callback.shouldRecord(0.2, 0.3, 1);
+		
+		// a MIPSOL point resets the time and the last values
+		callback.record("MIPSOL", 3, 0.3, 0.9, 10);
+		assert !callback.shouldRecord(7.9, 0.3, 0.9);
+		assert callback.shouldRecord(8, 0.3, 0.9);
+		
+		assert callback.progress.size()==2;
+		assert callback.progress.getEvent(1).equals("MIPSOL");
+		assert callback.progress.getTime(1)==3;
+		assert callback.progress.getObjectiveValue(1)==0.3;
+		assert callback.progress.getBound(1)==0.9;
+		assert callback.progress.getNodeCount(1)==10;
+	}
+}
\ No newline at end of file
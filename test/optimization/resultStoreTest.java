@@ -0,0 +1,80 @@
+package optimization;
+
+import dataTypes.parameters;
+import dataTypes.solverOutput;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Unit test for {@code resultStore}.
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+class resultStoreTest
+{
+	/**
+	 * Test for {@link resultStore#append(String, parameters, solverOutput, String)} and reopening the store:
+	 * the latest result is kept, a partly written record is discarded, and results survive a csv export and import.
+	 *
+	 * @throws Exception thrown if the store cannot be read or written.
+	 */
+	@Test
+	void appendAndReopen() throws Exception
+	{
+		Path folder = Files.createTempDirectory("resultStoreTest");
+		String filename = folder.resolve("results.bin").toString();
+		parameters param1 = new parameters("RA1PC", "EUemailcomm_6-core", 3, 1000, 0.05, 1, 10, 0);
+		parameters param2 = new parameters("RA1PC", "EUemailcomm_6-core", 3, 1000, 0.05, 1, 20, 0);
+		Map<String, String> options = new HashMap<>();
+		options.put("MIPGap", "0.01");
+		options.put("threads", "4");
+		solverOutput older = new solverOutput(0.5, 0.6, Arrays.asList(1, 2), 3.5, options, "Time Limit");
+		solverOutput newer = new solverOutput(0.55, 0.55, Arrays.asList(1, 3), 1.5, options,
+												"Optimal: Model was solved to optimality (subject to tolerances).");
+		solverOutput other = new solverOutput(0.7, 0.7, Arrays.asList(4, 5, 6), 2, options, "Optimal");
+		try (resultStore store = new resultStore(filename))
+		{
+			store.append("gurobi", param1, newer, "2020-10-02T00:00:00Z");
+			store.append("gurobi", param1, older, "2020-10-01T00:00:00Z");
+			store.append("gurobi", param2, other, "2020-10-01T00:00:00Z");
+		}
+		// a record that was only partly written
+		try (FileOutputStream out = new FileOutputStream(filename, true))
+		{
+			out.write(new byte[]{0, 0, 1, 0, 7, 7, 7});
+		}
+		
+		String csvFilename = folder.resolve("results.csv").toString();
+		try (resultStore store = new resultStore(filename))
+		{
+			assert store.size()==2;
+			assert store.contains(param1) && store.contains(param2);
+			assert store.get(param1).equals(newer);
+			assert store.getUTC(param1).equals("2020-10-02T00:00:00Z");
+			assert store.get(param2).equals(other);
+			assert !store.contains(new parameters("RA1PC", "EUemailcomm_6-core", 3, 1000, 0.05, 1, 30, 0));
+			// the partly written record was removed, so appending still works
+			store.append("gurobi", param2, newer, "2020-10-03T00:00:00Z");
+			store.compact();
+			store.exportToCSV(csvFilename);
+		}
+		assert new File(filename).length()>0;
+		
+		String importedFilename = folder.resolve("imported.bin").toString();
+		try (resultStore store = new resultStore(importedFilename))
+		{
+			assert store.importFromCSVFile(csvFilename)==2;
+			assert store.get(param1).equals(newer);
+			assert store.get(param2).equals(newer);
+		}
+		
+		new File(filename).delete();
+		new File(csvFilename).delete();
+		new File(importedFilename).delete();
+		folder.toFile().delete();
+	}
+}
@@ -0,0 +1,63 @@
+package simulation;
+
+import network.graph;
+import network.indexedGraph;
+import org.jgrapht.Graphs;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+/**
+ * Unit test for {@code RA1PCKernel}.
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+class RA1PCKernelTest
+{
+	/**
+	 * Test for {@link RA1PCKernel#simulate(int, int, SplittableRandom[])}:
+	 * sample paths should be identical to those of the (boxed) reference implementation
+	 * that iterates over a {@code TreeSet} of infected nodes.
+	 *
+	 * @throws Exception thrown if the network cannot be read from the file.
+	 */
+	@Test
+	void simulate() throws Exception
+	{
+		graph network = new graph("EUemailcomm_6-core");
+		network.buildGraphFromFile("./test/resources/networks/EUemailcomm_6-core.txt", ",");
+		indexedGraph indexedNetwork = new indexedGraph(network);
+		List<Integer> vertices = new ArrayList<>(network.getVertexSet());
+		
+		for (double p: new double[]{0.25, 1})
+		{
+			RA1PCKernel kernel = new RA1PCKernel(indexedNetwork, p);
+			SplittableRandom initialLocationGen = new SplittableRandom(2507);
+			SplittableRandom[] streams = {new SplittableRandom(2101), new SplittableRandom(3567)};
+			SplittableRandom neighborGen = new SplittableRandom(2101);
+			SplittableRandom transmissableGen = new SplittableRandom(3567);
+			for (int x=0; x<200; x++)
+			{
+				int initialLocation = vertices.get(initialLocationGen.nextInt(vertices.size()));
+				int time0 = 1+x%6;
+				kernel.simulate(indexedNetwork.getIndex(initialLocation), time0, streams);
+				
+				SortedSet<Integer> expected = new TreeSet<>();
+				expected.add(initialLocation);
+				for (int t=1; t<=time0; t++)
+				{
+					List<Integer> tmpInfected = new ArrayList<>();
+					for (int node: expected)
+					{
+						List<Integer> currentNeighbors = Graphs.neighborListOf(network.getG(), node);
+						int target = currentNeighbors.get(neighborGen.nextInt(currentNeighbors.size()));
+						if (transmissableGen.nextDouble()<=p)
+							tmpInfected.add(target);
+					}
+					expected.addAll(tmpInfected);
+				}
+				assert kernel.getSamplePath().equals(new ArrayList<>(expected));
+				assert kernel.getNumberOfInfected()==expected.size();
+			}
+		}
+	}
+}
@@ -0,0 +1,68 @@
+package simulation;
+
+import network.graph;
+import network.indexedGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+/**
+ * Unit test for {@code RAEPCReachableSetKernel}.
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+class RAEPCReachableSetKernelTest
+{
+	/**
+	 * Test for {@link RAEPCReachableSetKernel#simulate(int, int, SplittableRandom[])}:
+	 * for {@code p=1}, sample paths should be identical to those of {@link RAEPCKernel};
+	 * for {@code p<1}, the frequency with which each node is infected should be close to that of
+	 * {@link RAEPCKernel}.
+	 *
+	 * @throws Exception thrown if the network cannot be read from the file.
+	 */
+	@Test
+	void simulate() throws Exception
+	{
+		graph network = new graph("EUemailcomm_6-core");
+		network.buildGraphFromFile("./test/resources/networks/EUemailcomm_6-core.txt", ",");
+		indexedGraph indexedNetwork = new indexedGraph(network);
+		int n = indexedNetwork.getNumberOfNodes();
+		
+		RAEPCKernel kernel = new RAEPCKernel(indexedNetwork, 1);
+		RAEPCReachableSetKernel reachableSetKernel = new RAEPCReachableSetKernel(indexedNetwork, 1);
+		SplittableRandom initialLocationGen = new SplittableRandom(2507);
+		for (int x=0; x<50; x++)
+		{
+			int initialNode = initialLocationGen.nextInt(n);
+			int time0 = 1+x%3;
+			kernel.simulate(initialNode, time0, new SplittableRandom[]{new SplittableRandom(x)});
+			reachableSetKernel.simulate(initialNode, time0, new SplittableRandom[]{new SplittableRandom(x)});
+			assert reachableSetKernel.getSamplePath().equals(kernel.getSamplePath());
+		}
+		
+		double p = 0.1;
+		int time0 = 3;
+		int runs = 4000;
+		kernel = new RAEPCKernel(indexedNetwork, p);
+		reachableSetKernel = new RAEPCReachableSetKernel(indexedNetwork, p);
+		int[] frequency = new int[n];
+		int[] reachableSetFrequency = new int[n];
+		SplittableRandom generator = new SplittableRandom(2101);
+		for (int x=0; x<runs; x++)
+		{
+			kernel.simulate(0, time0, new SplittableRandom[]{generator.split()});
+			for (int label: kernel.getSamplePath())
+				frequency[indexedNetwork.getIndex(label)]++;
+			reachableSetKernel.simulate(0, time0, new SplittableRandom[]{generator.split()});
+			for (int label: reachableSetKernel.getSamplePath())
+				reachableSetFrequency[indexedNetwork.getIndex(label)]++;
+		}
+		assert frequency[0]==runs && reachableSetFrequency[0]==runs;
+		for (int i=0; i<n; i++)
+		{
+			double average = (frequency[i]+reachableSetFrequency[i])/(2.0*runs);
+			double standardError = Math.sqrt(2*average*(1-average)/runs);
+			assert Math.abs(frequency[i]-reachableSetFrequency[i])/(1.0*runs)<=6*standardError+1e-9;
+		}
+	}
+}
\ No newline at end of file
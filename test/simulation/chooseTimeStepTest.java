@@ -0,0 +1,87 @@
+package simulation;
+
+import dataTypes.infectionTimeHistogram;
+import dataTypes.parameters;
+import network.graph;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Unit test for {@code chooseTimeStep}.
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+class chooseTimeStepTest
+{
+	/**
+	 * Test for {@link chooseTimeStep#doSimulationRuns(graph, List, int[])} with and without retained samples:
+	 * the histograms and means should be the same, and should match the retained infection times.
+	 *
+	 * @throws Exception thrown if the network cannot be read from the file, or if the simulation fails.
+	 */
+	@Test
+	void retainSamples() throws Exception
+	{
+		graph network = new graph("EUemailcomm_6-core");
+		network.buildGraphFromFile("./test/resources/networks/EUemailcomm_6-core.txt", ",");
+		List<parameters> params = Arrays.asList(
+				new parameters("TN1PC", "EUemailcomm_6-core", 0, 40, 0, 0.5, 0, 5),
+				new parameters("RA1PC", "EUemailcomm_6-core", 0, 40, 0, 0.5, 0, 5));
+		int[] seed = {2507, 2508, 2509};
+		
+		chooseTimeStep histogramsOnly = new chooseTimeStep(false);
+		histogramsOnly.doSimulationRuns(network, params, seed);
+		chooseTimeStep withSamples = new chooseTimeStep(true);
+		withSamples.doSimulationRuns(network, params, seed);
+		
+		assert histogramsOnly.getMapParametersToSimulationRuns().isEmpty();
+		assert histogramsOnly.getMapParametersToTimeForInfection().isEmpty();
+		assert histogramsOnly.getMapParametersToMeanInfectionTime()
+				.equals(withSamples.getMapParametersToMeanInfectionTime());
+		for (parameters param: params)
+		{
+			infectionTimeHistogram expected = withSamples.getMapParametersToInfectionTimeHistogram().get(param);
+			infectionTimeHistogram actual = histogramsOnly.getMapParametersToInfectionTimeHistogram().get(param);
+			List<Integer> times = withSamples.getMapParametersToTimeForInfection().get(param);
+			assert times.size()==40;
+			assert withSamples.getMapParametersToSimulationRuns().get(param).size()==40;
+			assert actual.toString().equals(expected.toString());
+			for (int t=0; t<=Collections.max(times); t++)
+				assert actual.getCount(t)==Collections.frequency(times, t);
+		}
+	}
+	
+	/**
+	 * Test for {@link chooseTimeStep#writeToCSV(String, boolean)} on an instance built from maps:
+	 * there should be a row for every parameter, and appending should not repeat the header.
+	 *
+	 * @throws Exception thrown if the csv file cannot be written or read.
+	 */
+	@Test
+	void writeToCSVFromMaps() throws Exception
+	{
+		parameters param1 = new parameters("TN1PC", "EUemailcomm_6-core", 0, 3, 0, 0.5, 0, 5);
+		parameters param2 = new parameters("RA1PC", "EUemailcomm_6-core", 0, 2, 0, 0.5, 0, 5);
+		Map<parameters, List<List<Integer>>> simulationRuns = new HashMap<>();
+		Map<parameters, List<Integer>> timeForInfection = new HashMap<>();
+		Map<parameters, Double> meanInfectionTime = new HashMap<>();
+		timeForInfection.put(param1, Arrays.asList(4, 6, 11));
+		meanInfectionTime.put(param1, 7.0);
+		timeForInfection.put(param2, Arrays.asList(3, 5));
+		meanInfectionTime.put(param2, 4.0);
+		chooseTimeStep results = new chooseTimeStep(simulationRuns, timeForInfection, meanInfectionTime);
+		assert results.getMapParametersToInfectionTimeHistogram().get(param1).getQuantile(0.5)==6;
+		assert results.getMapParametersToInfectionTimeHistogram().get(param2).getQuantile(1)==5;
+		
+		Path file = Files.createTempDirectory("chooseTimeStepTest").resolve("timeStep.csv");
+		results.writeToCSV(file.toString(), false);
+		List<String> lines = Files.readAllLines(file);
+		assert lines.size()==3;
+		assert lines.get(0).startsWith("\"Model\"");
+		assert lines.stream().anyMatch(line -> line.startsWith("\"TN1PC\"") && line.contains("\"7.0\""));
+		results.writeToCSV(file.toString(), true);
+		assert Files.readAllLines(file).size()==5;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,141 @@
+package simulation;
+
+import network.graph;
+import network.indexedGraph;
+import org.javatuples.Pair;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+/**
+ * Unit test for {@code eventDrivenSimulator}.
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+class eventDrivenSimulatorTest
+{
+	/**
+	 * Test for {@link eventDrivenSimulator#simulate(int, int, SplittableRandom[])} at the time horizon:
+	 * with delays of 1, TN11 visits {@code t0+1} nodes, and RAEP with {@code p=1} infects exactly the nodes
+	 * within distance {@code t0} of the initial node.
+	 *
+	 * @throws Exception thrown if the network cannot be read from the file.
+	 */
+	@Test
+	void horizonCutoff() throws Exception
+	{
+		indexedGraph indexedNetwork = readNetwork();
+		int n = indexedNetwork.getNumberOfNodes();
+		transmissionDelay unitDelay = transmissionDelay.of("C", random -> 1.0);
+		eventDrivenSimulator tn11 = new eventDrivenSimulator(indexedNetwork, "TN11", 1, unitDelay);
+		eventDrivenSimulator raep = new eventDrivenSimulator(indexedNetwork, "RAEP", 1, unitDelay);
+		SplittableRandom generator = new SplittableRandom(2507);
+		for (int x=0; x<20; x++)
+		{
+			int initialNode = generator.nextInt(n);
+			int t0 = x%4;
+			tn11.simulate(initialNode, t0, new SplittableRandom[]{generator.split(), generator.split()});
+			assert tn11.getNumberOfInfected()==t0+1;
+			
+			raep.simulate(initialNode, t0, new SplittableRandom[]{generator.split(), generator.split()});
+			int[] distance = new int[n];
+			Arrays.fill(distance, -1);
+			distance[initialNode] = 0;
+			Deque<Integer> queue = new ArrayDeque<>(Collections.singletonList(initialNode));
+			Set<Integer> expected = new TreeSet<>();
+			while (!queue.isEmpty())
+			{
+				int node = queue.removeFirst();
+				expected.add(indexedNetwork.getLabel(node));
+				if (distance[node]==t0)
+					continue;
+				for (int j=0; j<indexedNetwork.getDegree(node); j++)
+				{
+					int neighbor = indexedNetwork.getNeighbor(node, j);
+					if (distance[neighbor]<0)
+					{
+						distance[neighbor] = distance[node]+1;
+						queue.addLast(neighbor);
+					}
+				}
+			}
+			assert raep.getSamplePath().equals(new ArrayList<>(expected));
+		}
+	}
+	
+	/**
+	 * Test for {@link eventDrivenSimulator#simulate(int, int, SplittableRandom[])} for RAEP with delays of 1:
+	 * a node keeps sending copies to its neighbors, so the frequency with which each node is infected should be
+	 * close to that of {@link RAEPCKernel}.
+	 *
+	 * @throws Exception thrown if the network cannot be read from the file.
+	 */
+	@Test
+	void simulateRAEP() throws Exception
+	{
+		indexedGraph indexedNetwork = readNetwork();
+		int n = indexedNetwork.getNumberOfNodes();
+		double p = 0.2;
+		int time0 = 3;
+		int runs = 4000;
+		RAEPCKernel kernel = new RAEPCKernel(indexedNetwork, p);
+		eventDrivenSimulator simulator = new eventDrivenSimulator(indexedNetwork, "RAEP", p,
+																	transmissionDelay.of("C", random -> 1.0));
+		int[] frequency = new int[n];
+		int[] eventDrivenFrequency = new int[n];
+		SplittableRandom generator = new SplittableRandom(2101);
+		for (int x=0; x<runs; x++)
+		{
+			kernel.simulate(0, time0, new SplittableRandom[]{generator.split()});
+			for (int label: kernel.getSamplePath())
+				frequency[indexedNetwork.getIndex(label)]++;
+			simulator.simulate(0, time0, new SplittableRandom[]{generator.split(), generator.split()});
+			for (int label: simulator.getSamplePath())
+				eventDrivenFrequency[indexedNetwork.getIndex(label)]++;
+		}
+		for (int i=0; i<n; i++)
+		{
+			double average = (frequency[i]+eventDrivenFrequency[i])/(2.0*runs);
+			double standardError = Math.sqrt(2*average*(1-average)/runs);
+			assert Math.abs(frequency[i]-eventDrivenFrequency[i])/(1.0*runs)<=6*standardError+1e-9;
+		}
+	}
+	
+	/**
+	 * Test for {@link simulationRuns#simulateRuns(graph, spreadModel, List, double, long, int)} with
+	 * continuous-time models: runs with the same seed give the same results, whatever the number of threads.
+	 *
+	 * @throws Exception thrown if the network cannot be read from the file, or if the simulation fails.
+	 */
+	@Test
+	void determinism() throws Exception
+	{
+		graph network = new graph("EUemailcomm_6-core");
+		network.buildGraphFromFile("./test/resources/networks/EUemailcomm_6-core.txt", ",");
+		List<Pair<Integer, Integer>> t0_runs = Collections.singletonList(new Pair<>(3, 1500));
+		for (String modelName: new String[]{"TN11E", "RA1PE", "RAEPE"})
+		{
+			spreadModel model = spreadModel.of(modelName, 0.3);
+			simulationRuns expected = new simulationRuns();
+			expected.simulateRuns(network, model, t0_runs, 0.1, 2507, 1);
+			simulationRuns parallel = new simulationRuns();
+			parallel.simulateRuns(network, model, t0_runs, 0.1, 2507, 3);
+			assert parallel.getMapModelNetworkT0RunsFalseNegativeToSimulationRuns()
+					.equals(expected.getMapModelNetworkT0RunsFalseNegativeToSimulationRuns());
+			assert parallel.getMapModelNetworkT0RunsFalseNegativeToVirtualDetections()
+					.equals(expected.getMapModelNetworkT0RunsFalseNegativeToVirtualDetections());
+		}
+	}
+	
+	/**
+	 * Reads the network used by the tests.
+	 *
+	 * @return the network as an instance of {@code indexedGraph}.
+	 * @throws Exception thrown if the network cannot be read from the file.
+	 */
+	private static indexedGraph readNetwork() throws Exception
+	{
+		graph network = new graph("EUemailcomm_6-core");
+		network.buildGraphFromFile("./test/resources/networks/EUemailcomm_6-core.txt", ",");
+		return new indexedGraph(network);
+	}
+}
\ No newline at end of file
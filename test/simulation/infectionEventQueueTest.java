@@ -0,0 +1,60 @@
+package simulation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+/**
+ * Unit test for {@code infectionEventQueue}.
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+class infectionEventQueueTest
+{
+	/**
+	 * Test for {@link infectionEventQueue#add(double, int)} and {@link infectionEventQueue#removeMin()}:
+	 * events (more than the initial capacity, with ties) are removed in nondecreasing order of time,
+	 * each with its own node, and the heap is empty after {@link infectionEventQueue#clear()}.
+	 */
+	@Test
+	void heapOrder()
+	{
+		Random generator = new Random(2022);
+		infectionEventQueue events = new infectionEventQueue(4);
+		for (int round=0; round<2; round++)
+		{
+			int size = 200;
+			double[] times = new double[size];
+			for (int node=0; node<size; node++)
+			{
+				times[node] = generator.nextInt(50)/10.0;
+				events.add(times[node], node);
+			}
+			assert events.size()==size;
+			double previousTime = Double.NEGATIVE_INFINITY;
+			boolean[] removed = new boolean[size];
+			for (int t=0; t<size/2; t++)
+			{
+				double time = events.peekTime();
+				int node = events.peekNode();
+				events.removeMin();
+				assert (time>=previousTime) && (time==times[node]) && !removed[node];
+				removed[node] = true;
+				previousTime = time;
+			}
+			for (int node=0; node<size; node++)
+				if (!removed[node])
+					assert times[node]>=previousTime;
+			events.clear();
+			assert events.isEmpty();
+		}
+		try
+		{
+			events.removeMin();
+			assert false;
+		}
+		catch (NoSuchElementException e)
+		{
+			assert events.size()==0;
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,86 @@
+package simulation;
+
+import network.graph;
+import org.javatuples.Pair;
+import org.javatuples.Sextet;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Unit test for {@code simulationRuns}.
+ * @author Sudesh Agrawal (sudesh@utexas.edu).
+ */
+class simulationRunsTest
+{
+	/**
+	 * Test for {@link simulationRuns#simulateRuns(graph, spreadModel, List, double, long, int)}:
+	 * results should not depend on the number of threads, and resuming from a checkpoint
+	 * (including one with a partly written last record) should give the results of an uninterrupted run.
+	 *
+	 * @throws Exception thrown if the network cannot be read from the file, or if the simulation fails.
+	 */
+	@Test
+	void simulateRunsWithCheckpoint() throws Exception
+	{
+		graph network = new graph("EUemailcomm_6-core");
+		network.buildGraphFromFile("./test/resources/networks/EUemailcomm_6-core.txt", ",");
+		spreadModel model = spreadModel.of("RA1PC", 0.5);
+		int rep = 5*simulationRuns.REPLICATIONS_PER_CHUNK+17;
+		List<Pair<Integer, Integer>> t0_runs = Collections.singletonList(new Pair<>(4, rep));
+		double r = 0.1;
+		long seed = 2507;
+		Sextet<String, String, Integer, Integer, Double, Double> key =
+				new Sextet<>("RA1PC", "EUemailcomm_6-core", 4, rep, r, 0.5);
+		
+		simulationRuns expected = new simulationRuns();
+		expected.simulateRuns(network, model, t0_runs, r, seed, 1);
+		simulationRuns parallel = new simulationRuns();
+		parallel.simulateRuns(network, model, t0_runs, r, seed, 4);
+		assert parallel.getMapModelNetworkT0RunsFalseNegativeToSimulationRuns()
+				.equals(expected.getMapModelNetworkT0RunsFalseNegativeToSimulationRuns());
+		assert parallel.getMapModelNetworkT0RunsFalseNegativeToVirtualDetections()
+				.equals(expected.getMapModelNetworkT0RunsFalseNegativeToVirtualDetections());
+		
+		// checkpoint with chunks 0 and 3 completed, and a partly written record of chunk 1
+		Path folder = Files.createTempDirectory("simulationRunsTest");
+		String serialFilename = folder.resolve("runs.ser").toString();
+		List<List<Integer>> samplePathRuns = expected.getMapModelNetworkT0RunsFalseNegativeToSimulationRuns().get(key);
+		List<List<Integer>> virtualDetections =
+				expected.getMapModelNetworkT0RunsFalseNegativeToVirtualDetections().get(key);
+		simulationCheckpoint checkpoint = new simulationCheckpoint(serialFilename+".checkpoint", key, seed,
+													simulationRuns.REPLICATIONS_PER_CHUNK, 0);
+		checkpoint.restore(new ArrayList<>(Collections.nCopies(rep, null)),
+							new ArrayList<>(Collections.nCopies(rep, null)));
+		checkpoint.append(0, samplePathRuns, virtualDetections);
+		checkpoint.append(3, samplePathRuns, virtualDetections);
+		checkpoint.append(1, samplePathRuns, virtualDetections);
+		checkpoint.close();
+		File checkpointFile = new File(serialFilename+".checkpoint");
+		try (RandomAccessFile file = new RandomAccessFile(checkpointFile, "rw"))
+		{
+			file.setLength(file.length()-10);
+		}
+		
+		simulationRuns resumed = new simulationRuns();
+		resumed.enableCheckpoints(serialFilename, 0);
+		resumed.simulateRuns(network, model, t0_runs, r, seed, 2);
+		assert resumed.getMapModelNetworkT0RunsFalseNegativeToSimulationRuns()
+				.equals(expected.getMapModelNetworkT0RunsFalseNegativeToSimulationRuns());
+		assert resumed.getMapModelNetworkT0RunsFalseNegativeToVirtualDetections()
+				.equals(expected.getMapModelNetworkT0RunsFalseNegativeToVirtualDetections());
+		assert !checkpointFile.exists();
+		
+		// completed results are in the on-disk store
+		simulationRuns loaded = new simulationRuns();
+		loaded.loadRunsFromFile(serialFilename);
+		assert loaded.getMapModelNetworkT0RunsFalseNegativeToSimulationRuns()
+				.equals(expected.getMapModelNetworkT0RunsFalseNegativeToSimulationRuns());
+		new File(serialFilename).delete();
+		folder.toFile().delete();
+	}
+}